@@ -2,7 +2,7 @@ package com.vortexbird.movieticket;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main application class for Movie Ticket Booking API.
@@ -10,10 +10,11 @@ import org.springframework.scheduling.annotation.EnableAsync;
  * Entry point for the Spring Boot application. Initializes and runs the Movie
  * Ticket Booking System backend.
  *
- * @EnableAsync enables asynchronous method execution for email sending.
+ * @EnableScheduling runs background jobs such as the email outbox relay and
+ * expiring idempotency keys.
  */
 @SpringBootApplication
-@EnableAsync
+@EnableScheduling
 public class MovieTicketApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,76 @@
+package com.vortexbird.movieticket.config;
+
+import com.vortexbird.movieticket.service.mail.EmailExecutor;
+import com.vortexbird.movieticket.service.mail.HashedWheelTimer;
+import com.vortexbird.movieticket.service.mail.PooledJavaMailSender;
+import com.vortexbird.movieticket.service.mail.TokenBucket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * Mail Configuration for the application.
+ *
+ * Replaces Spring Boot's per-send SMTP connection with a pool of persistent
+ * connections, configured from the usual {@code spring.mail} properties, whose
+ * parallel sends run on a dedicated email executor.
+ */
+@Configuration
+@EnableConfigurationProperties(MailProperties.class)
+public class MailConfig {
+
+    /**
+     * Bounded, instrumented pool for email work; its load is served by the
+     * {@code emailexecutor} actuator endpoint.
+     */
+    @Bean
+    public EmailExecutor emailExecutor(@Value("${email.executor.core-size:4}") int coreSize,
+                                       @Value("${email.executor.max-size:8}") int maxSize,
+                                       @Value("${email.executor.queue-capacity:100}") int queueCapacity,
+                                       @Value("${email.executor.keep-alive:PT1M}") Duration keepAlive,
+                                       @Value("${email.executor.overflow:CALLER_RUNS}") EmailExecutor.Overflow overflow) {
+        return new EmailExecutor(coreSize, maxSize, queueCapacity, keepAlive, overflow);
+    }
+
+    /**
+     * Timing wheel that wakes the outbox relay when scheduled retries come
+     * due.
+     */
+    @Bean
+    public HashedWheelTimer emailRetryTimer(@Value("${email.outbox.retry-timer.tick:PT1S}") Duration tick,
+                                            @Value("${email.outbox.retry-timer.ticks-per-wheel:512}") int ticksPerWheel) {
+        return new HashedWheelTimer("email-retry-timer", tick, ticksPerWheel);
+    }
+
+    @Bean
+    public PooledJavaMailSender mailSender(MailProperties properties,
+                                           EmailExecutor emailExecutor,
+                                           @Value("${email.smtp.pool-size:4}") int poolSize,
+                                           @Value("${email.smtp.max-idle:PT1M}") Duration maxIdle,
+                                           @Value("${email.smtp.rate-limit:0}") double rateLimit,
+                                           @Value("${email.smtp.rate-burst:10}") int rateBurst) {
+        PooledJavaMailSender sender = new PooledJavaMailSender(poolSize, maxIdle, emailExecutor::execute);
+        if (rateLimit > 0) {
+            sender.setRateLimiter(new TokenBucket(rateLimit, rateBurst));
+        }
+        sender.setHost(properties.getHost());
+        if (properties.getPort() != null) {
+            sender.setPort(properties.getPort());
+        }
+        sender.setUsername(properties.getUsername());
+        sender.setPassword(properties.getPassword());
+        sender.setProtocol(properties.getProtocol());
+        if (properties.getDefaultEncoding() != null) {
+            sender.setDefaultEncoding(properties.getDefaultEncoding().name());
+        }
+        Properties javaMailProperties = new Properties();
+        javaMailProperties.putAll(properties.getProperties());
+        sender.setJavaMailProperties(javaMailProperties);
+        return sender;
+    }
+}
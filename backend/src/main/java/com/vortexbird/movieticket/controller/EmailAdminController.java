@@ -0,0 +1,38 @@
+package com.vortexbird.movieticket.controller;
+
+import com.vortexbird.movieticket.dto.RedriveDeadLettersDTO;
+import com.vortexbird.movieticket.dto.RedriveResultDTO;
+import com.vortexbird.movieticket.service.IEmailOutboxService;
+import com.vortexbird.movieticket.shared.response.ApiResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for email administration.
+ *
+ * Handles HTTP requests to re-drive emails that exhausted their attempts.
+ */
+@RestController
+@RequestMapping("/admin/emails")
+@RequiredArgsConstructor
+@Slf4j
+public class EmailAdminController {
+
+    private final IEmailOutboxService outboxService;
+
+    /**
+     * Queues dead-letter emails again, selected by id and/or type; with no
+     * body, every dead letter is re-driven.
+     */
+    @PostMapping("/dead-letters/redrive")
+    public ResponseEntity<ApiResponse<RedriveResultDTO>> redriveDeadLetters(
+            @Valid @RequestBody(required = false) RedriveDeadLettersDTO dto) {
+        RedriveDeadLettersDTO request = dto != null ? dto : new RedriveDeadLettersDTO();
+        log.info("POST /admin/emails/dead-letters/redrive - Re-driving dead letters of type: {}", request.getType());
+        RedriveResultDTO result = outboxService.redriveDeadLetters(request);
+        return ResponseEntity.ok(ApiResponse.success(result, "Dead letters re-driven successfully"));
+    }
+}
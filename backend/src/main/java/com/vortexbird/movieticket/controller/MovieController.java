@@ -1,19 +1,40 @@
 package com.vortexbird.movieticket.controller;
 
+import com.vortexbird.movieticket.dto.CatalogStatsDTO;
+import com.vortexbird.movieticket.dto.CursorPageDTO;
 import com.vortexbird.movieticket.dto.MovieDTO;
+import com.vortexbird.movieticket.dto.MovieFacetsDTO;
+import com.vortexbird.movieticket.dto.MovieImportResultDTO;
+import com.vortexbird.movieticket.dto.MovieSuggestionDTO;
+import com.vortexbird.movieticket.dto.MovieSummaryDTO;
+import com.vortexbird.movieticket.service.IMovieImportService;
 import com.vortexbird.movieticket.service.IMovieService;
 import com.vortexbird.movieticket.service.IStorageService;
+import com.vortexbird.movieticket.service.catalog.CatalogResponseCache;
+import com.vortexbird.movieticket.service.importer.MovieImportFormat;
 import com.vortexbird.movieticket.model.Movie;
 import com.vortexbird.movieticket.shared.response.ApiResponse;
+import com.vortexbird.movieticket.shared.response.PrerenderedResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
 /**
  * Implementation of Movie REST Controller.
@@ -29,9 +50,18 @@ public class MovieController {
 
     private final IMovieService movieService;
     private final IStorageService storageService;
+    private final CatalogResponseCache catalogResponses;
+    private final IMovieImportService movieImportService;
+    private final ThreadPoolTaskExecutor taskExecutor;
 
+    /**
+     * The image upload runs on the async S3 client and the movie is saved
+     * once it completes, so the request thread is released while S3 works.
+     * The save runs on the application task executor rather than on the SDK
+     * thread that completed the upload.
+     */
     @PostMapping(consumes = {"multipart/form-data"})
-    public ResponseEntity<ApiResponse<Movie>> createMovie(
+    public CompletableFuture<ResponseEntity<ApiResponse<Movie>>> createMovie(
             @RequestParam("title") String title,
             @RequestParam("description") String description,
             @RequestParam("genre") String genre,
@@ -42,52 +72,112 @@ public class MovieController {
         log.info("POST /movies - Creating movie: {}", title);
         
         try {
-            String imageUrl = null;
-            if (image != null && !image.isEmpty()) {
-                imageUrl = storageService.uploadFile(image);
-                log.info("Image uploaded to S3: {}", imageUrl);
-            }
-            
-            MovieDTO movieDTO = new MovieDTO();
-            movieDTO.setTitle(title);
-            movieDTO.setDescription(description);
-            movieDTO.setGenre(genre);
-            movieDTO.setDuration(duration);
-            movieDTO.setPrice(price);
-            movieDTO.setImageUrl(imageUrl);
-            
-            Movie createdMovie = movieService.createMovie(movieDTO);
-            return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(ApiResponse.success(createdMovie, "Movie created successfully"));
+            return uploadImage(image, null)
+                    .thenApplyAsync(imageUrl -> {
+                        MovieDTO movieDTO = movieDTO(title, description, genre, duration, price, imageUrl);
+                        Movie createdMovie = movieService.createMovie(movieDTO);
+                        return ResponseEntity.status(HttpStatus.CREATED)
+                                .body(ApiResponse.success(createdMovie, "Movie created successfully"));
+                    }, taskExecutor)
+                    .exceptionally(e -> failure(e, "Error creating movie", "Failed to create movie"));
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(failure(e, "Error creating movie", "Failed to create movie"));
+        }
+    }
+
+    /**
+     * Bulk import from a CSV or NDJSON body. The body is streamed, never
+     * buffered whole; rejected rows are listed in the result and do not stop
+     * the import. Images are given as URLs, nothing is uploaded.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ApiResponse<MovieImportResultDTO>> importMovies(HttpServletRequest request) {
+        log.info("POST /movies/import - Importing movies from {}", request.getContentType());
+
+        try {
+            MovieImportFormat format = MovieImportFormat.fromContentType(request.getContentType());
+            MovieImportResultDTO result = movieImportService.importMovies(request.getInputStream(), format);
+            return ResponseEntity.ok(ApiResponse.success(result,
+                    "Imported " + result.getImported() + " of " + result.getTotal() + " movies"));
         } catch (IllegalArgumentException e) {
-            log.error("Invalid data: {}", e.getMessage());
+            log.error("Invalid import: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error(e.getMessage()));
-        } catch (Exception e) {
-            log.error("Error creating movie: {}", e.getMessage());
+        } catch (IOException e) {
+            log.error("Error reading import body: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(ApiResponse.error("Failed to create movie"));
+                    .body(ApiResponse.error("Failed to import movies"));
         }
     }
 
     @GetMapping
     public ResponseEntity<ApiResponse<List<Movie>>> getAllMovies(
             @RequestParam(required = false) String title,
-            @RequestParam(required = false) String genre) {
+            @RequestParam(required = false) String genre,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            WebRequest request,
+            HttpServletResponse response) throws IOException {
         log.info("GET /movies - Searching movies with title: '{}' and genre: '{}'", title, genre);
-        List<Movie> movies = movieService.searchMovies(title, genre);
-        return ResponseEntity.ok(ApiResponse.success(movies, "Movies retrieved successfully"));
+        if (catalogResponses.isEnabled() && !StringUtils.hasText(title) && !StringUtils.hasText(genre)) {
+            return prerenderedCatalog(request, response);
+        }
+        return conditional(request, () -> ApiResponse.success(
+                fuzzy ? movieService.fuzzySearchMovies(title, genre) : movieService.searchMovies(title, genre),
+                "Movies retrieved successfully"));
+    }
+
+    /**
+     * Keyset-paginated listing used when the client asks for a page size.
+     * Items are summaries without the description; pass {@code nextCursor}
+     * as {@code after} to get the next page.
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<ApiResponse<CursorPageDTO<MovieSummaryDTO>>> getMoviePage(
+            @RequestParam(required = false) Long after,
+            @RequestParam int limit,
+            WebRequest request) {
+        log.info("GET /movies - Fetching movie page after: {} with limit: {}", after, limit);
+        return conditional(request, () ->
+                ApiResponse.success(movieService.getMoviePage(after, limit), "Movies retrieved successfully"));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<MovieSuggestionDTO>>> suggestMovies(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.debug("GET /movies/suggest - Suggesting titles for: '{}'", query);
+        List<MovieSuggestionDTO> suggestions = movieService.suggestMovies(query, limit);
+        return ResponseEntity.ok(ApiResponse.success(suggestions, "Suggestions retrieved successfully"));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<ApiResponse<MovieFacetsDTO>> getFacets(WebRequest request) {
+        log.info("GET /movies/facets - Fetching movie facets");
+        return conditional(request, () ->
+                ApiResponse.success(movieService.getFacets(), "Facets retrieved successfully"));
+    }
+
+    @GetMapping("/catalog/stats")
+    public ResponseEntity<ApiResponse<CatalogStatsDTO>> getCatalogStats() {
+        log.info("GET /movies/catalog/stats - Fetching catalog cache statistics");
+        CatalogStatsDTO stats = movieService.getCatalogStats();
+        return ResponseEntity.ok(ApiResponse.success(stats, "Catalog statistics retrieved successfully"));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<Movie>> getMovieById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<Movie>> getMovieById(@PathVariable Long id, WebRequest request) {
         log.info("GET /movies/{} - Fetching movie", id);
-        Movie movie = movieService.getMovieById(id);
-        return ResponseEntity.ok(ApiResponse.success(movie, "Movie retrieved successfully"));
+        String etag = catalogETag(movieService.getCatalogVersion());
+        // Resolve the movie before answering 304, so a removed or missing one is still a 404
+        ApiResponse<Movie> body = ApiResponse.success(movieService.getMovieById(id), "Movie retrieved successfully");
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        return tagged(etag, body);
     }
 
     @PutMapping(value = "/{id}", consumes = {"multipart/form-data"})
-    public ResponseEntity<ApiResponse<Movie>> updateMovie(
+    public CompletableFuture<ResponseEntity<ApiResponse<Movie>>> updateMovie(
             @PathVariable Long id,
             @RequestParam("title") String title,
             @RequestParam("description") String description,
@@ -100,32 +190,16 @@ public class MovieController {
         log.info("PUT /movies/{} - Updating movie", id);
         
         try {
-            String imageUrl = existingImageUrl;
-            
             // Si se envió una nueva imagen, subirla a S3
-            if (image != null && !image.isEmpty()) {
-                imageUrl = storageService.uploadFile(image);
-                log.info("New image uploaded to S3: {}", imageUrl);
-            }
-            
-            MovieDTO movieDTO = new MovieDTO();
-            movieDTO.setTitle(title);
-            movieDTO.setDescription(description);
-            movieDTO.setGenre(genre);
-            movieDTO.setDuration(duration);
-            movieDTO.setPrice(price);
-            movieDTO.setImageUrl(imageUrl);
-            
-            Movie updatedMovie = movieService.updateMovie(id, movieDTO);
-            return ResponseEntity.ok(ApiResponse.success(updatedMovie, "Movie updated successfully"));
-        } catch (IllegalArgumentException e) {
-            log.error("Invalid data: {}", e.getMessage());
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error(e.getMessage()));
-        } catch (Exception e) {
-            log.error("Error updating movie: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(ApiResponse.error("Failed to update movie"));
+            return uploadImage(image, existingImageUrl)
+                    .thenApplyAsync(imageUrl -> {
+                        MovieDTO movieDTO = movieDTO(title, description, genre, duration, price, imageUrl);
+                        Movie updatedMovie = movieService.updateMovie(id, movieDTO);
+                        return ResponseEntity.ok(ApiResponse.success(updatedMovie, "Movie updated successfully"));
+                    }, taskExecutor)
+                    .exceptionally(e -> failure(e, "Error updating movie", "Failed to update movie"));
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(failure(e, "Error updating movie", "Failed to update movie"));
         }
     }
 
@@ -135,4 +209,115 @@ public class MovieController {
         movieService.disableMovie(id);
         return ResponseEntity.ok(ApiResponse.success(null, "Movie disabled successfully"));
     }
+
+    /**
+     * Starts uploading {@code image} when one was sent; otherwise completes
+     * at once with {@code fallbackUrl}.
+     */
+    private CompletableFuture<String> uploadImage(MultipartFile image, String fallbackUrl) {
+        if (image == null || image.isEmpty()) {
+            return CompletableFuture.completedFuture(fallbackUrl);
+        }
+        return storageService.uploadFile(image)
+                .thenApply(imageUrl -> {
+                    log.info("Image uploaded to S3: {}", imageUrl);
+                    return imageUrl;
+                });
+    }
+
+    private static MovieDTO movieDTO(String title, String description, String genre,
+                                     int duration, double price, String imageUrl) {
+        MovieDTO movieDTO = new MovieDTO();
+        movieDTO.setTitle(title);
+        movieDTO.setDescription(description);
+        movieDTO.setGenre(genre);
+        movieDTO.setDuration(duration);
+        movieDTO.setPrice(price);
+        movieDTO.setImageUrl(imageUrl);
+        return movieDTO;
+    }
+
+    /**
+     * Maps a failed create or update to the response the synchronous handlers
+     * used to return: 400 with the message for invalid data, 500 otherwise.
+     */
+    private static <T> ResponseEntity<ApiResponse<T>> failure(Throwable error, String logMessage, String message) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        if (cause instanceof IllegalArgumentException) {
+            log.error("Invalid data: {}", cause.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(cause.getMessage()));
+        }
+        log.error("{}: {}", logMessage, cause.getMessage());
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error(message));
+    }
+
+    /**
+     * Serves a catalog read with a strong ETag built from the catalog version.
+     * When the client already holds that version the request is answered with
+     * 304 Not Modified before the body is loaded or serialized.
+     */
+    private <T> ResponseEntity<ApiResponse<T>> conditional(WebRequest request, Supplier<ApiResponse<T>> body) {
+        String etag = catalogETag(movieService.getCatalogVersion());
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        return tagged(etag, body.get());
+    }
+
+    private static <T> ResponseEntity<ApiResponse<T>> tagged(String etag, ApiResponse<T> body) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(body);
+    }
+
+    /**
+     * Writes the whole enabled catalog from bytes rendered once per catalog
+     * version, gzipped when the client accepts it. The ETag and the 304 vary
+     * with the encoding, like the body. Returns {@code null} once the body is
+     * written so Spring MVC leaves the response untouched.
+     */
+    private ResponseEntity<ApiResponse<List<Movie>>> prerenderedCatalog(
+            WebRequest request, HttpServletResponse response) throws IOException {
+        long version = movieService.getCatalogVersion();
+        boolean compressed = PrerenderedResponse.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String validator = catalogValidator(version);
+        String etag = PrerenderedResponse.eTag(validator, compressed);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        PrerenderedResponse rendered = catalogResponses.get(version, () ->
+                ApiResponse.success(movieService.getAllMovies(), "Movies retrieved successfully"));
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        rendered.writeTo(response, validator, compressed);
+        return null;
+    }
+
+    private String catalogETag(long version) {
+        return "\"" + catalogValidator(version) + "\"";
+    }
+
+    /**
+     * Catalog version qualified with the instance that counted it, as each
+     * instance behind a load balancer numbers its versions on its own.
+     */
+    private String catalogValidator(long version) {
+        return movieService.getCatalogInstanceId() + "-" + version;
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .build();
+    }
 }
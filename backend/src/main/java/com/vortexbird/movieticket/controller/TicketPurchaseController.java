@@ -1,19 +1,32 @@
 package com.vortexbird.movieticket.controller;
 
 import com.vortexbird.movieticket.dto.CreateTicketPurchaseDTO;
+import com.vortexbird.movieticket.dto.CursorPageDTO;
+import com.vortexbird.movieticket.dto.PurchaseFilterDTO;
 import com.vortexbird.movieticket.dto.TicketPurchaseDTO;
+import com.vortexbird.movieticket.dto.TicketValidationDTO;
 import com.vortexbird.movieticket.model.TicketPurchase;
+import com.vortexbird.movieticket.service.IIdempotencyService;
+import com.vortexbird.movieticket.service.IPurchaseExportService;
+import com.vortexbird.movieticket.service.IdempotentResult;
 import com.vortexbird.movieticket.service.ITicketPurchaseService;
+import com.vortexbird.movieticket.service.exporter.PurchaseExportFormat;
 import com.vortexbird.movieticket.shared.response.ApiResponse;
+import com.vortexbird.movieticket.shared.response.PrerenderedResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST Controller for TicketPurchase management.
@@ -26,17 +39,37 @@ import java.util.List;
 @Slf4j
 public class TicketPurchaseController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final ITicketPurchaseService purchaseService;
+    private final IPurchaseExportService exportService;
+    private final IIdempotencyService idempotencyService;
 
+    /**
+     * Creates a purchase. Clients that retry should send an Idempotency-Key
+     * header: a retry with the same key and body gets the original purchase
+     * back, marked with Idempotent-Replayed, instead of buying again.
+     */
     @PostMapping
     public ResponseEntity<ApiResponse<TicketPurchaseDTO>> createPurchase(
             @Valid @RequestBody CreateTicketPurchaseDTO dto,
-            @RequestParam Long customerId) {
+            @RequestParam Long customerId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         log.info("POST /purchases - Creating purchase for customer: {}", customerId);
-        TicketPurchase purchase = purchaseService.createPurchase(customerId, dto);
-        TicketPurchaseDTO purchaseDTO = purchaseService.toDTO(purchase);
+        if (idempotencyKey == null) {
+            TicketPurchase purchase = purchaseService.createPurchase(customerId, dto);
+            TicketPurchaseDTO purchaseDTO = purchaseService.toDTO(purchase);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success(purchaseDTO, "Purchase created successfully"));
+        }
+
+        IdempotentResult<TicketPurchaseDTO> result = idempotencyService.execute(idempotencyKey,
+                List.of(customerId, dto), TicketPurchaseDTO.class,
+                () -> purchaseService.toDTO(purchaseService.createPurchase(customerId, dto)));
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(ApiResponse.success(purchaseDTO, "Purchase created successfully"));
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(ApiResponse.success(result.value(), "Purchase created successfully"));
     }
 
     @GetMapping("/{id}")
@@ -55,6 +88,22 @@ public class TicketPurchaseController {
         return ResponseEntity.ok(ApiResponse.success(purchases, "Customer purchases retrieved successfully"));
     }
 
+    /**
+     * Keyset-paginated customer history used when the client asks for a page
+     * size, optionally narrowed by {@code from}/{@code to} and {@code status}.
+     * Pass {@code nextCursor} as {@code after} to get the next page.
+     */
+    @GetMapping(value = "/customer/{customerId}", params = "limit")
+    public ResponseEntity<ApiResponse<CursorPageDTO<TicketPurchaseDTO>>> getCustomerPurchasePage(
+            @PathVariable Long customerId,
+            @RequestParam(required = false) String after,
+            @RequestParam int limit,
+            PurchaseFilterDTO filter) {
+        log.info("GET /purchases/customer/{} - Fetching purchase page after: {} with limit: {}", customerId, after, limit);
+        CursorPageDTO<TicketPurchaseDTO> page = purchaseService.getCustomerPurchasePage(customerId, filter, after, limit);
+        return ResponseEntity.ok(ApiResponse.success(page, "Customer purchases retrieved successfully"));
+    }
+
     @GetMapping("/movie/{movieId}")
     public ResponseEntity<ApiResponse<List<TicketPurchaseDTO>>> getMoviePurchases(
             @PathVariable Long movieId) {
@@ -63,6 +112,64 @@ public class TicketPurchaseController {
         return ResponseEntity.ok(ApiResponse.success(purchases, "Movie purchases retrieved successfully"));
     }
 
+    @GetMapping(value = "/movie/{movieId}", params = "limit")
+    public ResponseEntity<ApiResponse<CursorPageDTO<TicketPurchaseDTO>>> getMoviePurchasePage(
+            @PathVariable Long movieId,
+            @RequestParam(required = false) String after,
+            @RequestParam int limit,
+            PurchaseFilterDTO filter) {
+        log.info("GET /purchases/movie/{} - Fetching purchase page after: {} with limit: {} (admin)", movieId, after, limit);
+        CursorPageDTO<TicketPurchaseDTO> page = purchaseService.getMoviePurchasePage(movieId, filter, after, limit);
+        return ResponseEntity.ok(ApiResponse.success(page, "Movie purchases retrieved successfully"));
+    }
+
+    /**
+     * Streams every purchase of a movie as CSV or NDJSON, gzipped when the
+     * client accepts it. Rows are written while they are read, so the export
+     * size is not bounded by memory.
+     */
+    @GetMapping("/movie/{movieId}/export")
+    public ResponseEntity<StreamingResponseBody> exportMoviePurchases(
+            @PathVariable Long movieId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.info("GET /purchases/movie/{}/export - Exporting movie purchases as {} (admin)", movieId, format);
+        PurchaseExportFormat exportFormat = PurchaseExportFormat.fromName(format);
+        boolean compressed = PrerenderedResponse.acceptsGzip(acceptEncoding);
+
+        StreamingResponseBody body = out -> {
+            if (compressed) {
+                GZIPOutputStream gzip = new GZIPOutputStream(out, 8192);
+                exportService.exportMoviePurchases(movieId, exportFormat, gzip);
+                gzip.finish();
+            } else {
+                exportService.exportMoviePurchases(movieId, exportFormat, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("movie-" + movieId + "-purchases." + exportFormat.getExtension())
+                        .build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (compressed) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Scans a ticket at the cinema entrance. Answers 404 for unknown codes,
+     * 409 when the ticket was already used and 400 when it is not confirmed.
+     */
+    @PostMapping("/validate/{code}")
+    public ResponseEntity<ApiResponse<TicketValidationDTO>> validateTicket(@PathVariable String code) {
+        log.info("POST /purchases/validate/{} - Validating ticket", code);
+        TicketValidationDTO validation = purchaseService.validateTicket(code);
+        return ResponseEntity.ok(ApiResponse.success(validation, "Ticket validated successfully"));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> cancelPurchase(@PathVariable Long id) {
         log.info("DELETE /purchases/{} - Cancelling purchase", id);
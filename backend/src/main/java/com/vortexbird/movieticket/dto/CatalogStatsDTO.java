@@ -0,0 +1,23 @@
+package com.vortexbird.movieticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the in-memory movie catalog statistics.
+ *
+ * Exposes the cache version, size and hit/miss counters.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogStatsDTO {
+
+    private long version;
+    private boolean loaded;
+    private int size;
+    private int maxEntries;
+    private long hits;
+    private long misses;
+}
@@ -0,0 +1,23 @@
+package com.vortexbird.movieticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a keyset (cursor) paginated result.
+ *
+ * Clients pass {@code nextCursor} back to fetch the following page; it is
+ * null when there are no more items.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,32 @@
+package com.vortexbird.movieticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the load of the email executor, served by the
+ * {@code emailexecutor} actuator endpoint.
+ *
+ * Counters and latencies cover the time since the application started.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailExecutorStatsDTO {
+
+    private String overflowPolicy;
+    private int coreThreads;
+    private int maxThreads;
+    private int poolThreads;
+    private int largestPoolThreads;
+    private int activeThreads;
+    private int queueDepth;
+    private int queueCapacity;
+    private long completedTasks;
+    private long rejectedTasks;
+    private long callerRunTasks;
+    private double averageWaitMs;
+    private double averageLatencyMs;
+    private double maxLatencyMs;
+}
@@ -0,0 +1,17 @@
+package com.vortexbird.movieticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the number of enabled movies in a genre.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenreCountDTO {
+
+    private String genre;
+    private long count;
+}
@@ -0,0 +1,19 @@
+package com.vortexbird.movieticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a rejected import row.
+ *
+ * {@code line} is the line of the uploaded file where the row starts.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportErrorDTO {
+
+    private long line;
+    private String message;
+}
@@ -0,0 +1,24 @@
+package com.vortexbird.movieticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the enabled-catalog facets.
+ *
+ * Per-genre counts plus duration and price histograms, used to build the
+ * catalog filters.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieFacetsDTO {
+
+    private long total;
+    private List<GenreCountDTO> genres;
+    private List<RangeCountDTO> durations;
+    private List<RangeCountDTO> prices;
+}
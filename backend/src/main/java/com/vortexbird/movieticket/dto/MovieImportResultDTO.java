@@ -0,0 +1,26 @@
+package com.vortexbird.movieticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the outcome of a bulk movie import.
+ *
+ * Counts the rows read, imported and rejected, and lists the rejected rows
+ * with their error. Only the first errors are listed; {@code errorsTruncated}
+ * tells whether more were left out.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieImportResultDTO {
+
+    private long total;
+    private long imported;
+    private long failed;
+    private List<ImportErrorDTO> errors;
+    private boolean errorsTruncated;
+}
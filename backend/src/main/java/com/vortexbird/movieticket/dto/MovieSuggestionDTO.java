@@ -0,0 +1,19 @@
+package com.vortexbird.movieticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for title autocomplete responses.
+ *
+ * Carries only what the search box needs to show and link a suggestion.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieSuggestionDTO {
+
+    private Long id;
+    private String title;
+}
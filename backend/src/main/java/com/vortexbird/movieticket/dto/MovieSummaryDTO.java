@@ -0,0 +1,24 @@
+package com.vortexbird.movieticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lightweight movie projection for list views.
+ *
+ * Omits the description, which is only returned by the movie detail endpoint.
+ * Also used as a JPQL constructor expression by IMovieRepository.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieSummaryDTO {
+
+    private Long id;
+    private String title;
+    private String genre;
+    private Integer duration;
+    private Double price;
+    private String imageUrl;
+}
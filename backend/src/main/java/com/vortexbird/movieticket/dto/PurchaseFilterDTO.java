@@ -0,0 +1,30 @@
+package com.vortexbird.movieticket.dto;
+
+import com.vortexbird.movieticket.model.PurchaseStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for purchase history filters, bound from query parameters.
+ *
+ * Every filter is optional. {@code from} is inclusive and {@code to}
+ * exclusive; {@code status} keeps only purchases in one of the given states.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurchaseFilterDTO {
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    private List<PurchaseStatus> status;
+}
@@ -0,0 +1,21 @@
+package com.vortexbird.movieticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a histogram bucket.
+ *
+ * Counts the values in {@code [min, max)}; {@code max} is null for the last,
+ * open-ended bucket.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RangeCountDTO {
+
+    private Double min;
+    private Double max;
+    private long count;
+}
@@ -0,0 +1,27 @@
+package com.vortexbird.movieticket.dto;
+
+import com.vortexbird.movieticket.model.EmailType;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO selecting the dead-letter emails to queue again.
+ *
+ * Both filters are optional: {@code ids} limits the re-drive to those dead
+ * letters and {@code type} to one kind of email. An empty request re-drives
+ * every dead letter.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RedriveDeadLettersDTO {
+
+    @Size(max = 1000, message = "At most 1000 dead letter ids can be re-driven at once")
+    private List<Long> ids;
+
+    private EmailType type;
+}
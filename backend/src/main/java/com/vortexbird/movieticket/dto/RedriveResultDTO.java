@@ -0,0 +1,19 @@
+package com.vortexbird.movieticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the outcome of a dead-letter re-drive.
+ *
+ * {@code redriven} counts the emails queued again; dead letters another
+ * re-drive was already moving are skipped and not counted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RedriveResultDTO {
+
+    private int redriven;
+}
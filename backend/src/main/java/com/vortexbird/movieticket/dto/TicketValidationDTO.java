@@ -0,0 +1,25 @@
+package com.vortexbird.movieticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a ticket admitted at the cinema entrance.
+ *
+ * Carries what door staff need to let the holder in.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketValidationDTO {
+
+    private Long purchaseId;
+    private String confirmationCode;
+    private String movieTitle;
+    private String customerName;
+    private Integer quantity;
+    private LocalDateTime usedAt;
+}
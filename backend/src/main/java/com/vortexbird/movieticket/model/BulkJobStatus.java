@@ -0,0 +1,16 @@
+package com.vortexbird.movieticket.model;
+
+/**
+ * Enum representing the progress of a bulk email job.
+ */
+public enum BulkJobStatus {
+    /**
+     * Recipients are still being queued in the outbox.
+     */
+    PENDING,
+
+    /**
+     * Every recipient was queued.
+     */
+    COMPLETED
+}
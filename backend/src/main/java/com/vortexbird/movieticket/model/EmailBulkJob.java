@@ -0,0 +1,60 @@
+package com.vortexbird.movieticket.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * EmailBulkJob entity representing an email to every purchaser of a movie.
+ *
+ * The job is inserted in the same transaction as the change it announces.
+ * It then queues its recipients in the outbox a chunk at a time, in purchase
+ * id order. Each chunk is queued and {@code lastPurchaseId} advanced in one
+ * transaction, so a job interrupted by a crash resumes after the last chunk
+ * that committed, without skipping or repeating anyone.
+ */
+@Entity
+@Table(name = "email_bulk_job", indexes = {
+        @Index(name = "idx_email_bulk_job_status", columnList = "status, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailBulkJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_bulk_job_seq")
+    @SequenceGenerator(name = "email_bulk_job_seq", sequenceName = "email_bulk_job_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private EmailType type;
+
+    @Column(name = "movie_id", nullable = false)
+    private Long movieId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private BulkJobStatus status;
+
+    /** Cursor: the last purchase queued, 0 before the first chunk. */
+    @Column(name = "last_purchase_id", nullable = false)
+    private Long lastPurchaseId;
+
+    /** Emails queued so far. */
+    @Column(nullable = false)
+    private Long queued;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
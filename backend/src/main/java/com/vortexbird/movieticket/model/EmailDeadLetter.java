@@ -0,0 +1,59 @@
+package com.vortexbird.movieticket.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * EmailDeadLetter entity representing an outbox email that exhausted its
+ * attempts.
+ *
+ * The relay moves the message here, with its snapshot and last error, and
+ * deletes it from the outbox, so the outbox only holds emails still to be
+ * sent. An administrator can re-drive dead letters, which queues them in the
+ * outbox again with a fresh set of attempts.
+ */
+@Entity
+@Table(name = "email_dead_letter", indexes = {
+        @Index(name = "idx_email_dead_letter_type", columnList = "type, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_dead_letter_seq")
+    @SequenceGenerator(name = "email_dead_letter_seq", sequenceName = "email_dead_letter_id_seq", allocationSize = 50)
+    private Long id;
+
+    /** Id the message had in the outbox. */
+    @Column(name = "outbox_id", nullable = false)
+    private Long outboxId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private EmailType type;
+
+    @Column(name = "purchase_id", nullable = false)
+    private Long purchaseId;
+
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    /** When the email was first queued. */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "dead_at", nullable = false)
+    private LocalDateTime deadAt;
+}
@@ -0,0 +1,62 @@
+package com.vortexbird.movieticket.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * EmailOutboxMessage entity representing an email waiting to be sent.
+ *
+ * Rows are inserted in the same transaction as the change they announce, so
+ * an email exists exactly when that change committed. The outbox relay picks
+ * pending rows whose {@code availableAt} has passed, sends them and marks
+ * them sent. A claimed row has {@code availableAt} pushed past the claim
+ * lease, so a relay that dies mid-send leaves it to be picked up again.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_due", columnList = "status, available_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailOutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_outbox_seq")
+    @SequenceGenerator(name = "email_outbox_seq", sequenceName = "email_outbox_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private EmailType type;
+
+    @Column(name = "purchase_id", nullable = false)
+    private Long purchaseId;
+
+    /** JSON snapshot of the purchase when the email was queued; null on rows queued before snapshots. */
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxStatus status;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
@@ -0,0 +1,26 @@
+package com.vortexbird.movieticket.model;
+
+/**
+ * Enum representing the kinds of email sent through the outbox.
+ */
+public enum EmailType {
+    /**
+     * Confirmation with the details and code of a new purchase.
+     */
+    PURCHASE_CONFIRMATION,
+
+    /**
+     * Notice that a purchase was cancelled and its tickets are void.
+     */
+    PURCHASE_CANCELLATION,
+
+    /**
+     * Reminder of a purchase's movie and confirmation code.
+     */
+    PURCHASE_REMINDER,
+
+    /**
+     * Notice that the movie of a purchase was withdrawn from the listings.
+     */
+    MOVIE_WITHDRAWN
+}
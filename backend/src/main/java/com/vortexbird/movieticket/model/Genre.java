@@ -0,0 +1,32 @@
+package com.vortexbird.movieticket.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Genre entity representing a movie genre.
+ *
+ * Small lookup table referenced by movies through an integer id. The
+ * normalized name (lower-case, without accents) identifies the genre, so
+ * "Acción" and "accion" resolve to the same row.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+
+@Entity
+@Table(name = "genres")
+public class Genre {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, unique = true, length = 100)
+    private String name;
+
+    @Column(name = "normalized_name", nullable = false, unique = true, length = 100)
+    private String normalizedName;
+}
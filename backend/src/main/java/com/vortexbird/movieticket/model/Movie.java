@@ -1,5 +1,7 @@
 package com.vortexbird.movieticket.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.vortexbird.movieticket.service.catalog.TitleNormalizer;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,18 +11,23 @@ import lombok.NoArgsConstructor;
  * Movie entity representing a movie in the system.
  *
  * Contains information about movies available for ticket purchase including
- * title, description, image reference and pricing.
+ * title, description, image reference and pricing. The title is also stored
+ * normalized (see {@link TitleNormalizer}) so database title searches are
+ * case- and accent-insensitive like the in-memory catalog.
  */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 
 @Entity
-@Table(name = "movies")
+@Table(name = "movies", indexes = {
+        @Index(name = "idx_movies_genre_id", columnList = "genre_id, is_enabled")
+})
 public class Movie {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movies_seq")
+    @SequenceGenerator(name = "movies_seq", sequenceName = "movies_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 255)
@@ -38,6 +45,9 @@ public class Movie {
     @Column(name = "genre", length = 100, nullable = false)
     private String genre;
 
+    @Column(name = "genre_id")
+    private Integer genreId;
+
     @Column(name = "price", nullable = false)
     private double price;
 
@@ -51,4 +61,19 @@ public class Movie {
         }
 
     }
+
+    /**
+     * Title as matched by searches, derived from {@link #title} whenever the
+     * movie is written.
+     */
+    @JsonIgnore
+    @Access(AccessType.PROPERTY)
+    @Column(name = "normalized_title", length = 255)
+    public String getNormalizedTitle() {
+        return TitleNormalizer.normalize(title);
+    }
+
+    protected void setNormalizedTitle(String normalizedTitle) {
+        // Derived from the title; the stored value is only read by queries
+    }
 }
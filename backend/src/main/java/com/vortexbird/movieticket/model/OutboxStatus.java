@@ -0,0 +1,22 @@
+package com.vortexbird.movieticket.model;
+
+/**
+ * Enum representing the delivery state of an outbox email.
+ */
+public enum OutboxStatus {
+    /**
+     * Waiting to be sent, or to be retried after a failed attempt.
+     */
+    PENDING,
+
+    /**
+     * Accepted by the mail server.
+     */
+    SENT,
+
+    /**
+     * Gave up after the maximum number of attempts. No longer written: such
+     * emails now move to the dead-letter table; kept so older rows still load.
+     */
+    FAILED
+}
@@ -14,6 +14,11 @@ public enum PurchaseStatus {
      */
     CONFIRMED,
     
+    /**
+     * Tickets were scanned at the cinema entrance and cannot be used again.
+     */
+    USED,
+    
     /**
      * Purchase was cancelled by the customer or system.
      */
@@ -14,14 +14,19 @@ import java.time.LocalDateTime;
  * Follows JPA entity pattern for ORM mapping.
  */
 @Entity
-@Table(name = "ticket_purchases")
+@Table(name = "ticket_purchases", indexes = {
+        @Index(name = "idx_purchases_customer_date", columnList = "customer_id, purchase_date DESC, id DESC"),
+        @Index(name = "idx_purchases_movie_date", columnList = "movie_id, purchase_date DESC, id DESC"),
+        @Index(name = "idx_purchases_movie_id", columnList = "movie_id, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class TicketPurchase {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_purchases_seq")
+    @SequenceGenerator(name = "ticket_purchases_seq", sequenceName = "ticket_purchases_id_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -57,6 +62,9 @@ public class TicketPurchase {
     @Column(name = "confirmation_code", unique = true, length = 50)
     private String confirmationCode;
 
+    @Column(name = "used_at")
+    private LocalDateTime usedAt;
+
     @PrePersist
     protected void onCreate() {
         purchaseDate = LocalDateTime.now();
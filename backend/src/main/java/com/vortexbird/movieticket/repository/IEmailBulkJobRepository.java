@@ -0,0 +1,33 @@
+package com.vortexbird.movieticket.repository;
+
+import com.vortexbird.movieticket.model.EmailBulkJob;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for EmailBulkJob entity.
+ *
+ * Provides database access operations for EmailBulkJob entities using
+ * Spring Data JPA.
+ */
+@Repository
+public interface IEmailBulkJobRepository extends JpaRepository<EmailBulkJob, Long> {
+
+    /**
+     * Locks the oldest pending job, skipping jobs another instance is
+     * advancing (a lock timeout of -2 is Hibernate's SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT j FROM EmailBulkJob j "
+            + "WHERE j.status = com.vortexbird.movieticket.model.BulkJobStatus.PENDING ORDER BY j.id")
+    List<EmailBulkJob> findPendingForUpdate(Pageable pageable);
+}
@@ -0,0 +1,38 @@
+package com.vortexbird.movieticket.repository;
+
+import com.vortexbird.movieticket.model.EmailDeadLetter;
+import com.vortexbird.movieticket.model.EmailType;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for EmailDeadLetter entity.
+ *
+ * Provides database access operations for EmailDeadLetter entities using
+ * Spring Data JPA. The lookups used to re-drive lock their rows and skip
+ * rows another re-drive has locked (a lock timeout of -2 is Hibernate's SKIP
+ * LOCKED), so two re-drives never queue the same email twice.
+ */
+@Repository
+public interface IEmailDeadLetterRepository extends JpaRepository<EmailDeadLetter, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<EmailDeadLetter> findByOrderById(Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<EmailDeadLetter> findByTypeOrderById(EmailType type, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<EmailDeadLetter> findByIdInOrderById(Collection<Long> ids);
+}
@@ -0,0 +1,61 @@
+package com.vortexbird.movieticket.repository;
+
+import com.vortexbird.movieticket.model.EmailOutboxMessage;
+import com.vortexbird.movieticket.model.EmailType;
+import com.vortexbird.movieticket.model.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for EmailOutboxMessage entity.
+ *
+ * Provides database access operations for EmailOutboxMessage entities using
+ * Spring Data JPA.
+ */
+@Repository
+public interface IEmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    /**
+     * Locks the oldest pending messages that are due, skipping rows another
+     * relay has locked (a lock timeout of -2 is Hibernate's SKIP LOCKED), so
+     * concurrent relays never claim the same message.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM EmailOutboxMessage m "
+            + "WHERE m.status = com.vortexbird.movieticket.model.OutboxStatus.PENDING AND m.availableAt <= :now "
+            + "ORDER BY m.id")
+    List<EmailOutboxMessage> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    long countByTypeAndStatusAndAttempts(EmailType type, OutboxStatus status, Integer attempts);
+
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = com.vortexbird.movieticket.model.OutboxStatus.SENT, "
+            + "m.sentAt = :sentAt, m.attempts = m.attempts + 1 WHERE m.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Makes messages due again at {@code availableAt} without counting an
+     * attempt.
+     */
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.availableAt = :availableAt WHERE m.id IN :ids")
+    int reschedule(@Param("ids") Collection<Long> ids, @Param("availableAt") LocalDateTime availableAt);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m "
+            + "WHERE m.status = com.vortexbird.movieticket.model.OutboxStatus.SENT AND m.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,19 @@
+package com.vortexbird.movieticket.repository;
+
+import com.vortexbird.movieticket.model.Genre;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for Genre entity.
+ *
+ * Provides database access operations for Genre entities using Spring Data
+ * JPA.
+ */
+@Repository
+public interface IGenreRepository extends JpaRepository<Genre, Integer> {
+
+    Optional<Genre> findByNormalizedName(String normalizedName);
+}
@@ -0,0 +1,67 @@
+package com.vortexbird.movieticket.repository;
+
+import com.vortexbird.movieticket.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for IdempotencyRecord entity.
+ *
+ * Provides database access operations for IdempotencyRecord entities using
+ * Spring Data JPA.
+ */
+@Repository
+public interface IIdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Inserts a pending record. Unlike {@code save}, which merges rows with an
+     * assigned id, this fails with a duplicate key error when the key is
+     * already taken, so only one request can claim it.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, created_at, expires_at) "
+            + "VALUES (:key, :requestHash, :createdAt, :expiresAt)", nativeQuery = true)
+    int claim(@Param("key") String key,
+              @Param("requestHash") String requestHash,
+              @Param("createdAt") LocalDateTime createdAt,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Stores the response on the pending row claimed at {@code claimedAt} and
+     * extends it from the processing lease to the response TTL. Returns 0
+     * when that claim was taken over after its lease ended.
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.responseBody = :responseBody, r.expiresAt = :expiresAt "
+            + "WHERE r.key = :key AND r.createdAt = :claimedAt AND r.responseBody IS NULL")
+    int complete(@Param("key") String key,
+                 @Param("claimedAt") LocalDateTime claimedAt,
+                 @Param("responseBody") String responseBody,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Deletes the claim made at {@code claimedAt} while it is still pending; a
+     * completed row or another request's claim is left alone.
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r "
+            + "WHERE r.key = :key AND r.createdAt = :claimedAt AND r.responseBody IS NULL")
+    int release(@Param("key") String key, @Param("claimedAt") LocalDateTime claimedAt);
+
+    /**
+     * Deletes {@code key} only if it has expired, so a request taking over a
+     * stale claim never removes a fresh one made in the meantime.
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.expiresAt <= :now")
+    int deleteIfExpired(@Param("key") String key, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
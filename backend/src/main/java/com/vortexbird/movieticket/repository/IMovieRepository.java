@@ -1,10 +1,14 @@
 package com.vortexbird.movieticket.repository;
 
+import com.vortexbird.movieticket.dto.MovieSummaryDTO;
 import com.vortexbird.movieticket.model.Movie;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,13 +24,40 @@ public interface IMovieRepository extends JpaRepository<Movie, Long> {
 
     @Query("SELECT m FROM Movie m WHERE m.isEnabled = true")
     List<Movie> findAllEnabled();
+
+    /**
+     * Keyset page of enabled movies with an id greater than {@code afterId},
+     * projected without the description column.
+     */
+    @Query("SELECT new com.vortexbird.movieticket.dto.MovieSummaryDTO(m.id, m.title, m.genre, m.duration, m.price, m.imageUrl) "
+            + "FROM Movie m WHERE m.isEnabled = true AND m.id > :afterId ORDER BY m.id")
+    List<MovieSummaryDTO> findEnabledSummariesAfter(@Param("afterId") Long afterId, Pageable pageable);
     
-    @Query("SELECT m FROM Movie m WHERE LOWER(m.title) LIKE LOWER(CONCAT('%', :name, '%')) AND m.isEnabled = true")
-    List<Movie> findByTitle(@Param("name") String title);
+    /**
+     * Enabled movies whose normalized title contains {@code term}, which must
+     * already be normalized with TitleNormalizer.
+     */
+    @Query("SELECT m FROM Movie m WHERE m.normalizedTitle LIKE CONCAT('%', :term, '%') AND m.isEnabled = true")
+    List<Movie> searchByNormalizedTitle(@Param("term") String term);
 
-    @Query("SELECT m FROM Movie m WHERE LOWER(m.genre) = LOWER(:genre) AND m.isEnabled = true")
-    List<Movie> findByGenre(@Param("genre") String genre);
+    @Query("SELECT m FROM Movie m WHERE m.genreId = :genreId AND m.isEnabled = true")
+    List<Movie> findByGenreId(@Param("genreId") Integer genreId);
     
-    @Query("SELECT m FROM Movie m WHERE LOWER(m.title) LIKE LOWER(CONCAT('%', :name, '%')) AND LOWER(m.genre) = LOWER(:genre) AND m.isEnabled = true")
-    List<Movie> findByTitleAndGenre(@Param("name") String title, @Param("genre") String genre);
+    @Query("SELECT m FROM Movie m WHERE m.normalizedTitle LIKE CONCAT('%', :term, '%') AND m.genreId = :genreId AND m.isEnabled = true")
+    List<Movie> searchByNormalizedTitleAndGenreId(@Param("term") String term, @Param("genreId") Integer genreId);
+
+    @Query("SELECT m FROM Movie m WHERE m.normalizedTitle IS NULL")
+    List<Movie> findWithoutNormalizedTitle();
+
+    @Query("SELECT DISTINCT m.genre FROM Movie m WHERE m.genreId IS NULL")
+    List<String> findGenresWithoutId();
+
+    /**
+     * Links every movie whose free-text genre is {@code genre} and has no
+     * genre id yet to the given genre, normalizing the stored name.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Movie m SET m.genreId = :genreId, m.genre = :name WHERE m.genreId IS NULL AND m.genre = :genre")
+    int assignGenre(@Param("genre") String genre, @Param("genreId") Integer genreId, @Param("name") String name);
 }
@@ -1,11 +1,24 @@
 package com.vortexbird.movieticket.repository;
 
+import com.vortexbird.movieticket.dto.TicketPurchaseDTO;
+import com.vortexbird.movieticket.dto.TicketValidationDTO;
+import com.vortexbird.movieticket.model.PurchaseStatus;
 import com.vortexbird.movieticket.model.TicketPurchase;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for TicketPurchase entity.
@@ -15,9 +28,120 @@ import java.util.Optional;
 @Repository
 public interface ITicketPurchaseRepository extends JpaRepository<TicketPurchase, Long> {
 
-    List<TicketPurchase> findByCustomerId(Long customerId);
+    String PURCHASE_DTO = "SELECT new com.vortexbird.movieticket.dto.TicketPurchaseDTO("
+            + "p.id, c.id, c.email, CONCAT(c.firstName, ' ', c.lastName), m.id, m.title, "
+            + "p.quantity, p.unitPrice, p.totalAmount, p.status, p.cardLastFour, p.cardHolderName, "
+            + "p.purchaseDate, p.confirmationCode) "
+            + "FROM TicketPurchase p JOIN p.customer c JOIN p.movie m ";
 
-    List<TicketPurchase> findByMovieId(Long movieId);
+    /**
+     * Date window, status filter and keyset condition of a history page. The
+     * redundant {@code purchaseDate <= :afterDate} bounds the index range scan
+     * that the OR alone would not.
+     */
+    String PAGE_CONDITIONS = "AND p.purchaseDate >= :from AND p.purchaseDate < :to AND p.status IN :statuses "
+            + "AND p.purchaseDate <= :afterDate AND (p.purchaseDate < :afterDate OR p.id < :afterId) "
+            + "ORDER BY p.purchaseDate DESC, p.id DESC";
+
+    /**
+     * Purchase history of a customer, newest first, projected with the
+     * customer and movie columns in a single joined query.
+     */
+    @Query(PURCHASE_DTO + "WHERE c.id = :customerId ORDER BY p.purchaseDate DESC, p.id DESC")
+    List<TicketPurchaseDTO> findHistoryByCustomerId(@Param("customerId") Long customerId);
+
+    /**
+     * Purchases of a movie, newest first, projected like
+     * {@link #findHistoryByCustomerId(Long)}.
+     */
+    @Query(PURCHASE_DTO + "WHERE m.id = :movieId ORDER BY p.purchaseDate DESC, p.id DESC")
+    List<TicketPurchaseDTO> findHistoryByMovieId(@Param("movieId") Long movieId);
+
+    /**
+     * Keyset page of a customer's purchases made in [{@code from}, {@code to})
+     * with one of {@code statuses}, strictly after ({@code afterDate},
+     * {@code afterId}) in newest-first order.
+     */
+    @Query(PURCHASE_DTO + "WHERE c.id = :customerId " + PAGE_CONDITIONS)
+    List<TicketPurchaseDTO> findHistoryPageByCustomerId(@Param("customerId") Long customerId,
+                                                        @Param("from") LocalDateTime from,
+                                                        @Param("to") LocalDateTime to,
+                                                        @Param("statuses") Collection<PurchaseStatus> statuses,
+                                                        @Param("afterDate") LocalDateTime afterDate,
+                                                        @Param("afterId") Long afterId,
+                                                        Pageable pageable);
+
+    /**
+     * Keyset page of a movie's purchases, filtered like
+     * {@link #findHistoryPageByCustomerId}.
+     */
+    @Query(PURCHASE_DTO + "WHERE m.id = :movieId " + PAGE_CONDITIONS)
+    List<TicketPurchaseDTO> findHistoryPageByMovieId(@Param("movieId") Long movieId,
+                                                     @Param("from") LocalDateTime from,
+                                                     @Param("to") LocalDateTime to,
+                                                     @Param("statuses") Collection<PurchaseStatus> statuses,
+                                                     @Param("afterDate") LocalDateTime afterDate,
+                                                     @Param("afterId") Long afterId,
+                                                     Pageable pageable);
+
+    /**
+     * Every purchase of a movie, oldest first, read through a database cursor
+     * that fetches 1,000 rows at a time. Must be consumed inside a
+     * transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(PURCHASE_DTO + "WHERE m.id = :movieId ORDER BY p.purchaseDate, p.id")
+    Stream<TicketPurchaseDTO> streamByMovieId(@Param("movieId") Long movieId);
 
     Optional<TicketPurchase> findByConfirmationCode(String confirmationCode);
+
+    /**
+     * Purchases with their customer and movie loaded in the same query, so
+     * they can be read after the session is closed.
+     */
+    @Query("SELECT p FROM TicketPurchase p JOIN FETCH p.customer JOIN FETCH p.movie WHERE p.id IN :ids")
+    List<TicketPurchase> findWithCustomerAndMovieByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Keyset page of a movie's confirmed purchases with an id above
+     * {@code afterId}, in id order, with their customer and movie loaded.
+     */
+    @Query("SELECT p FROM TicketPurchase p JOIN FETCH p.customer JOIN FETCH p.movie m "
+            + "WHERE m.id = :movieId AND p.id > :afterId "
+            + "AND p.status = com.vortexbird.movieticket.model.PurchaseStatus.CONFIRMED ORDER BY p.id")
+    List<TicketPurchase> findConfirmedPageByMovieId(@Param("movieId") Long movieId,
+                                                    @Param("afterId") Long afterId,
+                                                    Pageable pageable);
+
+    /**
+     * Marks a confirmed purchase as used in a single conditional update.
+     * Returns 0 when the code is unknown or the purchase is not confirmed,
+     * so of two concurrent scans of the same code only one succeeds.
+     */
+    @Modifying
+    @Query("UPDATE TicketPurchase p SET p.status = com.vortexbird.movieticket.model.PurchaseStatus.USED, "
+            + "p.usedAt = :usedAt WHERE p.confirmationCode = :code "
+            + "AND p.status = com.vortexbird.movieticket.model.PurchaseStatus.CONFIRMED")
+    int markUsed(@Param("code") String confirmationCode, @Param("usedAt") LocalDateTime usedAt);
+
+    @Query("SELECT new com.vortexbird.movieticket.dto.TicketValidationDTO("
+            + "p.id, p.confirmationCode, m.title, CONCAT(c.firstName, ' ', c.lastName), p.quantity, p.usedAt) "
+            + "FROM TicketPurchase p JOIN p.customer c JOIN p.movie m WHERE p.confirmationCode = :code")
+    Optional<TicketValidationDTO> findValidationByConfirmationCode(@Param("code") String confirmationCode);
+
+    /**
+     * Every confirmation code, read through a database cursor. Must be
+     * consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.confirmationCode FROM TicketPurchase p WHERE p.confirmationCode IS NOT NULL")
+    Stream<String> streamConfirmationCodes();
+
+    /**
+     * Confirmation codes strictly between {@code from} and {@code to}, read
+     * as a range of the confirmation code index.
+     */
+    @Query("SELECT p.confirmationCode FROM TicketPurchase p "
+            + "WHERE p.confirmationCode > :from AND p.confirmationCode < :to")
+    List<String> findConfirmationCodesBetween(@Param("from") String from, @Param("to") String to);
 }
@@ -0,0 +1,118 @@
+package com.vortexbird.movieticket.service;
+
+import com.vortexbird.movieticket.model.BulkJobStatus;
+import com.vortexbird.movieticket.model.EmailBulkJob;
+import com.vortexbird.movieticket.model.EmailType;
+import com.vortexbird.movieticket.model.Movie;
+import com.vortexbird.movieticket.model.OutboxStatus;
+import com.vortexbird.movieticket.model.TicketPurchase;
+import com.vortexbird.movieticket.repository.IEmailBulkJobRepository;
+import com.vortexbird.movieticket.repository.IEmailOutboxRepository;
+import com.vortexbird.movieticket.repository.ITicketPurchaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Implementation of Bulk Notification Service.
+ *
+ * Each step locks the oldest pending job with {@code SKIP LOCKED}, reads the
+ * next keyset page of purchases after the job's cursor, queues them in the
+ * outbox and moves the cursor, all in one short transaction. Memory stays
+ * bounded by the chunk size whatever the number of recipients, and a crash
+ * loses at most the step in flight, which rolls back and is redone.
+ *
+ * Sending is left to the outbox relay, so bulk emails get its pooled, rate
+ * limited SMTP pipeline, retries and dead letters. A job stops queueing while
+ * {@code maxBacklog} of its emails await their first attempt in the outbox:
+ * the relay sends them at the SMTP rate, and emails queued by purchases in
+ * the meantime are never stuck behind the whole job.
+ */
+@Service
+@Slf4j
+public class BulkNotificationService implements IBulkNotificationService {
+
+    private final IEmailBulkJobRepository jobRepository;
+    private final ITicketPurchaseRepository purchaseRepository;
+    private final IEmailOutboxRepository outboxRepository;
+    private final IEmailOutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final long maxBacklog;
+
+    public BulkNotificationService(IEmailBulkJobRepository jobRepository,
+                                   ITicketPurchaseRepository purchaseRepository,
+                                   IEmailOutboxRepository outboxRepository,
+                                   IEmailOutboxService outboxService,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${email.bulk.chunk-size:250}") int chunkSize,
+                                   @Value("${email.bulk.max-backlog:500}") long maxBacklog) {
+        this.jobRepository = jobRepository;
+        this.purchaseRepository = purchaseRepository;
+        this.outboxRepository = outboxRepository;
+        this.outboxService = outboxService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxBacklog = maxBacklog;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void notifyMovieWithdrawn(Movie movie) {
+        LocalDateTime now = LocalDateTime.now();
+        EmailBulkJob job = jobRepository.save(new EmailBulkJob(null, EmailType.MOVIE_WITHDRAWN, movie.getId(),
+                BulkJobStatus.PENDING, 0L, 0L, now, now, null));
+        log.info("Started bulk {} job {} for movie: {}", job.getType(), job.getId(), movie.getId());
+    }
+
+    /**
+     * Advances jobs until none is pending or their emails fill the outbox.
+     */
+    @Scheduled(fixedDelayString = "${email.bulk.poll-interval:PT5S}")
+    public void advanceJobs() {
+        while (advanceJob()) {
+            // Next chunk
+        }
+    }
+
+    @Override
+    public boolean advanceJob() {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            List<EmailBulkJob> pending = jobRepository.findPendingForUpdate(PageRequest.of(0, 1));
+            if (pending.isEmpty()) {
+                return false;
+            }
+            EmailBulkJob job = pending.get(0);
+            // Emails awaiting their first attempt; retries backing off do not hold the job up
+            if (outboxRepository.countByTypeAndStatusAndAttempts(job.getType(), OutboxStatus.PENDING, 0) >= maxBacklog) {
+                return false;
+            }
+
+            List<TicketPurchase> chunk = purchaseRepository.findConfirmedPageByMovieId(
+                    job.getMovieId(), job.getLastPurchaseId(), PageRequest.of(0, chunkSize));
+            outboxService.enqueueAll(job.getType(), chunk);
+
+            LocalDateTime now = LocalDateTime.now();
+            if (!chunk.isEmpty()) {
+                job.setLastPurchaseId(chunk.get(chunk.size() - 1).getId());
+                job.setQueued(job.getQueued() + chunk.size());
+            }
+            job.setUpdatedAt(now);
+            if (chunk.size() < chunkSize) {
+                job.setStatus(BulkJobStatus.COMPLETED);
+                job.setCompletedAt(now);
+                log.info("Bulk {} job {} queued all {} emails", job.getType(), job.getId(), job.getQueued());
+            }
+            return true;
+        }));
+    }
+}
@@ -0,0 +1,149 @@
+package com.vortexbird.movieticket.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates purchase confirmation codes such as {@code TKT-0ABCDEF012345}.
+ *
+ * Each code encodes a Snowflake-style 63-bit id: 41 bits of milliseconds
+ * since {@link #EPOCH}, a 10-bit node id and a 12-bit per-millisecond
+ * sequence. Nodes never share an id, so codes are unique across instances
+ * without asking the database. That only holds if each instance is given its
+ * own {@code tickets.node-id}, so startup fails when it is missing outside
+ * the {@code dev} and {@code test} profiles, which fall back to node 0. The
+ * id is written as 13 Crockford Base32 characters. That alphabet is in ASCII
+ * order, so codes sort by creation time and are appended at the end of the
+ * confirmation code index.
+ *
+ * Generation is lock-free: the last timestamp and sequence share one
+ * {@link AtomicLong} updated by compare-and-set. When more than 4,096 codes
+ * are requested within a millisecond, or the wall clock moves backwards, the
+ * generator keeps counting from its own last timestamp instead of waiting.
+ */
+@Component
+@Slf4j
+public class ConfirmationCodeGenerator {
+
+    public static final String PREFIX = "TKT-";
+
+    /** 2024-01-01T00:00:00Z; 41 bits of milliseconds last until 2093. */
+    static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int CODE_LENGTH = 13;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int[] VALUES = new int['Z' + 1];
+
+    static {
+        Arrays.fill(VALUES, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            VALUES[ALPHABET[i]] = i;
+        }
+    }
+
+    private final long nodeId;
+
+    /** Last timestamp (relative to the epoch) shifted left by the sequence bits, plus the last sequence. */
+    private final AtomicLong state = new AtomicLong();
+
+    @Autowired
+    public ConfirmationCodeGenerator(@Value("${tickets.node-id:-1}") int nodeId, Environment environment) {
+        this(nodeId >= 0 ? nodeId : defaultNodeId(environment));
+    }
+
+    public ConfirmationCodeGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        log.info("Confirmation codes use node id {}", this.nodeId);
+    }
+
+    /**
+     * Returns a new confirmation code.
+     */
+    public String next() {
+        return PREFIX + encode(nextId());
+    }
+
+    long nextId() {
+        while (true) {
+            long current = state.get();
+            long now = System.currentTimeMillis() - EPOCH;
+            // A full sequence carries into the timestamp bits, borrowing the next millisecond
+            long next = now > current >>> SEQUENCE_BITS ? now << SEQUENCE_BITS : current + 1;
+            if (state.compareAndSet(current, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                return timestamp << (NODE_BITS + SEQUENCE_BITS) | nodeId << SEQUENCE_BITS | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    static String encode(long id) {
+        char[] code = new char[CODE_LENGTH];
+        for (int i = CODE_LENGTH - 1; i >= 0; i--) {
+            code[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(code);
+    }
+
+    /**
+     * Returns the lowest code that can be generated at {@code epochMillis}, so
+     * codes issued since then are those sorting after it.
+     */
+    public static String lowestCodeAt(long epochMillis) {
+        return PREFIX + encode(Math.max(0, epochMillis - EPOCH) << (NODE_BITS + SEQUENCE_BITS));
+    }
+
+    /**
+     * Returns when {@code code} was generated, in epoch milliseconds, or -1
+     * when it is not a code of this generator.
+     */
+    public static long issuedAt(String code) {
+        if (code == null || code.length() != PREFIX.length() + CODE_LENGTH || !code.startsWith(PREFIX)) {
+            return -1;
+        }
+        long id = 0;
+        for (int i = PREFIX.length(); i < code.length(); i++) {
+            char c = code.charAt(i);
+            int value = c < VALUES.length ? VALUES[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+            id = id << 5 | value;
+        }
+        // The leading character carries only 3 bits, so a larger one overflowed the id
+        if (VALUES[code.charAt(PREFIX.length())] > 7) {
+            return -1;
+        }
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+
+    /**
+     * Node id used when {@code tickets.node-id} is not configured: 0 for the
+     * single local instance of the {@code dev} and {@code test} profiles.
+     * Anywhere else two instances could end up with the same id, so startup
+     * fails instead of guessing one.
+     */
+    static int defaultNodeId(Environment environment) {
+        if (environment.acceptsProfiles(Profiles.of("dev", "test"))) {
+            return 0;
+        }
+        throw new IllegalStateException("tickets.node-id (TICKETS_NODE_ID) must be set to a value between 0 and "
+                + MAX_NODE_ID + ", unique per instance; only the dev and test profiles default it to 0");
+    }
+}
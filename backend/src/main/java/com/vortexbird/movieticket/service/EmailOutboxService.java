@@ -0,0 +1,410 @@
+package com.vortexbird.movieticket.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vortexbird.movieticket.dto.RedriveDeadLettersDTO;
+import com.vortexbird.movieticket.dto.RedriveResultDTO;
+import com.vortexbird.movieticket.model.EmailDeadLetter;
+import com.vortexbird.movieticket.model.EmailOutboxMessage;
+import com.vortexbird.movieticket.model.EmailType;
+import com.vortexbird.movieticket.model.OutboxStatus;
+import com.vortexbird.movieticket.model.TicketPurchase;
+import com.vortexbird.movieticket.repository.IEmailDeadLetterRepository;
+import com.vortexbird.movieticket.repository.IEmailOutboxRepository;
+import com.vortexbird.movieticket.repository.ITicketPurchaseRepository;
+import com.vortexbird.movieticket.service.mail.HashedWheelTimer;
+import com.vortexbird.movieticket.service.mail.PurchaseSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of Email Outbox Service.
+ *
+ * The relay claims due messages with {@code SELECT ... FOR UPDATE SKIP
+ * LOCKED} in a short transaction that pushes them past a lease, then sends
+ * them with no transaction open and records the outcome in a second one.
+ * Several instances can relay at once without sending a message twice; if
+ * an instance dies mid-batch, its messages are claimed again once the lease
+ * expires, so delivery is at least once.
+ *
+ * Every message carries a JSON snapshot of its purchase taken when it was
+ * queued, so sending reads no purchases and holds no persistence context.
+ * Each batch is sent in one call per email type, so the mail sender can
+ * spread it over its pooled connections.
+ *
+ * Failed messages are retried after an exponential backoff with jitter:
+ * the delay doubles with each attempt up to a cap, and a random half of it
+ * spreads out retries of emails that failed together. After the last
+ * attempt a message moves to the dead-letter table, from where it can be
+ * re-driven. Messages the email executor refused under load are due again on
+ * the next poll, without counting an attempt. Sent messages are deleted
+ * after the retention period.
+ *
+ * Relays run one at a time on a dedicated thread. The poll requests one
+ * every poll interval, and a hashed timing wheel requests one when a retry
+ * scheduled by this instance comes due, so retries go out on time without a
+ * thread sleeping for each of them. Requests made while a relay is queued
+ * are merged into it.
+ */
+@Service
+@Slf4j
+public class EmailOutboxService implements IEmailOutboxService, DisposableBean {
+
+    static final int MAX_ERROR_LENGTH = 1000;
+
+    private final IEmailOutboxRepository outboxRepository;
+    private final IEmailDeadLetterRepository deadLetterRepository;
+    private final ITicketPurchaseRepository purchaseRepository;
+    private final IEmailService emailService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final HashedWheelTimer retryTimer;
+    private final ThreadPoolExecutor relayThread;
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration retryDelay;
+    private final Duration maxRetryDelay;
+    private final int maxAttempts;
+    private final Duration retention;
+    private final Duration spillDelay;
+
+    public EmailOutboxService(IEmailOutboxRepository outboxRepository,
+                              IEmailDeadLetterRepository deadLetterRepository,
+                              ITicketPurchaseRepository purchaseRepository,
+                              IEmailService emailService,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              HashedWheelTimer retryTimer,
+                              @Value("${email.outbox.batch-size:50}") int batchSize,
+                              @Value("${email.outbox.lease:PT5M}") Duration lease,
+                              @Value("${email.outbox.retry-delay:PT1M}") Duration retryDelay,
+                              @Value("${email.outbox.max-retry-delay:PT1H}") Duration maxRetryDelay,
+                              @Value("${email.outbox.max-attempts:8}") int maxAttempts,
+                              @Value("${email.outbox.retention:P7D}") Duration retention,
+                              @Value("${email.outbox.poll-interval:PT2S}") Duration spillDelay) {
+        this.outboxRepository = outboxRepository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.purchaseRepository = purchaseRepository;
+        this.emailService = emailService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retryTimer = retryTimer;
+        // One relay running and at most one waiting; further requests are already covered by the waiting one
+        this.relayThread = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+                task -> {
+                    Thread thread = new Thread(task, "email-relay");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.retryDelay = retryDelay;
+        this.maxRetryDelay = maxRetryDelay;
+        this.maxAttempts = maxAttempts;
+        this.retention = retention;
+        this.spillDelay = spillDelay;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(EmailType type, TicketPurchase purchase) {
+        outboxRepository.save(pending(type, purchase, LocalDateTime.now()));
+        log.debug("Queued {} email for purchase: {}", type, purchase.getId());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAll(EmailType type, List<TicketPurchase> purchases) {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutboxMessage> messages = new ArrayList<>(purchases.size());
+        for (TicketPurchase purchase : purchases) {
+            messages.add(pending(type, purchase, now));
+        }
+        // Sent as batched inserts
+        outboxRepository.saveAll(messages);
+        log.debug("Queued {} {} emails", messages.size(), type);
+    }
+
+    private EmailOutboxMessage pending(EmailType type, TicketPurchase purchase, LocalDateTime now) {
+        return new EmailOutboxMessage(null, type, purchase.getId(), toJson(PurchaseSnapshot.of(purchase)),
+                OutboxStatus.PENDING, 0, now, now, null, null);
+    }
+
+    private String toJson(PurchaseSnapshot snapshot) {
+        try {
+            return objectMapper.writeValueAsString(snapshot);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize email snapshot of purchase " + snapshot.purchaseId(), e);
+        }
+    }
+
+    /**
+     * Asks the relay thread for a relay pass, unless one is already waiting.
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval:PT2S}")
+    public void requestRelay() {
+        relayThread.execute(this::relay);
+    }
+
+    /**
+     * Relays batches until no full batch is due.
+     */
+    public void relay() {
+        try {
+            int claimed;
+            do {
+                claimed = relayBatch();
+            } while (claimed == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Outbox relay failed", e);
+        }
+    }
+
+    @Override
+    public int relayBatch() {
+        List<EmailOutboxMessage> batch = claim();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, String> failed = new LinkedHashMap<>();
+        Map<Long, PurchaseSnapshot> snapshots = snapshots(batch, failed);
+        Map<EmailType, List<EmailOutboxMessage>> byType = batch.stream()
+                .filter(message -> snapshots.containsKey(message.getId()))
+                .collect(Collectors.groupingBy(EmailOutboxMessage::getType,
+                        () -> new EnumMap<>(EmailType.class), Collectors.toList()));
+
+        List<Long> sent = new ArrayList<>(batch.size());
+        List<Long> spilled = new ArrayList<>();
+        byType.forEach((type, messages) -> {
+            List<PurchaseSnapshot> toSend = new ArrayList<>(messages.size());
+            for (EmailOutboxMessage message : messages) {
+                toSend.add(snapshots.get(message.getId()));
+            }
+            // Keyed by position: one purchase may have several messages of a type in the batch
+            Map<Integer, Exception> errors = emailService.sendPurchaseEmails(type, toSend);
+
+            for (int i = 0; i < messages.size(); i++) {
+                EmailOutboxMessage message = messages.get(i);
+                Exception error = errors.get(i);
+                if (error == null) {
+                    sent.add(message.getId());
+                } else if (error instanceof RejectedExecutionException) {
+                    // The email executor shed load; not the message's fault
+                    spilled.add(message.getId());
+                } else {
+                    log.warn("Failed to send outbox email {} for purchase {}: {}",
+                            message.getId(), message.getPurchaseId(), error.getMessage());
+                    failed.put(message.getId(), error.getMessage() != null ? error.getMessage() : error.getClass().getName());
+                }
+            }
+        });
+
+        scheduleRetries(settle(sent, spilled, failed));
+        log.info("Relayed outbox batch: {} sent, {} spilled, {} failed", sent.size(), spilled.size(), failed.size());
+        return batch.size();
+    }
+
+    @Override
+    public RedriveResultDTO redriveDeadLetters(RedriveDeadLettersDTO request) {
+        List<Long> ids = request.getIds();
+        EmailType type = request.getType();
+        int redriven = 0;
+        if (ids != null && !ids.isEmpty()) {
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+                redriven += transactionTemplate.execute(status -> requeue(
+                        deadLetterRepository.findByIdInOrderById(chunk).stream()
+                                .filter(deadLetter -> type == null || deadLetter.getType() == type)
+                                .toList()));
+            }
+        } else {
+            PageRequest page = PageRequest.of(0, batchSize);
+            int moved;
+            do {
+                // Moved rows are deleted, so the first page is always the next one
+                moved = transactionTemplate.execute(status -> requeue(type == null
+                        ? deadLetterRepository.findByOrderById(page)
+                        : deadLetterRepository.findByTypeOrderById(type, page)));
+                redriven += moved;
+            } while (moved == batchSize);
+        }
+
+        log.info("Re-drove {} dead-letter emails", redriven);
+        if (redriven > 0) {
+            requestRelay();
+        }
+        return new RedriveResultDTO(redriven);
+    }
+
+    private int requeue(List<EmailDeadLetter> deadLetters) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.saveAll(deadLetters.stream()
+                .map(deadLetter -> new EmailOutboxMessage(null, deadLetter.getType(), deadLetter.getPurchaseId(),
+                        deadLetter.getPayload(), OutboxStatus.PENDING, 0, now, deadLetter.getCreatedAt(), null, null))
+                .toList());
+        deadLetterRepository.deleteAll(deadLetters);
+        return deadLetters.size();
+    }
+
+    @Override
+    public void destroy() {
+        relayThread.shutdownNow();
+    }
+
+    /**
+     * Deletes sent messages older than the retention period.
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.purge-interval:PT1H}")
+    public void purgeSent() {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        Integer deleted = transactionTemplate.execute(status -> outboxRepository.deleteSentBefore(before));
+        log.info("Purged {} sent outbox emails", deleted);
+    }
+
+    /**
+     * Reads the purchase snapshot stored with each message, by message id.
+     * Messages queued before snapshots were stored get one built from the
+     * purchase as it is now. Messages without a snapshot are added to
+     * {@code failed}.
+     */
+    private Map<Long, PurchaseSnapshot> snapshots(List<EmailOutboxMessage> batch, Map<Long, String> failed) {
+        Map<Long, PurchaseSnapshot> snapshots = new HashMap<>();
+        List<EmailOutboxMessage> withoutPayload = new ArrayList<>();
+        for (EmailOutboxMessage message : batch) {
+            if (message.getPayload() == null) {
+                withoutPayload.add(message);
+                continue;
+            }
+            try {
+                snapshots.put(message.getId(), objectMapper.readValue(message.getPayload(), PurchaseSnapshot.class));
+            } catch (JsonProcessingException e) {
+                failed.put(message.getId(), "Unreadable payload: " + e.getOriginalMessage());
+            }
+        }
+        if (withoutPayload.isEmpty()) {
+            return snapshots;
+        }
+
+        Map<Long, PurchaseSnapshot> purchases = purchaseRepository.findWithCustomerAndMovieByIdIn(
+                        withoutPayload.stream().map(EmailOutboxMessage::getPurchaseId).toList())
+                .stream()
+                .collect(Collectors.toMap(TicketPurchase::getId, PurchaseSnapshot::of));
+        for (EmailOutboxMessage message : withoutPayload) {
+            PurchaseSnapshot snapshot = purchases.get(message.getPurchaseId());
+            if (snapshot != null) {
+                snapshots.put(message.getId(), snapshot);
+            } else {
+                failed.put(message.getId(), "Purchase " + message.getPurchaseId() + " not found");
+            }
+        }
+        return snapshots;
+    }
+
+    private List<EmailOutboxMessage> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        return transactionTemplate.execute(status -> {
+            List<EmailOutboxMessage> due = outboxRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+            // Flushed as one batched update on commit
+            due.forEach(message -> message.setAvailableAt(now.plus(lease)));
+            return due;
+        });
+    }
+
+    /**
+     * Records the outcome of a batch and returns when its failed messages
+     * are due again.
+     */
+    private List<LocalDateTime> settle(List<Long> sent, List<Long> spilled, Map<Long, String> failed) {
+        LocalDateTime now = LocalDateTime.now();
+        return transactionTemplate.execute(status -> {
+            if (!sent.isEmpty()) {
+                outboxRepository.markSent(sent, now);
+            }
+            if (!spilled.isEmpty()) {
+                outboxRepository.reschedule(spilled, now.plus(spillDelay));
+            }
+            if (failed.isEmpty()) {
+                return List.of();
+            }
+            List<LocalDateTime> retries = new ArrayList<>(failed.size());
+            List<EmailOutboxMessage> dead = new ArrayList<>();
+            for (EmailOutboxMessage message : outboxRepository.findAllById(failed.keySet())) {
+                int attempts = message.getAttempts() + 1;
+                String error = failed.get(message.getId());
+                message.setAttempts(attempts);
+                message.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+                if (attempts >= maxAttempts) {
+                    dead.add(message);
+                } else {
+                    message.setAvailableAt(now.plus(backoff(attempts)));
+                    retries.add(message.getAvailableAt());
+                }
+            }
+            if (!dead.isEmpty()) {
+                deadLetterRepository.saveAll(dead.stream().map(message -> new EmailDeadLetter(null, message.getId(),
+                        message.getType(), message.getPurchaseId(), message.getPayload(), message.getAttempts(),
+                        message.getLastError(), message.getCreatedAt(), now)).toList());
+                outboxRepository.deleteAll(dead);
+                log.error("Moved {} outbox emails to the dead-letter table after {} attempts", dead.size(), maxAttempts);
+            }
+            return retries;
+        });
+    }
+
+    /**
+     * Delay before retrying a message that failed {@code attempts} times:
+     * {@code retryDelay * 2^(attempts - 1)}, capped at {@code maxRetryDelay},
+     * of which a random half is waited on top of the other half.
+     */
+    Duration backoff(int attempts) {
+        double exponential = retryDelay.toMillis() * Math.pow(2, attempts - 1);
+        long half = (long) Math.min(exponential, maxRetryDelay.toMillis()) / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    /**
+     * Wakes the relay when each retry comes due. Times are rounded up to the
+     * next second so retries due together share one wake-up.
+     */
+    private void scheduleRetries(List<LocalDateTime> retries) {
+        if (retries.isEmpty()) {
+            return;
+        }
+        Set<LocalDateTime> wakeUps = new TreeSet<>();
+        for (LocalDateTime retry : retries) {
+            wakeUps.add(retry.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (LocalDateTime wakeUp : wakeUps) {
+            retryTimer.schedule(this::requestRelay, Duration.between(now, wakeUp));
+        }
+    }
+}
@@ -1,16 +1,26 @@
 package com.vortexbird.movieticket.service;
 
-import com.vortexbird.movieticket.model.TicketPurchase;
+import com.vortexbird.movieticket.model.EmailType;
+import com.vortexbird.movieticket.service.mail.EmailTemplates;
+import com.vortexbird.movieticket.service.mail.PurchaseSnapshot;
+import jakarta.activation.DataHandler;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.util.ByteArrayDataSource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Email service implementation.
@@ -19,7 +29,10 @@ import java.time.format.DateTimeFormatter;
  * - Single Responsibility: Only handles email sending
  * - Dependency Inversion: Depends on JavaMailSender abstraction
  * 
- * Uses @Async for non-blocking email sending (KISS principle).
+ * Sends synchronously and reports failures to the caller; emails are sent by
+ * the outbox relay, off the request path, which retries failed ones. Bodies
+ * are rendered from the precompiled {@link EmailTemplates} and purchase
+ * snapshots, so no persistence context is needed.
  */
 @Service
 @RequiredArgsConstructor
@@ -27,138 +40,73 @@ import java.time.format.DateTimeFormatter;
 public class EmailService implements IEmailService {
 
     private final JavaMailSender mailSender;
+    private final EmailTemplates templates;
     
     private static final String FROM_EMAIL = "noreply@movieticket.com";
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final String HTML_CONTENT_TYPE = "text/html; charset=UTF-8";
 
     /**
-     * Sends purchase confirmation email asynchronously.
+     * Sends purchase confirmation email.
      * 
-     * @param purchase The ticket purchase with all details
+     * @param purchase Snapshot of the purchase details
+     * @throws MailException when the message cannot be built or sent
      */
-    @Async
     @Override
-    public void sendPurchaseConfirmation(TicketPurchase purchase) {
+    public void sendPurchaseConfirmation(PurchaseSnapshot purchase) {
+        log.info("Sending purchase confirmation email to: {}", purchase.customerEmail());
         try {
-            log.info("Sending purchase confirmation email to: {}", purchase.getCustomer().getEmail());
-            
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            
-            helper.setFrom(FROM_EMAIL);
-            helper.setTo(purchase.getCustomer().getEmail());
-            helper.setSubject("Confirmación de Compra - Movie Ticket");
-            helper.setText(buildEmailContent(purchase), true);
-            
-            mailSender.send(message);
-            log.info("Purchase confirmation email sent successfully to: {}", purchase.getCustomer().getEmail());
-            
+            mailSender.send(createMessage(EmailType.PURCHASE_CONFIRMATION, purchase));
         } catch (MessagingException e) {
-            log.error("Failed to send purchase confirmation email to: {}. Error: {}", 
-                     purchase.getCustomer().getEmail(), e.getMessage(), e);
-        } catch (Exception e) {
-            log.error("Unexpected error sending purchase confirmation email to: {}. Error: {}", 
-                     purchase.getCustomer().getEmail(), e.getMessage(), e);
+            throw new MailPreparationException("Failed to build confirmation email for purchase " + purchase.purchaseId(), e);
         }
+        log.info("Purchase confirmation email sent successfully to: {}", purchase.customerEmail());
     }
 
     /**
-     * Builds HTML email content.
-     * 
-     * Applies DRY principle by centralizing email template generation.
+     * Sends the {@code type} emails of several purchases in one call, so the
+     * mail sender can spread them over its open connections.
      */
-    private String buildEmailContent(TicketPurchase purchase) {
-        String customerName = purchase.getCustomer().getFirstName() + " " + purchase.getCustomer().getLastName();
-        String purchaseDate = purchase.getPurchaseDate().format(DATE_FORMATTER);
-        
-        return """
-            <!DOCTYPE html>
-            <html>
-            <head>
-                <meta charset="UTF-8">
-                <style>
-                    body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
-                    .container { max-width: 600px; margin: 0 auto; padding: 20px; }
-                    .header { background-color: #dc3545; color: white; padding: 20px; text-align: center; }
-                    .content { background-color: #f8f9fa; padding: 20px; margin: 20px 0; }
-                    .ticket-info { background-color: white; padding: 15px; margin: 10px 0; border-left: 4px solid #dc3545; }
-                    .confirmation-code { font-size: 24px; font-weight: bold; color: #dc3545; text-align: center; margin: 20px 0; }
-                    .footer { text-align: center; color: #6c757d; font-size: 12px; margin-top: 20px; }
-                    table { width: 100%%; border-collapse: collapse; }
-                    td { padding: 8px; }
-                    .label { font-weight: bold; color: #495057; }
-                </style>
-            </head>
-            <body>
-                <div class="container">
-                    <div class="header">
-                        <h1>🎬 Movie Ticket</h1>
-                        <p>Confirmación de Compra</p>
-                    </div>
-                    
-                    <div class="content">
-                        <h2>¡Hola %s!</h2>
-                        <p>Tu compra ha sido procesada exitosamente. A continuación encontrarás los detalles:</p>
-                        
-                        <div class="confirmation-code">
-                            Código de Confirmación: %s
-                        </div>
-                        
-                        <div class="ticket-info">
-                            <h3>Detalles de la Compra</h3>
-                            <table>
-                                <tr>
-                                    <td class="label">Película:</td>
-                                    <td>%s</td>
-                                </tr>
-                                <tr>
-                                    <td class="label">Cantidad de Boletos:</td>
-                                    <td>%d</td>
-                                </tr>
-                                <tr>
-                                    <td class="label">Precio por Boleto:</td>
-                                    <td>$%,.2f COP</td>
-                                </tr>
-                                <tr>
-                                    <td class="label">Total Pagado:</td>
-                                    <td><strong>$%,.2f COP</strong></td>
-                                </tr>
-                                <tr>
-                                    <td class="label">Fecha de Compra:</td>
-                                    <td>%s</td>
-                                </tr>
-                                <tr>
-                                    <td class="label">Estado:</td>
-                                    <td><strong>%s</strong></td>
-                                </tr>
-                            </table>
-                        </div>
-                        
-                        <p><strong>Información de Pago:</strong></p>
-                        <p>Tarjeta: **** **** **** %s</p>
-                        <p>Titular: %s</p>
-                        
-                        <p style="margin-top: 20px;">Recuerda presentar este correo o tu código de confirmación en la taquilla del cine.</p>
-                    </div>
-                    
-                    <div class="footer">
-                        <p>Este es un correo automático, por favor no responder.</p>
-                        <p>&copy; 2026 Movie Ticket. Todos los derechos reservados.</p>
-                    </div>
-                </div>
-            </body>
-            </html>
-            """.formatted(
-                customerName,
-                purchase.getConfirmationCode(),
-                purchase.getMovie().getTitle(),
-                purchase.getQuantity(),
-                purchase.getUnitPrice(),
-                purchase.getTotalAmount(),
-                purchaseDate,
-                purchase.getStatus().name(),
-                purchase.getCardLastFour(),
-                purchase.getCardHolderName()
-            );
+    @Override
+    public Map<Integer, Exception> sendPurchaseEmails(EmailType type, List<PurchaseSnapshot> purchases) {
+        Map<Integer, Exception> failed = new LinkedHashMap<>();
+        Map<MimeMessage, Integer> positions = new IdentityHashMap<>();
+        List<MimeMessage> messages = new ArrayList<>(purchases.size());
+        for (int i = 0; i < purchases.size(); i++) {
+            try {
+                MimeMessage message = createMessage(type, purchases.get(i));
+                messages.add(message);
+                positions.put(message, i);
+            } catch (MessagingException e) {
+                failed.put(i, e);
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            try {
+                mailSender.send(messages.toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                if (e.getFailedMessages().isEmpty()) {
+                    messages.forEach(message -> failed.put(positions.get(message), e));
+                } else {
+                    e.getFailedMessages().forEach((message, cause) -> failed.put(positions.get(message), cause));
+                }
+            } catch (MailException e) {
+                messages.forEach(message -> failed.put(positions.get(message), e));
+            }
+        }
+        log.info("Sent {} of {} {} emails", purchases.size() - failed.size(), purchases.size(), type);
+        return failed;
+    }
+
+    private MimeMessage createMessage(EmailType type, PurchaseSnapshot purchase) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+
+        helper.setFrom(FROM_EMAIL);
+        helper.setTo(purchase.customerEmail());
+        helper.setSubject(templates.subject(type));
+        // The body is already UTF-8 encoded; handing over the bytes avoids decoding it into a String again
+        message.setDataHandler(new DataHandler(new ByteArrayDataSource(templates.render(type, purchase), HTML_CONTENT_TYPE)));
+        return message;
     }
 }
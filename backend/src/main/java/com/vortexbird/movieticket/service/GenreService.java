@@ -0,0 +1,156 @@
+package com.vortexbird.movieticket.service;
+
+import com.vortexbird.movieticket.model.Genre;
+import com.vortexbird.movieticket.repository.IGenreRepository;
+import com.vortexbird.movieticket.repository.IMovieRepository;
+import com.vortexbird.movieticket.service.catalog.MovieCatalog;
+import com.vortexbird.movieticket.service.catalog.TitleNormalizer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementation of Genre Service.
+ *
+ * The genres table is small and read on every movie write and genre search,
+ * so it is loaded into memory at startup and kept there. Genres created later
+ * are added to the cache once their transaction commits. Movies saved before
+ * genres had their own table are linked to one when the application starts.
+ *
+ * A new genre is inserted in its own transaction, so when two requests create
+ * the same genre at once the loser's unique-constraint violation only rolls
+ * back that insert, and it reads the winner's row instead.
+ */
+@Service
+@Slf4j
+@Transactional
+public class GenreService implements IGenreService {
+
+    private final IGenreRepository genreRepository;
+    private final IMovieRepository movieRepository;
+    private final MovieCatalog catalog;
+    private final TransactionTemplate insertTemplate;
+
+    /** Cached genres by normalized name. */
+    private final Map<String, Genre> genres = new ConcurrentHashMap<>();
+
+    public GenreService(IGenreRepository genreRepository,
+                        IMovieRepository movieRepository,
+                        MovieCatalog catalog,
+                        PlatformTransactionManager transactionManager) {
+        this.genreRepository = genreRepository;
+        this.movieRepository = movieRepository;
+        this.catalog = catalog;
+        this.insertTemplate = new TransactionTemplate(transactionManager);
+        this.insertTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    void loadGenres() {
+        genreRepository.findAll().forEach(this::cache);
+        log.info("Loaded {} genres", genres.size());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<Genre> resolve(String name) {
+        return Optional.ofNullable(genres.get(TitleNormalizer.normalize(name)));
+    }
+
+    @Override
+    public Genre resolveOrCreate(String name) {
+        String normalizedName = TitleNormalizer.normalize(name);
+        if (normalizedName.isEmpty()) {
+            throw new IllegalArgumentException("Genre is required");
+        }
+        Genre cached = genres.get(normalizedName);
+        if (cached != null) {
+            return cached;
+        }
+
+        Optional<Genre> existing = genreRepository.findByNormalizedName(normalizedName);
+        if (existing.isPresent()) {
+            cacheAfterCommit(existing.get());
+            return existing.get();
+        }
+
+        Genre genre = insert(name.trim(), normalizedName);
+        // Committed on its own, so it is visible to other requests already
+        cache(genre);
+        return genre;
+    }
+
+    private Genre insert(String name, String normalizedName) {
+        try {
+            log.info("Creating genre: {}", name);
+            return insertTemplate.execute(status -> genreRepository.save(new Genre(null, name, normalizedName)));
+        } catch (DataIntegrityViolationException e) {
+            // Another request created the genre after our lookup
+            log.debug("Genre {} was created concurrently", normalizedName);
+            return genreRepository.findByNormalizedName(normalizedName).orElseThrow(() -> e);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<Genre> getAllGenres() {
+        List<Genre> all = new ArrayList<>(genres.values());
+        all.sort(Comparator.comparing(Genre::getName));
+        return all;
+    }
+
+    /**
+     * Links movies that only carry a free-text genre to a genre row. Each
+     * distinct text is resolved once and assigned with a single update.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void assignMissingGenres() {
+        List<String> unassigned = movieRepository.findGenresWithoutId();
+        if (unassigned.isEmpty()) {
+            return;
+        }
+
+        int updated = 0;
+        for (String name : unassigned) {
+            Genre genre = resolveOrCreate(name);
+            updated += movieRepository.assignGenre(name, genre.getId(), genre.getName());
+        }
+        catalog.invalidate();
+        log.info("Linked {} movies to {} genres", updated, unassigned.size());
+    }
+
+    private void cacheAfterCommit(Genre genre) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache(genre);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache(genre);
+            }
+        });
+    }
+
+    private void cache(Genre genre) {
+        genres.putIfAbsent(genre.getNormalizedName(), genre);
+    }
+}
@@ -0,0 +1,30 @@
+package com.vortexbird.movieticket.service;
+
+import com.vortexbird.movieticket.model.Movie;
+
+/**
+ * Service interface for emails to every purchaser of a movie.
+ *
+ * A notification is recorded as a job in the caller's transaction and fanned
+ * out into the email outbox in the background, a chunk of recipients at a
+ * time, however many purchasers the movie has.
+ */
+public interface IBulkNotificationService {
+
+    /**
+     * Starts notifying the holders of confirmed purchases that
+     * {@code movie} was withdrawn. Must be called inside the transaction
+     * that disables it.
+     *
+     * @param movie The movie that was withdrawn
+     */
+    void notifyMovieWithdrawn(Movie movie);
+
+    /**
+     * Queues the next chunk of recipients of the oldest pending job, unless
+     * the outbox already holds enough of that job's emails.
+     *
+     * @return whether a job advanced
+     */
+    boolean advanceJob();
+}
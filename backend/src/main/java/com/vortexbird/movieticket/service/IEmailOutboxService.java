@@ -0,0 +1,49 @@
+package com.vortexbird.movieticket.service;
+
+import com.vortexbird.movieticket.dto.RedriveDeadLettersDTO;
+import com.vortexbird.movieticket.dto.RedriveResultDTO;
+import com.vortexbird.movieticket.model.EmailType;
+import com.vortexbird.movieticket.model.TicketPurchase;
+
+import java.util.List;
+
+/**
+ * Service interface for the transactional email outbox.
+ *
+ * Emails are recorded in the caller's transaction and sent later by a
+ * background relay, so they go out exactly when that transaction commits and
+ * mail server latency never reaches the request.
+ */
+public interface IEmailOutboxService {
+
+    /**
+     * Records an email about a purchase. Must be called inside the
+     * transaction that changes the purchase.
+     *
+     * @param type The kind of email, which selects its template
+     * @param purchase The purchase the email is about
+     */
+    void enqueue(EmailType type, TicketPurchase purchase);
+
+    /**
+     * Records an email about each of {@code purchases}, like
+     * {@link #enqueue(EmailType, TicketPurchase)}.
+     */
+    void enqueueAll(EmailType type, List<TicketPurchase> purchases);
+
+    /**
+     * Claims, sends and settles one batch of due emails.
+     *
+     * @return the number of emails claimed
+     */
+    int relayBatch();
+
+    /**
+     * Moves the selected dead-letter emails back to the outbox with a fresh
+     * set of attempts and wakes the relay to send them.
+     *
+     * @param request Which dead letters to re-drive; all when empty
+     * @return how many emails were queued again
+     */
+    RedriveResultDTO redriveDeadLetters(RedriveDeadLettersDTO request);
+}
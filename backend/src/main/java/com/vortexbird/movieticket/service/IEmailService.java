@@ -1,6 +1,10 @@
 package com.vortexbird.movieticket.service;
 
-import com.vortexbird.movieticket.model.TicketPurchase;
+import com.vortexbird.movieticket.model.EmailType;
+import com.vortexbird.movieticket.service.mail.PurchaseSnapshot;
+
+import java.util.List;
+import java.util.Map;
 
 /**
  * Service interface for email operations.
@@ -12,7 +16,18 @@ public interface IEmailService {
     /**
      * Sends purchase confirmation email to customer.
      * 
-     * @param purchase The ticket purchase containing all purchase details
+     * @param purchase Snapshot of the purchase details, taken in its transaction
+     * @throws org.springframework.mail.MailException when the email could not be sent
+     */
+    void sendPurchaseConfirmation(PurchaseSnapshot purchase);
+
+    /**
+     * Sends one email of the given type for each of several purchases.
+     *
+     * @param type The kind of email, which selects its template
+     * @param purchases Snapshots of the purchases, taken in their transactions
+     * @return the error of every email that was not sent, by the index of its
+     *         purchase in {@code purchases}; a purchase may appear more than once
      */
-    void sendPurchaseConfirmation(TicketPurchase purchase);
+    Map<Integer, Exception> sendPurchaseEmails(EmailType type, List<PurchaseSnapshot> purchases);
 }
@@ -0,0 +1,25 @@
+package com.vortexbird.movieticket.service;
+
+import com.vortexbird.movieticket.model.Genre;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service interface for Genre business logic.
+ *
+ * Resolves free-text genre names to genre ids, case- and accent-insensitively,
+ * from an in-memory copy of the genres table.
+ */
+public interface IGenreService {
+
+    Optional<Genre> resolve(String name);
+
+    /**
+     * Resolves the genre, creating it when no genre has the same normalized
+     * name.
+     */
+    Genre resolveOrCreate(String name);
+
+    List<Genre> getAllGenres();
+}
@@ -0,0 +1,26 @@
+package com.vortexbird.movieticket.service;
+
+import java.util.function.Supplier;
+
+/**
+ * Service interface for idempotent request handling.
+ *
+ * Runs an action at most once per Idempotency-Key and replays its stored
+ * response to retries of the same request.
+ */
+public interface IIdempotencyService {
+
+    /**
+     * Runs {@code action} unless a request with the same key already
+     * completed, in which case its response is returned instead. The action
+     * joins a transaction that also stores its response, so its writes are
+     * never committed without it. If that transaction rolls back, the key is
+     * released so the request can be retried.
+     *
+     * @param request the request content; a key reused with a different
+     *        request is rejected
+     * @throws com.vortexbird.movieticket.shared.exception.ConflictException
+     *         when the key belongs to a different request or one still running
+     */
+    <T> IdempotentResult<T> execute(String key, Object request, Class<T> responseType, Supplier<T> action);
+}
@@ -0,0 +1,25 @@
+package com.vortexbird.movieticket.service;
+
+import com.vortexbird.movieticket.dto.MovieImportResultDTO;
+import com.vortexbird.movieticket.service.importer.MovieImportFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Service interface for bulk movie imports.
+ *
+ * Reads movies from a CSV or NDJSON body, validates every row and stores the
+ * valid ones, reporting the rejected rows instead of failing the import.
+ */
+public interface IMovieImportService {
+
+    /**
+     * Imports every movie of {@code body}. The body is read row by row, so
+     * its size is not bounded by memory.
+     *
+     * @throws IllegalArgumentException when the body cannot be read as
+     *         {@code format} at all, e.g. a CSV header misses a column
+     */
+    MovieImportResultDTO importMovies(InputStream body, MovieImportFormat format) throws IOException;
+}
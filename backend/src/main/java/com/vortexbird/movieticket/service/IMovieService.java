@@ -1,6 +1,11 @@
 package com.vortexbird.movieticket.service;
 
+import com.vortexbird.movieticket.dto.CatalogStatsDTO;
+import com.vortexbird.movieticket.dto.CursorPageDTO;
 import com.vortexbird.movieticket.dto.MovieDTO;
+import com.vortexbird.movieticket.dto.MovieFacetsDTO;
+import com.vortexbird.movieticket.dto.MovieSuggestionDTO;
+import com.vortexbird.movieticket.dto.MovieSummaryDTO;
 import com.vortexbird.movieticket.model.Movie;
 
 import java.util.List;
@@ -16,11 +21,46 @@ public interface IMovieService {
 
     List<Movie> getAllMovies();
 
+    CursorPageDTO<MovieSummaryDTO> getMoviePage(Long afterId, int limit);
+
     Movie getMovieById(Long id);
 
     Movie updateMovie(Long id, MovieDTO movieDTO);
 
+    /**
+     * Withdraws a movie from the listings and starts notifying the holders
+     * of its confirmed purchases.
+     */
     void disableMovie(Long id);
 
     List<Movie> searchMovies(String title, String genre);
+
+    /**
+     * Like {@link #searchMovies(String, String)}, but when no title contains
+     * the search text, returns the closest titles within a small edit distance
+     * of each of its words instead, best first.
+     */
+    List<Movie> fuzzySearchMovies(String title, String genre);
+
+    List<MovieSuggestionDTO> suggestMovies(String query, int limit);
+
+    /**
+     * Genre counts and duration/price histograms of the enabled catalog.
+     */
+    MovieFacetsDTO getFacets();
+
+    /**
+     * Monotonically increasing version of the enabled catalog, bumped after
+     * every committed movie mutation.
+     */
+    long getCatalogVersion();
+
+    /**
+     * Id of the instance that counts {@link #getCatalogVersion()}. Instances
+     * count versions independently, so a version only identifies the catalog
+     * contents together with this id.
+     */
+    String getCatalogInstanceId();
+
+    CatalogStatsDTO getCatalogStats();
 }
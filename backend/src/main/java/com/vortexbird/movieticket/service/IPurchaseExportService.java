@@ -0,0 +1,21 @@
+package com.vortexbird.movieticket.service;
+
+import com.vortexbird.movieticket.service.exporter.PurchaseExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Service interface for purchase exports.
+ *
+ * Writes every purchase of a movie to a stream without holding them in
+ * memory, oldest first.
+ */
+public interface IPurchaseExportService {
+
+    /**
+     * Writes the purchases of {@code movieId} to {@code out} and returns how
+     * many were written. {@code out} is flushed but not closed.
+     */
+    long exportMoviePurchases(Long movieId, PurchaseExportFormat format, OutputStream out) throws IOException;
+}
@@ -2,6 +2,8 @@ package com.vortexbird.movieticket.service;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Interface for Storage Service operations.
  * 
@@ -10,13 +12,17 @@ import org.springframework.web.multipart.MultipartFile;
 public interface IStorageService {
     
     /**
-     * Upload a file to cloud storage.
-     * 
+     * Upload a file to cloud storage without blocking the caller.
+     *
+     * The file is validated and read before this method returns, so the
+     * multipart request may be released while the upload is in flight.
+     *
      * @param file The file to upload
-     * @return The public URL of the uploaded file
-     * @throws RuntimeException if upload fails
+     * @return A future completed with the public URL of the uploaded file, or
+     *         exceptionally with a RuntimeException if the upload fails
+     * @throws IllegalArgumentException if the file is invalid
      */
-    String uploadFile(MultipartFile file);
+    CompletableFuture<String> uploadFile(MultipartFile file);
     
     /**
      * Delete a file from cloud storage.
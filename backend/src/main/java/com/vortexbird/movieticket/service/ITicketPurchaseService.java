@@ -1,7 +1,10 @@
 package com.vortexbird.movieticket.service;
 
 import com.vortexbird.movieticket.dto.CreateTicketPurchaseDTO;
+import com.vortexbird.movieticket.dto.CursorPageDTO;
+import com.vortexbird.movieticket.dto.PurchaseFilterDTO;
 import com.vortexbird.movieticket.dto.TicketPurchaseDTO;
+import com.vortexbird.movieticket.dto.TicketValidationDTO;
 import com.vortexbird.movieticket.model.TicketPurchase;
 
 import java.util.List;
@@ -21,7 +24,23 @@ public interface ITicketPurchaseService {
 
     List<TicketPurchaseDTO> getMoviePurchases(Long movieId);
 
+    /**
+     * One page of a customer's purchases, newest first. Pass the previous
+     * page's {@code nextCursor} as {@code cursor} to continue.
+     */
+    CursorPageDTO<TicketPurchaseDTO> getCustomerPurchasePage(Long customerId, PurchaseFilterDTO filter,
+                                                             String cursor, int limit);
+
+    CursorPageDTO<TicketPurchaseDTO> getMoviePurchasePage(Long movieId, PurchaseFilterDTO filter,
+                                                          String cursor, int limit);
+
     void cancelPurchase(Long id);
 
+    /**
+     * Admits the tickets of a confirmed purchase at the cinema entrance,
+     * marking them as used so the same code cannot be scanned twice.
+     */
+    TicketValidationDTO validateTicket(String confirmationCode);
+
     TicketPurchaseDTO toDTO(TicketPurchase purchase);
 }
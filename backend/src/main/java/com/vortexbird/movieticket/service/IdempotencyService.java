@@ -0,0 +1,236 @@
+package com.vortexbird.movieticket.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vortexbird.movieticket.model.IdempotencyRecord;
+import com.vortexbird.movieticket.repository.IIdempotencyRecordRepository;
+import com.vortexbird.movieticket.shared.exception.ConflictException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Implementation of Idempotency Service.
+ *
+ * A key is claimed by inserting its row before the action runs; the primary
+ * key makes concurrent requests with the same key fail to claim it, so only
+ * one of them executes. The action then runs in a transaction that also
+ * stores its response on the row as JSON for the configured TTL, so the
+ * action's writes and the stored response commit together or not at all.
+ *
+ * A pending row only holds the key for a short processing lease. If the
+ * instance dies before committing, nothing of the action was written and a
+ * retry takes the key over once the lease ends. A request whose claim was
+ * taken over cannot store its response and rolls back. When the action's
+ * transaction rolls back the key is released, since nothing was done.
+ *
+ * Completed responses are also kept in a bounded in-memory LRU cache, so
+ * retry storms are answered without touching the database. Claims, releases
+ * and purges commit in their own transactions.
+ */
+@Service
+@Slf4j
+public class IdempotencyService implements IIdempotencyService {
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final IIdempotencyRecordRepository recordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate actionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration processingLease;
+    private final Map<String, StoredResponse> cache;
+
+    public IdempotencyService(IIdempotencyRecordRepository recordRepository,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${idempotency.ttl:PT24H}") Duration ttl,
+                              @Value("${idempotency.processing-lease:PT1M}") Duration processingLease,
+                              @Value("${idempotency.cache-size:10000}") int cacheSize) {
+        this.recordRepository = recordRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.actionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.processingLease = processingLease;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    @Override
+    public <T> IdempotentResult<T> execute(String key, Object request, Class<T> responseType, Supplier<T> action) {
+        if (!StringUtils.hasText(key) || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must have between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request);
+
+        // Identifies this request's claim; truncated to the precision the column stores
+        LocalDateTime claimedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        StoredResponse stored = cached(key);
+        if (stored == null) {
+            Optional<IdempotencyRecord> existing = claim(key, requestHash, claimedAt);
+            if (existing.isPresent()) {
+                IdempotencyRecord record = existing.get();
+                if (record.getResponseBody() == null) {
+                    if (!record.getRequestHash().equals(requestHash)) {
+                        throw new ConflictException("Idempotency-Key was already used for a different request");
+                    }
+                    throw new ConflictException("A request with this Idempotency-Key is still being processed");
+                }
+                stored = new StoredResponse(record.getRequestHash(), record.getResponseBody(), record.getExpiresAt());
+                cache(key, stored);
+            }
+        }
+        if (stored != null) {
+            return replay(key, stored, requestHash, responseType);
+        }
+
+        Completion<T> completion;
+        try {
+            completion = actionTemplate.execute(status -> {
+                T value = action.get();
+                String body = toJson(value);
+                LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+                if (recordRepository.complete(key, claimedAt, body, expiresAt) == 0) {
+                    throw new ConflictException("A request with this Idempotency-Key is still being processed");
+                }
+                return new Completion<>(value, new StoredResponse(requestHash, body, expiresAt));
+            });
+        } catch (RuntimeException e) {
+            release(key, claimedAt);
+            throw e;
+        }
+        cache(key, completion.response());
+        return new IdempotentResult<>(completion.value(), false);
+    }
+
+    /**
+     * Deletes expired keys, so the table only holds the last TTL's requests.
+     */
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer deleted = transactionTemplate.execute(status -> recordRepository.deleteExpired(now));
+        synchronized (cache) {
+            cache.values().removeIf(response -> !response.expiresAt().isAfter(now));
+        }
+        log.info("Purged {} expired idempotency keys", deleted);
+    }
+
+    /**
+     * Inserts the pending row for {@code key}, held for the processing lease.
+     * Returns the row holding the key when another request claimed it first;
+     * an expired row, including a pending one whose lease ran out, is
+     * replaced.
+     */
+    private Optional<IdempotencyRecord> claim(String key, String requestHash, LocalDateTime claimedAt) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        recordRepository.claim(key, requestHash, claimedAt, claimedAt.plus(processingLease)));
+                return Optional.empty();
+            } catch (DataIntegrityViolationException e) {
+                Optional<IdempotencyRecord> existing = recordRepository.findById(key);
+                if (existing.isPresent() && existing.get().getExpiresAt().isAfter(claimedAt)) {
+                    return existing;
+                }
+                transactionTemplate.executeWithoutResult(status -> recordRepository.deleteIfExpired(key, claimedAt));
+            }
+        }
+        throw new ConflictException("A request with this Idempotency-Key is still being processed");
+    }
+
+    /**
+     * Frees the key after the action's transaction failed, so the request can
+     * be retried. Only this request's claim is deleted and only while pending:
+     * if the commit went through despite the error, the stored response stays
+     * and retries replay it. If this fails too the key stays pending only
+     * until its lease ends.
+     */
+    private void release(String key, LocalDateTime claimedAt) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> recordRepository.release(key, claimedAt));
+        } catch (RuntimeException e) {
+            log.warn("Failed to release Idempotency-Key {}; it is freed when its lease ends", key, e);
+        }
+    }
+
+    private <T> IdempotentResult<T> replay(String key, StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new ConflictException("Idempotency-Key was already used for a different request");
+        }
+        log.info("Replaying response for Idempotency-Key: {}", key);
+        try {
+            return new IdempotentResult<>(objectMapper.readValue(stored.body(), responseType), true);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response for Idempotency-Key " + key + " is unreadable", e);
+        }
+    }
+
+    private StoredResponse cached(String key) {
+        synchronized (cache) {
+            StoredResponse stored = cache.get(key);
+            if (stored != null && !stored.expiresAt().isAfter(LocalDateTime.now())) {
+                cache.remove(key);
+                return null;
+            }
+            return stored;
+        }
+    }
+
+    private void cache(String key, StoredResponse stored) {
+        synchronized (cache) {
+            cache.put(key, stored);
+        }
+    }
+
+    /**
+     * SHA-256 of the request's JSON, hex encoded.
+     */
+    String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(toJson(request).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private record StoredResponse(String requestHash, String body, LocalDateTime expiresAt) {
+    }
+
+    private record Completion<T>(T value, StoredResponse response) {
+    }
+}
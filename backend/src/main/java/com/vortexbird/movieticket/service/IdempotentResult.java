@@ -0,0 +1,8 @@
+package com.vortexbird.movieticket.service;
+
+/**
+ * Outcome of an idempotent request: its response and whether it was replayed
+ * from an earlier request with the same key instead of being executed.
+ */
+public record IdempotentResult<T>(T value, boolean replayed) {
+}
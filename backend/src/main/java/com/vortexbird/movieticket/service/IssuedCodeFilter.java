@@ -0,0 +1,215 @@
+package com.vortexbird.movieticket.service;
+
+import com.vortexbird.movieticket.repository.ITicketPurchaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter of issued confirmation codes, used to turn away scans of
+ * codes that were never issued without querying the database.
+ *
+ * The filter is seeded from every stored code when the application starts,
+ * gets codes created by this instance as they are issued, and periodically
+ * picks up codes created by other instances. Confirmation codes sort by
+ * creation time, so that refresh is a range scan of the confirmation code
+ * index over the last interval. A code generated after the last refresh
+ * started, as told by its embedded timestamp, is never rejected, so a ticket
+ * bought on another instance moments ago still reaches the database.
+ *
+ * The filter has no false negatives: until it is seeded it admits every
+ * code, and once its expected capacity is exceeded it is rebuilt larger.
+ * Lookups and inserts are lock-free.
+ */
+@Component
+@Slf4j
+public class IssuedCodeFilter {
+
+    private final ITicketPurchaseRepository purchaseRepository;
+    private final long expectedCodes;
+    private final double falsePositiveRate;
+    private final long marginMillis;
+
+    /** Null until seeded. */
+    private volatile Bits bits;
+
+    /** Codes generated from this instant on may not be in the filter yet. */
+    private volatile long refreshedFrom;
+
+    public IssuedCodeFilter(ITicketPurchaseRepository purchaseRepository,
+                            @Value("${tickets.validation.expected-codes:1000000}") long expectedCodes,
+                            @Value("${tickets.validation.false-positive-rate:0.01}") double falsePositiveRate,
+                            @Value("${tickets.validation.refresh-margin:PT1M}") Duration refreshMargin) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+        this.purchaseRepository = purchaseRepository;
+        this.expectedCodes = Math.max(1, expectedCodes);
+        this.falsePositiveRate = falsePositiveRate;
+        this.marginMillis = refreshMargin.toMillis();
+    }
+
+    /**
+     * Returns false only when {@code code} was certainly never issued.
+     */
+    public boolean mightBeIssued(String code) {
+        Bits current = bits;
+        if (current == null || current.mightContain(code)) {
+            return true;
+        }
+        long issuedAt = ConfirmationCodeGenerator.issuedAt(code);
+        return issuedAt >= refreshedFrom && issuedAt <= System.currentTimeMillis() + marginMillis;
+    }
+
+    /**
+     * Records a code issued by this instance.
+     */
+    public void add(String code) {
+        Bits current = bits;
+        if (current != null) {
+            current.put(code);
+        }
+    }
+
+    /**
+     * Builds the filter from every stored confirmation code, sized for twice
+     * the current number of purchases.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void seed() {
+        long started = System.currentTimeMillis();
+        Bits seeded = new Bits(Math.max(expectedCodes, purchaseRepository.count() * 2), falsePositiveRate);
+        if (bits == null) {
+            // Codes committed while the stream runs may be missed; the next refresh picks them up
+            refreshedFrom = started - marginMillis;
+        }
+        try (Stream<String> codes = purchaseRepository.streamConfirmationCodes()) {
+            codes.forEach(seeded::put);
+        }
+        bits = seeded;
+        log.info("Issued code filter seeded with {} codes in {} ms ({} bits, {} hashes)",
+                seeded.count(), System.currentTimeMillis() - started, seeded.size, seeded.hashes);
+    }
+
+    /**
+     * Adds codes issued since the last refresh, including those of other
+     * instances, and rebuilds the filter once it holds more codes than it was
+     * sized for.
+     */
+    @Scheduled(initialDelayString = "${tickets.validation.refresh-interval:PT10S}",
+            fixedDelayString = "${tickets.validation.refresh-interval:PT10S}")
+    @Transactional(readOnly = true)
+    public void refresh() {
+        Bits current = bits;
+        if (current == null) {
+            return;
+        }
+        if (current.count() > current.capacity) {
+            log.info("Issued code filter holds {} codes, above its capacity of {}; rebuilding",
+                    current.count(), current.capacity);
+            seed();
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        List<String> codes = purchaseRepository.findConfirmationCodesBetween(
+                ConfirmationCodeGenerator.lowestCodeAt(refreshedFrom - 1),
+                ConfirmationCodeGenerator.lowestCodeAt(started + marginMillis));
+        codes.forEach(current::put);
+        refreshedFrom = started - marginMillis;
+        log.debug("Issued code filter refreshed with {} recent codes", codes.size());
+    }
+
+    /**
+     * Fixed-size bit set probed at {@code hashes} positions per code, derived
+     * from one 64-bit hash by double hashing.
+     */
+    private static final class Bits {
+
+        private final AtomicLongArray words;
+        private final long size;
+        private final int hashes;
+        private final long capacity;
+        private final AtomicLong count = new AtomicLong();
+
+        private Bits(long capacity, double falsePositiveRate) {
+            long wanted = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) Math.min(Integer.MAX_VALUE, (wanted + 63) >>> 6));
+            this.size = (long) words.length() << 6;
+            this.hashes = Math.max(1, (int) Math.round((double) size / capacity * Math.log(2)));
+            this.capacity = capacity;
+        }
+
+        private boolean mightContain(String code) {
+            long hash = hash(code);
+            long step = mix(hash) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(hash + i * step, size);
+                if ((words.get((int) (bit >>> 6)) & 1L << bit) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void put(String code) {
+            long hash = hash(code);
+            long step = mix(hash) | 1;
+            boolean added = false;
+            for (int i = 0; i < hashes; i++) {
+                added |= set(Math.floorMod(hash + i * step, size));
+            }
+            // Codes setting no new bit are counted as already present
+            if (added) {
+                count.incrementAndGet();
+            }
+        }
+
+        private boolean set(long bit) {
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0) {
+                if (words.compareAndSet(word, current, current | mask)) {
+                    return true;
+                }
+                current = words.get(word);
+            }
+            return false;
+        }
+
+        private long count() {
+            return count.get();
+        }
+
+        /** FNV-1a over the UTF-8 bytes, finished with a bit mixer. */
+        private static long hash(String code) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : code.getBytes(StandardCharsets.UTF_8)) {
+                hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+            }
+            return mix(hash);
+        }
+
+        /** Finalizer of MurmurHash3's 64-bit variant. */
+        private static long mix(long hash) {
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            return hash ^ hash >>> 33;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.vortexbird.movieticket.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vortexbird.movieticket.dto.ImportErrorDTO;
+import com.vortexbird.movieticket.dto.MovieDTO;
+import com.vortexbird.movieticket.dto.MovieImportResultDTO;
+import com.vortexbird.movieticket.model.Genre;
+import com.vortexbird.movieticket.service.catalog.MovieCatalog;
+import com.vortexbird.movieticket.service.catalog.MovieFacets;
+import com.vortexbird.movieticket.service.catalog.TitleNormalizer;
+import com.vortexbird.movieticket.service.importer.MovieImportFormat;
+import com.vortexbird.movieticket.service.importer.MovieRecord;
+import com.vortexbird.movieticket.service.importer.MovieRecordReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of Movie Import Service.
+ *
+ * Rows are read one at a time and validated against the {@link MovieDTO}
+ * constraints. Valid rows are written with plain JDBC batch inserts of
+ * {@link #BATCH_SIZE} rows, each batch in its own transaction, so a failing
+ * batch only rejects its own rows. JPA is bypassed on purpose: rows never
+ * need to become managed entities, and ids are reserved in blocks from the
+ * same sequence Hibernate allocates {@code Movie} ids from.
+ *
+ * Since the inserts bypass {@link MovieService}, the movie catalog and its
+ * facets are reloaded from the database once the import ends.
+ */
+@Service
+@Slf4j
+public class MovieImportService implements IMovieImportService {
+
+    static final int BATCH_SIZE = 500;
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    /** Ids per sequence value; the allocationSize of {@code Movie}'s generator. */
+    static final int ID_BLOCK_SIZE = 50;
+
+    private static final String NEXT_ID_BLOCKS = "SELECT nextval('movies_id_seq') FROM generate_series(1, ?)";
+
+    private static final String INSERT_MOVIE = "INSERT INTO movies "
+            + "(title, description, image_url, duration_minutes, genre, genre_id, price, is_enabled, normalized_title, id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final IGenreService genreService;
+    private final MovieCatalog catalog;
+    private final MovieFacets facets;
+
+    public MovieImportService(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              Validator validator,
+                              ObjectMapper objectMapper,
+                              IGenreService genreService,
+                              MovieCatalog catalog,
+                              MovieFacets facets) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.genreService = genreService;
+        this.catalog = catalog;
+        this.facets = facets;
+    }
+
+    @Override
+    public MovieImportResultDTO importMovies(InputStream body, MovieImportFormat format) throws IOException {
+        ImportReport report = new ImportReport();
+        List<MovieRecord> batch = new ArrayList<>(BATCH_SIZE);
+        long start = System.nanoTime();
+
+        try (MovieRecordReader reader = format.open(
+                new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)), objectMapper)) {
+            MovieRecord record;
+            while ((record = reader.next()) != null) {
+                report.total++;
+                String error = record.getError() != null ? record.getError() : validate(record.getMovie());
+                if (error != null) {
+                    report.reject(record.getLine(), error);
+                    continue;
+                }
+                batch.add(record);
+                if (batch.size() == BATCH_SIZE) {
+                    insert(batch, report);
+                    batch.clear();
+                }
+            }
+            insert(batch, report);
+        } finally {
+            if (report.imported > 0) {
+                catalog.invalidate();
+                facets.invalidate();
+            }
+        }
+
+        log.info("Imported {} of {} movies ({} rejected) in {} ms", report.imported, report.total,
+                report.failed, (System.nanoTime() - start) / 1_000_000);
+        return report.toDTO();
+    }
+
+    /**
+     * Returns the constraint violations of {@code movie} as one message, or
+     * null when it is valid.
+     */
+    private String validate(MovieDTO movie) {
+        List<String> errors = validator.validate(movie).stream()
+                .sorted(Comparator.comparing((ConstraintViolation<MovieDTO> violation) ->
+                        violation.getPropertyPath().toString()))
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.toCollection(ArrayList::new));
+        // Imports carry no image file, so the URL is the only source of the image
+        if (!StringUtils.hasText(movie.getImageUrl())) {
+            errors.add("imageUrl: Image URL is required");
+        }
+        return errors.isEmpty() ? null : String.join("; ", errors);
+    }
+
+    private void insert(List<MovieRecord> batch, ImportReport report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Long> ids = reserveIds(batch.size());
+                List<Object[]> rows = new ArrayList<>(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    rows.add(row(batch.get(i).getMovie(), ids.get(i)));
+                }
+                jdbcTemplate.batchUpdate(INSERT_MOVIE, rows);
+            });
+            report.imported += batch.size();
+        } catch (RuntimeException e) {
+            log.error("Import batch of {} movies starting at line {} failed: {}",
+                    batch.size(), batch.get(0).getLine(), e.getMessage());
+            for (MovieRecord record : batch) {
+                report.reject(record.getLine(), "Could not be saved: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reserves {@code count} movie ids. Each sequence value hands out the
+     * block of {@link #ID_BLOCK_SIZE} ids ending at it, as Hibernate's pooled
+     * optimizer does, so a batch costs one block per 50 rows instead of a
+     * whole block per row, and never shares ids with JPA-created movies.
+     */
+    private List<Long> reserveIds(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            int blocks = (count - ids.size() + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+            List<Long> his = jdbcTemplate.queryForList(NEXT_ID_BLOCKS, Long.class, blocks);
+            if (his.isEmpty()) {
+                throw new IllegalStateException("Sequence movies_id_seq returned no values");
+            }
+            for (long hi : his) {
+                // The first value of a fresh sequence only covers the ids from 1
+                for (long id = Math.max(1, hi - ID_BLOCK_SIZE + 1); id <= hi && ids.size() < count; id++) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private Object[] row(MovieDTO movie, long id) {
+        Genre genre = genreService.resolveOrCreate(movie.getGenre());
+        return new Object[]{
+                movie.getTitle(),
+                movie.getDescription(),
+                movie.getImageUrl(),
+                movie.getDuration(),
+                genre.getName(),
+                genre.getId(),
+                movie.getPrice(),
+                movie.getEnabled() == null || movie.getEnabled(),
+                TitleNormalizer.normalize(movie.getTitle()),
+                id
+        };
+    }
+
+    private static final class ImportReport {
+
+        private long total;
+        private long imported;
+        private long failed;
+        private final List<ImportErrorDTO> errors = new ArrayList<>();
+
+        private void reject(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportErrorDTO(line, message));
+            }
+        }
+
+        private MovieImportResultDTO toDTO() {
+            // Rows of failed batches are reported after later validation errors
+            errors.sort(Comparator.comparingLong(ImportErrorDTO::getLine));
+            return new MovieImportResultDTO(total, imported, failed, errors, failed > errors.size());
+        }
+    }
+}
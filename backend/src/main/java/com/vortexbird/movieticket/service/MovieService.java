@@ -1,22 +1,46 @@
 package com.vortexbird.movieticket.service;
 
+import com.vortexbird.movieticket.dto.CatalogStatsDTO;
+import com.vortexbird.movieticket.dto.CursorPageDTO;
 import com.vortexbird.movieticket.dto.MovieDTO;
+import com.vortexbird.movieticket.dto.MovieFacetsDTO;
+import com.vortexbird.movieticket.dto.MovieSuggestionDTO;
+import com.vortexbird.movieticket.dto.MovieSummaryDTO;
+import com.vortexbird.movieticket.model.Genre;
 import com.vortexbird.movieticket.model.Movie;
 import com.vortexbird.movieticket.repository.IMovieRepository;
+import com.vortexbird.movieticket.service.catalog.CatalogSnapshot;
+import com.vortexbird.movieticket.service.catalog.MovieCatalog;
+import com.vortexbird.movieticket.service.catalog.MovieFacets;
+import com.vortexbird.movieticket.service.catalog.TitleNormalizer;
 import com.vortexbird.movieticket.shared.exception.ResourceNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of Movie Service.
  *
  * Contains business logic for movie management operations. Implements the
  * Service pattern for clean architecture.
+ *
+ * Enabled-movie reads are served from the in-memory {@link MovieCatalog} and
+ * only join an existing transaction, so a cache hit never borrows a database
+ * connection. Writes go to the database and are applied to the catalog after
+ * commit.
  */
 @Service
 @RequiredArgsConstructor
@@ -24,9 +48,24 @@ import java.util.List;
 @Transactional
 public class MovieService implements IMovieService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_FUZZY_RESULTS = 20;
+
     @Autowired
     private IMovieRepository movieRepository;
-     
+
+    @Autowired
+    private MovieCatalog catalog;
+
+    @Autowired
+    private MovieFacets facets;
+
+    @Autowired
+    private IGenreService genreService;
+
+    @Autowired
+    private IBulkNotificationService bulkNotificationService;
+
 
     @Override
     public Movie createMovie(MovieDTO movieDTO) {
@@ -36,43 +75,69 @@ public class MovieService implements IMovieService {
         movie.setDescription(movieDTO.getDescription());
         movie.setImageUrl(movieDTO.getImageUrl());
         movie.setDuration(movieDTO.getDuration());
-        movie.setGenre(movieDTO.getGenre());
+        setGenre(movie, movieDTO.getGenre());
         movie.setPrice(movieDTO.getPrice());
         movie.setIsEnabled(movieDTO.getEnabled());
 
         Movie savedMovie = movieRepository.save(movie);
+        publishAfterCommit(savedMovie);
         log.info("Movie created successfully: {}", savedMovie.getTitle());
         return savedMovie;
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Movie> getAllMovies() {
         log.info("Fetching all enabled movies");
-        return movieRepository.findAllEnabled();
+        return catalogSnapshot()
+            .map(CatalogSnapshot::getMovies)
+            .orElseGet(() -> movieRepository.findAllEnabled());
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CursorPageDTO<MovieSummaryDTO> getMoviePage(Long afterId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long after = afterId != null ? afterId : 0L;
+        log.info("Fetching movie page after id {} with limit {}", after, pageSize);
+
+        // Fetch one extra row to know whether another page exists
+        List<MovieSummaryDTO> rows = catalogSnapshot()
+            .map(snapshot -> snapshot.after(after, pageSize + 1).stream()
+                .map(this::toSummary)
+                .collect(Collectors.toList()))
+            .orElseGet(() -> movieRepository.findEnabledSummariesAfter(after, PageRequest.of(0, pageSize + 1)));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<MovieSummaryDTO> items = new ArrayList<>(hasMore ? rows.subList(0, pageSize) : rows);
+        String nextCursor = hasMore ? String.valueOf(items.get(items.size() - 1).getId()) : null;
+        return new CursorPageDTO<>(items, nextCursor, hasMore);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Movie getMovieById(Long id) {
         log.info("Fetching movie with id: {}", id);
-        return movieRepository.findByIdAndIsEnabledTrue(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Movie not found with id: " + id));
+        Optional<Movie> movie = catalogSnapshot()
+            .map(snapshot -> snapshot.findById(id))
+            .orElseGet(() -> movieRepository.findByIdAndIsEnabledTrue(id));
+        return movie.orElseThrow(() -> new ResourceNotFoundException("Movie not found with id: " + id));
     }
 
     @Override
     public Movie updateMovie(Long id, MovieDTO movieDTO) {
         log.info("Updating movie with id: {}", id);
-        Movie movie = getMovieById(id);
-        
+        Movie movie = findEnabledMovie(id);
+
         movie.setTitle(movieDTO.getTitle());
         movie.setDescription(movieDTO.getDescription());
         movie.setImageUrl(movieDTO.getImageUrl());
         movie.setDuration(movieDTO.getDuration());
-        movie.setGenre(movieDTO.getGenre());
+        setGenre(movie, movieDTO.getGenre());
         movie.setPrice(movieDTO.getPrice());
-        
+
         Movie updatedMovie = movieRepository.save(movie);
+        publishAfterCommit(updatedMovie);
         log.info("Movie updated successfully: {}", updatedMovie.getTitle());
         return updatedMovie;
     }
@@ -80,36 +145,196 @@ public class MovieService implements IMovieService {
     @Override
     public void disableMovie(Long id) {
         log.info("Disabling movie with id: {}", id);
-        Movie movie = getMovieById(id);
+        Movie movie = findEnabledMovie(id);
         movie.setIsEnabled(false);
         movieRepository.save(movie);
+        bulkNotificationService.notifyMovieWithdrawn(movie);
+        publishAfterCommit(movie);
         log.info("Movie disabled successfully: {}", movie.getTitle());
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Movie> searchMovies(String title, String genre) {
         log.info("Searching movies with title: '{}' and genre: '{}'", title, genre);
-        
+
         boolean hasTitle = title != null && !title.trim().isEmpty();
         boolean hasGenre = genre != null && !genre.trim().isEmpty();
-        
+
+        Integer genreId = null;
+        if (hasGenre) {
+            Optional<Genre> resolved = genreService.resolve(genre);
+            if (resolved.isEmpty()) {
+                return List.of();
+            }
+            genreId = resolved.get().getId();
+        }
+
+        Optional<CatalogSnapshot> snapshot = catalogSnapshot();
+        if (snapshot.isPresent()) {
+            return snapshot.get().search(title, genreId);
+        }
+
         // Both title and genre
         if (hasTitle && hasGenre) {
-            return movieRepository.findByTitleAndGenre(title, genre);
+            return movieRepository.searchByNormalizedTitleAndGenreId(TitleNormalizer.normalize(title), genreId);
         }
-        
+
         // Only title
         if (hasTitle) {
-            return movieRepository.findByTitle(title);
+            return movieRepository.searchByNormalizedTitle(TitleNormalizer.normalize(title));
         }
-        
+
         // Only genre
         if (hasGenre) {
-            return movieRepository.findByGenre(genre);
+            return movieRepository.findByGenreId(genreId);
         }
-        
+
         // No filters
-        return getAllMovies();
+        return movieRepository.findAllEnabled();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<Movie> fuzzySearchMovies(String title, String genre) {
+        List<Movie> exact = searchMovies(title, genre);
+        if (!exact.isEmpty() || title == null || title.trim().isEmpty()) {
+            return exact;
+        }
+
+        Integer genreId = null;
+        if (genre != null && !genre.trim().isEmpty()) {
+            Optional<Genre> resolved = genreService.resolve(genre);
+            if (resolved.isEmpty()) {
+                return exact;
+            }
+            genreId = resolved.get().getId();
+        }
+
+        log.info("No exact matches for title '{}', trying fuzzy search", title);
+        Integer fuzzyGenreId = genreId;
+        return catalogSnapshot()
+            .map(snapshot -> snapshot.fuzzySearch(title, fuzzyGenreId, MAX_FUZZY_RESULTS))
+            .orElse(exact);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<MovieSuggestionDTO> suggestMovies(String query, int limit) {
+        if (query == null || query.trim().isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        List<Movie> movies = catalogSnapshot()
+            .map(snapshot -> snapshot.suggest(query, limit))
+            .orElseGet(() -> movieRepository.searchByNormalizedTitle(TitleNormalizer.normalize(query)));
+        return movies.stream()
+            .limit(limit)
+            .map(movie -> new MovieSuggestionDTO(movie.getId(), movie.getTitle()))
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public MovieFacetsDTO getFacets() {
+        log.info("Fetching movie facets");
+        return facets.get(this::getAllMovies);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public long getCatalogVersion() {
+        return catalog.getVersion();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public String getCatalogInstanceId() {
+        return catalog.getInstanceId();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CatalogStatsDTO getCatalogStats() {
+        return new CatalogStatsDTO(
+            catalog.getVersion(),
+            catalog.isLoaded(),
+            catalog.size(),
+            catalog.getMaxEntries(),
+            catalog.getHits(),
+            catalog.getMisses()
+        );
+    }
+
+    private MovieSummaryDTO toSummary(Movie movie) {
+        return new MovieSummaryDTO(
+            movie.getId(),
+            movie.getTitle(),
+            movie.getGenre(),
+            movie.getDuration(),
+            movie.getPrice(),
+            movie.getImageUrl()
+        );
+    }
+
+    /**
+     * Fills in the normalized title of movies saved before the column existed
+     * or inserted by SQL without it, so database title searches find them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void normalizeMissingTitles() {
+        List<Movie> movies = movieRepository.findWithoutNormalizedTitle();
+        if (movies.isEmpty()) {
+            return;
+        }
+        // The normalized title is derived from the title, so flushing the loaded movies writes it
+        movieRepository.saveAllAndFlush(movies);
+        log.info("Normalized the titles of {} movies", movies.size());
+    }
+
+    private Optional<CatalogSnapshot> catalogSnapshot() {
+        return catalog.snapshot(() -> movieRepository.findAllEnabled());
+    }
+
+    /**
+     * Loads a managed movie for modification, bypassing the catalog so that
+     * cached instances are never mutated in place.
+     */
+    private Movie findEnabledMovie(Long id) {
+        return movieRepository.findByIdAndIsEnabledTrue(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Movie not found with id: " + id));
+    }
+
+    /**
+     * Links the movie to the genre matching {@code name}, storing the genre's
+     * canonical spelling.
+     */
+    private void setGenre(Movie movie, String name) {
+        Genre genre = genreService.resolveOrCreate(name);
+        movie.setGenre(genre.getName());
+        movie.setGenreId(genre.getId());
+    }
+
+    /**
+     * Applies a movie change to the catalog once the current transaction
+     * commits, so rolled back writes never reach the cache.
+     */
+    private void publishAfterCommit(Movie movie) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyCommitted(movie);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applyCommitted(movie);
+            }
+        });
+    }
+
+    private void applyCommitted(Movie movie) {
+        // Catalog first: facets seeded from it afterwards already include the change
+        catalog.apply(movie);
+        facets.apply(movie);
     }
 }
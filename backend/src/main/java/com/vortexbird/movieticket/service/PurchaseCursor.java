@@ -0,0 +1,38 @@
+package com.vortexbird.movieticket.service;
+
+import com.vortexbird.movieticket.dto.TicketPurchaseDTO;
+import com.vortexbird.movieticket.shared.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a purchase history ordered by purchase date and id, both
+ * descending. Travels to clients as an opaque URL-safe token.
+ */
+record PurchaseCursor(LocalDateTime purchaseDate, long id) {
+
+    private static final char SEPARATOR = '|';
+
+    static PurchaseCursor of(TicketPurchaseDTO purchase) {
+        return new PurchaseCursor(purchase.getPurchaseDate(), purchase.getId());
+    }
+
+    static PurchaseCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            return new PurchaseCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BusinessException("Invalid cursor: " + token);
+        }
+    }
+
+    String encode() {
+        String value = purchaseDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,129 @@
+package com.vortexbird.movieticket.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.vortexbird.movieticket.dto.TicketPurchaseDTO;
+import com.vortexbird.movieticket.repository.ITicketPurchaseRepository;
+import com.vortexbird.movieticket.service.exporter.PurchaseExportFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of Purchase Export Service.
+ *
+ * Rows are read through a forward-only database cursor (see
+ * {@link ITicketPurchaseRepository#streamByMovieId(Long)}) and written as
+ * soon as they arrive, so memory use does not depend on the number of
+ * purchases. Rows are flat projections, never managed entities, so the
+ * persistence context stays empty however long the export runs.
+ */
+@Service
+@Slf4j
+public class PurchaseExportService implements IPurchaseExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String CSV_HEADER = "id,confirmation_code,purchase_date,status,customer_id,customer_email,"
+            + "customer_name,movie_id,movie_title,quantity,unit_price,total_amount";
+
+    private final ITicketPurchaseRepository purchaseRepository;
+    private final ObjectWriter jsonWriter;
+
+    public PurchaseExportService(ITicketPurchaseRepository purchaseRepository, ObjectMapper objectMapper) {
+        this.purchaseRepository = purchaseRepository;
+        this.jsonWriter = objectMapper.writerFor(TicketPurchaseDTO.class);
+    }
+
+    /**
+     * Runs in its own read-only transaction, which the database cursor needs
+     * to stay open (PostgreSQL only honors the fetch size without autocommit).
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportMoviePurchases(Long movieId, PurchaseExportFormat format, OutputStream out) throws IOException {
+        log.info("Exporting purchases for movie: {} as {}", movieId, format);
+        long start = System.nanoTime();
+        long count = 0;
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == PurchaseExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        try (Stream<TicketPurchaseDTO> purchases = purchaseRepository.streamByMovieId(movieId)) {
+            Iterator<TicketPurchaseDTO> rows = purchases.iterator();
+            while (rows.hasNext()) {
+                TicketPurchaseDTO purchase = rows.next();
+                if (format == PurchaseExportFormat.CSV) {
+                    writeCsv(writer, purchase);
+                } else {
+                    writer.write(jsonWriter.writeValueAsString(purchase));
+                }
+                writer.write('\n');
+                count++;
+            }
+        }
+        writer.flush();
+
+        log.info("Exported {} purchases for movie {} in {} ms", count, movieId, (System.nanoTime() - start) / 1_000_000);
+        return count;
+    }
+
+    private static void writeCsv(Writer writer, TicketPurchaseDTO purchase) throws IOException {
+        writer.write(String.valueOf(purchase.getId()));
+        writer.write(',');
+        writeCsvField(writer, purchase.getConfirmationCode());
+        writer.write(',');
+        writeCsvField(writer, purchase.getPurchaseDate() != null ? purchase.getPurchaseDate().toString() : null);
+        writer.write(',');
+        writeCsvField(writer, purchase.getStatus() != null ? purchase.getStatus().name() : null);
+        writer.write(',');
+        writer.write(String.valueOf(purchase.getCustomerId()));
+        writer.write(',');
+        writeCsvField(writer, purchase.getCustomerEmail());
+        writer.write(',');
+        writeCsvField(writer, purchase.getCustomerName());
+        writer.write(',');
+        writer.write(String.valueOf(purchase.getMovieId()));
+        writer.write(',');
+        writeCsvField(writer, purchase.getMovieTitle());
+        writer.write(',');
+        writer.write(String.valueOf(purchase.getQuantity()));
+        writer.write(',');
+        writer.write(String.valueOf(purchase.getUnitPrice()));
+        writer.write(',');
+        writer.write(String.valueOf(purchase.getTotalAmount()));
+    }
+
+    /**
+     * Writes a field, quoting it when it holds a separator, quote or line
+     * break (RFC 4180). Null is written as an empty field.
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
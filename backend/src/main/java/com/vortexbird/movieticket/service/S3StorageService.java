@@ -6,21 +6,26 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
-import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.model.*;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Implementation of IStorageService using AWS S3.
  * 
- * Handles file uploads and deletions in Amazon S3 bucket.
+ * Handles file uploads and deletions in Amazon S3 bucket. Uploads go through
+ * the non-blocking S3AsyncClient, so no request thread waits on S3; the
+ * returned futures complete on the SDK's completion executor.
  */
 @Service
 @Slf4j
@@ -38,7 +43,7 @@ public class S3StorageService implements IStorageService {
     @Value("${aws.s3.secret-key}")
     private String secretKey;
 
-    private S3Client s3Client;
+    private S3AsyncClient s3Client;
 
     private static final long MAX_FILE_SIZE = 5 * 1024 * 1024; // 5MB
     private static final List<String> ALLOWED_CONTENT_TYPES = Arrays.asList(
@@ -50,7 +55,7 @@ public class S3StorageService implements IStorageService {
         try {
             AwsBasicCredentials awsCredentials = AwsBasicCredentials.create(accessKey, secretKey);
             
-            this.s3Client = S3Client.builder()
+            this.s3Client = S3AsyncClient.builder()
                     .region(Region.of(region))
                     .credentialsProvider(StaticCredentialsProvider.create(awsCredentials))
                     .build();
@@ -62,8 +67,19 @@ public class S3StorageService implements IStorageService {
         }
     }
 
+    @PreDestroy
+    public void close() {
+        if (s3Client != null) {
+            s3Client.close();
+        }
+    }
+
+    /**
+     * Images are capped at 5MB, which is S3's minimum multipart part size, so
+     * every upload is a single PUT of the bytes read here.
+     */
     @Override
-    public String uploadFile(MultipartFile file) {
+    public CompletableFuture<String> uploadFile(MultipartFile file) {
         validateFile(file);
 
         String originalFilename = file.getOriginalFilename();
@@ -72,28 +88,31 @@ public class S3StorageService implements IStorageService {
                 : "";
         String uniqueFilename = "movies/" + UUID.randomUUID() + fileExtension;
 
+        byte[] content;
         try {
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(uniqueFilename)
-                    .contentType(file.getContentType())
-                    .build();
-
-            s3Client.putObject(putObjectRequest, RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
-
-            String fileUrl = String.format("https://%s.s3.%s.amazonaws.com/%s", 
-                    bucketName, region, uniqueFilename);
-            
-            log.info("File uploaded successfully: {}", fileUrl);
-            return fileUrl;
-
-        } catch (S3Exception e) {
-            log.error("S3 error uploading file: {}", e.awsErrorDetails().errorMessage());
-            throw new RuntimeException("Failed to upload file to S3: " + e.awsErrorDetails().errorMessage(), e);
+            content = file.getBytes();
         } catch (IOException e) {
             log.error("IO error uploading file: {}", e.getMessage());
-            throw new RuntimeException("Failed to read file during upload", e);
+            return CompletableFuture.failedFuture(new RuntimeException("Failed to read file during upload", e));
         }
+
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(uniqueFilename)
+                .contentType(file.getContentType())
+                .build();
+
+        return s3Client.putObject(putObjectRequest, AsyncRequestBody.fromBytes(content))
+                .handle((response, error) -> {
+                    if (error != null) {
+                        throw uploadFailure(error);
+                    }
+                    String fileUrl = String.format("https://%s.s3.%s.amazonaws.com/%s",
+                            bucketName, region, uniqueFilename);
+
+                    log.info("File uploaded successfully: {}", fileUrl);
+                    return fileUrl;
+                });
     }
 
     @Override
@@ -111,15 +130,30 @@ public class S3StorageService implements IStorageService {
                     .key(key)
                     .build();
 
-            s3Client.deleteObject(deleteObjectRequest);
+            s3Client.deleteObject(deleteObjectRequest).join();
             log.info("File deleted successfully: {}", fileUrl);
 
-        } catch (S3Exception e) {
+        } catch (CompletionException ce) {
+            if (!(ce.getCause() instanceof S3Exception e)) {
+                throw new RuntimeException("Failed to delete file from S3", ce.getCause());
+            }
             log.error("S3 error deleting file: {}", e.awsErrorDetails().errorMessage());
             throw new RuntimeException("Failed to delete file from S3: " + e.awsErrorDetails().errorMessage(), e);
         }
     }
 
+    private static RuntimeException uploadFailure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        if (cause instanceof S3Exception e) {
+            log.error("S3 error uploading file: {}", e.awsErrorDetails().errorMessage());
+            return new RuntimeException("Failed to upload file to S3: " + e.awsErrorDetails().errorMessage(), e);
+        }
+        log.error("Error uploading file: {}", cause.getMessage());
+        return new RuntimeException("Failed to upload file to S3", cause);
+    }
+
     private void validateFile(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("File cannot be null or empty");
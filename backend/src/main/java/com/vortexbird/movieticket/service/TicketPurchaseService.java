@@ -1,22 +1,32 @@
 package com.vortexbird.movieticket.service;
 
 import com.vortexbird.movieticket.dto.CreateTicketPurchaseDTO;
+import com.vortexbird.movieticket.dto.CursorPageDTO;
+import com.vortexbird.movieticket.dto.PurchaseFilterDTO;
 import com.vortexbird.movieticket.dto.TicketPurchaseDTO;
+import com.vortexbird.movieticket.dto.TicketValidationDTO;
 import com.vortexbird.movieticket.model.Customer;
+import com.vortexbird.movieticket.model.EmailType;
 import com.vortexbird.movieticket.model.Movie;
 import com.vortexbird.movieticket.model.PurchaseStatus;
 import com.vortexbird.movieticket.model.TicketPurchase;
 import com.vortexbird.movieticket.repository.ITicketPurchaseRepository;
 import com.vortexbird.movieticket.shared.exception.BusinessException;
+import com.vortexbird.movieticket.shared.exception.ConflictException;
 import com.vortexbird.movieticket.shared.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.Locale;
 
 /**
  * Implementation of TicketPurchase Service.
@@ -30,10 +40,18 @@ import java.util.stream.Collectors;
 @Transactional
 public class TicketPurchaseService implements ITicketPurchaseService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
+    /** Window used when a history filter leaves a bound open. */
+    private static final LocalDateTime MIN_PURCHASE_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_PURCHASE_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     private final ITicketPurchaseRepository purchaseRepository;
     private final ICustomerService customerService;
     private final IMovieService movieService;
-    private final IEmailService emailService;
+    private final IEmailOutboxService emailOutbox;
+    private final ConfirmationCodeGenerator confirmationCodes;
+    private final IssuedCodeFilter issuedCodes;
 
     @Override
     public TicketPurchase createPurchase(Long customerId, CreateTicketPurchaseDTO dto) {
@@ -61,15 +79,14 @@ public class TicketPurchaseService implements ITicketPurchaseService {
         purchase.setCardHolderName(dto.getPaymentInfo().getCardHolderName());
         
         // Generate confirmation code
-        purchase.setConfirmationCode(generateConfirmationCode());
+        purchase.setConfirmationCode(confirmationCodes.next());
         
         TicketPurchase savedPurchase = purchaseRepository.save(purchase);
+        issuedCodes.add(savedPurchase.getConfirmationCode());
         log.info("Purchase created successfully with confirmation code: {}", savedPurchase.getConfirmationCode());
         
-        // Send confirmation email asynchronously
-        log.info("Attempting to send confirmation email to: {}", savedPurchase.getCustomer().getEmail());
-        emailService.sendPurchaseConfirmation(savedPurchase);
-        log.info("Email service called for confirmation code: {}", savedPurchase.getConfirmationCode());
+        // Queue the confirmation email; it is sent once this transaction commits
+        emailOutbox.enqueue(EmailType.PURCHASE_CONFIRMATION, savedPurchase);
         
         return savedPurchase;
     }
@@ -86,20 +103,61 @@ public class TicketPurchaseService implements ITicketPurchaseService {
     @Transactional(readOnly = true)
     public List<TicketPurchaseDTO> getCustomerPurchases(Long customerId) {
         log.info("Fetching purchases for customer: {}", customerId);
-        return purchaseRepository.findByCustomerId(customerId)
-            .stream()
-            .map(this::toDTO)
-            .collect(Collectors.toList());
+        return purchaseRepository.findHistoryByCustomerId(customerId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<TicketPurchaseDTO> getMoviePurchases(Long movieId) {
         log.info("Fetching purchases for movie: {}", movieId);
-        return purchaseRepository.findByMovieId(movieId)
-            .stream()
-            .map(this::toDTO)
-            .collect(Collectors.toList());
+        return purchaseRepository.findHistoryByMovieId(movieId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TicketPurchaseDTO> getCustomerPurchasePage(Long customerId, PurchaseFilterDTO filter,
+                                                                    String cursor, int limit) {
+        log.info("Fetching purchase page for customer: {} with filter: {}", customerId, filter);
+        return page(filter, cursor, limit, (from, to, statuses, after, pageable) ->
+            purchaseRepository.findHistoryPageByCustomerId(customerId, from, to, statuses,
+                after.purchaseDate(), after.id(), pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TicketPurchaseDTO> getMoviePurchasePage(Long movieId, PurchaseFilterDTO filter,
+                                                                 String cursor, int limit) {
+        log.info("Fetching purchase page for movie: {} with filter: {}", movieId, filter);
+        return page(filter, cursor, limit, (from, to, statuses, after, pageable) ->
+            purchaseRepository.findHistoryPageByMovieId(movieId, from, to, statuses,
+                after.purchaseDate(), after.id(), pageable));
+    }
+
+    /**
+     * Runs a keyset page query. Open filter bounds become a fixed wide window
+     * and a missing status filter becomes every status, so the query never
+     * binds nulls and keeps a single plan.
+     */
+    private CursorPageDTO<TicketPurchaseDTO> page(PurchaseFilterDTO filter, String cursor, int limit,
+                                                  PageQuery query) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        PurchaseFilterDTO filters = filter != null ? filter : new PurchaseFilterDTO();
+        LocalDateTime from = filters.getFrom() != null ? filters.getFrom() : MIN_PURCHASE_DATE;
+        LocalDateTime to = filters.getTo() != null ? filters.getTo() : MAX_PURCHASE_DATE;
+        if (!from.isBefore(to)) {
+            throw new BusinessException("'from' must be before 'to'");
+        }
+        Collection<PurchaseStatus> statuses = filters.getStatus() == null || filters.getStatus().isEmpty()
+            ? EnumSet.allOf(PurchaseStatus.class)
+            : filters.getStatus();
+        PurchaseCursor after = cursor != null ? PurchaseCursor.decode(cursor) : new PurchaseCursor(to, Long.MAX_VALUE);
+
+        // Fetch one extra row to know whether another page exists
+        List<TicketPurchaseDTO> rows = query.find(from, to, statuses, after, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<TicketPurchaseDTO> items = new ArrayList<>(hasMore ? rows.subList(0, pageSize) : rows);
+        String nextCursor = hasMore ? PurchaseCursor.of(items.get(items.size() - 1)).encode() : null;
+        return new CursorPageDTO<>(items, nextCursor, hasMore);
     }
 
     @Override
@@ -114,9 +172,38 @@ public class TicketPurchaseService implements ITicketPurchaseService {
         
         purchase.setStatus(PurchaseStatus.CANCELLED);
         purchaseRepository.save(purchase);
+        emailOutbox.enqueue(EmailType.PURCHASE_CANCELLATION, purchase);
         log.info("Purchase cancelled successfully: {}", id);
     }
 
+    /**
+     * The conditional update both checks and changes the status, so
+     * concurrent scans of one code cannot both succeed; the purchase is only
+     * read again to tell the holder why a scan was refused. Codes the issued
+     * code filter has never seen are refused without a query.
+     */
+    @Override
+    public TicketValidationDTO validateTicket(String confirmationCode) {
+        String code = confirmationCode.trim().toUpperCase(Locale.ROOT);
+        log.info("Validating ticket with confirmation code: {}", code);
+        if (!issuedCodes.mightBeIssued(code)) {
+            throw new ResourceNotFoundException("Ticket not found with confirmation code: " + code);
+        }
+
+        if (purchaseRepository.markUsed(code, LocalDateTime.now()) == 1) {
+            log.info("Ticket validated: {}", code);
+            return purchaseRepository.findValidationByConfirmationCode(code)
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with confirmation code: " + code));
+        }
+
+        TicketPurchase purchase = purchaseRepository.findByConfirmationCode(code)
+            .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with confirmation code: " + code));
+        if (purchase.getStatus() == PurchaseStatus.USED) {
+            throw new ConflictException("Ticket was already used at " + purchase.getUsedAt());
+        }
+        throw new BusinessException("Only confirmed tickets can be used, this one is " + purchase.getStatus());
+    }
+
     @Override
     public TicketPurchaseDTO toDTO(TicketPurchase purchase) {
         TicketPurchaseDTO dto = new TicketPurchaseDTO();
@@ -137,10 +224,10 @@ public class TicketPurchaseService implements ITicketPurchaseService {
         return dto;
     }
 
-    /**
-     * Generate a unique confirmation code for the purchase.
-     */
-    private String generateConfirmationCode() {
-        return "TKT-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    @FunctionalInterface
+    private interface PageQuery {
+
+        List<TicketPurchaseDTO> find(LocalDateTime from, LocalDateTime to, Collection<PurchaseStatus> statuses,
+                                     PurchaseCursor after, Pageable pageable);
     }
 }
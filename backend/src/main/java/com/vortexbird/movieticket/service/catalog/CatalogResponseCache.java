@@ -0,0 +1,70 @@
+package com.vortexbird.movieticket.service.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vortexbird.movieticket.shared.response.PrerenderedResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Keeps the full catalog response serialized for the current catalog version.
+ *
+ * The response is rendered at most once per version and reused until a movie
+ * mutation moves the version forward, at which point the next request renders
+ * it again. Renders for an older version are served but never replace a newer
+ * one.
+ */
+@Component
+@Slf4j
+public class CatalogResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    private volatile PrerenderedResponse current;
+
+    public CatalogResponseCache(ObjectMapper objectMapper,
+                                @Value("${movies.catalog.prerender:true}") boolean enabled) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the response rendered for {@code version}, serializing
+     * {@code body} when no such rendering is cached.
+     */
+    public PrerenderedResponse get(long version, Supplier<?> body) {
+        PrerenderedResponse rendered = current;
+        if (rendered != null && rendered.getVersion() == version) {
+            return rendered;
+        }
+        return render(version, body);
+    }
+
+    private synchronized PrerenderedResponse render(long version, Supplier<?> body) {
+        PrerenderedResponse rendered = current;
+        if (rendered != null && rendered.getVersion() == version) {
+            return rendered;
+        }
+
+        PrerenderedResponse fresh;
+        try {
+            fresh = new PrerenderedResponse(version, objectMapper.writeValueAsBytes(body.get()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render catalog response", e);
+        }
+        if (rendered == null || rendered.getVersion() < version) {
+            current = fresh;
+            log.debug("Catalog response rendered at version {}: {} bytes, {} gzipped",
+                    version, fresh.getLength(), fresh.getGzipLength());
+        }
+        return fresh;
+    }
+}
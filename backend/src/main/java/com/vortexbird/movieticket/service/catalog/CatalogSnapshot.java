@@ -0,0 +1,204 @@
+package com.vortexbird.movieticket.service.catalog;
+
+import com.vortexbird.movieticket.model.Movie;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable view of the enabled movie catalog at a given version.
+ *
+ * A snapshot is never modified once built. Writes produce a new copy
+ * (copy-on-write) so readers can use it without any locking. The fuzzy title
+ * index is the only part built lazily, on first use.
+ */
+public final class CatalogSnapshot {
+
+    private final long version;
+    private final List<Movie> movies;
+    private final Map<Long, Movie> moviesById;
+    private final Map<Integer, BitSet> genrePositions;
+    private final List<String> normalizedTitles;
+    private final TrigramIndex titleIndex;
+    private final TitleTrie titleTrie;
+
+    /** Built on the first fuzzy search, since most snapshots never serve one. */
+    private volatile FuzzyTitleIndex fuzzyIndex;
+
+    CatalogSnapshot(long version, Collection<Movie> source) {
+        List<Movie> ordered = new ArrayList<>(source);
+        ordered.sort(Comparator.comparing(Movie::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        Map<Long, Movie> index = new HashMap<>(ordered.size() * 2);
+        List<String> normalizedTitles = new ArrayList<>(ordered.size());
+        Map<Integer, BitSet> genres = new HashMap<>();
+        for (int position = 0; position < ordered.size(); position++) {
+            Movie movie = ordered.get(position);
+            index.put(movie.getId(), movie);
+            normalizedTitles.add(TitleNormalizer.normalize(movie.getTitle()));
+            if (movie.getGenreId() != null) {
+                genres.computeIfAbsent(movie.getGenreId(), id -> new BitSet(ordered.size())).set(position);
+            }
+        }
+
+        this.version = version;
+        this.movies = Collections.unmodifiableList(ordered);
+        this.moviesById = Collections.unmodifiableMap(index);
+        this.genrePositions = genres;
+        this.normalizedTitles = normalizedTitles;
+        this.titleIndex = new TrigramIndex(normalizedTitles);
+        this.titleTrie = new TitleTrie(normalizedTitles);
+    }
+
+    /**
+     * Returns a copy of this snapshot with the given movie added, replaced or
+     * removed depending on its enabled flag.
+     */
+    CatalogSnapshot with(Movie movie, long newVersion) {
+        List<Movie> next = new ArrayList<>(movies.size() + 1);
+        for (Movie existing : movies) {
+            if (!existing.getId().equals(movie.getId())) {
+                next.add(existing);
+            }
+        }
+        if (Boolean.TRUE.equals(movie.getIsEnabled())) {
+            next.add(movie);
+        }
+        return new CatalogSnapshot(newVersion, next);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return movies.size();
+    }
+
+    /**
+     * All enabled movies ordered by id.
+     */
+    public List<Movie> getMovies() {
+        return movies;
+    }
+
+    public Optional<Movie> findById(Long id) {
+        return Optional.ofNullable(moviesById.get(id));
+    }
+
+    /**
+     * Keyset page: up to {@code count} movies with an id greater than
+     * {@code afterId}, in id order.
+     */
+    public List<Movie> after(long afterId, int count) {
+        int low = 0;
+        int high = movies.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (movies.get(middle).getId() <= afterId) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return movies.subList(low, Math.min(movies.size(), low + count));
+    }
+
+    /**
+     * Searches the snapshot by title and genre. The title is matched case- and
+     * accent-insensitively as a substring through the trigram index; the genre
+     * by id through a per-genre bitmap of positions. A blank title or a null
+     * genre id is ignored.
+     *
+     * Title matches are ranked by match quality (exact, prefix, word prefix,
+     * substring); otherwise movies are returned ordered by id.
+     */
+    public List<Movie> search(String title, Integer genreId) {
+        String titleTerm = TitleNormalizer.normalize(title);
+        BitSet genre = null;
+        if (genreId != null) {
+            genre = genrePositions.get(genreId);
+            if (genre == null) {
+                return new ArrayList<>();
+            }
+        }
+
+        List<Movie> result = new ArrayList<>();
+        if (titleTerm.isEmpty()) {
+            if (genre == null) {
+                result.addAll(movies);
+                return result;
+            }
+            for (int position = genre.nextSetBit(0); position >= 0; position = genre.nextSetBit(position + 1)) {
+                result.add(movies.get(position));
+            }
+            return result;
+        }
+
+        for (int position : titleIndex.search(titleTerm)) {
+            if (genre == null || genre.get(position)) {
+                result.add(movies.get(position));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Typo-tolerant search: up to {@code limit} movies whose title words are
+     * each within a small edit distance of a word of {@code title}, closest
+     * first, optionally restricted to a genre id.
+     */
+    public List<Movie> fuzzySearch(String title, Integer genreId, int limit) {
+        String term = TitleNormalizer.normalize(title);
+        List<Movie> result = new ArrayList<>();
+        BitSet genre = genreId != null ? genrePositions.get(genreId) : null;
+        if (term.isEmpty() || (genreId != null && genre == null)) {
+            return result;
+        }
+
+        for (int position : fuzzyIndex().search(term, Integer.MAX_VALUE)) {
+            if (genre == null || genre.get(position)) {
+                result.add(movies.get(position));
+                if (result.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private FuzzyTitleIndex fuzzyIndex() {
+        FuzzyTitleIndex index = fuzzyIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = fuzzyIndex;
+                if (index == null) {
+                    index = new FuzzyTitleIndex(normalizedTitles);
+                    fuzzyIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Type-ahead lookup: movies whose title, or one of its words, starts with
+     * {@code prefix}, best first. Answered from the prefix trie only.
+     */
+    public List<Movie> suggest(String prefix, int limit) {
+        int[] positions = titleTrie.suggest(TitleNormalizer.normalize(prefix),
+                Math.min(limit, TitleTrie.MAX_SUGGESTIONS));
+        List<Movie> result = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            result.add(movies.get(position));
+        }
+        return result;
+    }
+}
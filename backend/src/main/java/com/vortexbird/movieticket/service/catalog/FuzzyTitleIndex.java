@@ -0,0 +1,224 @@
+package com.vortexbird.movieticket.service.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typo-tolerant title index over the distinct words of the normalized titles.
+ *
+ * Words are kept in a character trie. A lookup walks the trie carrying one row
+ * of the Levenshtein matrix per level, which simulates a Levenshtein automaton
+ * for the query word: a branch is abandoned as soon as every cell of its row
+ * exceeds the allowed distance, so only prefixes that can still lead to a
+ * close enough word are visited.
+ *
+ * A title matches a query when each query word is within the allowed edit
+ * distance of one of its words. Titles are ranked by the total distance,
+ * then by shorter title, then by position. The allowed distance grows with
+ * the word length, up to {@link #MAX_DISTANCE}: words of up to three
+ * characters must match exactly and words of four or five tolerate one edit.
+ *
+ * Instances are immutable once built.
+ */
+final class FuzzyTitleIndex {
+
+    static final int MAX_DISTANCE = 2;
+
+    private static final int MAX_QUERY_WORDS = 8;
+    private static final int[] NO_POSITIONS = new int[0];
+
+    private static final long POSITION_MASK = 0x7FFFFFFFL;
+    private static final long LENGTH_MASK = 0xFFFFFL;
+    private static final int LENGTH_SHIFT = 31;
+    private static final int COST_SHIFT = 51;
+
+    private final int[] titleLengths;
+    private final int maxWordLength;
+    private final Node root;
+
+    FuzzyTitleIndex(List<String> normalizedTitles) {
+        this.titleLengths = new int[normalizedTitles.size()];
+
+        Map<String, List<Integer>> building = new HashMap<>();
+        for (int position = 0; position < normalizedTitles.size(); position++) {
+            String title = normalizedTitles.get(position);
+            titleLengths[position] = title.length();
+            if (title.isEmpty()) {
+                continue;
+            }
+            for (String word : title.split(" ")) {
+                List<Integer> positions = building.computeIfAbsent(word, key -> new ArrayList<>());
+                if (positions.isEmpty() || positions.get(positions.size() - 1) != position) {
+                    positions.add(position);
+                }
+            }
+        }
+
+        int longest = 0;
+        Node trie = new Node();
+        for (Map.Entry<String, List<Integer>> entry : building.entrySet()) {
+            String word = entry.getKey();
+            longest = Math.max(longest, word.length());
+            Node node = trie;
+            for (int i = 0; i < word.length(); i++) {
+                node = node.childFor(word.charAt(i));
+            }
+            node.positions = entry.getValue().stream().mapToInt(Integer::intValue).toArray();
+        }
+        this.maxWordLength = longest;
+        this.root = trie;
+    }
+
+    /**
+     * Returns the positions of up to {@code limit} titles matching every word
+     * of {@code query}, best first.
+     *
+     * @param query an already normalized, non-empty search text
+     */
+    int[] search(String query, int limit) {
+        if (maxWordLength == 0 || limit <= 0) {
+            return NO_POSITIONS;
+        }
+        String[] words = query.split(" ");
+        if (words.length > MAX_QUERY_WORDS) {
+            words = Arrays.copyOf(words, MAX_QUERY_WORDS);
+        }
+
+        // matched[p] counts the query words title p matched so far, cost[p] their distances
+        int[] matched = new int[titleLengths.length];
+        int[] cost = new int[titleLengths.length];
+        int[] complete = NO_POSITIONS;
+        int completeCount = 0;
+
+        for (int i = 0; i < words.length; i++) {
+            List<Match> matches = new ArrayList<>();
+            find(words[i], allowedDistance(words[i]), matches);
+            if (matches.isEmpty()) {
+                return NO_POSITIONS;
+            }
+            // Closest words first, so each title is charged its best distance
+            matches.sort((left, right) -> Integer.compare(left.distance, right.distance));
+
+            boolean last = i == words.length - 1;
+            for (Match match : matches) {
+                for (int position : match.positions) {
+                    if (matched[position] != i) {
+                        continue;
+                    }
+                    matched[position] = i + 1;
+                    cost[position] += match.distance;
+                    if (last) {
+                        if (completeCount == complete.length) {
+                            complete = Arrays.copyOf(complete, Math.max(16, completeCount * 2));
+                        }
+                        complete[completeCount++] = position;
+                    }
+                }
+            }
+        }
+
+        long[] ranked = new long[completeCount];
+        for (int i = 0; i < completeCount; i++) {
+            int position = complete[i];
+            ranked[i] = ((long) cost[position] << COST_SHIFT)
+                    | (Math.min(titleLengths[position], LENGTH_MASK) << LENGTH_SHIFT)
+                    | position;
+        }
+        Arrays.sort(ranked);
+
+        int[] result = new int[Math.min(limit, ranked.length)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (int) (ranked[i] & POSITION_MASK);
+        }
+        return result;
+    }
+
+    static int allowedDistance(String word) {
+        if (word.length() <= 3) {
+            return 0;
+        }
+        return word.length() <= 5 ? 1 : MAX_DISTANCE;
+    }
+
+    private void find(String word, int maxDistance, List<Match> matches) {
+        // One matrix row per trie depth; a word longer than maxWordLength + maxDistance can never match
+        int[][] rows = new int[maxWordLength + 1][word.length() + 1];
+        for (int j = 0; j <= word.length(); j++) {
+            rows[0][j] = j;
+        }
+        for (int i = 0; i < root.keys.length; i++) {
+            walk(root.children[i], root.keys[i], 1, word, maxDistance, rows, matches);
+        }
+    }
+
+    private static void walk(Node node, char letter, int depth, String word, int maxDistance,
+                             int[][] rows, List<Match> matches) {
+        int[] previous = rows[depth - 1];
+        int[] row = rows[depth];
+        int columns = word.length();
+
+        row[0] = depth;
+        int best = row[0];
+        for (int j = 1; j <= columns; j++) {
+            int substitution = previous[j - 1] + (word.charAt(j - 1) == letter ? 0 : 1);
+            row[j] = Math.min(substitution, Math.min(previous[j], row[j - 1]) + 1);
+            best = Math.min(best, row[j]);
+        }
+
+        if (node.positions != null && row[columns] <= maxDistance) {
+            matches.add(new Match(node.positions, row[columns]));
+        }
+        if (best > maxDistance) {
+            return;
+        }
+        for (int i = 0; i < node.keys.length; i++) {
+            walk(node.children[i], node.keys[i], depth + 1, word, maxDistance, rows, matches);
+        }
+    }
+
+    private static final class Node {
+
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+
+        /** Titles containing the word ending at this node, or null. */
+        private int[] positions;
+
+        private Node childFor(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index >= 0) {
+                return children[index];
+            }
+            index = -index - 1;
+            Node child = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[keys.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newKeys[index] = key;
+            newChildren[index] = child;
+            System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+    }
+
+    private static final class Match {
+
+        private final int[] positions;
+        private final int distance;
+
+        private Match(int[] positions, int distance) {
+            this.positions = positions;
+            this.distance = distance;
+        }
+    }
+}
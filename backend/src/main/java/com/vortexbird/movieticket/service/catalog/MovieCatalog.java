@@ -0,0 +1,143 @@
+package com.vortexbird.movieticket.service.catalog;
+
+import com.vortexbird.movieticket.model.Movie;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache of the enabled movie catalog.
+ *
+ * Holds a single immutable {@link CatalogSnapshot} that is loaded on the first
+ * read and replaced atomically after every committed write. Reads on a loaded
+ * catalog are lock-free. The cache is bounded: when the enabled catalog grows
+ * beyond {@code maxEntries} no snapshot is kept and callers fall back to the
+ * database.
+ *
+ * The catalog version increases on every applied write. It is counted by
+ * this JVM alone, so it only identifies catalog contents together with the
+ * random {@link #getInstanceId() instance id}; HTTP entity tags carry both.
+ *
+ * The cache is local to this JVM; writes made by other instances are not
+ * observed until the next local write reloads the snapshot.
+ */
+@Component
+@Slf4j
+public class MovieCatalog {
+
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+    private final String instanceId = Long.toHexString(new SecureRandom().nextLong());
+    private final AtomicLong version = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final int maxEntries;
+
+    /** Version for which the catalog was found to exceed {@link #maxEntries}. */
+    private long bypassedVersion = -1;
+
+    public MovieCatalog(@Value("${movies.catalog.max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the current snapshot, loading it with {@code loader} when none is
+     * cached. Returns empty when the catalog is too large to be cached.
+     */
+    public Optional<CatalogSnapshot> snapshot(Supplier<List<Movie>> loader) {
+        CatalogSnapshot snapshot = current.get();
+        if (snapshot != null) {
+            hits.increment();
+            return Optional.of(snapshot);
+        }
+        misses.increment();
+        return load(loader);
+    }
+
+    private synchronized Optional<CatalogSnapshot> load(Supplier<List<Movie>> loader) {
+        CatalogSnapshot snapshot = current.get();
+        if (snapshot != null) {
+            return Optional.of(snapshot);
+        }
+        long loadVersion = version.get();
+        if (bypassedVersion == loadVersion) {
+            return Optional.empty();
+        }
+
+        List<Movie> movies = loader.get();
+        if (movies.size() > maxEntries) {
+            log.warn("Movie catalog has {} entries, above the cache limit of {}. Serving from database",
+                    movies.size(), maxEntries);
+            bypassedVersion = loadVersion;
+            return Optional.empty();
+        }
+
+        snapshot = new CatalogSnapshot(loadVersion, movies);
+        current.set(snapshot);
+        log.debug("Movie catalog loaded: {} movies at version {}", snapshot.size(), loadVersion);
+        return Optional.of(snapshot);
+    }
+
+    /**
+     * Applies a committed change to a single movie, publishing a new snapshot
+     * with the movie added, replaced or removed.
+     */
+    public synchronized void apply(Movie movie) {
+        long nextVersion = version.get() + 1;
+        CatalogSnapshot snapshot = current.get();
+        if (snapshot != null) {
+            CatalogSnapshot updated = snapshot.with(movie, nextVersion);
+            current.set(updated.size() > maxEntries ? null : updated);
+        }
+        // Publish the data before the version, so whoever reads the new version sees it
+        version.set(nextVersion);
+    }
+
+    /**
+     * Drops the cached snapshot after a change that was not applied movie by
+     * movie; the next read reloads the catalog.
+     */
+    public synchronized void invalidate() {
+        current.set(null);
+        version.incrementAndGet();
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Random id of this catalog instance, fixed for the life of the JVM.
+     */
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public boolean isLoaded() {
+        return current.get() != null;
+    }
+
+    public int size() {
+        CatalogSnapshot snapshot = current.get();
+        return snapshot != null ? snapshot.size() : 0;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,170 @@
+package com.vortexbird.movieticket.service.catalog;
+
+import com.vortexbird.movieticket.dto.GenreCountDTO;
+import com.vortexbird.movieticket.dto.MovieFacetsDTO;
+import com.vortexbird.movieticket.dto.RangeCountDTO;
+import com.vortexbird.movieticket.model.Movie;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Facet counts of the enabled movie catalog: movies per genre plus duration
+ * and price histograms.
+ *
+ * Counts are seeded from the full catalog on first use and then maintained
+ * incrementally from committed movie changes. The facet values last counted
+ * for every movie are remembered, so applying a change moves the movie out of
+ * its old genre and buckets and into the new ones, and applying the same
+ * change twice is harmless. Genres are grouped case- and accent-insensitively.
+ *
+ * Reads never lock; writes are serialized.
+ */
+@Component
+@Slf4j
+public class MovieFacets {
+
+    /** Upper bounds (exclusive) of the duration buckets, in minutes. */
+    static final double[] DURATION_BOUNDS = {90, 120, 150, 180};
+
+    /** Upper bounds (exclusive) of the price buckets. */
+    static final double[] PRICE_BOUNDS = {10000, 15000, 20000};
+
+    private final ConcurrentHashMap<String, GenreCount> genres = new ConcurrentHashMap<>();
+    private final AtomicLongArray durations = new AtomicLongArray(DURATION_BOUNDS.length + 1);
+    private final AtomicLongArray prices = new AtomicLongArray(PRICE_BOUNDS.length + 1);
+    private final AtomicLong total = new AtomicLong();
+
+    /** Facet values last counted per movie id; guarded by {@code this}. */
+    private final Map<Long, Entry> counted = new HashMap<>();
+
+    private volatile boolean seeded;
+
+    /**
+     * Returns the current facets, counting {@code loader}'s movies first when
+     * nothing has been counted yet.
+     */
+    public MovieFacetsDTO get(Supplier<List<Movie>> loader) {
+        if (!seeded) {
+            seed(loader);
+        }
+
+        List<GenreCountDTO> genreCounts = new ArrayList<>(genres.size());
+        for (GenreCount genre : genres.values()) {
+            long count = genre.count.get();
+            if (count > 0) {
+                genreCounts.add(new GenreCountDTO(genre.label, count));
+            }
+        }
+        genreCounts.sort(Comparator.comparingLong(GenreCountDTO::getCount).reversed()
+                .thenComparing(GenreCountDTO::getGenre));
+
+        return new MovieFacetsDTO(total.get(), genreCounts,
+                histogram(DURATION_BOUNDS, durations), histogram(PRICE_BOUNDS, prices));
+    }
+
+    private synchronized void seed(Supplier<List<Movie>> loader) {
+        if (seeded) {
+            return;
+        }
+        List<Movie> movies = loader.get();
+        for (Movie movie : movies) {
+            add(movie);
+        }
+        seeded = true;
+        log.debug("Movie facets seeded from {} movies", movies.size());
+    }
+
+    /**
+     * Applies a committed change to a single movie. Ignored until the facets
+     * are seeded, since the seed reads the committed catalog anyway.
+     */
+    public synchronized void apply(Movie movie) {
+        if (!seeded) {
+            return;
+        }
+        Entry previous = counted.remove(movie.getId());
+        if (previous != null) {
+            count(previous, -1);
+        }
+        add(movie);
+    }
+
+    /**
+     * Drops every count so the next read seeds the facets again. Used after
+     * bulk writes that bypass {@link #apply(Movie)}.
+     */
+    public synchronized void invalidate() {
+        seeded = false;
+        genres.clear();
+        counted.clear();
+        total.set(0);
+        for (int i = 0; i < durations.length(); i++) {
+            durations.set(i, 0);
+        }
+        for (int i = 0; i < prices.length(); i++) {
+            prices.set(i, 0);
+        }
+    }
+
+    private void add(Movie movie) {
+        if (!Boolean.TRUE.equals(movie.getIsEnabled())) {
+            return;
+        }
+        Entry entry = new Entry(TitleNormalizer.normalize(movie.getGenre()), movie.getGenre(),
+                bucket(DURATION_BOUNDS, movie.getDuration()), bucket(PRICE_BOUNDS, movie.getPrice()));
+        counted.put(movie.getId(), entry);
+        count(entry, 1);
+    }
+
+    private void count(Entry entry, int delta) {
+        GenreCount genre = genres.computeIfAbsent(entry.genreKey(), key -> new GenreCount(entry.genreLabel()));
+        if (genre.count.addAndGet(delta) <= 0) {
+            // Dropped genres are forgotten, so their label is taken from the next movie
+            genres.remove(entry.genreKey());
+        }
+        durations.addAndGet(entry.durationBucket(), delta);
+        prices.addAndGet(entry.priceBucket(), delta);
+        total.addAndGet(delta);
+    }
+
+    private static int bucket(double[] bounds, double value) {
+        int bucket = 0;
+        while (bucket < bounds.length && value >= bounds[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static List<RangeCountDTO> histogram(double[] bounds, AtomicLongArray counts) {
+        List<RangeCountDTO> buckets = new ArrayList<>(counts.length());
+        for (int i = 0; i < counts.length(); i++) {
+            Double min = i == 0 ? 0.0 : bounds[i - 1];
+            Double max = i < bounds.length ? bounds[i] : null;
+            buckets.add(new RangeCountDTO(min, max, counts.get(i)));
+        }
+        return buckets;
+    }
+
+    private record Entry(String genreKey, String genreLabel, int durationBucket, int priceBucket) {
+    }
+
+    private static final class GenreCount {
+
+        private final String label;
+        private final AtomicLong count = new AtomicLong();
+
+        private GenreCount(String label) {
+            this.label = label;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.vortexbird.movieticket.service.catalog;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compressed prefix trie (radix tree) for title type-ahead.
+ *
+ * Every normalized title is inserted once as a whole and once per inner word
+ * start, so "avengers endgame" is found by both "ave" and "endg". Edges hold
+ * whole label runs instead of single characters, which keeps the node count
+ * proportional to the number of keys rather than to their length.
+ *
+ * Each node keeps the best {@link #MAX_SUGGESTIONS} titles reachable below it,
+ * computed at build time, so a lookup is a walk of the query's characters and
+ * never scans a subtree. Matches on the start of a title rank before matches
+ * on an inner word; shorter titles rank first after that.
+ *
+ * Instances are immutable once built and belong to a catalog snapshot.
+ */
+final class TitleTrie {
+
+    static final int MAX_SUGGESTIONS = 10;
+
+    private static final char[] NO_CHARS = new char[0];
+    private static final long[] NO_CANDIDATES = new long[0];
+    private static final int[] NO_POSITIONS = new int[0];
+
+    private static final long POSITION_MASK = 0x7FFFFFFFL;
+    private static final long LENGTH_MASK = 0xFFFFFL;
+    private static final int LENGTH_SHIFT = 31;
+    private static final int RANK_SHIFT = 51;
+
+    private final Node root = new Node();
+
+    TitleTrie(List<String> normalizedTitles) {
+        for (int position = 0; position < normalizedTitles.size(); position++) {
+            String title = normalizedTitles.get(position);
+            if (title.isEmpty()) {
+                continue;
+            }
+            insert(title, candidate(0, title.length(), position));
+            for (int i = 1; i < title.length(); i++) {
+                if (title.charAt(i - 1) == ' ') {
+                    insert(title.substring(i), candidate(1, title.length(), position));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the positions of the best titles starting with {@code prefix},
+     * or having a word that starts with it, best first.
+     *
+     * @param prefix an already normalized search prefix
+     */
+    int[] suggest(String prefix, int limit) {
+        if (prefix.isEmpty() || limit <= 0) {
+            return NO_POSITIONS;
+        }
+
+        Node node = root;
+        int offset = 0;
+        while (offset < prefix.length()) {
+            int index = Arrays.binarySearch(node.firsts, prefix.charAt(offset));
+            if (index < 0) {
+                return NO_POSITIONS;
+            }
+            String label = node.labels[index];
+            int remaining = prefix.length() - offset;
+            if (remaining <= label.length()) {
+                if (!label.regionMatches(0, prefix, offset, remaining)) {
+                    return NO_POSITIONS;
+                }
+                return positions(node.children[index].top, limit);
+            }
+            if (!prefix.startsWith(label, offset)) {
+                return NO_POSITIONS;
+            }
+            offset += label.length();
+            node = node.children[index];
+        }
+        return positions(node.top, limit);
+    }
+
+    private void insert(String key, long candidate) {
+        Node node = root;
+        int offset = 0;
+        while (offset < key.length()) {
+            char first = key.charAt(offset);
+            int index = Arrays.binarySearch(node.firsts, first);
+            if (index < 0) {
+                Node leaf = new Node();
+                leaf.offer(candidate);
+                node.addChild(-index - 1, first, key.substring(offset), leaf);
+                return;
+            }
+
+            String label = node.labels[index];
+            Node child = node.children[index];
+            int common = commonPrefixLength(label, key, offset);
+            if (common < label.length()) {
+                // Split the edge: the shared run moves to a new intermediate node
+                Node middle = new Node();
+                middle.top = child.top.clone();
+                middle.addChild(0, label.charAt(common), label.substring(common), child);
+                node.labels[index] = label.substring(0, common);
+                node.children[index] = middle;
+                child = middle;
+            }
+
+            child.offer(candidate);
+            offset += common;
+            node = child;
+        }
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int length = 0;
+        while (length < max && label.charAt(length) == key.charAt(offset + length)) {
+            length++;
+        }
+        return length;
+    }
+
+    private static long candidate(int rank, int titleLength, int position) {
+        return ((long) rank << RANK_SHIFT)
+                | ((Math.min(titleLength, LENGTH_MASK)) << LENGTH_SHIFT)
+                | position;
+    }
+
+    private static int position(long candidate) {
+        return (int) (candidate & POSITION_MASK);
+    }
+
+    private static int[] positions(long[] candidates, int limit) {
+        int size = Math.min(limit, candidates.length);
+        int[] positions = new int[size];
+        for (int i = 0; i < size; i++) {
+            positions[i] = position(candidates[i]);
+        }
+        return positions;
+    }
+
+    private static final class Node {
+
+        private char[] firsts = NO_CHARS;
+        private String[] labels = new String[0];
+        private Node[] children = new Node[0];
+        private long[] top = NO_CANDIDATES;
+
+        private void addChild(int index, char first, String label, Node child) {
+            int size = firsts.length;
+            char[] newFirsts = new char[size + 1];
+            String[] newLabels = new String[size + 1];
+            Node[] newChildren = new Node[size + 1];
+
+            System.arraycopy(firsts, 0, newFirsts, 0, index);
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newFirsts[index] = first;
+            newLabels[index] = label;
+            newChildren[index] = child;
+            System.arraycopy(firsts, index, newFirsts, index + 1, size - index);
+            System.arraycopy(labels, index, newLabels, index + 1, size - index);
+            System.arraycopy(children, index, newChildren, index + 1, size - index);
+
+            firsts = newFirsts;
+            labels = newLabels;
+            children = newChildren;
+        }
+
+        /**
+         * Keeps the candidate if it belongs to the node's best list, with at
+         * most one entry per title.
+         */
+        private void offer(long candidate) {
+            int position = position(candidate);
+            for (int i = 0; i < top.length; i++) {
+                if (position(top[i]) == position) {
+                    if (candidate < top[i]) {
+                        top[i] = candidate;
+                        Arrays.sort(top);
+                    }
+                    return;
+                }
+            }
+
+            if (top.length < MAX_SUGGESTIONS) {
+                long[] grown = Arrays.copyOf(top, top.length + 1);
+                grown[top.length] = candidate;
+                Arrays.sort(grown);
+                top = grown;
+            } else if (candidate < top[top.length - 1]) {
+                top[top.length - 1] = candidate;
+                Arrays.sort(top);
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.vortexbird.movieticket.service.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted trigram index over normalized movie titles.
+ *
+ * Every title is split into its distinct three-character grams and each gram
+ * maps to the sorted positions of the titles containing it. A substring query
+ * intersects the posting lists of its own grams, then verifies the surviving
+ * candidates, so only titles sharing every gram with the query are inspected.
+ *
+ * Instances are immutable and built once per catalog snapshot.
+ */
+final class TrigramIndex {
+
+    private static final int GRAM = 3;
+    private static final int[] NO_MATCHES = new int[0];
+
+    private final String[] titles;
+    private final Map<String, int[]> postings;
+
+    TrigramIndex(List<String> normalizedTitles) {
+        this.titles = normalizedTitles.toArray(new String[0]);
+
+        Map<String, List<Integer>> building = new HashMap<>();
+        for (int position = 0; position < titles.length; position++) {
+            for (String gram : grams(titles[position])) {
+                building.computeIfAbsent(gram, key -> new ArrayList<>()).add(position);
+            }
+        }
+
+        Map<String, int[]> frozen = new HashMap<>(building.size() * 2);
+        building.forEach((gram, positions) ->
+                frozen.put(gram, positions.stream().mapToInt(Integer::intValue).toArray()));
+        this.postings = frozen;
+    }
+
+    /**
+     * Returns the positions of the titles containing {@code term}, best matches
+     * first: exact title, then title prefix, then word prefix, then any other
+     * substring. Ties are broken by shorter title, then by position.
+     *
+     * @param term an already normalized, non-empty search term
+     */
+    int[] search(String term) {
+        int[] candidates = term.length() < GRAM ? allPositions() : candidates(term);
+
+        List<Integer> matches = new ArrayList<>();
+        for (int position : candidates) {
+            if (titles[position].contains(term)) {
+                matches.add(position);
+            }
+        }
+
+        matches.sort(Comparator
+                .comparingInt((Integer position) -> rank(titles[position], term))
+                .thenComparingInt(position -> titles[position].length())
+                .thenComparingInt(position -> position));
+        return matches.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private int[] candidates(String term) {
+        List<int[]> lists = new ArrayList<>();
+        for (String gram : grams(term)) {
+            int[] positions = postings.get(gram);
+            if (positions == null) {
+                return NO_MATCHES;
+            }
+            lists.add(positions);
+        }
+        lists.sort(Comparator.comparingInt(positions -> positions.length));
+
+        int[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    private int[] allPositions() {
+        int[] positions = new int[titles.length];
+        Arrays.setAll(positions, i -> i);
+        return positions;
+    }
+
+    private static int rank(String title, String term) {
+        if (title.equals(term)) {
+            return 0;
+        }
+        if (title.startsWith(term)) {
+            return 1;
+        }
+        if (title.contains(" " + term)) {
+            return 2;
+        }
+        return 3;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static int[] intersect(int[] left, int[] right) {
+        int[] result = new int[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+}
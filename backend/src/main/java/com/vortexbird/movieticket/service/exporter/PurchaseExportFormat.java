@@ -0,0 +1,40 @@
+package com.vortexbird.movieticket.service.exporter;
+
+import java.util.Locale;
+
+/**
+ * File formats offered by the purchase export.
+ */
+public enum PurchaseExportFormat {
+
+    /** Comma-separated values with a header row. */
+    CSV("text/csv", "csv"),
+
+    /** Newline-delimited JSON: one purchase object per line. */
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String mediaType;
+    private final String extension;
+
+    PurchaseExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static PurchaseExportFormat fromName(String name) {
+        for (PurchaseExportFormat format : values()) {
+            if (format.extension.equals(name.trim().toLowerCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + name);
+    }
+}
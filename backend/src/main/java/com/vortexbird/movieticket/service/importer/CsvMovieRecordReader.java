@@ -0,0 +1,210 @@
+package com.vortexbird.movieticket.service.importer;
+
+import com.vortexbird.movieticket.dto.MovieDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads comma-separated movie rows (RFC 4180: double-quoted fields may hold
+ * commas, doubled quotes and line breaks).
+ *
+ * The first row names the columns, in any order and case, with or without
+ * underscores: title, description, image_url, duration (or
+ * duration_minutes), genre, price and the optional enabled. Blank lines are
+ * skipped.
+ *
+ * A quoted field that is never closed, or a row longer than
+ * {@link #MAX_ROW_LENGTH} characters, is reported as an invalid row at the
+ * line where it starts. The lines it had swallowed are then read again as
+ * rows of their own, so a stray quote neither drops the rest of the body nor
+ * buffers it.
+ */
+final class CsvMovieRecordReader implements MovieRecordReader {
+
+    static final int MAX_ROW_LENGTH = 16 * 1024;
+
+    private static final String[] REQUIRED_COLUMNS = {"title", "description", "imageurl", "duration", "genre", "price"};
+
+    private final BufferedReader body;
+    private final Map<String, Integer> columns = new HashMap<>();
+    /** Lines given back by an invalid row, read before the rest of the body. */
+    private final Deque<String> pending = new ArrayDeque<>();
+    private long line;
+    private long rowLine;
+    /** Why the row just read is invalid, or null when it was read whole. */
+    private String rowError;
+
+    CsvMovieRecordReader(BufferedReader body) throws IOException {
+        this.body = body;
+        List<String> header = readRow();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV body is empty");
+        }
+        if (rowError != null) {
+            throw new IllegalArgumentException("Invalid CSV header: " + rowError);
+        }
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(columnKey(header.get(i)), i);
+        }
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("CSV header is missing column: " + column);
+            }
+        }
+    }
+
+    @Override
+    public MovieRecord next() throws IOException {
+        List<String> fields = readRow();
+        if (fields == null) {
+            return null;
+        }
+        if (rowError != null) {
+            return MovieRecord.invalid(rowLine, rowError);
+        }
+        if (fields.size() != columns.size()) {
+            return MovieRecord.invalid(rowLine,
+                    "Expected " + columns.size() + " columns but found " + fields.size());
+        }
+
+        MovieDTO movie = new MovieDTO();
+        movie.setTitle(field(fields, "title"));
+        movie.setDescription(field(fields, "description"));
+        movie.setImageUrl(field(fields, "imageurl"));
+        movie.setGenre(field(fields, "genre"));
+        try {
+            movie.setDuration(Integer.parseInt(field(fields, "duration").trim()));
+        } catch (NumberFormatException e) {
+            return MovieRecord.invalid(rowLine, "Invalid duration: '" + field(fields, "duration") + "'");
+        }
+        try {
+            movie.setPrice(Double.parseDouble(field(fields, "price").trim()));
+        } catch (NumberFormatException e) {
+            return MovieRecord.invalid(rowLine, "Invalid price: '" + field(fields, "price") + "'");
+        }
+        String enabled = field(fields, "enabled");
+        if (enabled != null && !enabled.isBlank()) {
+            movie.setEnabled(Boolean.parseBoolean(enabled.trim()));
+        }
+        return MovieRecord.parsed(rowLine, movie);
+    }
+
+    @Override
+    public void close() throws IOException {
+        body.close();
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        return index != null ? fields.get(index) : null;
+    }
+
+    private static String columnKey(String name) {
+        String key = name.trim().toLowerCase(Locale.ROOT).replace("_", "").replace(" ", "");
+        if (key.startsWith("\uFEFF")) {
+            key = key.substring(1);
+        }
+        return switch (key) {
+            case "durationminutes" -> "duration";
+            case "isenabled" -> "enabled";
+            default -> key;
+        };
+    }
+
+    /**
+     * Reads the fields of the next non-blank row, following quoted fields
+     * across line breaks, or returns null at the end of the body. Sets
+     * {@link #rowError} when the row is invalid.
+     */
+    private List<String> readRow() throws IOException {
+        String text;
+        do {
+            text = nextLine();
+            if (text == null) {
+                return null;
+            }
+        } while (text.isBlank());
+        rowLine = line;
+        rowError = null;
+        if (text.length() > MAX_ROW_LENGTH) {
+            return invalidRow(List.of(), "Row is longer than " + MAX_ROW_LENGTH + " characters");
+        }
+
+        List<String> continuation = new ArrayList<>();
+        int length = text.length();
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == text.length()) {
+                if (!quoted) {
+                    fields.add(field.toString());
+                    return fields;
+                }
+                // The quoted field continues on the next line
+                text = nextLine();
+                if (text == null) {
+                    return invalidRow(continuation, "Quoted field is never closed");
+                }
+                continuation.add(text);
+                length += text.length() + 1;
+                if (length > MAX_ROW_LENGTH) {
+                    return invalidRow(continuation, "Row is longer than " + MAX_ROW_LENGTH
+                            + " characters; check for an unclosed quote");
+                }
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+
+            char c = text.charAt(i++);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i < text.length() && text.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+    }
+
+    private String nextLine() throws IOException {
+        String text = pending.isEmpty() ? body.readLine() : pending.poll();
+        if (text != null) {
+            line++;
+        }
+        return text;
+    }
+
+    /**
+     * Marks the current row invalid and gives back the lines after its first
+     * one, which are read again from the line after {@link #rowLine}.
+     */
+    private List<String> invalidRow(List<String> continuation, String error) {
+        for (int i = continuation.size() - 1; i >= 0; i--) {
+            pending.addFirst(continuation.get(i));
+        }
+        line = rowLine;
+        rowError = error;
+        return List.of();
+    }
+}
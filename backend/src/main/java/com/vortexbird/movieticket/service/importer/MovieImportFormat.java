@@ -0,0 +1,46 @@
+package com.vortexbird.movieticket.service.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Body formats accepted by the bulk movie import.
+ */
+public enum MovieImportFormat {
+
+    /** Comma-separated values with a header row naming the columns. */
+    CSV("text/csv"),
+
+    /** Newline-delimited JSON: one movie object per line. */
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    MovieImportFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public static MovieImportFormat fromContentType(String contentType) {
+        MediaType type = MediaType.parseMediaType(contentType);
+        for (MovieImportFormat format : values()) {
+            if (type.isCompatibleWith(MediaType.parseMediaType(format.mediaType))) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported import format: " + contentType);
+    }
+
+    /**
+     * Opens a reader returning one record per movie row of {@code body}.
+     */
+    public MovieRecordReader open(BufferedReader body, ObjectMapper objectMapper) throws IOException {
+        return this == CSV ? new CsvMovieRecordReader(body) : new NdjsonMovieRecordReader(body, objectMapper);
+    }
+}
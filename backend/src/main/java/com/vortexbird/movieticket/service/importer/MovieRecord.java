@@ -0,0 +1,40 @@
+package com.vortexbird.movieticket.service.importer;
+
+import com.vortexbird.movieticket.dto.MovieDTO;
+
+/**
+ * One movie row read from an import body: either the parsed movie or the
+ * reason it could not be parsed, with the line where the row starts.
+ */
+public final class MovieRecord {
+
+    private final long line;
+    private final MovieDTO movie;
+    private final String error;
+
+    private MovieRecord(long line, MovieDTO movie, String error) {
+        this.line = line;
+        this.movie = movie;
+        this.error = error;
+    }
+
+    static MovieRecord parsed(long line, MovieDTO movie) {
+        return new MovieRecord(line, movie, null);
+    }
+
+    static MovieRecord invalid(long line, String error) {
+        return new MovieRecord(line, null, error);
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public MovieDTO getMovie() {
+        return movie;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
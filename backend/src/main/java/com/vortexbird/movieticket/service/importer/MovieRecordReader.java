@@ -0,0 +1,15 @@
+package com.vortexbird.movieticket.service.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Incremental reader of movie rows. Only the current row is held in memory.
+ */
+public interface MovieRecordReader extends Closeable {
+
+    /**
+     * Reads the next row, or returns null at the end of the body.
+     */
+    MovieRecord next() throws IOException;
+}
@@ -0,0 +1,52 @@
+package com.vortexbird.movieticket.service.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.vortexbird.movieticket.dto.MovieDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Reads newline-delimited JSON, one movie object per line. Blank lines are
+ * skipped.
+ */
+final class NdjsonMovieRecordReader implements MovieRecordReader {
+
+    private final BufferedReader body;
+    private final ObjectReader movieReader;
+    private long line;
+
+    NdjsonMovieRecordReader(BufferedReader body, ObjectMapper objectMapper) {
+        this.body = body;
+        this.movieReader = objectMapper.readerFor(MovieDTO.class);
+    }
+
+    @Override
+    public MovieRecord next() throws IOException {
+        String text;
+        do {
+            text = body.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+        } while (text.isBlank());
+
+        try {
+            MovieDTO movie = movieReader.readValue(text);
+            if (movie == null) {
+                return MovieRecord.invalid(line, "Expected a JSON object");
+            }
+            return MovieRecord.parsed(line, movie);
+        } catch (JsonProcessingException e) {
+            return MovieRecord.invalid(line, "Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        body.close();
+    }
+}
@@ -0,0 +1,14 @@
+package com.vortexbird.movieticket.service.mail;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Thrown when the {@link EmailExecutor} is saturated and spills overflowing
+ * tasks back to the outbox instead of running them.
+ */
+public class EmailBackPressureException extends RejectedExecutionException {
+
+    public EmailBackPressureException(String message) {
+        super(message);
+    }
+}
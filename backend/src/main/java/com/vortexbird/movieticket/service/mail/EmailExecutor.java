@@ -0,0 +1,154 @@
+package com.vortexbird.movieticket.service.mail;
+
+import com.vortexbird.movieticket.dto.EmailExecutorStatsDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded thread pool for email work, with its threads named
+ * {@code email-N} and its load measured.
+ *
+ * Tasks beyond the maximum threads wait in a queue of fixed capacity. When
+ * that is full too, the {@link Overflow} policy decides: the submitting
+ * thread runs the task itself, slowing the producer down, or the task is
+ * refused with {@link EmailBackPressureException} so its emails stay in the
+ * outbox for a later relay pass.
+ *
+ * Deliberately not an {@link java.util.concurrent.Executor} bean, so Spring
+ * Boot keeps its own application task executor for everything else.
+ */
+@Slf4j
+public class EmailExecutor implements DisposableBean {
+
+    /**
+     * What to do with a task once every thread is busy and the queue is full.
+     */
+    public enum Overflow {
+        /** Run the task on the submitting thread. */
+        CALLER_RUNS,
+
+        /** Refuse the task; outbox emails are sent on a later pass. */
+        SPILL_TO_OUTBOX
+    }
+
+    private final ThreadPoolExecutor pool;
+    private final Overflow overflow;
+    private final int queueCapacity;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+
+    public EmailExecutor(int coreSize, int maxSize, int queueCapacity, Duration keepAlive, Overflow overflow) {
+        if (coreSize < 1 || maxSize < coreSize || queueCapacity < 1) {
+            throw new IllegalArgumentException("Email executor needs 1 <= core size <= max size and a queue capacity of at least 1");
+        }
+        this.overflow = overflow;
+        this.queueCapacity = queueCapacity;
+        AtomicInteger threads = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(coreSize, maxSize, keepAlive.toNanos(), TimeUnit.NANOSECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "email-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new OverflowHandler());
+    }
+
+    /**
+     * Runs {@code task} on a pool thread, or as the overflow policy says.
+     *
+     * @throws EmailBackPressureException when the pool is saturated and
+     *         overflowing tasks are spilled
+     */
+    public void execute(Runnable task) {
+        pool.execute(new TimedTask(task, System.nanoTime()));
+    }
+
+    public EmailExecutorStatsDTO getStats() {
+        long done = completed.sum();
+        return new EmailExecutorStatsDTO(
+                overflow.name(),
+                pool.getCorePoolSize(),
+                pool.getMaximumPoolSize(),
+                pool.getPoolSize(),
+                pool.getLargestPoolSize(),
+                pool.getActiveCount(),
+                pool.getQueue().size(),
+                queueCapacity,
+                done,
+                rejected.sum(),
+                callerRuns.sum(),
+                done == 0 ? 0 : millis(totalWaitNanos.sum() / done),
+                done == 0 ? 0 : millis(totalLatencyNanos.sum() / done),
+                millis(maxLatencyNanos.get()));
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        pool.shutdown();
+        if (!pool.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Email executor did not finish its tasks in time; {} left in the queue", pool.getQueue().size());
+            pool.shutdownNow();
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private final class OverflowHandler implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            rejected.increment();
+            if (overflow == Overflow.CALLER_RUNS && !executor.isShutdown()) {
+                callerRuns.increment();
+                task.run();
+                return;
+            }
+            throw new EmailBackPressureException("Email executor saturated: " + executor.getActiveCount()
+                    + " threads busy and " + executor.getQueue().size() + " tasks queued");
+        }
+    }
+
+    /**
+     * Records how long a task waited for a thread and how long it took from
+     * submission to completion.
+     */
+    private final class TimedTask implements Runnable {
+
+        private final Runnable task;
+        private final long submittedAt;
+
+        private TimedTask(Runnable task, long submittedAt) {
+            this.task = task;
+            this.submittedAt = submittedAt;
+        }
+
+        @Override
+        public void run() {
+            totalWaitNanos.add(System.nanoTime() - submittedAt);
+            try {
+                task.run();
+            } finally {
+                long latency = System.nanoTime() - submittedAt;
+                totalLatencyNanos.add(latency);
+                maxLatencyNanos.accumulate(latency);
+                completed.increment();
+            }
+        }
+    }
+}
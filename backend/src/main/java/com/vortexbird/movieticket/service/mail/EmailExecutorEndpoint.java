@@ -0,0 +1,24 @@
+package com.vortexbird.movieticket.service.mail;
+
+import com.vortexbird.movieticket.dto.EmailExecutorStatsDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint exposing the load of the {@link EmailExecutor} at
+ * {@code /actuator/emailexecutor}, to tell whether emails are backing up.
+ */
+@Component
+@Endpoint(id = "emailexecutor")
+@RequiredArgsConstructor
+public class EmailExecutorEndpoint {
+
+    private final EmailExecutor emailExecutor;
+
+    @ReadOperation
+    public EmailExecutorStatsDTO stats() {
+        return emailExecutor.getStats();
+    }
+}
@@ -0,0 +1,79 @@
+package com.vortexbird.movieticket.service.mail;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Email body template compiled once into static UTF-8 segments and the typed
+ * slots between them.
+ *
+ * Placeholders are written {@code {{name}}} and every one must be bound to a
+ * {@link TemplateSlot} at compile time, so a typo fails at startup rather than
+ * in a customer's inbox. Rendering copies the pre-encoded segments and writes
+ * each slot's value straight into a {@link RenderBuffer}; nothing is parsed
+ * and no intermediate string is built.
+ *
+ * @param <T> the model rendered by the template
+ */
+public final class EmailTemplate<T> {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String name;
+    private final byte[][] segments;
+    private final TemplateSlot<T>[] slots;
+
+    private EmailTemplate(String name, byte[][] segments, TemplateSlot<T>[] slots) {
+        this.name = name;
+        this.segments = segments;
+        this.slots = slots;
+    }
+
+    /**
+     * Parses {@code source}, binding each placeholder to the slot of the same
+     * name.
+     *
+     * @throws IllegalArgumentException on an unbound or unterminated placeholder
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> EmailTemplate<T> compile(String name, String source, Map<String, TemplateSlot<T>> bindings) {
+        List<byte[]> segments = new ArrayList<>();
+        List<TemplateSlot<T>> slots = new ArrayList<>();
+        int from = 0;
+        int open;
+        while ((open = source.indexOf(OPEN, from)) >= 0) {
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unterminated placeholder in template " + name + " at offset " + open);
+            }
+            String placeholder = source.substring(open + OPEN.length(), close).trim();
+            TemplateSlot<T> slot = bindings.get(placeholder);
+            if (slot == null) {
+                throw new IllegalArgumentException("Unknown placeholder {{" + placeholder + "}} in template " + name);
+            }
+            segments.add(source.substring(from, open).getBytes(StandardCharsets.UTF_8));
+            slots.add(slot);
+            from = close + CLOSE.length();
+        }
+        segments.add(source.substring(from).getBytes(StandardCharsets.UTF_8));
+        return new EmailTemplate<>(name, segments.toArray(new byte[0][]), slots.toArray(new TemplateSlot[0]));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Appends the template rendered for {@code model} to {@code out}.
+     */
+    public void render(T model, RenderBuffer out) {
+        out.write(segments[0]);
+        for (int i = 0; i < slots.length; i++) {
+            slots[i].write(model, out);
+            out.write(segments[i + 1]);
+        }
+    }
+}
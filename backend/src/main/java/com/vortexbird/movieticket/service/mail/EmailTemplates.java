@@ -0,0 +1,90 @@
+package com.vortexbird.movieticket.service.mail;
+
+import com.vortexbird.movieticket.model.EmailType;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Compiled email templates for every {@link EmailType}, loaded from
+ * {@code templates/email} on the classpath when the application starts.
+ *
+ * Every template can use the purchase placeholders bound below. Each thread
+ * renders into its own reusable buffer.
+ */
+@Component
+public class EmailTemplates {
+
+    private static final String LOCATION = "templates/email/";
+
+    private static final Map<String, TemplateSlot<PurchaseSnapshot>> PURCHASE_SLOTS = Map.of(
+            "customerName", TemplateSlot.text(PurchaseSnapshot::customerName),
+            "confirmationCode", TemplateSlot.text(PurchaseSnapshot::confirmationCode),
+            "movieTitle", TemplateSlot.text(PurchaseSnapshot::movieTitle),
+            "quantity", TemplateSlot.integer(PurchaseSnapshot::quantity),
+            "unitPrice", TemplateSlot.money(PurchaseSnapshot::unitPrice),
+            "totalAmount", TemplateSlot.money(PurchaseSnapshot::totalAmount),
+            "purchaseDate", TemplateSlot.dateTime(PurchaseSnapshot::purchaseDate),
+            "status", TemplateSlot.text(p -> p.status().name()),
+            "cardLastFour", TemplateSlot.text(PurchaseSnapshot::cardLastFour),
+            "cardHolderName", TemplateSlot.text(PurchaseSnapshot::cardHolderName));
+
+    private final Map<EmailType, Entry> entries = new EnumMap<>(EmailType.class);
+    private final ThreadLocal<RenderBuffer> buffers = ThreadLocal.withInitial(RenderBuffer::new);
+
+    public EmailTemplates() {
+        register(EmailType.PURCHASE_CONFIRMATION, "purchase-confirmation.html",
+                "Confirmación de Compra - Movie Ticket");
+        register(EmailType.PURCHASE_CANCELLATION, "purchase-cancellation.html",
+                "Compra Cancelada - Movie Ticket");
+        register(EmailType.PURCHASE_REMINDER, "purchase-reminder.html",
+                "Recordatorio de Compra - Movie Ticket");
+        register(EmailType.MOVIE_WITHDRAWN, "movie-withdrawn.html",
+                "Película Retirada de Cartelera - Movie Ticket");
+    }
+
+    public String subject(EmailType type) {
+        return entry(type).subject();
+    }
+
+    /**
+     * Renders the HTML body of a {@code type} email for {@code purchase}.
+     *
+     * @return the UTF-8 encoded body
+     */
+    public byte[] render(EmailType type, PurchaseSnapshot purchase) {
+        RenderBuffer buffer = buffers.get();
+        buffer.reset();
+        entry(type).template().render(purchase, buffer);
+        return buffer.toByteArray();
+    }
+
+    private Entry entry(EmailType type) {
+        Entry entry = entries.get(type);
+        if (entry == null) {
+            throw new IllegalArgumentException("No email template for " + type);
+        }
+        return entry;
+    }
+
+    private void register(EmailType type, String file, String subject) {
+        entries.put(type, new Entry(subject, EmailTemplate.compile(file, load(file), PURCHASE_SLOTS)));
+    }
+
+    private static String load(String file) {
+        try (InputStream in = new ClassPathResource(LOCATION + file).getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load email template " + file, e);
+        }
+    }
+
+    private record Entry(String subject, EmailTemplate<PurchaseSnapshot> template) {
+    }
+}
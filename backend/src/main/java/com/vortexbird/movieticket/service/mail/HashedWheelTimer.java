@@ -0,0 +1,207 @@
+package com.vortexbird.movieticket.service.mail;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timing wheel: schedules many short tasks on a single thread, at
+ * the resolution of one tick.
+ *
+ * The wheel is a ring of {@code ticksPerWheel} buckets. A task is hashed to
+ * the bucket of the tick it is due in, together with the number of full
+ * turns of the wheel left before then. Each tick the worker expires its
+ * bucket, so scheduling and expiring cost O(1) however many tasks are
+ * pending, and no thread sleeps per task.
+ *
+ * Tasks run on the wheel's thread and must only hand work off. The thread
+ * is started by the first {@link #schedule}.
+ */
+@Slf4j
+public class HashedWheelTimer implements DisposableBean {
+
+    private final String threadName;
+    private final long tickNanos;
+    private final List<Timeout>[] wheel;
+    private final int mask;
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private volatile Thread worker;
+    private volatile long startNanos;
+    private volatile boolean stopped;
+
+    /**
+     * @param ticksPerWheel rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public HashedWheelTimer(String threadName, Duration tick, int ticksPerWheel) {
+        if (tick.toMillis() < 1 || ticksPerWheel < 1 || ticksPerWheel > 1 << 20) {
+            throw new IllegalArgumentException("Timer needs a tick of at least 1ms and 1 to 2^20 ticks per wheel");
+        }
+        this.threadName = threadName;
+        this.tickNanos = tick.toNanos();
+        int buckets = Integer.highestOneBit(ticksPerWheel);
+        if (buckets < ticksPerWheel) {
+            buckets <<= 1;
+        }
+        this.wheel = new List[buckets];
+        for (int i = 0; i < buckets; i++) {
+            wheel[i] = new ArrayList<>();
+        }
+        this.mask = buckets - 1;
+    }
+
+    /**
+     * Runs {@code task} on the wheel's thread once {@code delay} has passed,
+     * at the end of the tick it falls in.
+     */
+    public Timeout schedule(Runnable task, Duration delay) {
+        if (stopped) {
+            throw new IllegalStateException("Timer " + threadName + " is stopped");
+        }
+        start();
+        long deadline = System.nanoTime() + Math.max(0, delay.toNanos()) - startNanos;
+        Timeout timeout = new Timeout(task, deadline);
+        pending.incrementAndGet();
+        added.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Number of tasks scheduled and neither run nor cancelled yet.
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        stopped = true;
+        Thread thread = worker;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join(1000);
+        }
+    }
+
+    private void start() {
+        if (worker != null) {
+            return;
+        }
+        synchronized (this) {
+            if (worker == null) {
+                startNanos = System.nanoTime();
+                Thread thread = new Thread(this::run, threadName);
+                thread.setDaemon(true);
+                thread.start();
+                worker = thread;
+            }
+        }
+    }
+
+    private void run() {
+        long tick = 0;
+        while (!stopped) {
+            long tickEnd = (tick + 1) * tickNanos;
+            long wait;
+            while ((wait = tickEnd - (System.nanoTime() - startNanos)) > 0 && !stopped) {
+                LockSupport.parkNanos(this, wait);
+            }
+            if (stopped) {
+                break;
+            }
+            transferAdded(tick);
+            expire(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    /**
+     * Places newly scheduled tasks in the bucket of the first tick ending at
+     * or after their deadline; overdue ones go to the current tick.
+     */
+    private void transferAdded(long tick) {
+        Timeout timeout;
+        while ((timeout = added.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            long dueTick = Math.max(tick, (timeout.deadline + tickNanos - 1) / tickNanos - 1);
+            timeout.rounds = (dueTick - tick) / wheel.length;
+            wheel[(int) (dueTick & mask)].add(timeout);
+        }
+    }
+
+    private void expire(List<Timeout> bucket) {
+        int kept = 0;
+        for (int i = 0; i < bucket.size(); i++) {
+            Timeout timeout = bucket.get(i);
+            if (timeout.cancelled) {
+                continue;
+            }
+            if (timeout.rounds > 0) {
+                timeout.rounds--;
+                bucket.set(kept++, timeout);
+                continue;
+            }
+            if (timeout.expire()) {
+                pending.decrementAndGet();
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException e) {
+                    log.warn("Timer task failed on {}", threadName, e);
+                }
+            }
+        }
+        bucket.subList(kept, bucket.size()).clear();
+    }
+
+    /**
+     * Handle to a scheduled task.
+     */
+    public final class Timeout {
+
+        private final Runnable task;
+        private final long deadline;
+        private long rounds;
+        private volatile boolean cancelled;
+        private boolean done;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Prevents the task from running; returns false if it already ran or
+         * was cancelled.
+         */
+        public boolean cancel() {
+            synchronized (this) {
+                if (done) {
+                    return false;
+                }
+                done = true;
+                cancelled = true;
+            }
+            pending.decrementAndGet();
+            return true;
+        }
+
+        private synchronized boolean expire() {
+            if (done) {
+                return false;
+            }
+            done = true;
+            return true;
+        }
+    }
+}
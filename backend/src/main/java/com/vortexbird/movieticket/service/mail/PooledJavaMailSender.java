@@ -0,0 +1,307 @@
+package com.vortexbird.movieticket.service.mail;
+
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link JavaMailSenderImpl} that keeps up to {@code poolSize} connected and
+ * authenticated SMTP transports open between sends.
+ *
+ * The stock sender connects, runs STARTTLS and authenticates on every
+ * {@code send} call, which costs several round trips per email. Here a send
+ * borrows an open transport and returns it afterwards. A batch of messages is
+ * split into up to {@code poolSize} chunks, each sent over its own connection
+ * in parallel on the given executor. A chunk the executor refuses is reported
+ * as failed.
+ *
+ * With a rate limiter set, every message waits for a token before it is
+ * sent, so all sends together stay under the mail provider's rate.
+ *
+ * A transport idle for longer than {@code maxIdle} is assumed to have been
+ * dropped by the server and is reopened. When a send fails for any reason
+ * other than rejected addresses, the connection is reopened and the message
+ * is sent once more.
+ */
+@Slf4j
+public class PooledJavaMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    /** Batches smaller than this are sent over a single connection. */
+    static final int MIN_CHUNK_SIZE = 8;
+
+    private static final String HEADER_MESSAGE_ID = "Message-ID";
+
+    private final int poolSize;
+    private final long maxIdleNanos;
+    private final Semaphore permits;
+    private final BlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final Executor senders;
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private volatile TokenBucket rateLimiter;
+
+    /**
+     * @param senders runs the chunks of a batch beyond the first, which the
+     *        calling thread sends itself
+     */
+    public PooledJavaMailSender(int poolSize, Duration maxIdle, Executor senders) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("SMTP pool size must be at least 1");
+        }
+        this.poolSize = poolSize;
+        this.maxIdleNanos = maxIdle.toNanos();
+        this.permits = new Semaphore(poolSize, true);
+        this.senders = senders;
+    }
+
+    /**
+     * Limits the rate of messages sent; null for no limit.
+     */
+    public void setRateLimiter(TokenBucket rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Number of SMTP connections opened so far, including reconnects.
+     */
+    public long getConnectionsOpened() {
+        return connectionsOpened.get();
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        if (mimeMessages.length == 0) {
+            return;
+        }
+        int chunks = Math.max(1, Math.min(poolSize, mimeMessages.length / MIN_CHUNK_SIZE));
+        int chunkSize = (mimeMessages.length + chunks - 1) / chunks;
+
+        List<CompletableFuture<Map<Object, Exception>>> others = new ArrayList<>(chunks - 1);
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        for (int from = chunkSize; from < mimeMessages.length; from += chunkSize) {
+            int start = from;
+            int end = Math.min(from + chunkSize, mimeMessages.length);
+            try {
+                others.add(CompletableFuture.supplyAsync(
+                        () -> sendChunk(mimeMessages, originalMessages, start, end), senders));
+            } catch (RejectedExecutionException e) {
+                // The executor is saturated; report the chunk unsent rather than block
+                for (int i = start; i < end; i++) {
+                    failedMessages.put(original(mimeMessages, originalMessages, i), e);
+                }
+            }
+        }
+        failedMessages.putAll(sendChunk(mimeMessages, originalMessages, 0, Math.min(chunkSize, mimeMessages.length)));
+        MailAuthenticationException authenticationFailure = null;
+        for (CompletableFuture<Map<Object, Exception>> other : others) {
+            try {
+                failedMessages.putAll(other.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof MailAuthenticationException authentication) {
+                    authenticationFailure = authentication;
+                } else {
+                    throw e;
+                }
+            }
+        }
+
+        if (authenticationFailure != null) {
+            throw authenticationFailure;
+        }
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    /**
+     * Sends {@code mimeMessages[from, to)} over one pooled connection and
+     * returns the messages that failed.
+     */
+    private Map<Object, Exception> sendChunk(MimeMessage[] mimeMessages, Object[] originalMessages, int from, int to) {
+        Map<Object, Exception> failed = new LinkedHashMap<>();
+        PooledTransport transport;
+        try {
+            transport = borrow();
+        } catch (MessagingException e) {
+            for (int i = from; i < to; i++) {
+                failed.put(original(mimeMessages, originalMessages, i), e);
+            }
+            return failed;
+        }
+
+        try {
+            for (int i = from; i < to; i++) {
+                MimeMessage message = mimeMessages[i];
+                try {
+                    prepare(message);
+                    throttle();
+                } catch (MessagingException e) {
+                    failed.put(original(mimeMessages, originalMessages, i), e);
+                    continue;
+                }
+                try {
+                    transport.send(message);
+                } catch (SendFailedException e) {
+                    // Rejected addresses; the connection is fine
+                    failed.put(original(mimeMessages, originalMessages, i), e);
+                } catch (MessagingException e) {
+                    log.warn("SMTP send failed, reconnecting: {}", e.getMessage());
+                    try {
+                        transport.reconnect();
+                    } catch (MessagingException connect) {
+                        // The server is unreachable; the rest of the chunk would fail the same way
+                        for (int j = i; j < to; j++) {
+                            failed.put(original(mimeMessages, originalMessages, j), connect);
+                        }
+                        break;
+                    }
+                    try {
+                        transport.send(message);
+                    } catch (MessagingException retry) {
+                        failed.put(original(mimeMessages, originalMessages, i), retry);
+                    }
+                }
+            }
+        } finally {
+            release(transport);
+        }
+        return failed;
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection", e);
+        }
+        try {
+            // Most recently used first, so connections beyond the steady load go idle and expire
+            PooledTransport transport = idle.pollFirst();
+            if (transport == null) {
+                transport = new PooledTransport();
+            }
+            if (!transport.isOpen() || System.nanoTime() - transport.lastUsed > maxIdleNanos) {
+                transport.reconnect();
+            }
+            return transport;
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void release(PooledTransport transport) {
+        if (transport.isOpen()) {
+            idle.offerFirst(transport);
+        }
+        permits.release();
+    }
+
+    private void throttle() throws MessagingException {
+        TokenBucket limiter = rateLimiter;
+        if (limiter == null) {
+            return;
+        }
+        try {
+            limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for the send rate limit", e);
+        }
+    }
+
+    private static void prepare(MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        String messageId = message.getMessageID();
+        message.saveChanges();
+        if (messageId != null) {
+            // Preserve explicitly specified message id
+            message.setHeader(HEADER_MESSAGE_ID, messageId);
+        }
+    }
+
+    private static Object original(MimeMessage[] mimeMessages, Object[] originalMessages, int index) {
+        return originalMessages != null ? originalMessages[index] : mimeMessages[index];
+    }
+
+    @Override
+    public void destroy() {
+        PooledTransport transport;
+        while ((transport = idle.poll()) != null) {
+            transport.close();
+        }
+    }
+
+    /**
+     * One SMTP connection and when it was last used.
+     */
+    private final class PooledTransport {
+
+        private Transport transport;
+        private long lastUsed;
+
+        /**
+         * Whether the connection was opened and not found broken. Unlike
+         * {@link Transport#isConnected()} this costs no NOOP round trip; a
+         * connection the server dropped is found out by the next send.
+         */
+        private boolean isOpen() {
+            return transport != null;
+        }
+
+        private void reconnect() throws MessagingException {
+            close();
+            try {
+                transport = connectTransport();
+            } catch (AuthenticationFailedException e) {
+                throw new MailAuthenticationException(e);
+            }
+            connectionsOpened.incrementAndGet();
+            lastUsed = System.nanoTime();
+        }
+
+        private void send(MimeMessage message) throws MessagingException {
+            Address[] addresses = message.getAllRecipients();
+            transport.sendMessage(message, addresses != null ? addresses : new Address[0]);
+            lastUsed = System.nanoTime();
+        }
+
+        private void close() {
+            if (transport == null) {
+                return;
+            }
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Failed to close SMTP connection: {}", e.getMessage());
+            }
+            transport = null;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.vortexbird.movieticket.service.mail;
+
+import com.vortexbird.movieticket.model.PurchaseStatus;
+import com.vortexbird.movieticket.model.TicketPurchase;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of what an email says about a purchase.
+ *
+ * Built inside the transaction that changes the purchase, while its customer
+ * and movie can still be loaded, and stored with the outbox message. Sending
+ * then needs no persistence context, and a purchase changed later is
+ * described as it was when the email was queued.
+ */
+public record PurchaseSnapshot(
+        long purchaseId,
+        String customerEmail,
+        String customerName,
+        String movieTitle,
+        int quantity,
+        double unitPrice,
+        double totalAmount,
+        LocalDateTime purchaseDate,
+        PurchaseStatus status,
+        String cardLastFour,
+        String cardHolderName,
+        String confirmationCode) implements Serializable {
+
+    public static PurchaseSnapshot of(TicketPurchase purchase) {
+        return new PurchaseSnapshot(
+                purchase.getId(),
+                purchase.getCustomer().getEmail(),
+                purchase.getCustomer().getFirstName() + " " + purchase.getCustomer().getLastName(),
+                purchase.getMovie().getTitle(),
+                purchase.getQuantity(),
+                purchase.getUnitPrice(),
+                purchase.getTotalAmount(),
+                purchase.getPurchaseDate(),
+                purchase.getStatus(),
+                purchase.getCardLastFour(),
+                purchase.getCardHolderName(),
+                purchase.getConfirmationCode());
+    }
+}
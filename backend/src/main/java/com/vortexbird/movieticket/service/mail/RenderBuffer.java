@@ -0,0 +1,126 @@
+package com.vortexbird.movieticket.service.mail;
+
+import java.util.Arrays;
+
+/**
+ * Growable UTF-8 byte buffer that templates render into.
+ *
+ * Meant to be reused: {@link #reset()} keeps the backing array, so once it
+ * has grown to the size of the largest email, rendering allocates nothing
+ * but the final copy returned by {@link #toByteArray()}. Not thread-safe.
+ */
+public final class RenderBuffer {
+
+    private static final byte[] AMP = {'&', 'a', 'm', 'p', ';'};
+    private static final byte[] LT = {'&', 'l', 't', ';'};
+    private static final byte[] GT = {'&', 'g', 't', ';'};
+    private static final byte[] QUOT = {'&', 'q', 'u', 'o', 't', ';'};
+    private static final byte[] APOS = {'&', '#', '3', '9', ';'};
+
+    private byte[] bytes;
+    private int length;
+
+    public RenderBuffer() {
+        this(4096);
+    }
+
+    public RenderBuffer(int initialCapacity) {
+        this.bytes = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public void reset() {
+        length = 0;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Copies the rendered bytes into an array of their exact length.
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, length);
+    }
+
+    public void write(byte[] source) {
+        ensureCapacity(source.length);
+        System.arraycopy(source, 0, bytes, length, source.length);
+        length += source.length;
+    }
+
+    void writeAscii(char c) {
+        ensureCapacity(1);
+        bytes[length++] = (byte) c;
+    }
+
+    /**
+     * Writes the decimal digits of a non-negative number, left-padded with
+     * zeros to at least {@code minDigits}.
+     */
+    void writeDigits(long value, int minDigits) {
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        digits = Math.max(digits, minDigits);
+        ensureCapacity(digits);
+        for (int i = length + digits - 1; i >= length; i--) {
+            bytes[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+    }
+
+    /**
+     * Writes {@code text} as UTF-8, escaping the characters HTML gives a
+     * meaning to. Unpaired surrogates are written as {@code ?}.
+     */
+    public void writeEscaped(CharSequence text) {
+        // Worst case: every char expands to 6 bytes ("&quot;") or 3 UTF-8 bytes
+        ensureCapacity(text.length() * 6);
+        byte[] out = bytes;
+        int pos = length;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                switch (c) {
+                    case '&' -> pos = put(out, pos, AMP);
+                    case '<' -> pos = put(out, pos, LT);
+                    case '>' -> pos = put(out, pos, GT);
+                    case '"' -> pos = put(out, pos, QUOT);
+                    case '\'' -> pos = put(out, pos, APOS);
+                    default -> out[pos++] = (byte) c;
+                }
+            } else if (c < 0x800) {
+                out[pos++] = (byte) (0xC0 | c >> 6);
+                out[pos++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                out[pos++] = (byte) (0xF0 | codePoint >> 18);
+                out[pos++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                out[pos++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                out[pos++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                out[pos++] = '?';
+            } else {
+                out[pos++] = (byte) (0xE0 | c >> 12);
+                out[pos++] = (byte) (0x80 | c >> 6 & 0x3F);
+                out[pos++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        length = pos;
+    }
+
+    private static int put(byte[] out, int pos, byte[] entity) {
+        System.arraycopy(entity, 0, out, pos, entity.length);
+        return pos + entity.length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.vortexbird.movieticket.service.mail;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Typed value written into a {@code {{name}}} placeholder of an
+ * {@link EmailTemplate}.
+ *
+ * Each factory fixes how its value is formatted, so rendering needs no
+ * format string: text is HTML-escaped, numbers are written digit by digit.
+ *
+ * @param <T> the model the value is read from
+ */
+@FunctionalInterface
+public interface TemplateSlot<T> {
+
+    /** Amounts from here on, whose cents may not fit a long, are left to {@link String#format}. */
+    double MAX_FAST_AMOUNT = 1e15;
+
+    void write(T model, RenderBuffer out);
+
+    /**
+     * HTML-escaped text; {@code null} renders as nothing.
+     */
+    static <T> TemplateSlot<T> text(Function<T, ? extends CharSequence> value) {
+        return (model, out) -> {
+            CharSequence text = value.apply(model);
+            if (text != null) {
+                out.writeEscaped(text);
+            }
+        };
+    }
+
+    /**
+     * Whole number without grouping, as {@code %d}.
+     */
+    static <T> TemplateSlot<T> integer(ToLongFunction<T> value) {
+        return (model, out) -> writeSigned(out, value.applyAsLong(model));
+    }
+
+    /**
+     * Amount with grouped thousands and two decimals, as {@code %,.2f} in the
+     * default format locale, whose separators are read once here.
+     */
+    static <T> TemplateSlot<T> money(ToDoubleFunction<T> value) {
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT));
+        byte[] grouping = String.valueOf(symbols.getGroupingSeparator()).getBytes(StandardCharsets.UTF_8);
+        byte[] decimal = String.valueOf(symbols.getDecimalSeparator()).getBytes(StandardCharsets.UTF_8);
+        return (model, out) -> {
+            double amount = value.applyAsDouble(model);
+            if (!(Math.abs(amount) < MAX_FAST_AMOUNT)) {
+                // Beyond any price, and NaN or infinite
+                out.writeEscaped(String.format("%,.2f", amount));
+                return;
+            }
+            // The sign survives rounding to zero, as in "-0.00"
+            if (Double.doubleToRawLongBits(amount) < 0) {
+                out.writeAscii('-');
+            }
+            long cents = cents(Math.abs(amount));
+            writeGrouped(out, cents / 100, grouping);
+            out.write(decimal);
+            out.writeDigits(cents % 100, 2);
+        };
+    }
+
+    /**
+     * Date and time as {@code dd/MM/yyyy HH:mm}; {@code null} renders as
+     * nothing.
+     */
+    static <T> TemplateSlot<T> dateTime(Function<T, LocalDateTime> value) {
+        return (model, out) -> {
+            LocalDateTime time = value.apply(model);
+            if (time == null) {
+                return;
+            }
+            out.writeDigits(time.getDayOfMonth(), 2);
+            out.writeAscii('/');
+            out.writeDigits(time.getMonthValue(), 2);
+            out.writeAscii('/');
+            out.writeDigits(time.getYear(), 4);
+            out.writeAscii(' ');
+            out.writeDigits(time.getHour(), 2);
+            out.writeAscii(':');
+            out.writeDigits(time.getMinute(), 2);
+        };
+    }
+
+    /**
+     * Rounds a non-negative amount half up to cents like {@code %.2f}, which
+     * rounds the shortest decimal that identifies the double (so 1.005 gives
+     * 1.01). Amounts with whole cents, such as every ticket price, skip the
+     * BigDecimal.
+     */
+    private static long cents(double amount) {
+        double scaled = amount * 100;
+        if (scaled == Math.rint(scaled)) {
+            return (long) scaled;
+        }
+        return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static void writeSigned(RenderBuffer out, long value) {
+        if (value < 0) {
+            out.writeAscii('-');
+            // Long.MIN_VALUE has no positive counterpart
+            if (value == Long.MIN_VALUE) {
+                out.writeDigits(922337203685477580L, 1);
+                out.writeDigits(8, 1);
+                return;
+            }
+            value = -value;
+        }
+        out.writeDigits(value, 1);
+    }
+
+    private static void writeGrouped(RenderBuffer out, long value, byte[] grouping) {
+        if (value < 1000) {
+            out.writeDigits(value, 1);
+            return;
+        }
+        writeGrouped(out, value / 1000, grouping);
+        out.write(grouping);
+        out.writeDigits(value % 1000, 3);
+    }
+}
@@ -0,0 +1,52 @@
+package com.vortexbird.movieticket.service.mail;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket rate limiter shared by several threads.
+ *
+ * The bucket holds up to {@code burst} tokens and refills at
+ * {@code permitsPerSecond}. {@link #acquire()} takes a token, waiting for it
+ * when the bucket is empty. A waiting caller reserves its token before
+ * sleeping, so callers are served in arrival order and the rate holds
+ * however many threads share the bucket.
+ */
+public class TokenBucket {
+
+    private final double permitsPerNano;
+    private final double capacity;
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (!(permitsPerSecond > 0) || burst < 1) {
+            throw new IllegalArgumentException("Token bucket needs a positive rate and a burst of at least 1");
+        }
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = burst;
+        this.tokens = burst;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /**
+     * Takes a token, sleeping until it is available.
+     */
+    public void acquire() throws InterruptedException {
+        long wait = reserve();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * Takes a token, possibly one that is not there yet, and returns how
+     * long until it is.
+     */
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * permitsPerNano);
+        refilledAt = now;
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / permitsPerNano);
+    }
+}
@@ -0,0 +1,14 @@
+package com.vortexbird.movieticket.shared.exception;
+
+/**
+ * Custom exception for requests that conflict with the current state.
+ * 
+ * Thrown when a request cannot run because another one holds the same
+ * resource, e.g. a reused or still running Idempotency-Key.
+ */
+public class ConflictException extends RuntimeException {
+    
+    public ConflictException(String message) {
+        super(message);
+    }
+}
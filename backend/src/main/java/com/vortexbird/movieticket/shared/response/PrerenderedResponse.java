@@ -0,0 +1,108 @@
+package com.vortexbird.movieticket.shared.response;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JSON response body serialized ahead of time.
+ *
+ * Holds the body in its raw and gzip-compressed forms, tagged with the version
+ * of the data it was rendered from, and writes either form directly to the
+ * servlet output stream. The two forms are different representations, so each
+ * gets its own strong ETag (see {@link #eTag(String, boolean)}). Instances are
+ * immutable.
+ */
+public final class PrerenderedResponse {
+
+    private final long version;
+    private final byte[] body;
+    private final byte[] gzipBody;
+
+    public PrerenderedResponse(long version, byte[] body) {
+        this.version = version;
+        this.body = body;
+        this.gzipBody = gzip(body);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getLength() {
+        return body.length;
+    }
+
+    public int getGzipLength() {
+        return gzipBody.length;
+    }
+
+    /**
+     * Writes the body with a 200 status, the ETag built from {@code validator},
+     * Content-Length and, when {@code compressed} is set, the gzip form with
+     * Content-Encoding.
+     */
+    public void writeTo(HttpServletResponse response, String validator, boolean compressed) throws IOException {
+        byte[] bytes = compressed ? gzipBody : body;
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.ETAG, eTag(validator, compressed));
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (compressed) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+    }
+
+    /**
+     * Strong ETag of the body identified by {@code validator}, suffixed with
+     * {@code -gzip} for the compressed form so a cache never answers a
+     * conditional request with the other encoding.
+     */
+    public static String eTag(String validator, boolean compressed) {
+        return "\"" + validator + (compressed ? "-gzip" : "") + "\"";
+    }
+
+    /**
+     * Whether an {@code Accept-Encoding} header value accepts gzip.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean rejected = false;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=") && parameter.substring(2).matches("0(\\.0{0,3})?")) {
+                    rejected = true;
+                }
+            }
+            if (!rejected) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress response body", e);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,12 @@
+-- Hibernate allocates entity ids in blocks of 50 (pooled optimizer) and, at
+-- startup, refuses sequences whose increment does not match. Databases
+-- created before ids were pooled still have INCREMENT BY 1, so this script
+-- runs before Hibernate starts on every boot. It is idempotent, and sequences
+-- that do not exist yet are skipped (Hibernate then creates them with the
+-- right increment).
+ALTER SEQUENCE IF EXISTS movies_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS customers_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS ticket_purchases_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS email_outbox_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS email_dead_letter_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS email_bulk_job_id_seq INCREMENT BY 50;
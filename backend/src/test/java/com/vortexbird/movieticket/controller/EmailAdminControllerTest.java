@@ -0,0 +1,97 @@
+package com.vortexbird.movieticket.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vortexbird.movieticket.dto.RedriveDeadLettersDTO;
+import com.vortexbird.movieticket.dto.RedriveResultDTO;
+import com.vortexbird.movieticket.model.EmailType;
+import com.vortexbird.movieticket.service.IEmailOutboxService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for EmailAdminController.
+ *
+ * Tests follow the AAA pattern:
+ * - Arrange: Setup test data and mock service responses
+ * - Act: Perform HTTP requests
+ * - Assert: Verify response status and content
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false) // Disable security for tests
+@ActiveProfiles("test") // Use test configuration with H2 database
+@DisplayName("EmailAdminController Tests")
+class EmailAdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private IEmailOutboxService outboxService;
+
+    @Test
+    @DisplayName("POST /admin/emails/dead-letters/redrive - Should re-drive the selected dead letters")
+    void testRedriveDeadLetters_Selected() throws Exception {
+        // Arrange
+        RedriveDeadLettersDTO request = new RedriveDeadLettersDTO(List.of(1L, 2L), EmailType.PURCHASE_CONFIRMATION);
+        when(outboxService.redriveDeadLetters(request)).thenReturn(new RedriveResultDTO(2));
+
+        // Act & Assert
+        mockMvc.perform(post("/admin/emails/dead-letters/redrive")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.message").value("Dead letters re-driven successfully"))
+                .andExpect(jsonPath("$.data.redriven").value(2));
+
+        verify(outboxService).redriveDeadLetters(request);
+    }
+
+    @Test
+    @DisplayName("POST /admin/emails/dead-letters/redrive - Should re-drive every dead letter without a body")
+    void testRedriveDeadLetters_All() throws Exception {
+        // Arrange
+        when(outboxService.redriveDeadLetters(any(RedriveDeadLettersDTO.class))).thenReturn(new RedriveResultDTO(120));
+
+        // Act & Assert
+        mockMvc.perform(post("/admin/emails/dead-letters/redrive"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.redriven").value(120));
+
+        verify(outboxService).redriveDeadLetters(argThat(request -> request.getIds() == null && request.getType() == null));
+    }
+
+    @Test
+    @DisplayName("POST /admin/emails/dead-letters/redrive - Should return 400 when too many ids are given")
+    void testRedriveDeadLetters_TooManyIds() throws Exception {
+        // Arrange
+        RedriveDeadLettersDTO request = new RedriveDeadLettersDTO(LongStream.rangeClosed(1, 1001).boxed().toList(), null);
+
+        // Act & Assert
+        mockMvc.perform(post("/admin/emails/dead-letters/redrive")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(outboxService);
+    }
+}
@@ -0,0 +1,190 @@
+package com.vortexbird.movieticket.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vortexbird.movieticket.model.Movie;
+import com.vortexbird.movieticket.service.IMovieService;
+import com.vortexbird.movieticket.service.catalog.CatalogResponseCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the pre-rendered catalog response of MovieController.
+ *
+ * Tests follow the AAA pattern:
+ * - Arrange: Setup test data and mock service responses
+ * - Act: Perform HTTP requests
+ * - Assert: Verify response status, headers and content
+ */
+@SpringBootTest(properties = "movies.catalog.prerender=true")
+@AutoConfigureMockMvc(addFilters = false) // Disable security for tests
+@ActiveProfiles("test") // Use test configuration with H2 database
+@DisplayName("MovieController Pre-rendered Catalog Tests")
+class MovieControllerPrerenderTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CatalogResponseCache catalogResponses;
+
+    @MockBean
+    private IMovieService movieService;
+
+    private Movie movie;
+
+    @BeforeEach
+    void setUp() {
+        // Arrange: Setup common test data
+        // The cache is a shared bean; drop what earlier tests rendered
+        ReflectionTestUtils.setField(catalogResponses, "current", null);
+
+        movie = new Movie();
+        movie.setId(1L);
+        movie.setTitle("Test Movie");
+        movie.setDescription("Test Description for movie");
+        movie.setImageUrl("https://example.com/image.jpg");
+        movie.setDuration(120);
+        movie.setGenre("Action");
+        movie.setPrice(15000.0);
+        movie.setIsEnabled(true);
+
+        when(movieService.getCatalogInstanceId()).thenReturn("a1");
+    }
+
+    @Test
+    @DisplayName("GET /movies - Should write the rendered catalog with its length")
+    void testGetAllMovies_RawBody() throws Exception {
+        // Arrange
+        when(movieService.getCatalogVersion()).thenReturn(7L);
+        when(movieService.getAllMovies()).thenReturn(List.of(movie));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/movies"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"a1-7\""))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data[0].title").value("Test Movie"))
+                .andReturn();
+
+        // Assert
+        assertEquals(result.getResponse().getContentAsByteArray().length,
+                result.getResponse().getContentLength());
+        verify(movieService, never()).searchMovies(any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /movies - Should write gzipped bytes when the client accepts gzip")
+    void testGetAllMovies_GzipBody() throws Exception {
+        // Arrange
+        when(movieService.getCatalogVersion()).thenReturn(7L);
+        when(movieService.getAllMovies()).thenReturn(List.of(movie));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/movies").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", "\"a1-7-gzip\""))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andReturn();
+
+        // Assert
+        byte[] compressed = result.getResponse().getContentAsByteArray();
+        assertEquals(compressed.length, result.getResponse().getContentLength());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            JsonNode body = objectMapper.readTree(in);
+            assertEquals("Test Movie", body.path("data").path(0).path("title").asText());
+        }
+    }
+
+    @Test
+    @DisplayName("GET /movies - Should render the catalog once per version")
+    void testGetAllMovies_RenderedOncePerVersion() throws Exception {
+        // Arrange
+        Movie updated = new Movie();
+        updated.setId(1L);
+        updated.setTitle("Updated Title");
+        updated.setIsEnabled(true);
+        when(movieService.getCatalogVersion()).thenReturn(7L, 7L, 8L);
+        when(movieService.getAllMovies()).thenReturn(List.of(movie)).thenReturn(List.of(updated));
+
+        // Act & Assert
+        mockMvc.perform(get("/movies"))
+                .andExpect(jsonPath("$.data[0].title").value("Test Movie"));
+        mockMvc.perform(get("/movies"))
+                .andExpect(jsonPath("$.data[0].title").value("Test Movie"));
+        mockMvc.perform(get("/movies"))
+                .andExpect(header().string("ETag", "\"a1-8\""))
+                .andExpect(jsonPath("$.data[0].title").value("Updated Title"));
+
+        verify(movieService, times(2)).getAllMovies();
+    }
+
+    @Test
+    @DisplayName("GET /movies - Should return 304 without rendering when the version is unchanged")
+    void testGetAllMovies_NotModified() throws Exception {
+        // Arrange
+        when(movieService.getCatalogVersion()).thenReturn(7L);
+
+        // Act & Assert
+        mockMvc.perform(get("/movies").header("If-None-Match", "\"a1-7\""))
+                .andExpect(status().isNotModified());
+
+        verify(movieService, never()).getAllMovies();
+    }
+
+    @Test
+    @DisplayName("GET /movies - Should match If-None-Match against the ETag of the accepted encoding")
+    void testGetAllMovies_NotModifiedPerEncoding() throws Exception {
+        // Arrange
+        when(movieService.getCatalogVersion()).thenReturn(7L);
+        when(movieService.getAllMovies()).thenReturn(List.of(movie));
+
+        // Act & Assert
+        mockMvc.perform(get("/movies").header("Accept-Encoding", "gzip").header("If-None-Match", "\"a1-7-gzip\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"a1-7-gzip\""))
+                .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")));
+        mockMvc.perform(get("/movies").header("If-None-Match", "\"a1-7-gzip\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"a1-7\""));
+    }
+
+    @Test
+    @DisplayName("GET /movies - Should keep filtered searches on the regular path")
+    void testGetAllMovies_SearchNotPrerendered() throws Exception {
+        // Arrange
+        when(movieService.searchMovies("Test", null)).thenReturn(List.of(movie));
+
+        // Act & Assert
+        mockMvc.perform(get("/movies").param("title", "Test"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].title").value("Test Movie"));
+
+        verify(movieService, never()).getAllMovies();
+    }
+}
@@ -1,9 +1,21 @@
 package com.vortexbird.movieticket.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vortexbird.movieticket.dto.CatalogStatsDTO;
+import com.vortexbird.movieticket.dto.CursorPageDTO;
+import com.vortexbird.movieticket.dto.GenreCountDTO;
 import com.vortexbird.movieticket.dto.MovieDTO;
+import com.vortexbird.movieticket.dto.ImportErrorDTO;
+import com.vortexbird.movieticket.dto.MovieFacetsDTO;
+import com.vortexbird.movieticket.dto.MovieImportResultDTO;
+import com.vortexbird.movieticket.dto.MovieSuggestionDTO;
+import com.vortexbird.movieticket.dto.MovieSummaryDTO;
+import com.vortexbird.movieticket.dto.RangeCountDTO;
 import com.vortexbird.movieticket.model.Movie;
+import com.vortexbird.movieticket.service.IMovieImportService;
 import com.vortexbird.movieticket.service.IMovieService;
+import com.vortexbird.movieticket.service.IStorageService;
+import com.vortexbird.movieticket.service.importer.MovieImportFormat;
 import com.vortexbird.movieticket.shared.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,15 +25,21 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -49,6 +67,12 @@ class MovieControllerTest {
     @MockBean
     private IMovieService movieService;
 
+    @MockBean
+    private IMovieImportService movieImportService;
+
+    @MockBean
+    private IStorageService storageService;
+
     private MovieDTO validMovieDTO;
     private Movie movie;
 
@@ -73,6 +97,8 @@ class MovieControllerTest {
         movie.setGenre("Action");
         movie.setPrice(15000.0);
         movie.setIsEnabled(true);
+
+        when(movieService.getCatalogInstanceId()).thenReturn("a1");
     }
 
     @Test
@@ -81,13 +107,18 @@ class MovieControllerTest {
         // Arrange
         when(movieService.createMovie(any(MovieDTO.class))).thenReturn(movie);
 
-        // Act & Assert
-        mockMvc.perform(multipart("/movies")
+        // Act
+        MvcResult result = mockMvc.perform(multipart("/movies")
                 .param("title", validMovieDTO.getTitle())
                 .param("description", validMovieDTO.getDescription())
                 .param("genre", validMovieDTO.getGenre())
                 .param("duration", String.valueOf(validMovieDTO.getDuration()))
                 .param("price", String.valueOf(validMovieDTO.getPrice())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.message").value("Movie created successfully"))
@@ -95,6 +126,122 @@ class MovieControllerTest {
                 .andExpect(jsonPath("$.data.title").value("Test Movie"));
 
         verify(movieService, times(1)).createMovie(any(MovieDTO.class));
+        verifyNoInteractions(storageService);
+    }
+
+    @Test
+    @DisplayName("POST /movies - Should create movie with the uploaded image URL")
+    void testCreateMovie_WithImage() throws Exception {
+        // Arrange
+        MockMultipartFile image = new MockMultipartFile("image", "poster.jpg", "image/jpeg", "poster".getBytes());
+        String imageUrl = "https://test-bucket.s3.us-east-1.amazonaws.com/movies/poster.jpg";
+        when(storageService.uploadFile(any())).thenReturn(CompletableFuture.completedFuture(imageUrl));
+        when(movieService.createMovie(any(MovieDTO.class))).thenReturn(movie);
+
+        // Act
+        MvcResult result = mockMvc.perform(multipart("/movies")
+                .file(image)
+                .param("title", validMovieDTO.getTitle())
+                .param("description", validMovieDTO.getDescription())
+                .param("genre", validMovieDTO.getGenre())
+                .param("duration", String.valueOf(validMovieDTO.getDuration()))
+                .param("price", String.valueOf(validMovieDTO.getPrice())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.message").value("Movie created successfully"));
+
+        verify(movieService).createMovie(argThat(dto -> imageUrl.equals(dto.getImageUrl())));
+    }
+
+    @Test
+    @DisplayName("POST /movies - Should save the movie on the application executor, not the upload thread")
+    void testCreateMovie_SavesOffUploadThread() throws Exception {
+        // Arrange
+        MockMultipartFile image = new MockMultipartFile("image", "poster.jpg", "image/jpeg", "poster".getBytes());
+        CompletableFuture<String> upload = new CompletableFuture<>();
+        when(storageService.uploadFile(any())).thenReturn(upload);
+        AtomicReference<String> savingThread = new AtomicReference<>();
+        when(movieService.createMovie(any(MovieDTO.class))).thenAnswer(invocation -> {
+            savingThread.set(Thread.currentThread().getName());
+            return movie;
+        });
+
+        // Act
+        MvcResult result = mockMvc.perform(multipart("/movies")
+                .file(image)
+                .param("title", validMovieDTO.getTitle())
+                .param("description", validMovieDTO.getDescription())
+                .param("genre", validMovieDTO.getGenre())
+                .param("duration", String.valueOf(validMovieDTO.getDuration()))
+                .param("price", String.valueOf(validMovieDTO.getPrice())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        Thread uploadThread = new Thread(() -> upload.complete("https://example.com/poster.jpg"), "sdk-async-response");
+        uploadThread.start();
+        uploadThread.join();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated());
+        assertTrue(savingThread.get().startsWith("task-"));
+    }
+
+    @Test
+    @DisplayName("POST /movies - Should return 500 and not save the movie when the upload fails")
+    void testCreateMovie_UploadFailed() throws Exception {
+        // Arrange
+        MockMultipartFile image = new MockMultipartFile("image", "poster.jpg", "image/jpeg", "poster".getBytes());
+        when(storageService.uploadFile(any()))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Failed to upload file to S3")));
+
+        // Act
+        MvcResult result = mockMvc.perform(multipart("/movies")
+                .file(image)
+                .param("title", validMovieDTO.getTitle())
+                .param("description", validMovieDTO.getDescription())
+                .param("genre", validMovieDTO.getGenre())
+                .param("duration", String.valueOf(validMovieDTO.getDuration()))
+                .param("price", String.valueOf(validMovieDTO.getPrice())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Failed to create movie"));
+
+        verify(movieService, never()).createMovie(any(MovieDTO.class));
+    }
+
+    @Test
+    @DisplayName("POST /movies - Should return 400 when the image is rejected")
+    void testCreateMovie_InvalidImage() throws Exception {
+        // Arrange
+        MockMultipartFile image = new MockMultipartFile("image", "poster.pdf", "application/pdf", "poster".getBytes());
+        when(storageService.uploadFile(any())).thenThrow(new IllegalArgumentException("Invalid file type"));
+
+        // Act
+        MvcResult result = mockMvc.perform(multipart("/movies")
+                .file(image)
+                .param("title", validMovieDTO.getTitle())
+                .param("description", validMovieDTO.getDescription())
+                .param("genre", validMovieDTO.getGenre())
+                .param("duration", String.valueOf(validMovieDTO.getDuration()))
+                .param("price", String.valueOf(validMovieDTO.getPrice())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid file type"));
+
+        verify(movieService, never()).createMovie(any(MovieDTO.class));
     }
 
     @Test
@@ -104,13 +251,18 @@ class MovieControllerTest {
         when(movieService.createMovie(any(MovieDTO.class)))
             .thenThrow(new IllegalArgumentException("Invalid movie data"));
 
-        // Act & Assert
-        mockMvc.perform(multipart("/movies")
+        // Act
+        MvcResult result = mockMvc.perform(multipart("/movies")
                 .param("title", "")
                 .param("description", "Short")
                 .param("genre", "Action")
                 .param("duration", "-1")
                 .param("price", "15000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isBadRequest());
     }
 
@@ -171,6 +323,31 @@ class MovieControllerTest {
         verify(movieService, times(1)).searchMovies(null, "Action");
     }
 
+    @Test
+    @DisplayName("GET /movies?limit= - Should return a page of movie summaries")
+    void testGetMoviePage_Success() throws Exception {
+        // Arrange
+        MovieSummaryDTO summary = new MovieSummaryDTO(2L, "Movie 2", "Drama", 100, 10000.0,
+                "https://example.com/2.jpg");
+        when(movieService.getMoviePage(1L, 1))
+                .thenReturn(new CursorPageDTO<>(Arrays.asList(summary), "2", true));
+
+        // Act & Assert
+        mockMvc.perform(get("/movies")
+                .param("after", "1")
+                .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.items", hasSize(1)))
+                .andExpect(jsonPath("$.data.items[0].id").value(2))
+                .andExpect(jsonPath("$.data.items[0].description").doesNotExist())
+                .andExpect(jsonPath("$.data.nextCursor").value("2"))
+                .andExpect(jsonPath("$.data.hasMore").value(true));
+
+        verify(movieService, times(1)).getMoviePage(1L, 1);
+        verify(movieService, never()).searchMovies(any(), any());
+    }
+
     @Test
     @DisplayName("GET /movies/{id} - Should return movie by ID")
     void testGetMovieById_Success() throws Exception {
@@ -187,6 +364,88 @@ class MovieControllerTest {
         verify(movieService, times(1)).getMovieById(1L);
     }
 
+    @Test
+    @DisplayName("GET /movies - Should tag the catalog with the catalog version")
+    void testGetAllMovies_ReturnsETag() throws Exception {
+        // Arrange
+        when(movieService.getCatalogVersion()).thenReturn(42L);
+        when(movieService.searchMovies(null, null)).thenReturn(List.of(movie));
+
+        // Act & Assert
+        mockMvc.perform(get("/movies"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"a1-42\""))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
+    @Test
+    @DisplayName("GET /movies - Should return 304 when the catalog version is unchanged")
+    void testGetAllMovies_NotModified() throws Exception {
+        // Arrange
+        when(movieService.getCatalogVersion()).thenReturn(42L);
+
+        // Act & Assert
+        mockMvc.perform(get("/movies").header("If-None-Match", "\"a1-42\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"a1-42\""))
+                .andExpect(content().string(""));
+
+        verify(movieService, never()).searchMovies(any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /movies/{id} - Should return full body when the catalog version changed")
+    void testGetMovieById_StaleETag() throws Exception {
+        // Arrange
+        when(movieService.getCatalogVersion()).thenReturn(43L);
+        when(movieService.getMovieById(1L)).thenReturn(movie);
+
+        // Act & Assert
+        mockMvc.perform(get("/movies/1").header("If-None-Match", "\"a1-42\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"a1-43\""))
+                .andExpect(jsonPath("$.data.id").value(1));
+    }
+
+    @Test
+    @DisplayName("GET /movies/{id} - Should return 304 when the movie exists and the catalog version is unchanged")
+    void testGetMovieById_NotModified() throws Exception {
+        // Arrange
+        when(movieService.getCatalogVersion()).thenReturn(42L);
+        when(movieService.getMovieById(1L)).thenReturn(movie);
+
+        // Act & Assert
+        mockMvc.perform(get("/movies/1").header("If-None-Match", "\"a1-42\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("GET /movies/{id} - Should return 404 rather than 304 for a movie that is gone")
+    void testGetMovieById_NotModifiedButMissing() throws Exception {
+        // Arrange
+        when(movieService.getCatalogVersion()).thenReturn(42L);
+        when(movieService.getMovieById(1L))
+                .thenThrow(new ResourceNotFoundException("Movie not found with id: 1"));
+
+        // Act & Assert
+        mockMvc.perform(get("/movies/1").header("If-None-Match", "\"a1-42\""))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /movies - Should not match an ETag issued by another instance")
+    void testGetAllMovies_OtherInstanceETag() throws Exception {
+        // Arrange
+        when(movieService.getCatalogVersion()).thenReturn(42L);
+        when(movieService.searchMovies(null, null)).thenReturn(List.of(movie));
+
+        // Act & Assert
+        mockMvc.perform(get("/movies").header("If-None-Match", "\"b2-42\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"a1-42\""));
+    }
+
     @Test
     @DisplayName("GET /movies/{id} - Should return 404 when movie not found")
     void testGetMovieById_NotFound() throws Exception {
@@ -203,6 +462,127 @@ class MovieControllerTest {
         verify(movieService, times(1)).getMovieById(999L);
     }
 
+    @Test
+    @DisplayName("GET /movies - Should use fuzzy search when requested")
+    void testGetAllMovies_FuzzySearch() throws Exception {
+        // Arrange
+        when(movieService.fuzzySearchMovies("Tets", null)).thenReturn(List.of(movie));
+
+        // Act & Assert
+        mockMvc.perform(get("/movies")
+                .param("title", "Tets")
+                .param("fuzzy", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].title").value("Test Movie"));
+
+        verify(movieService, times(1)).fuzzySearchMovies("Tets", null);
+        verify(movieService, never()).searchMovies(any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /movies/facets - Should return genre counts and histograms")
+    void testGetFacets_Success() throws Exception {
+        // Arrange
+        MovieFacetsDTO facets = new MovieFacetsDTO(1,
+                List.of(new GenreCountDTO("Action", 1)),
+                List.of(new RangeCountDTO(120.0, 150.0, 1)),
+                List.of(new RangeCountDTO(15000.0, null, 1)));
+        when(movieService.getFacets()).thenReturn(facets);
+
+        // Act & Assert
+        mockMvc.perform(get("/movies/facets"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.total").value(1))
+                .andExpect(jsonPath("$.data.genres[0].genre").value("Action"))
+                .andExpect(jsonPath("$.data.genres[0].count").value(1))
+                .andExpect(jsonPath("$.data.durations[0].min").value(120.0))
+                .andExpect(jsonPath("$.data.prices[0].max").doesNotExist());
+
+        verify(movieService, times(1)).getFacets();
+        verify(movieService, never()).getMovieById(anyLong());
+    }
+
+    @Test
+    @DisplayName("GET /movies/suggest - Should return id/title suggestions")
+    void testSuggestMovies_Success() throws Exception {
+        // Arrange
+        when(movieService.suggestMovies("tes", 5))
+                .thenReturn(Arrays.asList(new MovieSuggestionDTO(1L, "Test Movie")));
+
+        // Act & Assert
+        mockMvc.perform(get("/movies/suggest")
+                .param("q", "tes")
+                .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].id").value(1))
+                .andExpect(jsonPath("$.data[0].title").value("Test Movie"))
+                .andExpect(jsonPath("$.data[0].description").doesNotExist());
+
+        verify(movieService, times(1)).suggestMovies("tes", 5);
+    }
+
+    @Test
+    @DisplayName("GET /movies/catalog/stats - Should return catalog cache statistics")
+    void testGetCatalogStats_Success() throws Exception {
+        // Arrange
+        when(movieService.getCatalogStats()).thenReturn(new CatalogStatsDTO(3L, true, 5, 10000, 42L, 1L));
+
+        // Act & Assert
+        mockMvc.perform(get("/movies/catalog/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.loaded").value(true))
+                .andExpect(jsonPath("$.data.size").value(5))
+                .andExpect(jsonPath("$.data.hits").value(42))
+                .andExpect(jsonPath("$.data.misses").value(1));
+
+        verify(movieService, times(1)).getCatalogStats();
+    }
+
+    @Test
+    @DisplayName("POST /movies/import - Should import a CSV body and report rejected rows")
+    void testImportMovies_Csv() throws Exception {
+        // Arrange
+        MovieImportResultDTO result = new MovieImportResultDTO(2, 1, 1,
+                List.of(new ImportErrorDTO(3, "duration: Duration must be at least 1 minute")), false);
+        when(movieImportService.importMovies(any(), eq(MovieImportFormat.CSV))).thenReturn(result);
+        String csv = "title,description,image_url,duration,genre,price\n"
+                + "Inception,A thief who steals secrets,https://example.com/i.jpg,148,Action,15000\n"
+                + "Broken,A movie without a duration,https://example.com/b.jpg,0,Drama,12000\n";
+
+        // Act & Assert
+        mockMvc.perform(post("/movies/import")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.imported").value(1))
+                .andExpect(jsonPath("$.data.failed").value(1))
+                .andExpect(jsonPath("$.data.errors[0].line").value(3));
+
+        verify(movieImportService, times(1)).importMovies(any(), eq(MovieImportFormat.CSV));
+    }
+
+    @Test
+    @DisplayName("POST /movies/import - Should return 400 when the body cannot be imported")
+    void testImportMovies_BadHeader() throws Exception {
+        // Arrange
+        when(movieImportService.importMovies(any(), eq(MovieImportFormat.NDJSON)))
+                .thenThrow(new IllegalArgumentException("Unreadable import"));
+
+        // Act & Assert
+        mockMvc.perform(post("/movies/import")
+                        .contentType("application/x-ndjson")
+                        .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Unreadable import"));
+    }
+
     @Test
     @DisplayName("PUT /movies/{id} - Should update movie successfully")
     void testUpdateMovie_Success() throws Exception {
@@ -222,8 +602,8 @@ class MovieControllerTest {
 
         when(movieService.updateMovie(eq(1L), any(MovieDTO.class))).thenReturn(updatedMovie);
 
-        // Act & Assert
-        mockMvc.perform(multipart("/movies/1")
+        // Act
+        MvcResult result = mockMvc.perform(multipart("/movies/1")
                 .with(request -> {
                     request.setMethod("PUT");
                     return request;
@@ -234,12 +614,18 @@ class MovieControllerTest {
                 .param("duration", String.valueOf(updateDTO.getDuration()))
                 .param("price", String.valueOf(updateDTO.getPrice()))
                 .param("imageUrl", updateDTO.getImageUrl()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.message").value("Movie updated successfully"))
                 .andExpect(jsonPath("$.data.title").value("Updated Title"));
 
-        verify(movieService, times(1)).updateMovie(eq(1L), any(MovieDTO.class));
+        verify(movieService, times(1)).updateMovie(
+                eq(1L), argThat(dto -> "https://example.com/new-image.jpg".equals(dto.getImageUrl())));
     }
 
     @Test
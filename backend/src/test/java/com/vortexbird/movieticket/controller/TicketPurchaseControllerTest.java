@@ -2,10 +2,18 @@ package com.vortexbird.movieticket.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vortexbird.movieticket.dto.CreateTicketPurchaseDTO;
+import com.vortexbird.movieticket.dto.CursorPageDTO;
 import com.vortexbird.movieticket.dto.PaymentInfoDTO;
+import com.vortexbird.movieticket.dto.PurchaseFilterDTO;
 import com.vortexbird.movieticket.dto.TicketPurchaseDTO;
+import com.vortexbird.movieticket.dto.TicketValidationDTO;
 import com.vortexbird.movieticket.model.*;
+import com.vortexbird.movieticket.service.IIdempotencyService;
+import com.vortexbird.movieticket.service.IPurchaseExportService;
+import com.vortexbird.movieticket.service.IdempotentResult;
 import com.vortexbird.movieticket.service.ITicketPurchaseService;
+import com.vortexbird.movieticket.service.exporter.PurchaseExportFormat;
+import com.vortexbird.movieticket.shared.exception.ConflictException;
 import com.vortexbird.movieticket.shared.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -17,14 +25,22 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -52,6 +68,12 @@ class TicketPurchaseControllerTest {
     @MockBean
     private ITicketPurchaseService purchaseService;
 
+    @MockBean
+    private IPurchaseExportService exportService;
+
+    @MockBean
+    private IIdempotencyService idempotencyService;
+
     private CreateTicketPurchaseDTO createPurchaseDTO;
     private TicketPurchase purchase;
     private TicketPurchaseDTO purchaseDTO;
@@ -138,6 +160,43 @@ class TicketPurchaseControllerTest {
         verify(purchaseService, times(1)).toDTO(any(TicketPurchase.class));
     }
 
+    @Test
+    @DisplayName("POST /purchases - Should replay the original purchase for a retried Idempotency-Key")
+    void testCreatePurchase_IdempotentReplay() throws Exception {
+        // Arrange
+        when(idempotencyService.execute(eq("retry-key"), any(), eq(TicketPurchaseDTO.class), any()))
+                .thenReturn(new IdempotentResult<>(purchaseDTO, true));
+
+        // Act & Assert
+        mockMvc.perform(post("/purchases")
+                .param("customerId", "1")
+                .header("Idempotency-Key", "retry-key")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createPurchaseDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.data.confirmationCode").value("TKT-ABC12345"));
+
+        verify(purchaseService, never()).createPurchase(anyLong(), any(CreateTicketPurchaseDTO.class));
+    }
+
+    @Test
+    @DisplayName("POST /purchases - Should return 409 when an Idempotency-Key is reused for another request")
+    void testCreatePurchase_IdempotencyConflict() throws Exception {
+        // Arrange
+        when(idempotencyService.execute(eq("retry-key"), any(), eq(TicketPurchaseDTO.class), any()))
+                .thenThrow(new ConflictException("Idempotency-Key was already used for a different request"));
+
+        // Act & Assert
+        mockMvc.perform(post("/purchases")
+                .param("customerId", "1")
+                .header("Idempotency-Key", "retry-key")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createPurchaseDTO)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
     @Test
     @DisplayName("POST /purchases - Should return 400 when validation fails")
     void testCreatePurchase_ValidationError() throws Exception {
@@ -254,6 +313,154 @@ class TicketPurchaseControllerTest {
         verify(purchaseService, times(1)).getCustomerPurchases(1L);
     }
 
+    @Test
+    @DisplayName("GET /purchases/customer/{customerId}?limit - Should return a filtered purchase page")
+    void testGetCustomerPurchasePage_Success() throws Exception {
+        // Arrange
+        CursorPageDTO<TicketPurchaseDTO> page = new CursorPageDTO<>(List.of(purchaseDTO), "next-token", true);
+        when(purchaseService.getCustomerPurchasePage(eq(1L), any(PurchaseFilterDTO.class), eq("token"), eq(10)))
+                .thenReturn(page);
+
+        // Act & Assert
+        mockMvc.perform(get("/purchases/customer/1")
+                        .param("limit", "10")
+                        .param("after", "token")
+                        .param("from", "2024-01-01T00:00:00")
+                        .param("status", "CONFIRMED", "CANCELLED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.items", hasSize(1)))
+                .andExpect(jsonPath("$.data.nextCursor").value("next-token"))
+                .andExpect(jsonPath("$.data.hasMore").value(true));
+
+        verify(purchaseService, times(1)).getCustomerPurchasePage(eq(1L), argThat(filter ->
+                LocalDateTime.of(2024, 1, 1, 0, 0).equals(filter.getFrom())
+                        && filter.getTo() == null
+                        && List.of(PurchaseStatus.CONFIRMED, PurchaseStatus.CANCELLED).equals(filter.getStatus())),
+                eq("token"), eq(10));
+        verify(purchaseService, never()).getCustomerPurchases(anyLong());
+    }
+
+    @Test
+    @DisplayName("GET /purchases/movie/{movieId}?limit - Should return the first purchase page")
+    void testGetMoviePurchasePage_Success() throws Exception {
+        // Arrange
+        CursorPageDTO<TicketPurchaseDTO> page = new CursorPageDTO<>(List.of(purchaseDTO), null, false);
+        when(purchaseService.getMoviePurchasePage(eq(1L), any(PurchaseFilterDTO.class), eq(null), eq(50)))
+                .thenReturn(page);
+
+        // Act & Assert
+        mockMvc.perform(get("/purchases/movie/1").param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items[0].movieTitle").value("Test Movie"))
+                .andExpect(jsonPath("$.data.hasMore").value(false));
+
+        verify(purchaseService, never()).getMoviePurchases(anyLong());
+    }
+
+    @Test
+    @DisplayName("GET /purchases/movie/{movieId}/export - Should stream a CSV attachment")
+    void testExportMoviePurchases_Csv() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("id,confirmation_code\n1,TKT-ABC12345\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(exportService).exportMoviePurchases(eq(1L), eq(PurchaseExportFormat.CSV), any(OutputStream.class));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/purchases/movie/1/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", org.hamcrest.Matchers.startsWith("text/csv")))
+                .andExpect(header().string("Content-Disposition", containsString("movie-1-purchases.csv")))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string("id,confirmation_code\n1,TKT-ABC12345\n"));
+    }
+
+    @Test
+    @DisplayName("GET /purchases/movie/{movieId}/export - Should gzip NDJSON when the client accepts it")
+    void testExportMoviePurchases_GzipNdjson() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(exportService).exportMoviePurchases(eq(1L), eq(PurchaseExportFormat.NDJSON), any(OutputStream.class));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/purchases/movie/1/export")
+                        .param("format", "ndjson")
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals("{\"id\":1}\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("GET /purchases/movie/{movieId}/export - Should return 400 for an unknown format")
+    void testExportMoviePurchases_UnknownFormat() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/purchases/movie/1/export").param("format", "xlsx"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+
+        verifyNoInteractions(exportService);
+    }
+
+    @Test
+    @DisplayName("POST /purchases/validate/{code} - Should admit a confirmed ticket")
+    void testValidateTicket_Success() throws Exception {
+        // Arrange
+        when(purchaseService.validateTicket("TKT-ABC12345")).thenReturn(new TicketValidationDTO(1L, "TKT-ABC12345",
+                "Test Movie", "John Doe", 2, LocalDateTime.of(2024, 1, 15, 19, 45)));
+
+        // Act & Assert
+        mockMvc.perform(post("/purchases/validate/TKT-ABC12345"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.movieTitle").value("Test Movie"))
+                .andExpect(jsonPath("$.data.quantity").value(2));
+    }
+
+    @Test
+    @DisplayName("POST /purchases/validate/{code} - Should return 409 for a ticket already used")
+    void testValidateTicket_AlreadyUsed() throws Exception {
+        // Arrange
+        when(purchaseService.validateTicket("TKT-ABC12345"))
+                .thenThrow(new ConflictException("Ticket was already used at 2024-01-15T19:45"));
+
+        // Act & Assert
+        mockMvc.perform(post("/purchases/validate/TKT-ABC12345"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    @DisplayName("POST /purchases/validate/{code} - Should return 404 for an unknown code")
+    void testValidateTicket_NotFound() throws Exception {
+        // Arrange
+        when(purchaseService.validateTicket("TKT-NOPE"))
+                .thenThrow(new ResourceNotFoundException("Ticket not found with confirmation code: TKT-NOPE"));
+
+        // Act & Assert
+        mockMvc.perform(post("/purchases/validate/TKT-NOPE"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
     @Test
     @DisplayName("GET /purchases/movie/{movieId} - Should get movie purchases")
     void testGetMoviePurchases_Success() throws Exception {
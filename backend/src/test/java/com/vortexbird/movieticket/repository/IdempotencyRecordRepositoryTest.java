@@ -0,0 +1,106 @@
+package com.vortexbird.movieticket.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vortexbird.movieticket.model.Customer;
+import com.vortexbird.movieticket.service.IdempotencyService;
+import com.vortexbird.movieticket.service.IdempotentResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Persistence tests for IIdempotencyRecordRepository.
+ *
+ * Runs IdempotencyService against the database without a surrounding test
+ * transaction, so each of its transactions really commits or rolls back. A
+ * customer insert stands in for the purchase the key protects.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("IdempotencyRecordRepository Tests")
+class IdempotencyRecordRepositoryTest {
+
+    private static final String KEY = "5f1c2a9e-retry";
+
+    @Autowired
+    private IIdempotencyRecordRepository recordRepository;
+
+    @Autowired
+    private ICustomerRepository customerRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        recordRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should not repeat the action when storing its response fails")
+    void testExecute_CompleteFails() {
+        // Arrange
+        IIdempotencyRecordRepository failing = mock(IIdempotencyRecordRepository.class, delegatesTo(recordRepository));
+        doThrow(new DataIntegrityViolationException("connection lost"))
+                .when(failing).complete(any(), any(), any(), any());
+        Supplier<Long> purchase = () -> customerRepository.save(customer()).getId();
+
+        // Act
+        assertThrows(DataIntegrityViolationException.class, () ->
+                service(failing).execute(KEY, "body", Long.class, purchase));
+        IdempotentResult<Long> retry = service(recordRepository).execute(KEY, "body", Long.class, purchase);
+        IdempotentResult<Long> replay = service(recordRepository).execute(KEY, "body", Long.class, purchase);
+
+        // Assert: The failed attempt rolled back with its response, so only the retry bought
+        assertEquals(1, customerRepository.count());
+        assertFalse(retry.replayed());
+        assertTrue(replay.replayed());
+        assertEquals(retry.value(), replay.value());
+    }
+
+    @Test
+    @DisplayName("Should commit the action together with its stored response")
+    void testExecute_CommitsTogether() {
+        // Act
+        IdempotentResult<Long> result = service(recordRepository).execute(KEY, "body", Long.class,
+                () -> customerRepository.save(customer()).getId());
+
+        // Assert
+        assertTrue(customerRepository.existsById(result.value()));
+        assertEquals(String.valueOf(result.value()), recordRepository.findById(KEY).orElseThrow().getResponseBody());
+    }
+
+    private IdempotencyService service(IIdempotencyRecordRepository repository) {
+        // A new instance per request has an empty cache, like another instance would
+        return new IdempotencyService(repository, transactionManager, new ObjectMapper(),
+                Duration.ofHours(24), Duration.ofMinutes(1), 100);
+    }
+
+    private static Customer customer() {
+        Customer customer = new Customer();
+        customer.setEmail("customer@example.com");
+        customer.setPhone("3001234567");
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setPassword("secret");
+        return customer;
+    }
+}
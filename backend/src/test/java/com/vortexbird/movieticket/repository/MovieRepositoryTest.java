@@ -0,0 +1,88 @@
+package com.vortexbird.movieticket.repository;
+
+import com.vortexbird.movieticket.model.Movie;
+import com.vortexbird.movieticket.service.catalog.TitleNormalizer;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Persistence tests for IMovieRepository.
+ *
+ * Covers the title search used when the catalog is too large to cache, which
+ * must match titles the way the in-memory catalog does.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("MovieRepository Tests")
+class MovieRepositoryTest {
+
+    @Autowired
+    private IMovieRepository movieRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("Should search titles ignoring case and accents")
+    void testSearchByNormalizedTitle_AccentInsensitive() {
+        // Arrange
+        Movie accion = movieRepository.save(movie("Acción Mutante", 1));
+        movieRepository.save(movie("Inception", 2));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        List<Movie> byTitle = movieRepository.searchByNormalizedTitle(TitleNormalizer.normalize("ACCION"));
+        List<Movie> byTitleAndGenre = movieRepository.searchByNormalizedTitleAndGenreId(
+                TitleNormalizer.normalize("acción mutante"), 1);
+        List<Movie> otherGenre = movieRepository.searchByNormalizedTitleAndGenreId(
+                TitleNormalizer.normalize("Acción"), 2);
+
+        // Assert
+        assertEquals(List.of(accion.getId()), byTitle.stream().map(Movie::getId).toList());
+        assertEquals(List.of(accion.getId()), byTitleAndGenre.stream().map(Movie::getId).toList());
+        assertTrue(otherGenre.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should fill in the normalized title of rows written without it")
+    void testFindWithoutNormalizedTitle() {
+        // Arrange: A row inserted before the column existed
+        entityManager.createNativeQuery("INSERT INTO movies (id, title, description, image_url, duration_minutes, "
+                        + "genre, price, is_enabled) VALUES (900, 'El Niño', 'Description for movie', 'img', 100, "
+                        + "'Drama', 10000, true)")
+                .executeUpdate();
+        List<Movie> missing = movieRepository.findWithoutNormalizedTitle();
+
+        // Act
+        movieRepository.saveAllAndFlush(missing);
+        entityManager.clear();
+
+        // Assert
+        assertEquals(1, missing.size());
+        assertTrue(movieRepository.findWithoutNormalizedTitle().isEmpty());
+        assertEquals(List.of(900L), movieRepository.searchByNormalizedTitle("nino").stream()
+                .map(Movie::getId).toList());
+    }
+
+    private static Movie movie(String title, int genreId) {
+        Movie movie = new Movie();
+        movie.setTitle(title);
+        movie.setDescription("Description for movie");
+        movie.setImageUrl("https://example.com/image.jpg");
+        movie.setDuration(100);
+        movie.setGenre("Drama");
+        movie.setGenreId(genreId);
+        movie.setPrice(10000.0);
+        movie.setIsEnabled(true);
+        return movie;
+    }
+}
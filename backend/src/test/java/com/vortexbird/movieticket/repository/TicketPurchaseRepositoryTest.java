@@ -0,0 +1,283 @@
+package com.vortexbird.movieticket.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vortexbird.movieticket.dto.CursorPageDTO;
+import com.vortexbird.movieticket.dto.PurchaseFilterDTO;
+import com.vortexbird.movieticket.dto.TicketPurchaseDTO;
+import com.vortexbird.movieticket.dto.TicketValidationDTO;
+import com.vortexbird.movieticket.model.Customer;
+import com.vortexbird.movieticket.model.Movie;
+import com.vortexbird.movieticket.model.PurchaseStatus;
+import com.vortexbird.movieticket.model.TicketPurchase;
+import com.vortexbird.movieticket.service.ConfirmationCodeGenerator;
+import com.vortexbird.movieticket.service.ICustomerService;
+import com.vortexbird.movieticket.service.IEmailOutboxService;
+import com.vortexbird.movieticket.service.IMovieService;
+import com.vortexbird.movieticket.service.IssuedCodeFilter;
+import com.vortexbird.movieticket.service.PurchaseExportService;
+import com.vortexbird.movieticket.service.TicketPurchaseService;
+import com.vortexbird.movieticket.service.exporter.PurchaseExportFormat;
+import com.vortexbird.movieticket.shared.exception.ConflictException;
+import com.vortexbird.movieticket.shared.exception.ResourceNotFoundException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Persistence tests for ITicketPurchaseRepository.
+ *
+ * Counts the JDBC statements Hibernate prepares, so a history read that
+ * falls back to loading associations row by row fails the test.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@DisplayName("TicketPurchaseRepository Tests")
+class TicketPurchaseRepositoryTest {
+
+    private static final int PURCHASES = 1_000;
+
+    @Autowired
+    private ITicketPurchaseRepository purchaseRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private TicketPurchaseService purchaseService;
+    private IssuedCodeFilter issuedCodes;
+    private Statistics statistics;
+    private Customer customer;
+    private Movie movie;
+    private List<Long> purchaseIds;
+
+    @BeforeEach
+    void setUp() {
+        // Arrange: A customer with many purchases of one movie
+        customer = new Customer();
+        customer.setEmail("customer@example.com");
+        customer.setPhone("3001234567");
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setPassword("secret");
+        entityManager.persist(customer);
+
+        movie = new Movie();
+        movie.setTitle("Test Movie");
+        movie.setDescription("Test Description");
+        movie.setImageUrl("https://example.com/image.jpg");
+        movie.setDuration(120);
+        movie.setGenre("Action");
+        movie.setPrice(15000.0);
+        entityManager.persist(movie);
+
+        purchaseIds = new ArrayList<>();
+        for (int i = 0; i < PURCHASES; i++) {
+            TicketPurchase purchase = new TicketPurchase();
+            purchase.setCustomer(customer);
+            purchase.setMovie(movie);
+            purchase.setQuantity(2);
+            purchase.setUnitPrice(15000.0);
+            purchase.setTotalAmount(30000.0);
+            purchase.setStatus(PurchaseStatus.CONFIRMED);
+            purchase.setConfirmationCode("TKT-" + i);
+            entityManager.persist(purchase);
+            purchaseIds.add(purchase.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        issuedCodes = new IssuedCodeFilter(purchaseRepository, PURCHASES, 0.01, Duration.ofMinutes(1));
+        issuedCodes.seed();
+        purchaseService = new TicketPurchaseService(purchaseRepository,
+                mock(ICustomerService.class), mock(IMovieService.class), mock(IEmailOutboxService.class),
+                new ConfirmationCodeGenerator(0), issuedCodes);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Should load a customer's purchase history in a single statement")
+    void testGetCustomerPurchases_SingleStatement() {
+        // Act
+        List<TicketPurchaseDTO> history = purchaseService.getCustomerPurchases(customer.getId());
+
+        // Assert
+        assertEquals(PURCHASES, history.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals("John Doe", history.get(0).getCustomerName());
+        assertEquals("Test Movie", history.get(0).getMovieTitle());
+    }
+
+    @Test
+    @DisplayName("Should load a movie's purchases in a single statement")
+    void testGetMoviePurchases_SingleStatement() {
+        // Act
+        List<TicketPurchaseDTO> purchases = purchaseService.getMoviePurchases(movie.getId());
+
+        // Assert
+        assertEquals(PURCHASES, purchases.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals("customer@example.com", purchases.get(0).getCustomerEmail());
+    }
+
+    @Test
+    @DisplayName("Should walk the whole history page by page, one statement per page")
+    void testGetCustomerPurchasePage_KeysetWalk() {
+        // Arrange: Purchases share timestamps, so ordering relies on the id tie-breaker
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+
+        // Act
+        do {
+            CursorPageDTO<TicketPurchaseDTO> page =
+                    purchaseService.getCustomerPurchasePage(customer.getId(), new PurchaseFilterDTO(), cursor, 100);
+            page.getItems().forEach(purchase -> assertTrue(seen.add(purchase.getId())));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(PURCHASES, seen.size());
+        assertEquals(10, pages);
+        assertEquals(pages, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should only return purchases inside the date window and with the given status")
+    void testGetMoviePurchasePage_Filters() {
+        // Arrange: Move ten purchases to January and cancel five of them
+        LocalDateTime january = LocalDateTime.of(2024, 1, 15, 12, 0);
+        entityManager.createQuery("UPDATE TicketPurchase p SET p.purchaseDate = :date WHERE p.id IN :ids")
+                .setParameter("date", january)
+                .setParameter("ids", purchaseIds.subList(0, 10))
+                .executeUpdate();
+        entityManager.createQuery("UPDATE TicketPurchase p SET p.status = :status WHERE p.id IN :ids")
+                .setParameter("status", PurchaseStatus.CANCELLED)
+                .setParameter("ids", purchaseIds.subList(0, 5))
+                .executeUpdate();
+        PurchaseFilterDTO filter = new PurchaseFilterDTO(LocalDateTime.of(2024, 1, 1, 0, 0),
+                LocalDateTime.of(2024, 2, 1, 0, 0), List.of(PurchaseStatus.CONFIRMED));
+
+        // Act
+        CursorPageDTO<TicketPurchaseDTO> page = purchaseService.getMoviePurchasePage(movie.getId(), filter, null, 100);
+
+        // Assert
+        assertEquals(5, page.getItems().size());
+        assertFalse(page.isHasMore());
+        assertTrue(page.getItems().stream().allMatch(purchase -> january.equals(purchase.getPurchaseDate())));
+        List<Long> expected = new ArrayList<>(purchaseIds.subList(5, 10));
+        Collections.reverse(expected);
+        assertEquals(expected, page.getItems().stream().map(TicketPurchaseDTO::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Should export every purchase of a movie from a single streamed statement")
+    void testExportMoviePurchases_Streamed() throws Exception {
+        // Arrange
+        PurchaseExportService exportService = new PurchaseExportService(purchaseRepository, new ObjectMapper());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long count = exportService.exportMoviePurchases(movie.getId(), PurchaseExportFormat.CSV, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(PURCHASES, count);
+        assertEquals(PURCHASES + 1, lines.length);
+        assertTrue(lines[1].startsWith(purchaseIds.get(0) + ",TKT-0,"));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should admit a ticket once with an update and a projected read")
+    void testValidateTicket_SingleUse() {
+        // Act
+        TicketValidationDTO validation = purchaseService.validateTicket("TKT-7");
+        long statements = statistics.getPrepareStatementCount();
+
+        // Assert
+        assertEquals(purchaseIds.get(7), validation.getPurchaseId());
+        assertEquals("Test Movie", validation.getMovieTitle());
+        assertEquals("John Doe", validation.getCustomerName());
+        assertNotNull(validation.getUsedAt());
+        assertEquals(2, statements);
+        assertThrows(ConflictException.class, () -> purchaseService.validateTicket("TKT-7"));
+        entityManager.clear();
+        assertEquals(PurchaseStatus.USED, purchaseRepository.findById(purchaseIds.get(7)).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should walk a movie's confirmed purchases by id, one statement per chunk")
+    void testFindConfirmedPageByMovieId_KeysetWalk() {
+        // Arrange: Cancelled purchases are not notified
+        entityManager.createQuery("UPDATE TicketPurchase p SET p.status = :status WHERE p.id IN :ids")
+                .setParameter("status", PurchaseStatus.CANCELLED)
+                .setParameter("ids", purchaseIds.subList(0, 10))
+                .executeUpdate();
+        statistics.clear();
+        long afterId = 0;
+        int chunks = 0;
+        int seen = 0;
+
+        // Act
+        List<TicketPurchase> chunk;
+        do {
+            chunk = purchaseRepository.findConfirmedPageByMovieId(movie.getId(), afterId, PageRequest.of(0, 250));
+            for (TicketPurchase purchase : chunk) {
+                assertTrue(purchase.getId() > afterId);
+                afterId = purchase.getId();
+                assertEquals("customer@example.com", purchase.getCustomer().getEmail());
+            }
+            seen += chunk.size();
+            chunks++;
+            entityManager.clear();
+        } while (chunk.size() == 250);
+
+        // Assert
+        assertEquals(PURCHASES - 10, seen);
+        assertEquals(4, chunks);
+        assertEquals(chunks, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should refuse unknown codes without a statement")
+    void testValidateTicket_UnknownCode() {
+        // Act
+        int refused = 0;
+        for (int i = 0; i < 100; i++) {
+            String code = "GARBAGE-" + i;
+            if (!issuedCodes.mightBeIssued(code)) {
+                refused++;
+                assertThrows(ResourceNotFoundException.class, () -> purchaseService.validateTicket(code));
+            }
+        }
+
+        // Assert: a 1% false positive rate may let a few reach the database
+        assertTrue(refused >= 90, "refused " + refused);
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,200 @@
+package com.vortexbird.movieticket.service;
+
+import com.vortexbird.movieticket.model.BulkJobStatus;
+import com.vortexbird.movieticket.model.EmailBulkJob;
+import com.vortexbird.movieticket.model.EmailType;
+import com.vortexbird.movieticket.model.Movie;
+import com.vortexbird.movieticket.model.OutboxStatus;
+import com.vortexbird.movieticket.model.TicketPurchase;
+import com.vortexbird.movieticket.repository.IEmailBulkJobRepository;
+import com.vortexbird.movieticket.repository.IEmailOutboxRepository;
+import com.vortexbird.movieticket.repository.ITicketPurchaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BulkNotificationService.
+ *
+ * Tests follow the AAA pattern:
+ * - Arrange: Setup test data and mocks
+ * - Act: Execute the method under test
+ * - Assert: Verify the results
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BulkNotificationService Tests")
+class BulkNotificationServiceTest {
+
+    @Mock
+    private IEmailBulkJobRepository jobRepository;
+
+    @Mock
+    private ITicketPurchaseRepository purchaseRepository;
+
+    @Mock
+    private IEmailOutboxRepository outboxRepository;
+
+    @Mock
+    private IEmailOutboxService outboxService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BulkNotificationService bulkService;
+    private EmailBulkJob job;
+
+    @BeforeEach
+    void setUp() {
+        // Arrange: Setup common test data
+        bulkService = new BulkNotificationService(jobRepository, purchaseRepository, outboxRepository, outboxService,
+                transactionManager, 3, 10);
+        LocalDateTime created = LocalDateTime.now().minusMinutes(1);
+        job = new EmailBulkJob(1L, EmailType.MOVIE_WITHDRAWN, 7L, BulkJobStatus.PENDING, 0L, 0L,
+                created, created, null);
+    }
+
+    @Test
+    @DisplayName("Should start a pending job for the withdrawn movie")
+    void testNotifyMovieWithdrawn() {
+        // Arrange
+        Movie movie = new Movie();
+        movie.setId(7L);
+        when(jobRepository.save(any(EmailBulkJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<EmailBulkJob> captor = ArgumentCaptor.forClass(EmailBulkJob.class);
+
+        // Act
+        bulkService.notifyMovieWithdrawn(movie);
+
+        // Assert
+        verify(jobRepository).save(captor.capture());
+        EmailBulkJob saved = captor.getValue();
+        assertEquals(EmailType.MOVIE_WITHDRAWN, saved.getType());
+        assertEquals(7L, saved.getMovieId());
+        assertEquals(BulkJobStatus.PENDING, saved.getStatus());
+        assertEquals(0L, saved.getLastPurchaseId());
+        verifyNoInteractions(purchaseRepository, outboxService);
+    }
+
+    @Test
+    @DisplayName("Should queue the next chunk and move the job's cursor past it")
+    void testAdvanceJob_Chunk() {
+        // Arrange
+        List<TicketPurchase> chunk = purchases(11L, 12L, 15L);
+        when(jobRepository.findPendingForUpdate(any(Pageable.class))).thenReturn(List.of(job));
+        when(purchaseRepository.findConfirmedPageByMovieId(eq(7L), eq(0L), any(Pageable.class))).thenReturn(chunk);
+
+        // Act
+        boolean advanced = bulkService.advanceJob();
+
+        // Assert
+        assertTrue(advanced);
+        verify(outboxService).enqueueAll(EmailType.MOVIE_WITHDRAWN, chunk);
+        assertEquals(15L, job.getLastPurchaseId());
+        assertEquals(3L, job.getQueued());
+        assertEquals(BulkJobStatus.PENDING, job.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should resume after the cursor and complete on a short chunk")
+    void testAdvanceJob_ResumeAndComplete() {
+        // Arrange: A job interrupted after its first committed chunk
+        job.setLastPurchaseId(15L);
+        job.setQueued(3L);
+        List<TicketPurchase> chunk = purchases(20L);
+        when(jobRepository.findPendingForUpdate(any(Pageable.class))).thenReturn(List.of(job));
+        when(purchaseRepository.findConfirmedPageByMovieId(eq(7L), eq(15L), any(Pageable.class))).thenReturn(chunk);
+
+        // Act
+        boolean advanced = bulkService.advanceJob();
+
+        // Assert
+        assertTrue(advanced);
+        assertEquals(20L, job.getLastPurchaseId());
+        assertEquals(4L, job.getQueued());
+        assertEquals(BulkJobStatus.COMPLETED, job.getStatus());
+        assertNotNull(job.getCompletedAt());
+    }
+
+    @Test
+    @DisplayName("Should hold the job while the outbox backlog of its emails is full")
+    void testAdvanceJob_Backlog() {
+        // Arrange
+        when(jobRepository.findPendingForUpdate(any(Pageable.class))).thenReturn(List.of(job));
+        when(outboxRepository.countByTypeAndStatusAndAttempts(EmailType.MOVIE_WITHDRAWN, OutboxStatus.PENDING, 0))
+                .thenReturn(10L);
+
+        // Act
+        boolean advanced = bulkService.advanceJob();
+
+        // Assert
+        assertFalse(advanced);
+        verifyNoInteractions(purchaseRepository, outboxService);
+        assertEquals(0L, job.getLastPurchaseId());
+    }
+
+    @Test
+    @DisplayName("Should do nothing when no job is pending")
+    void testAdvanceJob_NoJob() {
+        // Arrange
+        when(jobRepository.findPendingForUpdate(any(Pageable.class))).thenReturn(List.of());
+
+        // Act
+        boolean advanced = bulkService.advanceJob();
+
+        // Assert
+        assertFalse(advanced);
+        verifyNoInteractions(purchaseRepository, outboxRepository, outboxService);
+    }
+
+    @Test
+    @DisplayName("Should advance chunk by chunk until the job completes")
+    void testAdvanceJobs_Drains() {
+        // Arrange
+        when(jobRepository.findPendingForUpdate(any(Pageable.class)))
+                .thenReturn(List.of(job))
+                .thenReturn(List.of(job))
+                .thenReturn(List.of(job))
+                .thenReturn(List.of());
+        when(purchaseRepository.findConfirmedPageByMovieId(eq(7L), anyLong(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    long afterId = invocation.getArgument(1);
+                    return purchases(LongStream.rangeClosed(afterId + 1, Math.min(afterId + 3, 7)).boxed()
+                            .toArray(Long[]::new));
+                });
+
+        // Act
+        bulkService.advanceJobs();
+
+        // Assert: Chunks of 3, 3 and 1
+        verify(outboxService, times(3)).enqueueAll(eq(EmailType.MOVIE_WITHDRAWN), anyList());
+        assertEquals(7L, job.getQueued());
+        assertEquals(BulkJobStatus.COMPLETED, job.getStatus());
+    }
+
+    private static List<TicketPurchase> purchases(Long... ids) {
+        List<TicketPurchase> purchases = new ArrayList<>();
+        for (Long id : ids) {
+            TicketPurchase purchase = new TicketPurchase();
+            purchase.setId(id);
+            purchases.add(purchase);
+        }
+        return purchases;
+    }
+}
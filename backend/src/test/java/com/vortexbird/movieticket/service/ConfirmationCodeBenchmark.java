@@ -0,0 +1,72 @@
+package com.vortexbird.movieticket.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for confirmation code generation, compared with the
+ * truncated random UUID it replaced. Run it with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.vortexbird.movieticket.service.ConfirmationCodeBenchmark
+ * </pre>
+ *
+ * The run fails when a single thread generates fewer than a million codes
+ * per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfirmationCodeBenchmark {
+
+    private static final double MIN_CODES_PER_SECOND = 1_000_000;
+
+    private final ConfirmationCodeGenerator generator = new ConfirmationCodeGenerator(1);
+
+    @Benchmark
+    public String generator() {
+        return generator.next();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generatorContended() {
+        return generator.next();
+    }
+
+    @Benchmark
+    public String randomUuid() {
+        return "TKT-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (RunResult result : new Runner(new OptionsBuilder()
+                .include(ConfirmationCodeBenchmark.class.getSimpleName() + ".generator$")
+                .build()).run()) {
+            double perSecond = result.getPrimaryResult().getScore();
+            if (perSecond < MIN_CODES_PER_SECOND) {
+                throw new IllegalStateException(String.format(
+                        "Generated %.0f codes/s on one thread, expected at least %.0f", perSecond, MIN_CODES_PER_SECOND));
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.vortexbird.movieticket.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ConfirmationCodeGenerator.
+ *
+ * Tests follow the AAA pattern:
+ * - Arrange: Setup test data
+ * - Act: Execute the method under test
+ * - Assert: Verify the results
+ */
+@DisplayName("ConfirmationCodeGenerator Tests")
+class ConfirmationCodeGeneratorTest {
+
+    @Test
+    @DisplayName("Should generate prefixed Crockford Base32 codes")
+    void testNext_Format() {
+        // Arrange
+        ConfirmationCodeGenerator generator = new ConfirmationCodeGenerator(7);
+
+        // Act
+        String code = generator.next();
+
+        // Assert
+        assertTrue(code.matches("TKT-[0-9A-HJKMNP-TV-Z]{13}"), code);
+    }
+
+    @Test
+    @DisplayName("Should generate codes that sort in creation order")
+    void testNext_TimeOrdered() {
+        // Arrange
+        ConfirmationCodeGenerator generator = new ConfirmationCodeGenerator(7);
+        String previous = generator.next();
+
+        // Act & Assert: far more codes than fit in one millisecond's sequence
+        for (int i = 0; i < 100_000; i++) {
+            String code = generator.next();
+            assertTrue(code.compareTo(previous) > 0, code + " <= " + previous);
+            previous = code;
+        }
+    }
+
+    @Test
+    @DisplayName("Should never repeat a code across concurrent callers")
+    void testNext_ConcurrentUnique() throws Exception {
+        // Arrange
+        ConfirmationCodeGenerator generator = new ConfirmationCodeGenerator(7);
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            tasks.add(executor.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    codes.add(generator.next());
+                }
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(400_000, codes.size());
+    }
+
+    @Test
+    @DisplayName("Should keep codes of different nodes apart")
+    void testNextId_NodeBits() {
+        // Arrange
+        ConfirmationCodeGenerator first = new ConfirmationCodeGenerator(1);
+        ConfirmationCodeGenerator second = new ConfirmationCodeGenerator(2);
+
+        // Act
+        long firstId = first.nextId();
+        long secondId = second.nextId();
+
+        // Assert
+        long nodeMask = ConfirmationCodeGenerator.MAX_NODE_ID;
+        assertEquals(1, firstId >>> ConfirmationCodeGenerator.SEQUENCE_BITS & nodeMask);
+        assertEquals(2, secondId >>> ConfirmationCodeGenerator.SEQUENCE_BITS & nodeMask);
+    }
+
+    @Test
+    @DisplayName("Should encode ids as fixed-width Base32")
+    void testEncode() {
+        // Act & Assert
+        assertEquals("0000000000000", ConfirmationCodeGenerator.encode(0));
+        assertEquals("000000000000Z", ConfirmationCodeGenerator.encode(31));
+        assertEquals("0000000000010", ConfirmationCodeGenerator.encode(32));
+        assertEquals("7ZZZZZZZZZZZZ", ConfirmationCodeGenerator.encode(Long.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Should read back when a code was generated")
+    void testIssuedAt() {
+        // Arrange
+        ConfirmationCodeGenerator generator = new ConfirmationCodeGenerator(7);
+        long before = System.currentTimeMillis();
+
+        // Act
+        String code = generator.next();
+        long issuedAt = ConfirmationCodeGenerator.issuedAt(code);
+
+        // Assert
+        assertTrue(issuedAt >= before && issuedAt <= System.currentTimeMillis() + 1, code);
+        assertTrue(code.compareTo(ConfirmationCodeGenerator.lowestCodeAt(before)) >= 0);
+        assertTrue(code.compareTo(ConfirmationCodeGenerator.lowestCodeAt(System.currentTimeMillis() + 1)) < 0);
+    }
+
+    @Test
+    @DisplayName("Should not read a time from codes of another format")
+    void testIssuedAt_OtherFormats() {
+        // Act & Assert
+        assertEquals(-1, ConfirmationCodeGenerator.issuedAt("TKT-ABC12345"));
+        assertEquals(-1, ConfirmationCodeGenerator.issuedAt("CONF-004-2024"));
+        assertEquals(-1, ConfirmationCodeGenerator.issuedAt("TKT-0A8AP1ATR0MI0"));
+        assertEquals(-1, ConfirmationCodeGenerator.issuedAt("TKT-ZZZZZZZZZZZZZ"));
+        assertEquals(-1, ConfirmationCodeGenerator.issuedAt(null));
+    }
+
+    @Test
+    @DisplayName("Should reject a node id that does not fit in 10 bits")
+    void testConstructor_InvalidNodeId() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new ConfirmationCodeGenerator(1024));
+        assertThrows(IllegalArgumentException.class, () -> new ConfirmationCodeGenerator(-2));
+    }
+
+    @Test
+    @DisplayName("Should require a node id outside the dev and test profiles")
+    void testConstructor_NodeIdRequired() {
+        // Arrange
+        MockEnvironment production = new MockEnvironment();
+        MockEnvironment dev = new MockEnvironment();
+        dev.setActiveProfiles("dev");
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> new ConfirmationCodeGenerator(-1, production));
+        assertDoesNotThrow(() -> new ConfirmationCodeGenerator(5, production));
+        assertEquals(0, ConfirmationCodeGenerator.defaultNodeId(dev));
+    }
+}
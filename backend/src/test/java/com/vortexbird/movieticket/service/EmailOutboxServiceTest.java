@@ -0,0 +1,486 @@
+package com.vortexbird.movieticket.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vortexbird.movieticket.dto.RedriveDeadLettersDTO;
+import com.vortexbird.movieticket.model.Customer;
+import com.vortexbird.movieticket.model.EmailDeadLetter;
+import com.vortexbird.movieticket.model.EmailOutboxMessage;
+import com.vortexbird.movieticket.model.EmailType;
+import com.vortexbird.movieticket.model.Movie;
+import com.vortexbird.movieticket.model.OutboxStatus;
+import com.vortexbird.movieticket.model.PurchaseStatus;
+import com.vortexbird.movieticket.model.TicketPurchase;
+import com.vortexbird.movieticket.repository.IEmailDeadLetterRepository;
+import com.vortexbird.movieticket.repository.IEmailOutboxRepository;
+import com.vortexbird.movieticket.repository.ITicketPurchaseRepository;
+import com.vortexbird.movieticket.service.mail.EmailBackPressureException;
+import com.vortexbird.movieticket.service.mail.HashedWheelTimer;
+import com.vortexbird.movieticket.service.mail.PurchaseSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.MailSendException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for EmailOutboxService.
+ *
+ * Tests follow the AAA pattern:
+ * - Arrange: Setup test data and mocks
+ * - Act: Execute the method under test
+ * - Assert: Verify the results
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EmailOutboxService Tests")
+class EmailOutboxServiceTest {
+
+    @Mock
+    private IEmailOutboxRepository outboxRepository;
+
+    @Mock
+    private IEmailDeadLetterRepository deadLetterRepository;
+
+    @Mock
+    private ITicketPurchaseRepository purchaseRepository;
+
+    @Mock
+    private IEmailService emailService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private HashedWheelTimer retryTimer;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private EmailOutboxService outboxService;
+    private TicketPurchase purchase;
+    private PurchaseSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        // Arrange: Setup common test data
+        outboxService = new EmailOutboxService(outboxRepository, deadLetterRepository, purchaseRepository, emailService,
+                objectMapper, transactionManager, retryTimer,
+                2, Duration.ofMinutes(5), Duration.ofMinutes(1), Duration.ofMinutes(10), 3, Duration.ofDays(7),
+                Duration.ofSeconds(2));
+
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setEmail("customer@example.com");
+        Movie movie = new Movie();
+        movie.setId(1L);
+        movie.setTitle("Test Movie");
+        purchase = new TicketPurchase();
+        purchase.setId(10L);
+        purchase.setCustomer(customer);
+        purchase.setMovie(movie);
+        purchase.setQuantity(2);
+        purchase.setUnitPrice(15000.0);
+        purchase.setTotalAmount(30000.0);
+        purchase.setStatus(PurchaseStatus.CONFIRMED);
+        purchase.setPurchaseDate(LocalDateTime.of(2026, 3, 7, 19, 30));
+        purchase.setConfirmationCode("TKT-ABC12345");
+        snapshot = PurchaseSnapshot.of(purchase);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxService.destroy();
+    }
+
+    @Test
+    @DisplayName("Should queue a pending confirmation email for the purchase")
+    void testEnqueuePurchaseConfirmation() throws Exception {
+        // Arrange
+        ArgumentCaptor<EmailOutboxMessage> captor = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+
+        // Act
+        outboxService.enqueue(EmailType.PURCHASE_CONFIRMATION, purchase);
+
+        // Assert
+        verify(outboxRepository).save(captor.capture());
+        EmailOutboxMessage message = captor.getValue();
+        assertEquals(EmailType.PURCHASE_CONFIRMATION, message.getType());
+        assertEquals(10L, message.getPurchaseId());
+        assertEquals(OutboxStatus.PENDING, message.getStatus());
+        assertEquals(0, message.getAttempts());
+        assertNotNull(message.getAvailableAt());
+        assertEquals(snapshot, objectMapper.readValue(message.getPayload(), PurchaseSnapshot.class));
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    @DisplayName("Should queue a pending email with its snapshot for each purchase")
+    void testEnqueueAll() throws Exception {
+        // Arrange
+        TicketPurchase other = new TicketPurchase();
+        other.setId(11L);
+        other.setCustomer(purchase.getCustomer());
+        other.setMovie(purchase.getMovie());
+        other.setQuantity(1);
+        other.setUnitPrice(15000.0);
+        other.setTotalAmount(15000.0);
+        other.setStatus(PurchaseStatus.CONFIRMED);
+        other.setPurchaseDate(LocalDateTime.of(2026, 3, 8, 18, 0));
+        other.setConfirmationCode("TKT-DEF67890");
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<EmailOutboxMessage>> captor = ArgumentCaptor.forClass(List.class);
+
+        // Act
+        outboxService.enqueueAll(EmailType.MOVIE_WITHDRAWN, List.of(purchase, other));
+
+        // Assert
+        verify(outboxRepository).saveAll(captor.capture());
+        List<EmailOutboxMessage> messages = captor.getValue();
+        assertEquals(List.of(10L, 11L), messages.stream().map(EmailOutboxMessage::getPurchaseId).toList());
+        assertTrue(messages.stream().allMatch(message -> message.getType() == EmailType.MOVIE_WITHDRAWN
+                && message.getStatus() == OutboxStatus.PENDING && message.getAttempts() == 0));
+        assertEquals(snapshot, objectMapper.readValue(messages.get(0).getPayload(), PurchaseSnapshot.class));
+    }
+
+    @Test
+    @DisplayName("Should send claimed emails and mark them sent")
+    void testRelayBatch_Sent() {
+        // Arrange
+        EmailOutboxMessage message = message(1L);
+        when(outboxRepository.findDueForUpdate(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(message));
+        when(emailService.sendPurchaseEmails(EmailType.PURCHASE_CONFIRMATION, List.of(snapshot))).thenReturn(Map.of());
+
+        // Act
+        int claimed = outboxService.relayBatch();
+
+        // Assert
+        assertEquals(1, claimed);
+        assertTrue(message.getAvailableAt().isAfter(LocalDateTime.now().plusMinutes(4)), "claim lease");
+        verify(emailService).sendPurchaseEmails(EmailType.PURCHASE_CONFIRMATION, List.of(snapshot));
+        verify(outboxRepository).markSent(eq(List.of(1L)), any(LocalDateTime.class));
+        verify(outboxRepository, never()).findAllById(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should schedule a retry and a relay wake-up when sending fails")
+    void testRelayBatch_Retry() {
+        // Arrange
+        EmailOutboxMessage message = message(1L);
+        when(outboxRepository.findDueForUpdate(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(message));
+        when(emailService.sendPurchaseEmails(EmailType.PURCHASE_CONFIRMATION, List.of(snapshot)))
+                .thenReturn(Map.of(0, new MailSendException("421 Try again later")));
+        when(outboxRepository.findAllById(anyCollection())).thenReturn(List.of(message));
+
+        // Act
+        outboxService.relayBatch();
+
+        // Assert - The first retry waits between half and all of the base delay
+        assertEquals(OutboxStatus.PENDING, message.getStatus());
+        assertEquals(1, message.getAttempts());
+        assertEquals("421 Try again later", message.getLastError());
+        assertTrue(message.getAvailableAt().isAfter(LocalDateTime.now().plusSeconds(29)));
+        assertTrue(message.getAvailableAt().isBefore(LocalDateTime.now().plusSeconds(61)));
+        ArgumentCaptor<Duration> wakeUp = ArgumentCaptor.forClass(Duration.class);
+        verify(retryTimer).schedule(any(Runnable.class), wakeUp.capture());
+        assertTrue(wakeUp.getValue().compareTo(Duration.ofSeconds(29)) > 0);
+        verify(outboxRepository, never()).markSent(anyCollection(), any(LocalDateTime.class));
+        verifyNoInteractions(deadLetterRepository);
+    }
+
+    @Test
+    @DisplayName("Should move the email to the dead-letter table after the last attempt")
+    void testRelayBatch_DeadLetter() {
+        // Arrange
+        EmailOutboxMessage message = message(1L);
+        message.setAttempts(2);
+        when(outboxRepository.findDueForUpdate(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(message));
+        when(emailService.sendPurchaseEmails(EmailType.PURCHASE_CONFIRMATION, List.of(snapshot)))
+                .thenReturn(Map.of(0, new MailSendException("550 Mailbox unavailable")));
+        when(outboxRepository.findAllById(anyCollection())).thenReturn(List.of(message));
+
+        // Act
+        outboxService.relayBatch();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<EmailDeadLetter>> captor = ArgumentCaptor.forClass(List.class);
+        verify(deadLetterRepository).saveAll(captor.capture());
+        EmailDeadLetter deadLetter = captor.getValue().get(0);
+        assertEquals(1L, deadLetter.getOutboxId());
+        assertEquals(10L, deadLetter.getPurchaseId());
+        assertEquals(message.getPayload(), deadLetter.getPayload());
+        assertEquals(3, deadLetter.getAttempts());
+        assertEquals("550 Mailbox unavailable", deadLetter.getLastError());
+        verify(outboxRepository).deleteAll(List.of(message));
+        verifyNoInteractions(retryTimer);
+    }
+
+    @Test
+    @DisplayName("Should back off exponentially with jitter up to the maximum delay")
+    void testBackoff() {
+        for (int attempts = 1; attempts <= 6; attempts++) {
+            // Act
+            Duration delay = outboxService.backoff(attempts);
+
+            // Assert - Between half and all of min(1m * 2^(attempts - 1), 10m)
+            long exponential = Math.min(60_000L << (attempts - 1), 600_000L);
+            assertTrue(delay.toMillis() >= exponential / 2, "attempt " + attempts + ": " + delay);
+            assertTrue(delay.toMillis() <= exponential, "attempt " + attempts + ": " + delay);
+        }
+    }
+
+    @Test
+    @DisplayName("Should queue the selected dead letters again with fresh attempts")
+    void testRedriveDeadLetters_ByIds() {
+        // Arrange
+        EmailDeadLetter confirmation = deadLetter(1L, EmailType.PURCHASE_CONFIRMATION);
+        EmailDeadLetter cancellation = deadLetter(2L, EmailType.PURCHASE_CANCELLATION);
+        when(deadLetterRepository.findByIdInOrderById(List.of(1L, 2L))).thenReturn(List.of(confirmation, cancellation));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<EmailOutboxMessage>> captor = ArgumentCaptor.forClass(List.class);
+
+        // Act
+        int redriven = outboxService.redriveDeadLetters(
+                new RedriveDeadLettersDTO(List.of(1L, 2L), EmailType.PURCHASE_CONFIRMATION)).getRedriven();
+
+        // Assert - Only the dead letter of the requested type
+        assertEquals(1, redriven);
+        verify(outboxRepository).saveAll(captor.capture());
+        EmailOutboxMessage message = captor.getValue().get(0);
+        assertEquals(EmailType.PURCHASE_CONFIRMATION, message.getType());
+        assertEquals(OutboxStatus.PENDING, message.getStatus());
+        assertEquals(0, message.getAttempts());
+        assertEquals(confirmation.getPayload(), message.getPayload());
+        assertNull(message.getLastError());
+        verify(deadLetterRepository).deleteAll(List.of(confirmation));
+    }
+
+    @Test
+    @DisplayName("Should re-drive every dead letter page by page")
+    void testRedriveDeadLetters_All() {
+        // Arrange
+        when(deadLetterRepository.findByOrderById(any(Pageable.class)))
+                .thenReturn(List.of(deadLetter(1L, EmailType.PURCHASE_CONFIRMATION),
+                        deadLetter(2L, EmailType.PURCHASE_CONFIRMATION)))
+                .thenReturn(List.of(deadLetter(3L, EmailType.PURCHASE_REMINDER)));
+
+        // Act
+        int redriven = outboxService.redriveDeadLetters(new RedriveDeadLettersDTO()).getRedriven();
+
+        // Assert
+        assertEquals(3, redriven);
+        verify(deadLetterRepository, times(2)).findByOrderById(any(Pageable.class));
+        verify(outboxRepository, times(2)).saveAll(anyList());
+        verify(deadLetterRepository, times(2)).deleteAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should re-drive nothing when there are no dead letters")
+    void testRedriveDeadLetters_None() {
+        // Arrange
+        when(deadLetterRepository.findByTypeOrderById(eq(EmailType.PURCHASE_REMINDER), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        // Act
+        int redriven = outboxService.redriveDeadLetters(
+                new RedriveDeadLettersDTO(null, EmailType.PURCHASE_REMINDER)).getRedriven();
+
+        // Assert
+        assertEquals(0, redriven);
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    @DisplayName("Should keep relaying while full batches are due")
+    void testRelay_Drains() {
+        // Arrange
+        when(outboxRepository.findDueForUpdate(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(message(1L), message(2L)))
+                .thenReturn(List.of(message(3L)));
+        when(emailService.sendPurchaseEmails(eq(EmailType.PURCHASE_CONFIRMATION), anyList())).thenReturn(Map.of());
+
+        // Act
+        outboxService.relay();
+
+        // Assert
+        verify(outboxRepository, times(2)).findDueForUpdate(any(LocalDateTime.class), any(Pageable.class));
+        verify(emailService, times(2)).sendPurchaseEmails(eq(EmailType.PURCHASE_CONFIRMATION), anyList());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> sent = ArgumentCaptor.forClass(Collection.class);
+        verify(outboxRepository, times(2)).markSent(sent.capture(), any(LocalDateTime.class));
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L)), sent.getAllValues());
+    }
+
+    @Test
+    @DisplayName("Should send each email type of a batch in its own call")
+    void testRelayBatch_MixedTypes() {
+        // Arrange
+        EmailOutboxMessage confirmation = message(1L);
+        EmailOutboxMessage cancellation = message(2L);
+        cancellation.setType(EmailType.PURCHASE_CANCELLATION);
+        when(outboxRepository.findDueForUpdate(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(confirmation, cancellation));
+        when(emailService.sendPurchaseEmails(EmailType.PURCHASE_CONFIRMATION, List.of(snapshot))).thenReturn(Map.of());
+        when(emailService.sendPurchaseEmails(EmailType.PURCHASE_CANCELLATION, List.of(snapshot)))
+                .thenReturn(Map.of(0, new MailSendException("421 Try again later")));
+        when(outboxRepository.findAllById(anyCollection())).thenReturn(List.of(cancellation));
+
+        // Act
+        outboxService.relayBatch();
+
+        // Assert - The same purchase failed only for the cancellation
+        verify(outboxRepository).markSent(eq(List.of(1L)), any(LocalDateTime.class));
+        assertEquals(1, cancellation.getAttempts());
+        assertEquals(0, confirmation.getAttempts());
+    }
+
+    @Test
+    @DisplayName("Should settle two emails of one purchase and type by their own outcome")
+    void testRelayBatch_SamePurchaseTwice() {
+        // Arrange
+        EmailOutboxMessage first = message(1L);
+        EmailOutboxMessage second = message(2L);
+        when(outboxRepository.findDueForUpdate(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(first, second));
+        when(emailService.sendPurchaseEmails(EmailType.PURCHASE_CONFIRMATION, List.of(snapshot, snapshot)))
+                .thenReturn(Map.of(1, new MailSendException("421 Try again later")));
+        when(outboxRepository.findAllById(anyCollection())).thenReturn(List.of(second));
+
+        // Act
+        outboxService.relayBatch();
+
+        // Assert
+        verify(outboxRepository).markSent(eq(List.of(1L)), any(LocalDateTime.class));
+        assertEquals(0, first.getAttempts());
+        assertEquals(1, second.getAttempts());
+    }
+
+    @Test
+    @DisplayName("Should reschedule emails the executor spilled without counting an attempt")
+    void testRelayBatch_Spilled() {
+        // Arrange
+        EmailOutboxMessage message = message(1L);
+        when(outboxRepository.findDueForUpdate(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(message));
+        when(emailService.sendPurchaseEmails(EmailType.PURCHASE_CONFIRMATION, List.of(snapshot)))
+                .thenReturn(Map.of(0, new EmailBackPressureException("Email executor saturated")));
+
+        // Act
+        outboxService.relayBatch();
+
+        // Assert
+        ArgumentCaptor<LocalDateTime> availableAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository).reschedule(eq(List.of(1L)), availableAt.capture());
+        assertTrue(availableAt.getValue().isBefore(LocalDateTime.now().plusSeconds(3)));
+        verify(outboxRepository, never()).findAllById(anyCollection());
+        verify(outboxRepository, never()).markSent(anyCollection(), any(LocalDateTime.class));
+        assertEquals(0, message.getAttempts());
+    }
+
+    @Test
+    @DisplayName("Should send from the stored snapshot without reading the purchase")
+    void testRelayBatch_ReadsNoPurchase() {
+        // Arrange
+        when(outboxRepository.findDueForUpdate(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(message(1L)));
+        when(emailService.sendPurchaseEmails(EmailType.PURCHASE_CONFIRMATION, List.of(snapshot))).thenReturn(Map.of());
+
+        // Act
+        outboxService.relayBatch();
+
+        // Assert
+        verifyNoInteractions(purchaseRepository);
+        verify(outboxRepository).markSent(eq(List.of(1L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should snapshot the purchase of emails queued without a payload")
+    void testRelayBatch_LegacyMessage() {
+        // Arrange
+        EmailOutboxMessage legacy = message(1L);
+        legacy.setPayload(null);
+        EmailOutboxMessage orphan = message(2L);
+        orphan.setPayload(null);
+        orphan.setPurchaseId(99L);
+        when(outboxRepository.findDueForUpdate(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(legacy, orphan));
+        when(purchaseRepository.findWithCustomerAndMovieByIdIn(List.of(10L, 99L))).thenReturn(List.of(purchase));
+        when(emailService.sendPurchaseEmails(EmailType.PURCHASE_CONFIRMATION, List.of(snapshot))).thenReturn(Map.of());
+        when(outboxRepository.findAllById(anyCollection())).thenReturn(List.of(orphan));
+
+        // Act
+        outboxService.relayBatch();
+
+        // Assert
+        verify(outboxRepository).markSent(eq(List.of(1L)), any(LocalDateTime.class));
+        assertEquals("Purchase 99 not found", orphan.getLastError());
+    }
+
+    @Test
+    @DisplayName("Should record an unreadable payload as a failure")
+    void testRelayBatch_UnreadablePayload() {
+        // Arrange
+        EmailOutboxMessage message = message(1L);
+        message.setPayload("{not json");
+        when(outboxRepository.findDueForUpdate(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(message));
+        when(outboxRepository.findAllById(anyCollection())).thenReturn(List.of(message));
+
+        // Act
+        outboxService.relayBatch();
+
+        // Assert
+        assertTrue(message.getLastError().startsWith("Unreadable payload"));
+        assertEquals(1, message.getAttempts());
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    @DisplayName("Should do nothing when no email is due")
+    void testRelayBatch_Empty() {
+        // Arrange
+        when(outboxRepository.findDueForUpdate(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of());
+
+        // Act
+        int claimed = outboxService.relayBatch();
+
+        // Assert
+        assertEquals(0, claimed);
+        verifyNoInteractions(purchaseRepository, emailService);
+    }
+
+    private EmailDeadLetter deadLetter(Long id, EmailType type) {
+        LocalDateTime now = LocalDateTime.now();
+        return new EmailDeadLetter(id, 100L + id, type, 10L, "{}", 3, "550 Mailbox unavailable", now.minusHours(2), now);
+    }
+
+    private EmailOutboxMessage message(Long id) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            return new EmailOutboxMessage(id, EmailType.PURCHASE_CONFIRMATION, 10L, objectMapper.writeValueAsString(snapshot),
+                    OutboxStatus.PENDING, 0, now, now, null, null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
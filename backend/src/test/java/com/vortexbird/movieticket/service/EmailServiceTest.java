@@ -1,9 +1,13 @@
 package com.vortexbird.movieticket.service;
 
 import com.vortexbird.movieticket.model.Customer;
+import com.vortexbird.movieticket.model.EmailType;
 import com.vortexbird.movieticket.model.Movie;
 import com.vortexbird.movieticket.model.PurchaseStatus;
 import com.vortexbird.movieticket.model.TicketPurchase;
+import com.vortexbird.movieticket.service.mail.EmailTemplates;
+import com.vortexbird.movieticket.service.mail.PurchaseSnapshot;
+import jakarta.activation.DataHandler;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,12 +17,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -38,15 +48,18 @@ class EmailServiceTest {
     @Mock
     private MimeMessage mimeMessage;
 
+    @Spy
+    private EmailTemplates templates = new EmailTemplates();
+
     @InjectMocks
     private EmailService emailService;
 
-    private TicketPurchase testPurchase;
+    private PurchaseSnapshot testPurchase;
 
     @BeforeEach
     void setUp() {
         // Arrange - Create test data (DRY principle)
-        testPurchase = createTestPurchase();
+        testPurchase = PurchaseSnapshot.of(createTestPurchase(1L));
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
     }
 
@@ -65,14 +78,15 @@ class EmailServiceTest {
     }
 
     @Test
-    @DisplayName("Should handle email sending failure gracefully")
-    void shouldHandleEmailSendingFailureGracefully() {
+    @DisplayName("Should report email sending failure to the caller")
+    void shouldReportEmailSendingFailure() {
         // Arrange
-        doThrow(new RuntimeException("SMTP connection failed"))
+        doThrow(new MailSendException("SMTP connection failed"))
             .when(mailSender).send(any(MimeMessage.class));
 
-        // Act & Assert - Should not throw exception (logs error instead)
-        emailService.sendPurchaseConfirmation(testPurchase);
+        // Act & Assert - The outbox relay retries failed emails
+        assertThatThrownBy(() -> emailService.sendPurchaseConfirmation(testPurchase))
+            .isInstanceOf(MailSendException.class);
 
         // Verify that email sending was attempted
         verify(mailSender, times(1)).send(any(MimeMessage.class));
@@ -90,8 +104,42 @@ class EmailServiceTest {
 
         // Assert
         verify(mailSender).send(any(MimeMessage.class));
-        assertThat(testPurchase.getConfirmationCode()).isNotNull();
-        assertThat(testPurchase.getCustomer().getEmail()).isEqualTo("test@example.com");
+        assertThat(testPurchase.confirmationCode()).isNotNull();
+        assertThat(testPurchase.customerEmail()).isEqualTo("test@example.com");
+    }
+
+    @Test
+    @DisplayName("Should render the purchase into a UTF-8 HTML body")
+    void shouldRenderPurchaseIntoHtmlBody() throws Exception {
+        // Arrange
+        ArgumentCaptor<DataHandler> bodyCaptor = ArgumentCaptor.forClass(DataHandler.class);
+
+        // Act
+        emailService.sendPurchaseConfirmation(testPurchase);
+
+        // Assert
+        verify(mimeMessage).setDataHandler(bodyCaptor.capture());
+        DataHandler body = bodyCaptor.getValue();
+        assertThat(body.getContentType()).isEqualTo("text/html; charset=UTF-8");
+        String html = new String(body.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertThat(html)
+            .contains("¡Hola John Doe!")
+            .contains("TKT-ABC12345")
+            .contains("Avengers: Endgame")
+            .contains(String.format("$%,.2f COP", 30000.0))
+            .doesNotContain("{{");
+    }
+
+    @Test
+    @DisplayName("Should render the template of the requested email type")
+    void shouldRenderTemplateOfRequestedType() {
+        // Act
+        Map<Integer, Exception> failed = emailService.sendPurchaseEmails(EmailType.PURCHASE_CANCELLATION, List.of(testPurchase));
+
+        // Assert
+        assertThat(failed).isEmpty();
+        verify(templates).render(EmailType.PURCHASE_CANCELLATION, testPurchase);
+        verify(templates).subject(EmailType.PURCHASE_CANCELLATION);
     }
 
     @Test
@@ -105,7 +153,7 @@ class EmailServiceTest {
         emailService.sendPurchaseConfirmation(testPurchase);
 
         // Assert
-        assertThat(testPurchase.getCustomer().getEmail()).isEqualTo(expectedEmail);
+        assertThat(testPurchase.customerEmail()).isEqualTo(expectedEmail);
         verify(mailSender, times(1)).send(any(MimeMessage.class));
     }
 
@@ -122,11 +170,45 @@ class EmailServiceTest {
         verify(mailSender, times(1)).createMimeMessage();
     }
 
+    @Test
+    @DisplayName("Should send a batch of confirmations in a single call")
+    void shouldSendBatchOfConfirmationsInSingleCall() {
+        // Arrange
+        MimeMessage secondMessage = mock(MimeMessage.class);
+        when(mailSender.createMimeMessage()).thenReturn(mimeMessage, secondMessage);
+        PurchaseSnapshot secondPurchase = PurchaseSnapshot.of(createTestPurchase(2L));
+
+        // Act
+        Map<Integer, Exception> failed = emailService.sendPurchaseEmails(EmailType.PURCHASE_CONFIRMATION, List.of(testPurchase, secondPurchase));
+
+        // Assert
+        assertThat(failed).isEmpty();
+        verify(mailSender, times(1)).send(new MimeMessage[]{mimeMessage, secondMessage});
+    }
+
+    @Test
+    @DisplayName("Should report batch failures by position")
+    void shouldReportBatchFailuresByPosition() {
+        // Arrange
+        MimeMessage secondMessage = mock(MimeMessage.class);
+        when(mailSender.createMimeMessage()).thenReturn(mimeMessage, secondMessage);
+        PurchaseSnapshot secondPurchase = PurchaseSnapshot.of(createTestPurchase(2L));
+        Exception rejected = new MessagingException("550 Mailbox unavailable");
+        doThrow(new MailSendException(Map.of(secondMessage, rejected)))
+            .when(mailSender).send(any(MimeMessage[].class));
+
+        // Act
+        Map<Integer, Exception> failed = emailService.sendPurchaseEmails(EmailType.PURCHASE_CONFIRMATION, List.of(testPurchase, secondPurchase));
+
+        // Assert - Only the rejected purchase is reported
+        assertThat(failed).containsExactly(Map.entry(1, rejected));
+    }
+
     /**
      * Helper method to create test purchase data.
      * Applies DRY principle - reusable test data creation.
      */
-    private TicketPurchase createTestPurchase() {
+    private TicketPurchase createTestPurchase(Long id) {
         Customer customer = new Customer();
         customer.setId(1L);
         customer.setEmail("test@example.com");
@@ -139,7 +221,7 @@ class EmailServiceTest {
         movie.setPrice(15000.0);
 
         TicketPurchase purchase = new TicketPurchase();
-        purchase.setId(1L);
+        purchase.setId(id);
         purchase.setCustomer(customer);
         purchase.setMovie(movie);
         purchase.setQuantity(2);
@@ -0,0 +1,157 @@
+package com.vortexbird.movieticket.service;
+
+import com.vortexbird.movieticket.model.Genre;
+import com.vortexbird.movieticket.repository.IGenreRepository;
+import com.vortexbird.movieticket.repository.IMovieRepository;
+import com.vortexbird.movieticket.service.catalog.MovieCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for GenreService.
+ *
+ * Tests follow the AAA pattern:
+ * - Arrange: Setup test data and mocks
+ * - Act: Execute the method under test
+ * - Assert: Verify the results
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GenreService Tests")
+class GenreServiceTest {
+
+    @Mock
+    private IGenreRepository genreRepository;
+
+    @Mock
+    private IMovieRepository movieRepository;
+
+    @Mock
+    private MovieCatalog catalog;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private GenreService genreService;
+
+    private Genre action;
+
+    @BeforeEach
+    void setUp() {
+        // Arrange: Setup common test data
+        action = new Genre(1, "Acción", "accion");
+        when(genreRepository.findAll()).thenReturn(List.of(action));
+        genreService.loadGenres();
+    }
+
+    @Test
+    @DisplayName("Should resolve genres ignoring case and accents")
+    void testResolve_AccentInsensitive() {
+        // Act
+        Optional<Genre> upper = genreService.resolve("ACCION");
+        Optional<Genre> accented = genreService.resolve(" acción ");
+        Optional<Genre> unknown = genreService.resolve("Terror");
+
+        // Assert
+        assertEquals(Optional.of(action), upper);
+        assertEquals(Optional.of(action), accented);
+        assertTrue(unknown.isEmpty());
+        verify(genreRepository, never()).findByNormalizedName(any());
+    }
+
+    @Test
+    @DisplayName("Should return a cached genre without touching the database")
+    void testResolveOrCreate_Existing() {
+        // Act
+        Genre result = genreService.resolveOrCreate("accion");
+
+        // Assert
+        assertSame(action, result);
+        verify(genreRepository, never()).save(any(Genre.class));
+    }
+
+    @Test
+    @DisplayName("Should create and cache a new genre")
+    void testResolveOrCreate_New() {
+        // Arrange
+        when(genreRepository.findByNormalizedName("ciencia ficcion")).thenReturn(Optional.empty());
+        when(genreRepository.save(any(Genre.class))).thenAnswer(invocation -> {
+            Genre genre = invocation.getArgument(0);
+            genre.setId(2);
+            return genre;
+        });
+
+        // Act
+        Genre result = genreService.resolveOrCreate("Ciencia Ficción ");
+
+        // Assert
+        assertEquals(2, result.getId());
+        assertEquals("Ciencia Ficción", result.getName());
+        assertEquals("ciencia ficcion", result.getNormalizedName());
+        assertEquals(Optional.of(result), genreService.resolve("CIENCIA FICCION"));
+        assertEquals(2, genreService.getAllGenres().size());
+    }
+
+    @Test
+    @DisplayName("Should return the genre another request created concurrently")
+    void testResolveOrCreate_ConcurrentInsert() {
+        // Arrange
+        Genre winner = new Genre(3, "Terror", "terror");
+        when(genreRepository.findByNormalizedName("terror"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(winner));
+        when(genreRepository.save(any(Genre.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint"));
+
+        // Act
+        Genre result = genreService.resolveOrCreate("Terror");
+
+        // Assert: Only the failed insert was rolled back
+        assertSame(winner, result);
+        verify(transactionManager, times(1)).rollback(any());
+        assertEquals(Optional.of(winner), genreService.resolve("terror"));
+    }
+
+    @Test
+    @DisplayName("Should reject a blank genre")
+    void testResolveOrCreate_Blank() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> genreService.resolveOrCreate("  "));
+        verify(genreRepository, never()).save(any(Genre.class));
+    }
+
+    @Test
+    @DisplayName("Should link movies without genre id and reload the catalog")
+    void testAssignMissingGenres() {
+        // Arrange
+        Genre drama = new Genre(2, "Drama", "drama");
+        when(movieRepository.findGenresWithoutId()).thenReturn(Arrays.asList("ACCIÓN", "Drama"));
+        when(genreRepository.findByNormalizedName("drama")).thenReturn(Optional.of(drama));
+        when(movieRepository.assignGenre("ACCIÓN", 1, "Acción")).thenReturn(2);
+        when(movieRepository.assignGenre("Drama", 2, "Drama")).thenReturn(1);
+
+        // Act
+        genreService.assignMissingGenres();
+
+        // Assert
+        verify(movieRepository, times(1)).assignGenre("ACCIÓN", 1, "Acción");
+        verify(movieRepository, times(1)).assignGenre("Drama", 2, "Drama");
+        verify(genreRepository, never()).save(any(Genre.class));
+        verify(catalog, times(1)).invalidate();
+    }
+}
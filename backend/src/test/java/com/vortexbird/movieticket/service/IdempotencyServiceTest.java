@@ -0,0 +1,244 @@
+package com.vortexbird.movieticket.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.vortexbird.movieticket.dto.TicketPurchaseDTO;
+import com.vortexbird.movieticket.model.IdempotencyRecord;
+import com.vortexbird.movieticket.model.PurchaseStatus;
+import com.vortexbird.movieticket.repository.IIdempotencyRecordRepository;
+import com.vortexbird.movieticket.shared.exception.BusinessException;
+import com.vortexbird.movieticket.shared.exception.ConflictException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for IdempotencyService.
+ *
+ * Tests follow the AAA pattern:
+ * - Arrange: Setup test data and mocks
+ * - Act: Execute the method under test
+ * - Assert: Verify the results
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IdempotencyService Tests")
+class IdempotencyServiceTest {
+
+    private static final String KEY = "5f1c2a9e-retry";
+
+    @Mock
+    private IIdempotencyRecordRepository recordRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ObjectMapper objectMapper;
+    private IdempotencyService idempotencyService;
+    private TicketPurchaseDTO purchase;
+    private AtomicInteger executions;
+    private Supplier<TicketPurchaseDTO> action;
+
+    @BeforeEach
+    void setUp() {
+        // Arrange: Setup common test data
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        idempotencyService = new IdempotencyService(recordRepository, transactionManager, objectMapper,
+                Duration.ofHours(24), Duration.ofMinutes(1), 100);
+        lenient().when(recordRepository.complete(eq(KEY), any(), anyString(), any())).thenReturn(1);
+
+        purchase = new TicketPurchaseDTO(7L, 1L, "customer@example.com", "John Doe", 3L, "Test Movie",
+                2, 15000.0, 30000.0, PurchaseStatus.CONFIRMED, "3456", "JOHN DOE",
+                LocalDateTime.of(2024, 1, 15, 10, 30), "TKT-ABC12345");
+        executions = new AtomicInteger();
+        action = () -> {
+            executions.incrementAndGet();
+            return purchase;
+        };
+    }
+
+    @Test
+    @DisplayName("Should execute once and replay the stored response to retries")
+    void testExecute_ReplaysFromCache() {
+        // Act
+        IdempotentResult<TicketPurchaseDTO> first = idempotencyService.execute(KEY, List.of(1L, "body"),
+                TicketPurchaseDTO.class, action);
+        IdempotentResult<TicketPurchaseDTO> retry = idempotencyService.execute(KEY, List.of(1L, "body"),
+                TicketPurchaseDTO.class, action);
+
+        // Assert
+        assertEquals(1, executions.get());
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals(purchase, retry.value());
+        verify(recordRepository, times(1)).claim(eq(KEY), anyString(), any(), any());
+        verify(recordRepository, times(1)).complete(eq(KEY), any(), anyString(), any());
+        verify(recordRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Should replay a response stored by another instance")
+    void testExecute_ReplaysFromDatabase() throws Exception {
+        // Arrange
+        when(recordRepository.claim(eq(KEY), anyString(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        String requestHash = idempotencyService.hash(List.of(1L, "body"));
+        when(recordRepository.findById(KEY)).thenReturn(Optional.of(new IdempotencyRecord(KEY, requestHash,
+                objectMapper.writeValueAsString(purchase), LocalDateTime.now(), LocalDateTime.now().plusHours(1))));
+
+        // Act
+        IdempotentResult<TicketPurchaseDTO> result = idempotencyService.execute(KEY, List.of(1L, "body"),
+                TicketPurchaseDTO.class, action);
+
+        // Assert
+        assertTrue(result.replayed());
+        assertEquals(purchase, result.value());
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused with a different request")
+    void testExecute_DifferentRequest() {
+        // Arrange
+        idempotencyService.execute(KEY, List.of(1L, "body"), TicketPurchaseDTO.class, action);
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () ->
+                idempotencyService.execute(KEY, List.of(2L, "body"), TicketPurchaseDTO.class, action));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("Should reject a retry while the first request is still running")
+    void testExecute_InProgress() {
+        // Arrange
+        String requestHash = idempotencyService.hash(List.of(1L, "body"));
+        when(recordRepository.claim(eq(KEY), anyString(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(recordRepository.findById(KEY)).thenReturn(Optional.of(new IdempotencyRecord(KEY, requestHash,
+                null, LocalDateTime.now(), LocalDateTime.now().plusHours(1))));
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () ->
+                idempotencyService.execute(KEY, List.of(1L, "body"), TicketPurchaseDTO.class, action));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    @DisplayName("Should release the key when the request fails")
+    void testExecute_ReleasesOnFailure() {
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> idempotencyService.execute(KEY, List.of(1L, "body"),
+                TicketPurchaseDTO.class, () -> {
+                    throw new BusinessException("Movie is not available");
+                }));
+        verify(recordRepository, times(1)).release(eq(KEY), any(LocalDateTime.class));
+        verify(recordRepository, never()).complete(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should roll the action back with its response when storing the response fails")
+    void testExecute_RollsBackWhenCompleteFails() {
+        // Arrange
+        when(recordRepository.complete(eq(KEY), any(), anyString(), any()))
+                .thenThrow(new DataIntegrityViolationException("connection lost"));
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () ->
+                idempotencyService.execute(KEY, List.of(1L, "body"), TicketPurchaseDTO.class, action));
+        assertEquals(1, executions.get());
+        verify(transactionManager, times(1)).rollback(any());
+        verify(recordRepository, times(1)).release(eq(KEY), any(LocalDateTime.class));
+        verify(recordRepository, never()).deleteById(any());
+    }
+
+    @Test
+    @DisplayName("Should roll back a request whose claim was taken over")
+    void testExecute_ClaimTakenOver() {
+        // Arrange
+        when(recordRepository.complete(eq(KEY), any(), anyString(), any())).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () ->
+                idempotencyService.execute(KEY, List.of(1L, "body"), TicketPurchaseDTO.class, action));
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    @Test
+    @DisplayName("Should claim a pending key with a short lease and keep the response for the TTL")
+    void testExecute_LeaseThenTtl() {
+        // Act
+        LocalDateTime before = LocalDateTime.now();
+        idempotencyService.execute(KEY, List.of(1L, "body"), TicketPurchaseDTO.class, action);
+
+        // Assert
+        verify(recordRepository).claim(eq(KEY), anyString(), any(),
+                argThat(expiresAt -> expiresAt.isBefore(before.plusMinutes(2))));
+        verify(recordRepository).complete(eq(KEY), any(), anyString(),
+                argThat(expiresAt -> expiresAt.isAfter(before.plusHours(23))));
+    }
+
+    @Test
+    @DisplayName("Should take over a pending key whose processing lease ran out")
+    void testExecute_TakesOverStaleClaim() {
+        // Arrange
+        String requestHash = idempotencyService.hash(List.of(1L, "body"));
+        when(recordRepository.claim(eq(KEY), anyString(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenReturn(1);
+        when(recordRepository.findById(KEY)).thenReturn(Optional.of(new IdempotencyRecord(KEY, requestHash,
+                null, LocalDateTime.now().minusMinutes(5), LocalDateTime.now().minusMinutes(4))));
+
+        // Act
+        IdempotentResult<TicketPurchaseDTO> result = idempotencyService.execute(KEY, List.of(1L, "body"),
+                TicketPurchaseDTO.class, action);
+
+        // Assert
+        assertFalse(result.replayed());
+        assertEquals(1, executions.get());
+        verify(recordRepository, times(1)).deleteIfExpired(eq(KEY), any(LocalDateTime.class));
+        verify(recordRepository, never()).release(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject a blank or oversized key")
+    void testExecute_InvalidKey() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () ->
+                idempotencyService.execute(" ", List.of(1L), TicketPurchaseDTO.class, action));
+        assertThrows(IllegalArgumentException.class, () ->
+                idempotencyService.execute("k".repeat(IdempotencyService.MAX_KEY_LENGTH + 1), List.of(1L),
+                        TicketPurchaseDTO.class, action));
+        verifyNoInteractions(recordRepository);
+    }
+
+    @Test
+    @DisplayName("Should delete expired keys")
+    void testPurgeExpired() {
+        // Arrange
+        when(recordRepository.deleteExpired(any(LocalDateTime.class))).thenReturn(3);
+
+        // Act
+        idempotencyService.purgeExpired();
+
+        // Assert
+        verify(recordRepository, times(1)).deleteExpired(any(LocalDateTime.class));
+    }
+}
@@ -0,0 +1,154 @@
+package com.vortexbird.movieticket.service;
+
+import com.vortexbird.movieticket.repository.ITicketPurchaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for IssuedCodeFilter.
+ *
+ * Tests follow the AAA pattern:
+ * - Arrange: Setup test data and mocks
+ * - Act: Execute the method under test
+ * - Assert: Verify the results
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IssuedCodeFilter Tests")
+class IssuedCodeFilterTest {
+
+    private static final int CODES = 10_000;
+
+    @Mock
+    private ITicketPurchaseRepository purchaseRepository;
+
+    private IssuedCodeFilter filter;
+    private List<String> issued;
+
+    @BeforeEach
+    void setUp() {
+        // Arrange: Codes issued two hours ago, beyond the refresh margin
+        filter = new IssuedCodeFilter(purchaseRepository, CODES, 0.01, Duration.ofMinutes(1));
+        long twoHoursAgo = System.currentTimeMillis() - Duration.ofHours(2).toMillis();
+        issued = new ArrayList<>(CODES);
+        for (int i = 0; i < CODES; i++) {
+            issued.add(codeAt(twoHoursAgo, i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should admit every code until seeded")
+    void testMightBeIssued_BeforeSeed() {
+        // Act & Assert
+        assertTrue(filter.mightBeIssued("TKT-GARBAGE"));
+        verifyNoInteractions(purchaseRepository);
+    }
+
+    @Test
+    @DisplayName("Should admit every seeded code and refuse nearly all others")
+    void testMightBeIssued_Seeded() {
+        // Arrange
+        seed();
+
+        // Act
+        int falsePositives = 0;
+        for (int i = 0; i < CODES; i++) {
+            if (filter.mightBeIssued("TKT-UNKNOWN-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Assert
+        assertTrue(issued.stream().allMatch(filter::mightBeIssued));
+        assertTrue(falsePositives < CODES * 0.02, "false positives: " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("Should admit codes issued after the last refresh started")
+    void testMightBeIssued_RecentCode() {
+        // Arrange
+        seed();
+        String recent = codeAt(System.currentTimeMillis(), 1);
+
+        // Act & Assert
+        assertTrue(filter.mightBeIssued(recent));
+    }
+
+    @Test
+    @DisplayName("Should admit codes added by this instance")
+    void testAdd() {
+        // Arrange
+        seed();
+
+        // Act
+        filter.add("CONF-LEGACY-1");
+
+        // Assert
+        assertTrue(filter.mightBeIssued("CONF-LEGACY-1"));
+    }
+
+    @Test
+    @DisplayName("Should pick up codes issued by other instances since the last refresh")
+    void testRefresh() {
+        // Arrange
+        seed();
+        when(purchaseRepository.findConfirmationCodesBetween(anyString(), anyString()))
+                .thenReturn(List.of("CONF-OTHER-1"));
+
+        // Act
+        filter.refresh();
+
+        // Assert
+        assertTrue(filter.mightBeIssued("CONF-OTHER-1"));
+        verify(purchaseRepository).findConfirmationCodesBetween(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should rebuild the filter once it holds more codes than expected")
+    void testRefresh_Rebuild() {
+        // Arrange: Sized for 100 codes, then seeded with many more
+        filter = new IssuedCodeFilter(purchaseRepository, 100, 0.01, Duration.ofMinutes(1));
+        when(purchaseRepository.count()).thenReturn(0L);
+        when(purchaseRepository.streamConfirmationCodes()).thenAnswer(invocation -> issued.stream());
+        filter.seed();
+
+        // Act
+        filter.refresh();
+
+        // Assert
+        verify(purchaseRepository, times(2)).streamConfirmationCodes();
+        verify(purchaseRepository, never()).findConfirmationCodesBetween(anyString(), anyString());
+        assertTrue(issued.stream().allMatch(filter::mightBeIssued));
+    }
+
+    @Test
+    @DisplayName("Should reject an invalid false positive rate")
+    void testConstructor_InvalidRate() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> new IssuedCodeFilter(purchaseRepository, CODES, 1.0, Duration.ofMinutes(1)));
+    }
+
+    private void seed() {
+        when(purchaseRepository.count()).thenReturn((long) issued.size());
+        when(purchaseRepository.streamConfirmationCodes()).thenAnswer(invocation -> issued.stream());
+        filter.seed();
+    }
+
+    private static String codeAt(long epochMillis, int sequence) {
+        long id = (epochMillis - ConfirmationCodeGenerator.EPOCH)
+                << (ConfirmationCodeGenerator.NODE_BITS + ConfirmationCodeGenerator.SEQUENCE_BITS) | sequence;
+        return ConfirmationCodeGenerator.PREFIX + ConfirmationCodeGenerator.encode(id);
+    }
+}
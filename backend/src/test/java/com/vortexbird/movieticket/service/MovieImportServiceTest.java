@@ -0,0 +1,255 @@
+package com.vortexbird.movieticket.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vortexbird.movieticket.dto.MovieImportResultDTO;
+import com.vortexbird.movieticket.model.Genre;
+import com.vortexbird.movieticket.service.catalog.MovieCatalog;
+import com.vortexbird.movieticket.service.catalog.MovieFacets;
+import com.vortexbird.movieticket.service.importer.MovieImportFormat;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for MovieImportService.
+ *
+ * Tests follow the AAA pattern:
+ * - Arrange: Setup test data and mocks
+ * - Act: Execute the method under test
+ * - Assert: Verify the results
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MovieImportService Tests")
+class MovieImportServiceTest {
+
+    private static final String CSV_HEADER = "title,description,image_url,duration_minutes,genre,price,is_enabled\n";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private IGenreService genreService;
+
+    @Mock
+    private MovieCatalog catalog;
+
+    @Mock
+    private MovieFacets facets;
+
+    private MovieImportService movieImportService;
+
+    @BeforeEach
+    void setUp() {
+        // Arrange: Setup common test data
+        movieImportService = new MovieImportService(jdbcTemplate, transactionManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(),
+                genreService, catalog, facets);
+        lenient().when(genreService.resolveOrCreate(any())).thenReturn(new Genre(1, "Acción", "accion"));
+        // A fresh movies_id_seq: starts at 1, INCREMENT BY 50
+        AtomicLong sequence = new AtomicLong(1);
+        lenient().when(jdbcTemplate.queryForList(anyString(), eq(Long.class), anyInt()))
+                .thenAnswer(invocation -> LongStream.range(0, invocation.<Integer>getArgument(2))
+                        .mapToObj(i -> sequence.getAndAdd(MovieImportService.ID_BLOCK_SIZE))
+                        .toList());
+    }
+
+    @Test
+    @DisplayName("Should insert valid CSV rows and report invalid ones by line")
+    void testImportMovies_CsvWithErrors() throws Exception {
+        // Arrange
+        String csv = CSV_HEADER
+                + "Inception,A thief who steals corporate secrets,https://example.com/i.jpg,148,accion,15000,true\n"
+                + "Short,Too short,https://example.com/s.jpg,90,Drama,12000,\n"
+                + "No duration,A movie whose duration is not a number,https://example.com/d.jpg,long,Drama,12000,\n"
+                + "\n"
+                + "Missing,A row with too few columns\n"
+                + "\"Heat, the movie\",\"A \"\"crime\"\" saga,\nin two lines\",https://example.com/h.jpg,170,Acción,18000,false\n";
+
+        // Act
+        MovieImportResultDTO result = movieImportService.importMovies(body(csv), MovieImportFormat.CSV);
+
+        // Assert
+        assertEquals(5, result.getTotal());
+        assertEquals(2, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertFalse(result.isErrorsTruncated());
+        assertEquals(List.of(3L, 4L, 6L), result.getErrors().stream().map(error -> error.getLine()).toList());
+        assertEquals("description: Description must be between 10 and 2000 characters",
+                result.getErrors().get(0).getMessage());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), rows.capture());
+        List<Object[]> inserted = rows.getValue();
+        assertEquals(2, inserted.size());
+        assertArrayEquals(new Object[]{"Inception", "A thief who steals corporate secrets",
+                "https://example.com/i.jpg", 148, "Acción", 1, 15000.0, true, "inception", 1L}, inserted.get(0));
+        assertEquals("Heat, the movie", inserted.get(1)[0]);
+        assertEquals("A \"crime\" saga,\nin two lines", inserted.get(1)[1]);
+        assertEquals(false, inserted.get(1)[7]);
+        assertEquals("heat the movie", inserted.get(1)[8]);
+        assertEquals(2L, inserted.get(1)[9]);
+        verify(catalog, times(1)).invalidate();
+        verify(facets, times(1)).invalidate();
+    }
+
+    @Test
+    @DisplayName("Should report a stray quote at its line and still import the rows after it")
+    void testImportMovies_CsvUnclosedQuote() throws Exception {
+        // Arrange
+        String csv = CSV_HEADER
+                + "Inception,\"A thief who steals corporate secrets,https://example.com/i.jpg,148,Acción,15000,\n"
+                + "Heat,A crime saga in Los Angeles,https://example.com/h.jpg,170,Acción,18000,\n"
+                + "Alien,A crew meets a deadly creature,https://example.com/a.jpg,117,Terror,14000,\n";
+
+        // Act
+        MovieImportResultDTO result = movieImportService.importMovies(body(csv), MovieImportFormat.CSV);
+
+        // Assert
+        assertEquals(3, result.getTotal());
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(2L, result.getErrors().get(0).getLine());
+        assertEquals("Quoted field is never closed", result.getErrors().get(0).getMessage());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), rows.capture());
+        assertEquals(List.of("Heat", "Alien"), rows.getValue().stream().map(row -> row[0]).toList());
+    }
+
+    @Test
+    @DisplayName("Should stop buffering a quoted field once the row reaches the length cap")
+    void testImportMovies_CsvRowTooLong() throws Exception {
+        // Arrange
+        String filler = ("x".repeat(99) + "\n").repeat(16 * 1024 / 100 + 1);
+        String csv = CSV_HEADER
+                + "Inception,\"" + filler
+                + "Heat,A crime saga in Los Angeles,https://example.com/h.jpg,170,Acción,18000,\n";
+
+        // Act
+        MovieImportResultDTO result = movieImportService.importMovies(body(csv), MovieImportFormat.CSV);
+
+        // Assert: The row is rejected at its first line and the lines it held are read again
+        assertEquals(2L, result.getErrors().get(0).getLine());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("Row is longer than"));
+        assertEquals(1, result.getImported());
+    }
+
+    @Test
+    @DisplayName("Should insert NDJSON rows in batches")
+    void testImportMovies_NdjsonBatches() throws Exception {
+        // Arrange
+        int count = MovieImportService.BATCH_SIZE * 2 + 200;
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 1; i <= count; i++) {
+            ndjson.append("{\"title\":\"Movie ").append(i)
+                    .append("\",\"description\":\"Description of movie ").append(i)
+                    .append("\",\"imageUrl\":\"https://example.com/").append(i)
+                    .append(".jpg\",\"duration\":100,\"genre\":\"Acción\",\"price\":12000}\n");
+        }
+
+        // Act
+        MovieImportResultDTO result = movieImportService.importMovies(body(ndjson.toString()), MovieImportFormat.NDJSON);
+
+        // Assert
+        assertEquals(count, result.getTotal());
+        assertEquals(count, result.getImported());
+        assertEquals(0, result.getFailed());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), rows.capture());
+        assertEquals(List.of(500, 500, 200), rows.getAllValues().stream().map(List::size).toList());
+        verify(transactionManager, times(3)).commit(any());
+
+        // Ids come from whole blocks of 50, not one sequence value per row
+        List<Long> ids = rows.getAllValues().stream().flatMap(List::stream).map(row -> (Long) row[9]).toList();
+        assertEquals(count, ids.stream().distinct().count());
+        assertEquals(1L, ids.get(0));
+        assertTrue(ids.get(count - 1) < count + MovieImportService.ID_BLOCK_SIZE);
+    }
+
+    @Test
+    @DisplayName("Should report malformed NDJSON lines and missing image URLs")
+    void testImportMovies_NdjsonErrors() throws Exception {
+        // Arrange
+        String ndjson = "{\"title\":\"Broken\",\n"
+                + "{\"title\":\"No image\",\"description\":\"A movie without an image\",\"duration\":100,"
+                + "\"genre\":\"Drama\",\"price\":12000}\n";
+
+        // Act
+        MovieImportResultDTO result = movieImportService.importMovies(body(ndjson), MovieImportFormat.NDJSON);
+
+        // Assert
+        assertEquals(2, result.getFailed());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("Invalid JSON"));
+        assertEquals("imageUrl: Image URL is required", result.getErrors().get(1).getMessage());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verify(catalog, never()).invalidate();
+    }
+
+    @Test
+    @DisplayName("Should reject every row of a batch the database refuses")
+    void testImportMovies_FailedBatch() throws Exception {
+        // Arrange
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataIntegrityViolationException("value too long"));
+        String csv = CSV_HEADER
+                + "Inception,A thief who steals corporate secrets,https://example.com/i.jpg,148,Acción,15000,\n"
+                + "Heat,A crime saga in Los Angeles,https://example.com/h.jpg,170,Acción,18000,\n";
+
+        // Act
+        MovieImportResultDTO result = movieImportService.importMovies(body(csv), MovieImportFormat.CSV);
+
+        // Assert
+        assertEquals(0, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertTrue(result.getErrors().get(0).getMessage().contains("value too long"));
+        verify(transactionManager, times(1)).rollback(any());
+        verify(catalog, never()).invalidate();
+        verify(facets, never()).invalidate();
+    }
+
+    @Test
+    @DisplayName("Should reject a CSV body whose header misses a column")
+    void testImportMovies_MissingColumn() {
+        // Arrange
+        String csv = "title,description,duration,genre,price\n";
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> movieImportService.importMovies(body(csv), MovieImportFormat.CSV));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    private static InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
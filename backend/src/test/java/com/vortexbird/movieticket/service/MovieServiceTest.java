@@ -1,8 +1,18 @@
 package com.vortexbird.movieticket.service;
 
+import com.vortexbird.movieticket.dto.CatalogStatsDTO;
+import com.vortexbird.movieticket.dto.CursorPageDTO;
+import com.vortexbird.movieticket.dto.GenreCountDTO;
 import com.vortexbird.movieticket.dto.MovieDTO;
+import com.vortexbird.movieticket.dto.MovieFacetsDTO;
+import com.vortexbird.movieticket.dto.MovieSuggestionDTO;
+import com.vortexbird.movieticket.dto.MovieSummaryDTO;
+import com.vortexbird.movieticket.model.Genre;
 import com.vortexbird.movieticket.model.Movie;
 import com.vortexbird.movieticket.repository.IMovieRepository;
+import com.vortexbird.movieticket.service.catalog.MovieCatalog;
+import com.vortexbird.movieticket.service.catalog.MovieFacets;
+import com.vortexbird.movieticket.service.catalog.TitleNormalizer;
 import com.vortexbird.movieticket.shared.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -10,10 +20,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,15 +49,41 @@ class MovieServiceTest {
     @Mock
     private IMovieRepository movieRepository;
 
+    @Spy
+    private MovieCatalog catalog = new MovieCatalog(100);
+
+    @Spy
+    private MovieFacets facets = new MovieFacets();
+
+    @Mock
+    private IGenreService genreService;
+
+    @Mock
+    private IBulkNotificationService bulkNotificationService;
+
     @InjectMocks
     private MovieService movieService;
 
     private MovieDTO validMovieDTO;
     private Movie movie;
+    private Map<String, Genre> genres;
 
     @BeforeEach
     void setUp() {
         // Arrange: Setup common test data
+        genres = new HashMap<>();
+        for (String name : List.of("Action", "Drama", "Comedia", "Ciencia Ficción", "Acción")) {
+            String normalizedName = TitleNormalizer.normalize(name);
+            genres.put(normalizedName, new Genre(genres.size() + 1, name, normalizedName));
+        }
+        lenient().when(genreService.resolve(any())).thenAnswer(invocation ->
+            Optional.ofNullable(genres.get(TitleNormalizer.normalize(invocation.getArgument(0)))));
+        lenient().when(genreService.resolveOrCreate(any())).thenAnswer(invocation -> {
+            String name = invocation.getArgument(0);
+            return genres.computeIfAbsent(TitleNormalizer.normalize(name),
+                key -> new Genre(genres.size() + 1, name, key));
+        });
+
         validMovieDTO = new MovieDTO();
         validMovieDTO.setTitle("Test Movie");
         validMovieDTO.setDescription("Test Description for movie");
@@ -61,6 +100,7 @@ class MovieServiceTest {
         movie.setImageUrl("https://example.com/image.jpg");
         movie.setDuration(120);
         movie.setGenre("Action");
+        movie.setGenreId(1);
         movie.setPrice(15000.0);
         movie.setIsEnabled(true);
     }
@@ -104,11 +144,38 @@ class MovieServiceTest {
         verify(movieRepository, times(1)).findAllEnabled();
     }
 
+    @Test
+    @DisplayName("Should page movies by id cursor")
+    void testGetMoviePage_KeysetPagination() {
+        // Arrange
+        Movie movie2 = new Movie(2L, "Movie 2", "Description 2 for movie",
+            "https://example.com/2.jpg", 100, "Drama", 2, 10000.0, true);
+        Movie movie3 = new Movie(3L, "Movie 3", "Description 3 for movie",
+            "https://example.com/3.jpg", 110, "Drama", 2, 11000.0, true);
+        when(movieRepository.findAllEnabled()).thenReturn(Arrays.asList(movie3, movie, movie2));
+
+        // Act
+        CursorPageDTO<MovieSummaryDTO> first = movieService.getMoviePage(null, 2);
+        CursorPageDTO<MovieSummaryDTO> second = movieService.getMoviePage(Long.valueOf(first.getNextCursor()), 2);
+
+        // Assert
+        assertEquals(2, first.getItems().size());
+        assertEquals(1L, first.getItems().get(0).getId());
+        assertEquals(2L, first.getItems().get(1).getId());
+        assertTrue(first.isHasMore());
+        assertEquals("2", first.getNextCursor());
+        assertEquals(1, second.getItems().size());
+        assertEquals(3L, second.getItems().get(0).getId());
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+        verify(movieRepository, never()).findEnabledSummariesAfter(anyLong(), any());
+    }
+
     @Test
     @DisplayName("Should get movie by ID successfully")
     void testGetMovieById_Success() {
         // Arrange
-        when(movieRepository.findByIdAndIsEnabledTrue(1L)).thenReturn(Optional.of(movie));
+        when(movieRepository.findAllEnabled()).thenReturn(Arrays.asList(movie));
 
         // Act
         Movie result = movieService.getMovieById(1L);
@@ -117,20 +184,21 @@ class MovieServiceTest {
         assertNotNull(result);
         assertEquals(1L, result.getId());
         assertEquals("Test Movie", result.getTitle());
-        verify(movieRepository, times(1)).findByIdAndIsEnabledTrue(1L);
+        verify(movieRepository, times(1)).findAllEnabled();
+        verify(movieRepository, never()).findByIdAndIsEnabledTrue(anyLong());
     }
 
     @Test
     @DisplayName("Should throw exception when movie not found")
     void testGetMovieById_NotFound() {
         // Arrange
-        when(movieRepository.findByIdAndIsEnabledTrue(anyLong())).thenReturn(Optional.empty());
+        when(movieRepository.findAllEnabled()).thenReturn(Arrays.asList(movie));
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> {
             movieService.getMovieById(999L);
         });
-        verify(movieRepository, times(1)).findByIdAndIsEnabledTrue(999L);
+        verify(movieRepository, times(1)).findAllEnabled();
     }
 
     @Test
@@ -158,7 +226,7 @@ class MovieServiceTest {
     }
 
     @Test
-    @DisplayName("Should disable movie successfully")
+    @DisplayName("Should disable movie successfully and notify its purchasers")
     void testDisableMovie_Success() {
         // Arrange
         when(movieRepository.findByIdAndIsEnabledTrue(1L)).thenReturn(Optional.of(movie));
@@ -170,14 +238,15 @@ class MovieServiceTest {
         // Assert
         verify(movieRepository, times(1)).findByIdAndIsEnabledTrue(1L);
         verify(movieRepository, times(1)).save(any(Movie.class));
+        verify(bulkNotificationService).notifyMovieWithdrawn(movie);
     }
 
     @Test
     @DisplayName("Should search movies by title")
     void testSearchMovies_ByTitle() {
         // Arrange
-        String searchTitle = "Test";
-        when(movieRepository.findByTitle(searchTitle)).thenReturn(Arrays.asList(movie));
+        String searchTitle = "test";
+        when(movieRepository.findAllEnabled()).thenReturn(Arrays.asList(movie));
 
         // Act
         List<Movie> result = movieService.searchMovies(searchTitle, null);
@@ -185,16 +254,16 @@ class MovieServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(movieRepository, times(1)).findByTitle(searchTitle);
-        verify(movieRepository, never()).findByGenre(anyString());
+        verify(movieRepository, never()).searchByNormalizedTitle(anyString());
+        verify(movieRepository, never()).findByGenreId(anyInt());
     }
 
     @Test
     @DisplayName("Should search movies by genre")
     void testSearchMovies_ByGenre() {
         // Arrange
-        String searchGenre = "Action";
-        when(movieRepository.findByGenre(searchGenre)).thenReturn(Arrays.asList(movie));
+        String searchGenre = "action";
+        when(movieRepository.findAllEnabled()).thenReturn(Arrays.asList(movie));
 
         // Act
         List<Movie> result = movieService.searchMovies(null, searchGenre);
@@ -202,8 +271,8 @@ class MovieServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(movieRepository, times(1)).findByGenre(searchGenre);
-        verify(movieRepository, never()).findByTitle(anyString());
+        verify(movieRepository, never()).findByGenreId(anyInt());
+        verify(movieRepository, never()).searchByNormalizedTitle(anyString());
     }
 
     @Test
@@ -219,8 +288,8 @@ class MovieServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         verify(movieRepository, times(1)).findAllEnabled();
-        verify(movieRepository, never()).findByTitle(anyString());
-        verify(movieRepository, never()).findByGenre(anyString());
+        verify(movieRepository, never()).searchByNormalizedTitle(anyString());
+        verify(movieRepository, never()).findByGenreId(anyInt());
     }
 
     @Test
@@ -229,16 +298,310 @@ class MovieServiceTest {
         // Arrange
         String searchTitle = "Test";
         String searchGenre = "Action";
-        when(movieRepository.findByTitleAndGenre(searchTitle, searchGenre)).thenReturn(Arrays.asList(movie));
+        when(movieRepository.findAllEnabled()).thenReturn(Arrays.asList(movie));
 
         // Act
         List<Movie> result = movieService.searchMovies(searchTitle, searchGenre);
+        List<Movie> otherGenre = movieService.searchMovies(searchTitle, "Drama");
 
         // Assert
-        assertNotNull(result);
         assertEquals(1, result.size());
-        verify(movieRepository, times(1)).findByTitleAndGenre(searchTitle, searchGenre);
-        verify(movieRepository, never()).findByTitle(anyString());
-        verify(movieRepository, never()).findByGenre(anyString());
+        assertTrue(otherGenre.isEmpty());
+        verify(movieRepository, never()).searchByNormalizedTitleAndGenreId(anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should match titles and genres ignoring accents and case")
+    void testSearchMovies_AccentInsensitive() {
+        // Arrange
+        Movie accion = new Movie(2L, "Acción Mutante", "Comedia negra española",
+            "https://example.com/accion.jpg", 95, "Comedia", 3, 12000.0, true);
+        Movie scifi = new Movie(3L, "Inception", "Un ladrón que roba secretos",
+            "https://example.com/inception.jpg", 148, "Ciencia Ficción", 4, 14000.0, true);
+        when(movieRepository.findAllEnabled()).thenReturn(Arrays.asList(movie, accion, scifi));
+
+        // Act
+        List<Movie> byTitle = movieService.searchMovies("ACCION", null);
+        List<Movie> byGenre = movieService.searchMovies(null, "ciencia ficcion");
+
+        // Assert
+        assertEquals(1, byTitle.size());
+        assertEquals("Acción Mutante", byTitle.get(0).getTitle());
+        assertEquals(1, byGenre.size());
+        assertEquals("Inception", byGenre.get(0).getTitle());
+    }
+
+    @Test
+    @DisplayName("Should rank title matches by match quality")
+    void testSearchMovies_RankedByMatchQuality() {
+        // Arrange
+        Movie wordPrefix = new Movie(3L, "Red Mountain", "Description for movie",
+            "https://example.com/3.jpg", 100, "Drama", 2, 10000.0, true);
+        Movie prefix = new Movie(4L, "Mountain Men", "Description for movie",
+            "https://example.com/4.jpg", 100, "Drama", 2, 10000.0, true);
+        Movie exact = new Movie(5L, "Mount", "Description for movie",
+            "https://example.com/5.jpg", 100, "Drama", 2, 10000.0, true);
+        Movie inner = new Movie(6L, "Paramount", "Description for movie",
+            "https://example.com/6.jpg", 100, "Drama", 2, 10000.0, true);
+        when(movieRepository.findAllEnabled())
+            .thenReturn(Arrays.asList(movie, wordPrefix, prefix, exact, inner));
+
+        // Act
+        List<Movie> result = movieService.searchMovies("mount", null);
+
+        // Assert
+        assertEquals(4, result.size());
+        assertEquals("Mount", result.get(0).getTitle());
+        assertEquals("Mountain Men", result.get(1).getTitle());
+        assertEquals("Red Mountain", result.get(2).getTitle());
+        assertEquals("Paramount", result.get(3).getTitle());
+    }
+
+    @Test
+    @DisplayName("Should suggest titles by title and word prefix")
+    void testSuggestMovies_ByPrefix() {
+        // Arrange
+        Movie endgame = new Movie(2L, "Avengers: Endgame", "Description for movie",
+            "https://example.com/2.jpg", 181, "Acción", 5, 15000.0, true);
+        Movie avengers = new Movie(3L, "The Avengers", "Description for movie",
+            "https://example.com/3.jpg", 143, "Acción", 5, 15000.0, true);
+        when(movieRepository.findAllEnabled()).thenReturn(Arrays.asList(movie, endgame, avengers));
+
+        // Act
+        List<MovieSuggestionDTO> byTitleStart = movieService.suggestMovies("aven", 10);
+        List<MovieSuggestionDTO> byWord = movieService.suggestMovies("ENDG", 10);
+        List<MovieSuggestionDTO> limited = movieService.suggestMovies("aven", 1);
+
+        // Assert
+        assertEquals(2, byTitleStart.size());
+        assertEquals(2L, byTitleStart.get(0).getId());
+        assertEquals(3L, byTitleStart.get(1).getId());
+        assertEquals(1, byWord.size());
+        assertEquals("Avengers: Endgame", byWord.get(0).getTitle());
+        assertEquals(1, limited.size());
+        verify(movieRepository, times(1)).findAllEnabled();
+        verify(movieRepository, never()).searchByNormalizedTitle(anyString());
+    }
+
+    @Test
+    @DisplayName("Should return no suggestions for a blank query")
+    void testSuggestMovies_BlankQuery() {
+        // Act
+        List<MovieSuggestionDTO> result = movieService.suggestMovies("  ", 10);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(movieRepository);
+    }
+
+    @Test
+    @DisplayName("Should serve repeated reads from the catalog cache")
+    void testGetAllMovies_ServedFromCatalog() {
+        // Arrange
+        when(movieRepository.findAllEnabled()).thenReturn(Arrays.asList(movie));
+
+        // Act
+        movieService.getAllMovies();
+        movieService.getAllMovies();
+        movieService.getMovieById(1L);
+        CatalogStatsDTO stats = movieService.getCatalogStats();
+
+        // Assert
+        verify(movieRepository, times(1)).findAllEnabled();
+        assertTrue(stats.isLoaded());
+        assertEquals(1, stats.getSize());
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    @DisplayName("Should apply updates to the cached catalog without reloading")
+    void testUpdateMovie_RefreshesCatalog() {
+        // Arrange
+        Movie managed = new Movie(1L, "Test Movie", "Test Description for movie",
+            "https://example.com/image.jpg", 120, "Action", 1, 15000.0, true);
+        when(movieRepository.findAllEnabled()).thenReturn(Arrays.asList(movie));
+        when(movieRepository.findByIdAndIsEnabledTrue(1L)).thenReturn(Optional.of(managed));
+        when(movieRepository.save(any(Movie.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        movieService.getAllMovies();
+        long versionBefore = catalog.getVersion();
+
+        validMovieDTO.setTitle("Updated Title");
+
+        // Act
+        movieService.updateMovie(1L, validMovieDTO);
+        List<Movie> result = movieService.getAllMovies();
+
+        // Assert
+        assertEquals("Updated Title", result.get(0).getTitle());
+        assertEquals("Test Movie", movie.getTitle());
+        assertTrue(catalog.getVersion() > versionBefore);
+        verify(movieRepository, times(1)).findAllEnabled();
+    }
+
+    @Test
+    @DisplayName("Should remove disabled movies from the cached catalog")
+    void testDisableMovie_RemovesFromCatalog() {
+        // Arrange
+        Movie managed = new Movie(1L, "Test Movie", "Test Description for movie",
+            "https://example.com/image.jpg", 120, "Action", 1, 15000.0, true);
+        when(movieRepository.findAllEnabled()).thenReturn(Arrays.asList(movie));
+        when(movieRepository.findByIdAndIsEnabledTrue(1L)).thenReturn(Optional.of(managed));
+        movieService.getAllMovies();
+
+        // Act
+        movieService.disableMovie(1L);
+
+        // Assert
+        assertTrue(movieService.getAllMovies().isEmpty());
+        assertThrows(ResourceNotFoundException.class, () -> movieService.getMovieById(1L));
+        verify(movieRepository, times(1)).findAllEnabled();
+    }
+
+    @Test
+    @DisplayName("Should bump the catalog version on every mutation")
+    void testGetCatalogVersion_BumpedByMutations() {
+        // Arrange
+        Movie managed = new Movie(1L, "Test Movie", "Test Description for movie",
+            "https://example.com/image.jpg", 120, "Action", 1, 15000.0, true);
+        when(movieRepository.save(any(Movie.class))).thenReturn(movie);
+        when(movieRepository.findByIdAndIsEnabledTrue(1L)).thenReturn(Optional.of(managed));
+        long initial = movieService.getCatalogVersion();
+
+        // Act
+        movieService.createMovie(validMovieDTO);
+        long afterCreate = movieService.getCatalogVersion();
+        movieService.disableMovie(1L);
+        long afterDisable = movieService.getCatalogVersion();
+
+        // Assert
+        assertTrue(afterCreate > initial);
+        assertTrue(afterDisable > afterCreate);
+        verify(movieRepository, never()).findAllEnabled();
+    }
+
+    @Test
+    @DisplayName("Should count genres and histogram buckets of enabled movies")
+    void testGetFacets_Success() {
+        // Arrange
+        Movie endgame = new Movie(1L, "Avengers: Endgame", "Description", "img", 181, "Acción", 5, 15000.0, true);
+        Movie knight = new Movie(2L, "The Dark Knight", "Description", "img", 152, "accion", 5, 13500.0, true);
+        Movie godfather = new Movie(3L, "El Padrino", "Description", "img", 175, "Drama", 2, 12000.0, true);
+        when(movieRepository.findAllEnabled()).thenReturn(Arrays.asList(endgame, knight, godfather));
+
+        // Act
+        MovieFacetsDTO result = movieService.getFacets();
+
+        // Assert
+        assertEquals(3, result.getTotal());
+        assertEquals(List.of(new GenreCountDTO("Acción", 2), new GenreCountDTO("Drama", 1)), result.getGenres());
+        assertEquals(5, result.getDurations().size());
+        assertEquals(2, result.getDurations().get(3).getCount());
+        assertEquals(1, result.getDurations().get(4).getCount());
+        assertNull(result.getDurations().get(4).getMax());
+        assertEquals(2, result.getPrices().get(1).getCount());
+        assertEquals(1, result.getPrices().get(2).getCount());
+    }
+
+    @Test
+    @DisplayName("Should update facets incrementally on create, genre change and disable")
+    void testGetFacets_UpdatedIncrementally() {
+        // Arrange
+        Movie managed = new Movie(1L, "Test Movie", "Test Description for movie",
+            "https://example.com/image.jpg", 120, "Action", 1, 15000.0, true);
+        when(movieRepository.findAllEnabled()).thenReturn(Arrays.asList(movie));
+        when(movieRepository.findByIdAndIsEnabledTrue(1L)).thenReturn(Optional.of(managed));
+        when(movieRepository.save(any(Movie.class))).thenAnswer(invocation -> {
+            Movie saved = invocation.getArgument(0);
+            if (saved.getId() == null) {
+                saved.setId(2L);
+            }
+            return saved;
+        });
+        movieService.getFacets();
+
+        // Act
+        validMovieDTO.setGenre("Drama");
+        movieService.createMovie(validMovieDTO);
+        validMovieDTO.setGenre("Comedy");
+        movieService.updateMovie(1L, validMovieDTO);
+        MovieFacetsDTO afterUpdate = movieService.getFacets();
+        movieService.disableMovie(1L);
+        MovieFacetsDTO afterDisable = movieService.getFacets();
+
+        // Assert
+        assertEquals(2, afterUpdate.getTotal());
+        assertEquals(List.of(new GenreCountDTO("Comedy", 1), new GenreCountDTO("Drama", 1)), afterUpdate.getGenres());
+        assertEquals(1, afterDisable.getTotal());
+        assertEquals(List.of(new GenreCountDTO("Drama", 1)), afterDisable.getGenres());
+        assertEquals(1, afterDisable.getDurations().get(2).getCount());
+        verify(movieRepository, times(1)).findAllEnabled();
+    }
+
+    @Test
+    @DisplayName("Should return no movies for an unknown genre without loading the catalog")
+    void testSearchMovies_UnknownGenre() {
+        // Act
+        List<Movie> result = movieService.searchMovies(null, "Terror");
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(movieRepository, never()).findAllEnabled();
+        verify(movieRepository, never()).findByGenreId(anyInt());
+    }
+
+    @Test
+    @DisplayName("Should store the canonical genre name and id on create")
+    void testCreateMovie_ResolvesGenre() {
+        // Arrange
+        when(movieRepository.save(any(Movie.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        validMovieDTO.setGenre("ACCIÓN");
+
+        // Act
+        Movie result = movieService.createMovie(validMovieDTO);
+
+        // Assert
+        assertEquals("Acción", result.getGenre());
+        assertEquals(5, result.getGenreId());
+        verify(genreService, times(1)).resolveOrCreate("ACCIÓN");
+    }
+
+    @Test
+    @DisplayName("Should fall back to typo-tolerant matches when no title matches")
+    void testFuzzySearchMovies_Misspelled() {
+        // Arrange
+        Movie inception = new Movie(2L, "Inception", "Description for movie",
+            "https://example.com/2.jpg", 148, "Ciencia Ficción", 4, 14000.0, true);
+        Movie endgame = new Movie(3L, "Avengers: Endgame", "Description for movie",
+            "https://example.com/3.jpg", 181, "Acción", 5, 15000.0, true);
+        when(movieRepository.findAllEnabled()).thenReturn(Arrays.asList(movie, inception, endgame));
+
+        // Act
+        List<Movie> incepcion = movieService.fuzzySearchMovies("Incepcion", null);
+        List<Movie> avengers = movieService.fuzzySearchMovies("Avenger endgam", null);
+        List<Movie> wrongGenre = movieService.fuzzySearchMovies("Incepcion", "Drama");
+        List<Movie> tooFar = movieService.fuzzySearchMovies("Ixxepxxon", null);
+
+        // Assert
+        assertEquals(List.of(inception), incepcion);
+        assertEquals(List.of(endgame), avengers);
+        assertTrue(wrongGenre.isEmpty());
+        assertTrue(tooFar.isEmpty());
+        verify(movieRepository, times(1)).findAllEnabled();
+    }
+
+    @Test
+    @DisplayName("Should prefer exact title matches over fuzzy ones")
+    void testFuzzySearchMovies_ExactFirst() {
+        // Arrange
+        Movie tess = new Movie(2L, "Tess", "Description for movie",
+            "https://example.com/2.jpg", 100, "Drama", 2, 10000.0, true);
+        when(movieRepository.findAllEnabled()).thenReturn(Arrays.asList(movie, tess));
+
+        // Act
+        List<Movie> result = movieService.fuzzySearchMovies("Test", null);
+
+        // Assert
+        assertEquals(List.of(movie), result);
     }
 }
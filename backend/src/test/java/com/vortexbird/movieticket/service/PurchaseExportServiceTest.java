@@ -0,0 +1,103 @@
+package com.vortexbird.movieticket.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.vortexbird.movieticket.dto.TicketPurchaseDTO;
+import com.vortexbird.movieticket.model.PurchaseStatus;
+import com.vortexbird.movieticket.repository.ITicketPurchaseRepository;
+import com.vortexbird.movieticket.service.exporter.PurchaseExportFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PurchaseExportService.
+ *
+ * Tests follow the AAA pattern:
+ * - Arrange: Setup test data and mocks
+ * - Act: Execute the method under test
+ * - Assert: Verify the results
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PurchaseExportService Tests")
+class PurchaseExportServiceTest {
+
+    @Mock
+    private ITicketPurchaseRepository purchaseRepository;
+
+    private PurchaseExportService exportService;
+    private TicketPurchaseDTO purchase;
+    private AtomicBoolean closed;
+
+    @BeforeEach
+    void setUp() {
+        // Arrange: Setup common test data
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        exportService = new PurchaseExportService(purchaseRepository, objectMapper);
+
+        purchase = new TicketPurchaseDTO(7L, 1L, "customer@example.com", "Doe, \"Johnny\"", 3L, "Test Movie",
+                2, 15000.0, 30000.0, PurchaseStatus.CONFIRMED, "3456", "JOHN DOE",
+                LocalDateTime.of(2024, 1, 15, 10, 30), "TKT-ABC12345");
+        closed = new AtomicBoolean();
+        lenient().when(purchaseRepository.streamByMovieId(3L))
+                .thenReturn(Stream.of(purchase, purchase).onClose(() -> closed.set(true)));
+    }
+
+    @Test
+    @DisplayName("Should write a CSV header and one escaped row per purchase")
+    void testExportMoviePurchases_Csv() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long count = exportService.exportMoviePurchases(3L, PurchaseExportFormat.CSV, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("id,confirmation_code,purchase_date"));
+        assertEquals("7,TKT-ABC12345,2024-01-15T10:30,CONFIRMED,1,customer@example.com,"
+                + "\"Doe, \"\"Johnny\"\"\",3,Test Movie,2,15000.0,30000.0", lines[1]);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    @DisplayName("Should write one JSON object per line")
+    void testExportMoviePurchases_Ndjson() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long count = exportService.exportMoviePurchases(3L, PurchaseExportFormat.NDJSON, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        ObjectMapper reader = new ObjectMapper().registerModule(new JavaTimeModule());
+        TicketPurchaseDTO parsed = reader.readValue(lines[0], TicketPurchaseDTO.class);
+        assertEquals(purchase, parsed);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown export format")
+    void testFromName_Unknown() {
+        // Act & Assert
+        assertEquals(PurchaseExportFormat.NDJSON, PurchaseExportFormat.fromName(" NDJSON "));
+        assertThrows(IllegalArgumentException.class, () -> PurchaseExportFormat.fromName("xlsx"));
+    }
+}
@@ -9,14 +9,18 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectResponse;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -36,7 +40,7 @@ import static org.mockito.Mockito.*;
 class S3StorageServiceTest {
 
     @Mock
-    private S3Client s3Client;
+    private S3AsyncClient s3Client;
 
     @InjectMocks
     private S3StorageService s3StorageService;
@@ -59,17 +63,19 @@ class S3StorageServiceTest {
         when(mockFile.getOriginalFilename()).thenReturn("test-image.jpg");
         when(mockFile.getContentType()).thenReturn("image/jpeg");
         when(mockFile.getSize()).thenReturn(1024L);
-        when(mockFile.getInputStream()).thenReturn(new ByteArrayInputStream("test".getBytes()));
+        when(mockFile.getBytes()).thenReturn("test".getBytes());
+        when(s3Client.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+            .thenReturn(CompletableFuture.completedFuture(PutObjectResponse.builder().build()));
         
         // Act
-        String result = s3StorageService.uploadFile(mockFile);
+        String result = s3StorageService.uploadFile(mockFile).join();
 
         // Assert
         assertNotNull(result);
         assertTrue(result.contains("test-bucket"));
         assertTrue(result.contains("movies/"));
         assertTrue(result.endsWith(".jpg"));
-        verify(s3Client, times(1)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(s3Client, times(1)).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
     }
 
     @Test
@@ -79,7 +85,7 @@ class S3StorageServiceTest {
         assertThrows(IllegalArgumentException.class, () -> {
             s3StorageService.uploadFile(null);
         });
-        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
     }
 
     @Test
@@ -92,7 +98,7 @@ class S3StorageServiceTest {
         assertThrows(IllegalArgumentException.class, () -> {
             s3StorageService.uploadFile(mockFile);
         });
-        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
     }
 
     @Test
@@ -106,7 +112,7 @@ class S3StorageServiceTest {
         assertThrows(IllegalArgumentException.class, () -> {
             s3StorageService.uploadFile(mockFile);
         });
-        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
     }
 
     @Test
@@ -121,7 +127,7 @@ class S3StorageServiceTest {
         assertThrows(IllegalArgumentException.class, () -> {
             s3StorageService.uploadFile(mockFile);
         });
-        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
     }
 
     @Test
@@ -131,14 +137,38 @@ class S3StorageServiceTest {
         when(mockFile.getOriginalFilename()).thenReturn("test-image.jpg");
         when(mockFile.getContentType()).thenReturn("image/jpeg");
         when(mockFile.getSize()).thenReturn(1024L);
-        when(mockFile.getInputStream()).thenReturn(new ByteArrayInputStream("test".getBytes()));
-        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
-            .thenThrow(S3Exception.builder().message("S3 error").build());
+        when(mockFile.getBytes()).thenReturn("test".getBytes());
+        when(s3Client.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+            .thenReturn(CompletableFuture.failedFuture(S3Exception.builder()
+                .message("S3 error")
+                .awsErrorDetails(AwsErrorDetails.builder().errorMessage("Access Denied").build())
+                .build()));
 
-        // Act & Assert
-        assertThrows(RuntimeException.class, () -> {
-            s3StorageService.uploadFile(mockFile);
-        });
+        // Act
+        CompletableFuture<String> result = s3StorageService.uploadFile(mockFile);
+
+        // Assert
+        CompletionException e = assertThrows(CompletionException.class, result::join);
+        assertEquals("Failed to upload file to S3: Access Denied", e.getCause().getMessage());
+        assertInstanceOf(S3Exception.class, e.getCause().getCause());
+    }
+
+    @Test
+    @DisplayName("Should fail the upload when the file cannot be read")
+    void testUploadFile_ReadError() throws IOException {
+        // Arrange
+        when(mockFile.getOriginalFilename()).thenReturn("test-image.jpg");
+        when(mockFile.getContentType()).thenReturn("image/jpeg");
+        when(mockFile.getSize()).thenReturn(1024L);
+        when(mockFile.getBytes()).thenThrow(new IOException("disk error"));
+
+        // Act
+        CompletableFuture<String> result = s3StorageService.uploadFile(mockFile);
+
+        // Assert
+        CompletionException e = assertThrows(CompletionException.class, result::join);
+        assertEquals("Failed to read file during upload", e.getCause().getMessage());
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
     }
 
     @Test
@@ -146,7 +176,8 @@ class S3StorageServiceTest {
     void testDeleteFile_Success() {
         // Arrange
         String fileUrl = "https://test-bucket.s3.us-east-1.amazonaws.com/movies/test-image.jpg";
-        // No need to mock deleteObject - just verify it's called
+        when(s3Client.deleteObject(any(DeleteObjectRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(DeleteObjectResponse.builder().build()));
 
         // Act
         s3StorageService.deleteFile(fileUrl);
@@ -172,8 +203,11 @@ class S3StorageServiceTest {
     void testDeleteFile_S3Exception() {
         // Arrange
         String fileUrl = "https://test-bucket.s3.us-east-1.amazonaws.com/movies/test-image.jpg";
-        doThrow(S3Exception.builder().message("S3 error").build())
-            .when(s3Client).deleteObject(any(DeleteObjectRequest.class));
+        when(s3Client.deleteObject(any(DeleteObjectRequest.class)))
+            .thenReturn(CompletableFuture.failedFuture(S3Exception.builder()
+                .message("S3 error")
+                .awsErrorDetails(AwsErrorDetails.builder().errorMessage("Access Denied").build())
+                .build()));
 
         // Act & Assert
         assertThrows(RuntimeException.class, () -> {
@@ -186,22 +220,24 @@ class S3StorageServiceTest {
     void testUploadFile_ValidContentTypes() throws IOException {
         // Test multiple valid content types
         String[] validTypes = {"image/jpeg", "image/jpg", "image/png", "image/gif", "image/webp"};
+        when(s3Client.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+            .thenReturn(CompletableFuture.completedFuture(PutObjectResponse.builder().build()));
         
         for (String contentType : validTypes) {
             // Arrange
             when(mockFile.getOriginalFilename()).thenReturn("test." + contentType.split("/")[1]);
             when(mockFile.getContentType()).thenReturn(contentType);
             when(mockFile.getSize()).thenReturn(1024L);
-            when(mockFile.getInputStream()).thenReturn(new ByteArrayInputStream("test".getBytes()));
+            when(mockFile.getBytes()).thenReturn("test".getBytes());
             
             // Act
-            String result = s3StorageService.uploadFile(mockFile);
+            String result = s3StorageService.uploadFile(mockFile).join();
 
             // Assert
             assertNotNull(result);
             assertTrue(result.contains("test-bucket"));
         }
         
-        verify(s3Client, times(validTypes.length)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(s3Client, times(validTypes.length)).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
     }
 }
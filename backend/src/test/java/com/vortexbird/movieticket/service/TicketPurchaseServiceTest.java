@@ -1,26 +1,39 @@
 package com.vortexbird.movieticket.service;
 
 import com.vortexbird.movieticket.dto.CreateTicketPurchaseDTO;
+import com.vortexbird.movieticket.dto.CursorPageDTO;
 import com.vortexbird.movieticket.dto.PaymentInfoDTO;
+import com.vortexbird.movieticket.dto.PurchaseFilterDTO;
 import com.vortexbird.movieticket.dto.TicketPurchaseDTO;
+import com.vortexbird.movieticket.dto.TicketValidationDTO;
 import com.vortexbird.movieticket.model.*;
 import com.vortexbird.movieticket.repository.ITicketPurchaseRepository;
+import com.vortexbird.movieticket.shared.exception.BusinessException;
+import com.vortexbird.movieticket.shared.exception.ConflictException;
 import com.vortexbird.movieticket.shared.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -45,7 +58,13 @@ class TicketPurchaseServiceTest {
     private IMovieService movieService;
 
     @Mock
-    private IEmailService emailService;
+    private IEmailOutboxService emailOutbox;
+
+    @Spy
+    private ConfirmationCodeGenerator confirmationCodes = new ConfirmationCodeGenerator(1);
+
+    @Mock
+    private IssuedCodeFilter issuedCodes;
 
     @InjectMocks
     private TicketPurchaseService purchaseService;
@@ -128,6 +147,8 @@ class TicketPurchaseServiceTest {
         verify(customerService).getCustomerById(1L);
         verify(movieService).getMovieById(1L);
         verify(purchaseRepository).save(any(TicketPurchase.class));
+        verify(issuedCodes).add("TKT-ABC12345");
+        verify(emailOutbox).enqueue(EmailType.PURCHASE_CONFIRMATION, purchase);
     }
 
     @Test
@@ -242,8 +263,8 @@ class TicketPurchaseServiceTest {
     @DisplayName("Should get customer purchases successfully")
     void testGetCustomerPurchases_Success() {
         // Arrange
-        List<TicketPurchase> purchases = Arrays.asList(purchase);
-        when(purchaseRepository.findByCustomerId(1L)).thenReturn(purchases);
+        List<TicketPurchaseDTO> purchases = Arrays.asList(purchaseService.toDTO(purchase));
+        when(purchaseRepository.findHistoryByCustomerId(1L)).thenReturn(purchases);
 
         // Act
         List<TicketPurchaseDTO> result = purchaseService.getCustomerPurchases(1L);
@@ -254,14 +275,14 @@ class TicketPurchaseServiceTest {
         assertEquals(purchase.getId(), result.get(0).getId());
         assertEquals(customer.getEmail(), result.get(0).getCustomerEmail());
         assertEquals(movie.getTitle(), result.get(0).getMovieTitle());
-        verify(purchaseRepository).findByCustomerId(1L);
+        verify(purchaseRepository).findHistoryByCustomerId(1L);
     }
 
     @Test
     @DisplayName("Should return empty list when customer has no purchases")
     void testGetCustomerPurchases_EmptyList() {
         // Arrange
-        when(purchaseRepository.findByCustomerId(1L)).thenReturn(Arrays.asList());
+        when(purchaseRepository.findHistoryByCustomerId(1L)).thenReturn(Arrays.asList());
 
         // Act
         List<TicketPurchaseDTO> result = purchaseService.getCustomerPurchases(1L);
@@ -269,15 +290,15 @@ class TicketPurchaseServiceTest {
         // Assert
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(purchaseRepository).findByCustomerId(1L);
+        verify(purchaseRepository).findHistoryByCustomerId(1L);
     }
 
     @Test
     @DisplayName("Should get movie purchases successfully")
     void testGetMoviePurchases_Success() {
         // Arrange
-        List<TicketPurchase> purchases = Arrays.asList(purchase);
-        when(purchaseRepository.findByMovieId(1L)).thenReturn(purchases);
+        List<TicketPurchaseDTO> purchases = Arrays.asList(purchaseService.toDTO(purchase));
+        when(purchaseRepository.findHistoryByMovieId(1L)).thenReturn(purchases);
 
         // Act
         List<TicketPurchaseDTO> result = purchaseService.getMoviePurchases(1L);
@@ -287,14 +308,14 @@ class TicketPurchaseServiceTest {
         assertEquals(1, result.size());
         assertEquals(purchase.getId(), result.get(0).getId());
         assertEquals(movie.getId(), result.get(0).getMovieId());
-        verify(purchaseRepository).findByMovieId(1L);
+        verify(purchaseRepository).findHistoryByMovieId(1L);
     }
 
     @Test
     @DisplayName("Should return empty list when movie has no purchases")
     void testGetMoviePurchases_EmptyList() {
         // Arrange
-        when(purchaseRepository.findByMovieId(1L)).thenReturn(Arrays.asList());
+        when(purchaseRepository.findHistoryByMovieId(1L)).thenReturn(Arrays.asList());
 
         // Act
         List<TicketPurchaseDTO> result = purchaseService.getMoviePurchases(1L);
@@ -302,7 +323,73 @@ class TicketPurchaseServiceTest {
         // Assert
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(purchaseRepository).findByMovieId(1L);
+        verify(purchaseRepository).findHistoryByMovieId(1L);
+    }
+
+    @Test
+    @DisplayName("Should return a purchase page with a cursor to the next one")
+    void testGetCustomerPurchasePage_HasMore() {
+        // Arrange
+        TicketPurchaseDTO newest = purchaseService.toDTO(purchase);
+        TicketPurchaseDTO older = purchaseService.toDTO(purchase);
+        older.setId(2L);
+        older.setPurchaseDate(purchase.getPurchaseDate().minusDays(1));
+        when(purchaseRepository.findHistoryPageByCustomerId(eq(1L), any(), any(), anyCollection(), any(), any(),
+            any(Pageable.class))).thenReturn(Arrays.asList(newest, older));
+
+        // Act
+        CursorPageDTO<TicketPurchaseDTO> page =
+            purchaseService.getCustomerPurchasePage(1L, new PurchaseFilterDTO(), null, 1);
+
+        // Assert
+        assertEquals(1, page.getItems().size());
+        assertTrue(page.isHasMore());
+        PurchaseCursor cursor = PurchaseCursor.decode(page.getNextCursor());
+        assertEquals(purchase.getPurchaseDate(), cursor.purchaseDate());
+        assertEquals(1L, cursor.id());
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(purchaseRepository).findHistoryPageByCustomerId(eq(1L), any(), any(),
+            eq(EnumSet.allOf(PurchaseStatus.class)), any(), eq(Long.MAX_VALUE), pageable.capture());
+        assertEquals(2, pageable.getValue().getPageSize());
+    }
+
+    @Test
+    @DisplayName("Should continue a purchase page after the cursor with the given filters")
+    void testGetMoviePurchasePage_WithCursorAndFilters() {
+        // Arrange
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 2, 1, 0, 0);
+        PurchaseCursor after = new PurchaseCursor(LocalDateTime.of(2024, 1, 15, 10, 30), 42L);
+        PurchaseFilterDTO filter = new PurchaseFilterDTO(from, to, List.of(PurchaseStatus.CONFIRMED));
+        when(purchaseRepository.findHistoryPageByMovieId(eq(1L), any(), any(), anyCollection(), any(), any(),
+            any(Pageable.class))).thenReturn(List.of());
+
+        // Act
+        CursorPageDTO<TicketPurchaseDTO> page =
+            purchaseService.getMoviePurchasePage(1L, filter, after.encode(), 20);
+
+        // Assert
+        assertTrue(page.getItems().isEmpty());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+        verify(purchaseRepository).findHistoryPageByMovieId(eq(1L), eq(from), eq(to),
+            eq(List.of(PurchaseStatus.CONFIRMED)), eq(after.purchaseDate()), eq(42L), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should reject an invalid cursor or an empty date window")
+    void testGetCustomerPurchasePage_InvalidArguments() {
+        // Arrange
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        // Act & Assert
+        assertThrows(BusinessException.class,
+            () -> purchaseService.getCustomerPurchasePage(1L, new PurchaseFilterDTO(), "not-a-cursor", 10));
+        assertThrows(BusinessException.class,
+            () -> purchaseService.getCustomerPurchasePage(1L, new PurchaseFilterDTO(date, date, null), null, 10));
+        verify(purchaseRepository, never()).findHistoryPageByCustomerId(any(), any(), any(),
+            anyCollection(), any(), any(), any(Pageable.class));
     }
 
     @Test
@@ -352,4 +439,101 @@ class TicketPurchaseServiceTest {
         assertTrue(result2.getConfirmationCode().startsWith("TKT-"));
         assertNotEquals(result1.getConfirmationCode(), result2.getConfirmationCode());
     }
+
+    @Test
+    @DisplayName("Should mark a confirmed ticket as used")
+    void testValidateTicket_Success() {
+        // Arrange
+        TicketValidationDTO validation = new TicketValidationDTO(1L, "TKT-ABC12345", "Test Movie", "John Doe", 2,
+                LocalDateTime.now());
+        when(issuedCodes.mightBeIssued("TKT-ABC12345")).thenReturn(true);
+        when(purchaseRepository.markUsed(eq("TKT-ABC12345"), any(LocalDateTime.class))).thenReturn(1);
+        when(purchaseRepository.findValidationByConfirmationCode("TKT-ABC12345")).thenReturn(Optional.of(validation));
+
+        // Act
+        TicketValidationDTO result = purchaseService.validateTicket(" tkt-abc12345 ");
+
+        // Assert
+        assertSame(validation, result);
+        verify(purchaseRepository, never()).findByConfirmationCode(anyString());
+    }
+
+    @Test
+    @DisplayName("Should refuse a code never issued without querying the database")
+    void testValidateTicket_NeverIssued() {
+        // Arrange
+        when(issuedCodes.mightBeIssued("TKT-GARBAGE")).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> purchaseService.validateTicket("TKT-GARBAGE"));
+        verifyNoInteractions(purchaseRepository);
+    }
+
+    @Test
+    @DisplayName("Should refuse a code that passes the filter but is not stored")
+    void testValidateTicket_NotFound() {
+        // Arrange
+        when(issuedCodes.mightBeIssued("TKT-ABC12345")).thenReturn(true);
+        when(purchaseRepository.markUsed(eq("TKT-ABC12345"), any(LocalDateTime.class))).thenReturn(0);
+        when(purchaseRepository.findByConfirmationCode("TKT-ABC12345")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> purchaseService.validateTicket("TKT-ABC12345"));
+    }
+
+    @Test
+    @DisplayName("Should refuse a ticket that was already used")
+    void testValidateTicket_AlreadyUsed() {
+        // Arrange
+        purchase.setStatus(PurchaseStatus.USED);
+        purchase.setUsedAt(LocalDateTime.now());
+        when(issuedCodes.mightBeIssued("TKT-ABC12345")).thenReturn(true);
+        when(purchaseRepository.markUsed(eq("TKT-ABC12345"), any(LocalDateTime.class))).thenReturn(0);
+        when(purchaseRepository.findByConfirmationCode("TKT-ABC12345")).thenReturn(Optional.of(purchase));
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () -> purchaseService.validateTicket("TKT-ABC12345"));
+        verify(purchaseRepository, never()).findValidationByConfirmationCode(anyString());
+    }
+
+    @Test
+    @DisplayName("Should refuse a ticket of a cancelled purchase")
+    void testValidateTicket_Cancelled() {
+        // Arrange
+        purchase.setStatus(PurchaseStatus.CANCELLED);
+        when(issuedCodes.mightBeIssued("TKT-ABC12345")).thenReturn(true);
+        when(purchaseRepository.markUsed(eq("TKT-ABC12345"), any(LocalDateTime.class))).thenReturn(0);
+        when(purchaseRepository.findByConfirmationCode("TKT-ABC12345")).thenReturn(Optional.of(purchase));
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> purchaseService.validateTicket("TKT-ABC12345"));
+    }
+
+    @Test
+    @DisplayName("Should cancel a confirmed purchase and queue the cancellation email")
+    void testCancelPurchase_Success() {
+        // Arrange
+        when(purchaseRepository.findById(1L)).thenReturn(Optional.of(purchase));
+
+        // Act
+        purchaseService.cancelPurchase(1L);
+
+        // Assert
+        assertEquals(PurchaseStatus.CANCELLED, purchase.getStatus());
+        verify(purchaseRepository).save(purchase);
+        verify(emailOutbox).enqueue(EmailType.PURCHASE_CANCELLATION, purchase);
+    }
+
+    @Test
+    @DisplayName("Should refuse to cancel a purchase that is not confirmed")
+    void testCancelPurchase_NotConfirmed() {
+        // Arrange
+        purchase.setStatus(PurchaseStatus.USED);
+        when(purchaseRepository.findById(1L)).thenReturn(Optional.of(purchase));
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> purchaseService.cancelPurchase(1L));
+        verify(purchaseRepository, never()).save(any(TicketPurchase.class));
+        verifyNoInteractions(emailOutbox);
+    }
 }
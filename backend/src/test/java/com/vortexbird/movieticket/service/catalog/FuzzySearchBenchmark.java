@@ -0,0 +1,115 @@
+package com.vortexbird.movieticket.service.catalog;
+
+import com.vortexbird.movieticket.model.Movie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for fuzzy title search on a 50,000-title catalog.
+ *
+ * Titles are built from words made of a dozen syllables, so many words lie
+ * within a couple of edits of each other, which is harder on the index than
+ * natural-language titles. Run it with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.vortexbird.movieticket.service.catalog.FuzzySearchBenchmark
+ * </pre>
+ *
+ * The run fails when any query averages 5 ms or more.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FuzzySearchBenchmark {
+
+    private static final int TITLES = 50_000;
+    private static final double BUDGET_MICROS = 5_000;
+
+    @Param({"incepcion", "avenger endgam", "the godfathr part", "kalomi", "xqzvwk"})
+    public String query;
+
+    private CatalogSnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        String[] words = new String[20_000];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = randomWord(random);
+        }
+
+        List<Movie> movies = new ArrayList<>(TITLES);
+        for (long id = 1; id <= TITLES; id++) {
+            StringBuilder title = new StringBuilder();
+            int wordCount = 1 + random.nextInt(4);
+            for (int w = 0; w < wordCount; w++) {
+                title.append(w == 0 ? "" : " ").append(words[random.nextInt(words.length)]);
+            }
+            movies.add(movie(id, title.toString()));
+        }
+        movies.set(100, movie(101L, "Inception"));
+        movies.set(200, movie(201L, "Avengers: Endgame"));
+        movies.set(300, movie(301L, "The Godfather Part II"));
+
+        snapshot = new CatalogSnapshot(1, movies);
+        snapshot.fuzzySearch("warm up", null, 20);
+    }
+
+    @Benchmark
+    public List<Movie> fuzzySearch() {
+        return snapshot.fuzzySearch(query, null, 20);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (RunResult result : new Runner(new OptionsBuilder()
+                .include(FuzzySearchBenchmark.class.getSimpleName())
+                .build()).run()) {
+            double micros = result.getPrimaryResult().getScore();
+            if (micros >= BUDGET_MICROS) {
+                throw new IllegalStateException(String.format("Fuzzy search for '%s' took %.0f us, budget is %.0f us",
+                        result.getParams().getParam("query"), micros, BUDGET_MICROS));
+            }
+        }
+    }
+
+    private static String randomWord(Random random) {
+        String[] syllables = {"ka", "lo", "mi", "ran", "te", "vo", "sul", "den", "ri", "ma", "ne", "tor"};
+        StringBuilder word = new StringBuilder();
+        int count = 1 + random.nextInt(4);
+        for (int i = 0; i < count; i++) {
+            word.append(syllables[random.nextInt(syllables.length)]);
+        }
+        return word.toString();
+    }
+
+    private static Movie movie(long id, String title) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle(title);
+        movie.setGenre("Drama");
+        movie.setIsEnabled(true);
+        return movie;
+    }
+}
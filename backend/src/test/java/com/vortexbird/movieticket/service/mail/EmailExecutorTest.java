@@ -0,0 +1,131 @@
+package com.vortexbird.movieticket.service.mail;
+
+import com.vortexbird.movieticket.dto.EmailExecutorStatsDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EmailExecutor.
+ *
+ * Tests follow the AAA pattern:
+ * - Arrange: Setup test data
+ * - Act: Execute the method under test
+ * - Assert: Verify the results
+ */
+@DisplayName("EmailExecutor Tests")
+class EmailExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private EmailExecutor executor;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        executor.destroy();
+    }
+
+    @Test
+    @DisplayName("Should run tasks on named email threads and record their latency")
+    void testExecute_Measured() throws Exception {
+        // Arrange
+        executor = new EmailExecutor(1, 1, 1, Duration.ofMinutes(1), EmailExecutor.Overflow.CALLER_RUNS);
+        AtomicReference<String> threadName = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        // Act
+        executor.execute(() -> {
+            threadName.set(Thread.currentThread().getName());
+            sleep(20);
+            done.countDown();
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.destroy();
+
+        // Assert
+        EmailExecutorStatsDTO stats = executor.getStats();
+        assertEquals("email-1", threadName.get());
+        assertEquals(1, stats.getCompletedTasks());
+        assertEquals(0, stats.getRejectedTasks());
+        assertTrue(stats.getMaxLatencyMs() >= 20, "latency " + stats.getMaxLatencyMs());
+        assertTrue(stats.getAverageLatencyMs() >= stats.getAverageWaitMs());
+    }
+
+    @Test
+    @DisplayName("Should run overflowing tasks on the caller when the policy is caller-runs")
+    void testExecute_CallerRuns() throws Exception {
+        // Arrange
+        executor = new EmailExecutor(1, 1, 1, Duration.ofMinutes(1), EmailExecutor.Overflow.CALLER_RUNS);
+        saturate();
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+
+        // Act
+        executor.execute(() -> ranOn.set(Thread.currentThread()));
+
+        // Assert
+        assertSame(Thread.currentThread(), ranOn.get());
+        EmailExecutorStatsDTO stats = executor.getStats();
+        assertEquals(1, stats.getRejectedTasks());
+        assertEquals(1, stats.getCallerRunTasks());
+        assertEquals(1, stats.getActiveThreads());
+        assertEquals(1, stats.getQueueDepth());
+        assertEquals("CALLER_RUNS", stats.getOverflowPolicy());
+    }
+
+    @Test
+    @DisplayName("Should refuse overflowing tasks when the policy spills to the outbox")
+    void testExecute_SpillsToOutbox() throws Exception {
+        // Arrange
+        executor = new EmailExecutor(1, 1, 1, Duration.ofMinutes(1), EmailExecutor.Overflow.SPILL_TO_OUTBOX);
+        saturate();
+
+        // Act & Assert
+        assertThrows(EmailBackPressureException.class, () -> executor.execute(() -> fail("Spilled task ran")));
+        EmailExecutorStatsDTO stats = executor.getStats();
+        assertEquals(1, stats.getRejectedTasks());
+        assertEquals(0, stats.getCallerRunTasks());
+    }
+
+    @Test
+    @DisplayName("Should reject a queue without capacity")
+    void testConstructor_Invalid() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> new EmailExecutor(1, 1, 0, Duration.ofMinutes(1), EmailExecutor.Overflow.CALLER_RUNS));
+        executor = new EmailExecutor(1, 1, 1, Duration.ofMinutes(1), EmailExecutor.Overflow.CALLER_RUNS);
+    }
+
+    /** Occupies the only thread and the only queue slot until the test ends. */
+    private void saturate() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> await(release));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
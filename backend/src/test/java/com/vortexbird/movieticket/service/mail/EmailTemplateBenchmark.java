@@ -0,0 +1,205 @@
+package com.vortexbird.movieticket.service.mail;
+
+import com.vortexbird.movieticket.model.Customer;
+import com.vortexbird.movieticket.model.EmailType;
+import com.vortexbird.movieticket.model.Movie;
+import com.vortexbird.movieticket.model.PurchaseStatus;
+import com.vortexbird.movieticket.model.TicketPurchase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for rendering a purchase confirmation body to UTF-8 bytes,
+ * comparing the precompiled template with the {@code String.formatted} text
+ * block the email service used before. Run it with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.vortexbird.movieticket.service.mail.EmailTemplateBenchmark
+ * </pre>
+ *
+ * Both produce the bytes handed to the mail message. Run with
+ * {@code -prof gc} to compare allocation per email. The run fails when the
+ * template is not faster.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private EmailTemplates templates;
+    private TicketPurchase purchase;
+    private PurchaseSnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        templates = new EmailTemplates();
+
+        Customer customer = new Customer();
+        customer.setFirstName("María José");
+        customer.setLastName("Pérez");
+        Movie movie = new Movie();
+        movie.setTitle("Avengers: Endgame");
+        purchase = new TicketPurchase();
+        purchase.setId(1L);
+        purchase.setCustomer(customer);
+        purchase.setMovie(movie);
+        purchase.setQuantity(3);
+        purchase.setUnitPrice(15000.0);
+        purchase.setTotalAmount(45000.0);
+        purchase.setStatus(PurchaseStatus.CONFIRMED);
+        purchase.setCardLastFour("1234");
+        purchase.setCardHolderName("Maria J Perez");
+        purchase.setConfirmationCode("TKT-01HV8Z3K4Q9RW");
+        purchase.setPurchaseDate(LocalDateTime.of(2026, 3, 7, 19, 30));
+        snapshot = PurchaseSnapshot.of(purchase);
+    }
+
+    @Benchmark
+    public byte[] formatted() {
+        return legacyRender(purchase).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] template() {
+        return templates.render(EmailType.PURCHASE_CONFIRMATION, snapshot);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Map<String, Double> nanos = new HashMap<>();
+        for (RunResult result : new Runner(new OptionsBuilder()
+                .include(EmailTemplateBenchmark.class.getSimpleName())
+                .build()).run()) {
+            nanos.put(result.getParams().getBenchmark(), result.getPrimaryResult().getScore());
+        }
+        double formatted = nanos.get(EmailTemplateBenchmark.class.getName() + ".formatted");
+        double template = nanos.get(EmailTemplateBenchmark.class.getName() + ".template");
+        System.out.printf("String.formatted: %.0f ns, template: %.0f ns (%.1fx)%n",
+                formatted, template, formatted / template);
+        if (template >= formatted) {
+            throw new IllegalStateException("Precompiled template is not faster than String.formatted");
+        }
+    }
+
+    /**
+     * The confirmation body as the email service built it before templates.
+     */
+    private static String legacyRender(TicketPurchase purchase) {
+        String customerName = purchase.getCustomer().getFirstName() + " " + purchase.getCustomer().getLastName();
+        String purchaseDate = purchase.getPurchaseDate().format(DATE_FORMATTER);
+        
+        return """
+            <!DOCTYPE html>
+            <html>
+            <head>
+                <meta charset="UTF-8">
+                <style>
+                    body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
+                    .container { max-width: 600px; margin: 0 auto; padding: 20px; }
+                    .header { background-color: #dc3545; color: white; padding: 20px; text-align: center; }
+                    .content { background-color: #f8f9fa; padding: 20px; margin: 20px 0; }
+                    .ticket-info { background-color: white; padding: 15px; margin: 10px 0; border-left: 4px solid #dc3545; }
+                    .confirmation-code { font-size: 24px; font-weight: bold; color: #dc3545; text-align: center; margin: 20px 0; }
+                    .footer { text-align: center; color: #6c757d; font-size: 12px; margin-top: 20px; }
+                    table { width: 100%%; border-collapse: collapse; }
+                    td { padding: 8px; }
+                    .label { font-weight: bold; color: #495057; }
+                </style>
+            </head>
+            <body>
+                <div class="container">
+                    <div class="header">
+                        <h1>🎬 Movie Ticket</h1>
+                        <p>Confirmación de Compra</p>
+                    </div>
+                    
+                    <div class="content">
+                        <h2>¡Hola %s!</h2>
+                        <p>Tu compra ha sido procesada exitosamente. A continuación encontrarás los detalles:</p>
+                        
+                        <div class="confirmation-code">
+                            Código de Confirmación: %s
+                        </div>
+                        
+                        <div class="ticket-info">
+                            <h3>Detalles de la Compra</h3>
+                            <table>
+                                <tr>
+                                    <td class="label">Película:</td>
+                                    <td>%s</td>
+                                </tr>
+                                <tr>
+                                    <td class="label">Cantidad de Boletos:</td>
+                                    <td>%d</td>
+                                </tr>
+                                <tr>
+                                    <td class="label">Precio por Boleto:</td>
+                                    <td>$%,.2f COP</td>
+                                </tr>
+                                <tr>
+                                    <td class="label">Total Pagado:</td>
+                                    <td><strong>$%,.2f COP</strong></td>
+                                </tr>
+                                <tr>
+                                    <td class="label">Fecha de Compra:</td>
+                                    <td>%s</td>
+                                </tr>
+                                <tr>
+                                    <td class="label">Estado:</td>
+                                    <td><strong>%s</strong></td>
+                                </tr>
+                            </table>
+                        </div>
+                        
+                        <p><strong>Información de Pago:</strong></p>
+                        <p>Tarjeta: **** **** **** %s</p>
+                        <p>Titular: %s</p>
+                        
+                        <p style="margin-top: 20px;">Recuerda presentar este correo o tu código de confirmación en la taquilla del cine.</p>
+                    </div>
+                    
+                    <div class="footer">
+                        <p>Este es un correo automático, por favor no responder.</p>
+                        <p>&copy; 2026 Movie Ticket. Todos los derechos reservados.</p>
+                    </div>
+                </div>
+            </body>
+            </html>
+            """.formatted(
+                customerName,
+                purchase.getConfirmationCode(),
+                purchase.getMovie().getTitle(),
+                purchase.getQuantity(),
+                purchase.getUnitPrice(),
+                purchase.getTotalAmount(),
+                purchaseDate,
+                purchase.getStatus().name(),
+                purchase.getCardLastFour(),
+                purchase.getCardHolderName()
+            );
+    }
+}
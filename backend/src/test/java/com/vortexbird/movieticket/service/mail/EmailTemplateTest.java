@@ -0,0 +1,127 @@
+package com.vortexbird.movieticket.service.mail;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EmailTemplate and its typed slots.
+ *
+ * Tests follow the AAA pattern:
+ * - Arrange: Setup test data
+ * - Act: Execute the method under test
+ * - Assert: Verify the results
+ */
+@DisplayName("EmailTemplate Tests")
+class EmailTemplateTest {
+
+    private record Model(String name, long count, double amount, LocalDateTime at) {
+    }
+
+    private static final Map<String, TemplateSlot<Model>> SLOTS = Map.of(
+            "name", TemplateSlot.text(Model::name),
+            "count", TemplateSlot.integer(Model::count),
+            "amount", TemplateSlot.money(Model::amount),
+            "at", TemplateSlot.dateTime(Model::at));
+
+    @Test
+    @DisplayName("Should fill every placeholder with its typed value")
+    void testRender() {
+        // Arrange
+        EmailTemplate<Model> template = EmailTemplate.compile("test",
+                "<p>{{name}}: {{ count }} x ${{amount}} el {{at}}</p>", SLOTS);
+        Model model = new Model("Ana", 3, 45000.5, LocalDateTime.of(2026, 3, 7, 9, 5));
+
+        // Act
+        String html = render(template, model);
+
+        // Assert
+        assertEquals("<p>Ana: 3 x $" + String.format("%,.2f", 45000.5) + " el 07/03/2026 09:05</p>", html);
+    }
+
+    @Test
+    @DisplayName("Should format money exactly like %,.2f")
+    void testMoney_MatchesStringFormat() {
+        // Arrange
+        EmailTemplate<Model> template = EmailTemplate.compile("money", "{{amount}}", SLOTS);
+        double[] amounts = {0, 0.005, 0.015, 1.005, 1.115, 2.675, 9.995, 999.999, 1000, 15000, 1234567.891,
+                -0.5, -1234.565, 0.125, 1e12 + 0.37, -0.001, 1e17 + 0.5};
+
+        for (double amount : amounts) {
+            // Act
+            String html = render(template, new Model(null, 0, amount, null));
+
+            // Assert
+            assertEquals(String.format("%,.2f", amount), html, "amount " + amount);
+        }
+    }
+
+    @Test
+    @DisplayName("Should escape HTML and encode text as UTF-8")
+    void testText_EscapedUtf8() {
+        // Arrange
+        EmailTemplate<Model> template = EmailTemplate.compile("text", "<b>{{name}}</b>", SLOTS);
+
+        // Act
+        String html = render(template, new Model("Tom & \"Jerry\" <3 'ñ' 🎬", 0, 0, null));
+
+        // Assert
+        assertEquals("<b>Tom &amp; &quot;Jerry&quot; &lt;3 &#39;ñ&#39; 🎬</b>", html);
+    }
+
+    @Test
+    @DisplayName("Should render null text and dates as nothing")
+    void testRender_Nulls() {
+        // Arrange
+        EmailTemplate<Model> template = EmailTemplate.compile("nulls", "[{{name}}|{{at}}|{{count}}]", SLOTS);
+
+        // Act
+        String html = render(template, new Model(null, -42, 0, null));
+
+        // Assert
+        assertEquals("[||-42]", html);
+    }
+
+    @Test
+    @DisplayName("Should reuse the buffer across renders")
+    void testRender_ReusesBuffer() {
+        // Arrange
+        EmailTemplate<Model> template = EmailTemplate.compile("reuse", "Hola {{name}}", SLOTS);
+        RenderBuffer buffer = new RenderBuffer(16);
+        template.render(new Model("una persona con un nombre bastante largo", 0, 0, null), buffer);
+
+        // Act
+        buffer.reset();
+        template.render(new Model("Ana", 0, 0, null), buffer);
+
+        // Assert
+        assertEquals("Hola Ana", new String(buffer.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should reject a placeholder with no slot")
+    void testCompile_UnknownPlaceholder() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> EmailTemplate.compile("bad", "Hola {{nmae}}", SLOTS));
+        assertTrue(exception.getMessage().contains("nmae"));
+    }
+
+    @Test
+    @DisplayName("Should reject an unterminated placeholder")
+    void testCompile_Unterminated() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("bad", "Hola {{name", SLOTS));
+    }
+
+    private static String render(EmailTemplate<Model> template, Model model) {
+        RenderBuffer buffer = new RenderBuffer();
+        template.render(model, buffer);
+        return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,62 @@
+package com.vortexbird.movieticket.service.mail;
+
+import com.vortexbird.movieticket.model.EmailType;
+import com.vortexbird.movieticket.model.PurchaseStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EmailTemplates.
+ *
+ * Tests follow the AAA pattern:
+ * - Arrange: Setup test data
+ * - Act: Execute the method under test
+ * - Assert: Verify the results
+ */
+@DisplayName("EmailTemplates Tests")
+class EmailTemplatesTest {
+
+    private final EmailTemplates templates = new EmailTemplates();
+
+    @ParameterizedTest
+    @EnumSource(EmailType.class)
+    @DisplayName("Should have a subject and a complete body for every email type")
+    void testRender_EveryType(EmailType type) {
+        // Act
+        String html = new String(templates.render(type, purchase()), StandardCharsets.UTF_8);
+
+        // Assert
+        assertFalse(templates.subject(type).isBlank());
+        assertTrue(html.startsWith("<!DOCTYPE html>"));
+        assertTrue(html.contains("TKT-ABC12345"));
+        assertTrue(html.contains("Avengers: Endgame"));
+        assertFalse(html.contains("{{"));
+    }
+
+    @Test
+    @DisplayName("Should render the purchase details of the confirmation")
+    void testRender_Confirmation() {
+        // Act
+        String html = new String(templates.render(EmailType.PURCHASE_CONFIRMATION, purchase()), StandardCharsets.UTF_8);
+
+        // Assert
+        assertTrue(html.contains("¡Hola John Doe!"));
+        assertTrue(html.contains("<td>2</td>"));
+        assertTrue(html.contains(String.format("$%,.2f COP", 15000.0)));
+        assertTrue(html.contains("<td>07/03/2026 19:30</td>"));
+        assertTrue(html.contains("**** **** **** 1234"));
+        assertTrue(html.contains("width: 100%;"));
+    }
+
+    private static PurchaseSnapshot purchase() {
+        return new PurchaseSnapshot(1L, "test@example.com", "John Doe", "Avengers: Endgame", 2, 15000.0, 30000.0,
+                LocalDateTime.of(2026, 3, 7, 19, 30), PurchaseStatus.CONFIRMED, "1234", "John Doe", "TKT-ABC12345");
+    }
+}
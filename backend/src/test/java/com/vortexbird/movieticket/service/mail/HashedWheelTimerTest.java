@@ -0,0 +1,120 @@
+package com.vortexbird.movieticket.service.mail;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HashedWheelTimer.
+ *
+ * Tests follow the AAA pattern:
+ * - Arrange: Setup test data
+ * - Act: Execute the method under test
+ * - Assert: Verify the results
+ */
+@DisplayName("HashedWheelTimer Tests")
+class HashedWheelTimerTest {
+
+    private HashedWheelTimer timer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        timer.destroy();
+    }
+
+    @Test
+    @DisplayName("Should run tasks on the wheel thread in deadline order, not before their delay")
+    void testSchedule_Order() throws Exception {
+        // Arrange
+        timer = new HashedWheelTimer("test-timer", Duration.ofMillis(10), 8);
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        AtomicReference<String> threadName = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(3);
+        long start = System.nanoTime();
+
+        // Act
+        timer.schedule(() -> { order.add(3); done.countDown(); }, Duration.ofMillis(150));
+        timer.schedule(() -> { order.add(1); threadName.set(Thread.currentThread().getName()); done.countDown(); },
+                Duration.ofMillis(20));
+        timer.schedule(() -> { order.add(2); done.countDown(); }, Duration.ofMillis(60));
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(List.of(1, 2, 3), order);
+        assertEquals("test-timer", threadName.get());
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(150));
+        assertEquals(0, timer.pending());
+    }
+
+    @Test
+    @DisplayName("Should run a task due after several turns of the wheel")
+    void testSchedule_SeveralRounds() throws Exception {
+        // Arrange - A turn of the wheel lasts 4 ticks of 10ms
+        timer = new HashedWheelTimer("test-timer", Duration.ofMillis(10), 4);
+        CountDownLatch done = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        // Act
+        timer.schedule(done::countDown, Duration.ofMillis(120));
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        // Assert
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(120));
+    }
+
+    @Test
+    @DisplayName("Should not run a cancelled task")
+    void testCancel() throws Exception {
+        // Arrange
+        timer = new HashedWheelTimer("test-timer", Duration.ofMillis(10), 8);
+        CountDownLatch cancelledRan = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        HashedWheelTimer.Timeout timeout = timer.schedule(cancelledRan::countDown, Duration.ofMillis(30));
+
+        // Act
+        boolean cancelled = timeout.cancel();
+        timer.schedule(done::countDown, Duration.ofMillis(60));
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        // Assert
+        assertTrue(cancelled);
+        assertFalse(timeout.cancel());
+        assertEquals(1, cancelledRan.getCount());
+        assertEquals(0, timer.pending());
+    }
+
+    @Test
+    @DisplayName("Should keep running tasks after one fails")
+    void testSchedule_FailingTask() throws Exception {
+        // Arrange
+        timer = new HashedWheelTimer("test-timer", Duration.ofMillis(10), 8);
+        CountDownLatch done = new CountDownLatch(1);
+
+        // Act
+        timer.schedule(() -> { throw new IllegalStateException("boom"); }, Duration.ofMillis(10));
+        timer.schedule(done::countDown, Duration.ofMillis(40));
+
+        // Assert
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should refuse tasks once stopped")
+    void testSchedule_Stopped() throws Exception {
+        // Arrange
+        timer = new HashedWheelTimer("test-timer", Duration.ofMillis(10), 8);
+        timer.destroy();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> timer.schedule(() -> { }, Duration.ZERO));
+    }
+}
@@ -0,0 +1,169 @@
+package com.vortexbird.movieticket.service.mail;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PooledJavaMailSender against a local GreenMail SMTP server.
+ *
+ * Tests follow the AAA pattern:
+ * - Arrange: Setup test data
+ * - Act: Execute the method under test
+ * - Assert: Verify the results
+ */
+@DisplayName("PooledJavaMailSender Tests")
+class PooledJavaMailSenderTest {
+
+    private static final int POOL_SIZE = 4;
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private EmailExecutor executor;
+    private PooledJavaMailSender sender;
+
+    @BeforeEach
+    void setUp() {
+        // Arrange: A pool pointed at GreenMail
+        executor = new EmailExecutor(POOL_SIZE, POOL_SIZE, 10, Duration.ofMinutes(1), EmailExecutor.Overflow.CALLER_RUNS);
+        sender = new PooledJavaMailSender(POOL_SIZE, Duration.ofMinutes(1), executor::execute);
+        sender.setHost("localhost");
+        sender.setPort(ServerSetupTest.SMTP.getPort());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        sender.destroy();
+        executor.destroy();
+    }
+
+    @Test
+    @DisplayName("Should deliver a batch over at most pool-size connections")
+    void testSend_Batch() throws Exception {
+        // Act
+        sender.send(messages(200));
+
+        // Assert
+        assertEquals(200, greenMail.getReceivedMessages().length);
+        assertTrue(sender.getConnectionsOpened() <= POOL_SIZE, "opened " + sender.getConnectionsOpened());
+    }
+
+    @Test
+    @DisplayName("Should reuse open connections across sends")
+    void testSend_ReusesConnections() throws Exception {
+        // Arrange
+        sender.send(messages(1));
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            sender.send(messages(1));
+        }
+
+        // Assert
+        assertEquals(21, greenMail.getReceivedMessages().length);
+        assertEquals(1, sender.getConnectionsOpened());
+    }
+
+    @Test
+    @DisplayName("Should reconnect when the server dropped the connection")
+    void testSend_Reconnects() throws Exception {
+        // Arrange
+        sender.send(messages(1));
+        greenMail.reset();
+
+        // Act
+        sender.send(messages(3));
+
+        // Assert
+        assertEquals(3, greenMail.getReceivedMessages().length);
+        assertEquals(2, sender.getConnectionsOpened());
+    }
+
+    @Test
+    @DisplayName("Should keep a batch under the rate limit across its parallel chunks")
+    void testSend_RateLimited() throws Exception {
+        // Arrange: 1 token up front, then 200 per second
+        sender.setRateLimiter(new TokenBucket(200, 1));
+        long start = System.nanoTime();
+
+        // Act
+        sender.send(messages(101));
+
+        // Assert: 100 refilled tokens take at least 500ms
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(101, greenMail.getReceivedMessages().length);
+        assertTrue(elapsedMs >= 490, "elapsed " + elapsedMs + "ms");
+    }
+
+    @Test
+    @DisplayName("Should report every message as failed when the server is down")
+    void testSend_ServerDown() throws Exception {
+        // Arrange
+        MimeMessage[] messages = messages(3);
+        greenMail.stop();
+
+        // Act
+        MailSendException exception = assertThrows(MailSendException.class, () -> sender.send(messages));
+
+        // Assert
+        assertEquals(3, exception.getFailedMessages().size());
+        assertTrue(exception.getFailedMessages().keySet().containsAll(Arrays.asList(messages)));
+        greenMail.start();
+    }
+
+    @Test
+    @DisplayName("Should report chunks the executor refuses as failed and still send the caller's chunk")
+    void testSend_ExecutorSpills() throws Exception {
+        // Arrange
+        PooledJavaMailSender spilling = new PooledJavaMailSender(POOL_SIZE, Duration.ofMinutes(1), task -> {
+            throw new EmailBackPressureException("Email executor saturated");
+        });
+        spilling.setHost("localhost");
+        spilling.setPort(ServerSetupTest.SMTP.getPort());
+        MimeMessage[] messages = messages(200);
+
+        // Act
+        MailSendException exception = assertThrows(MailSendException.class, () -> spilling.send(messages));
+
+        // Assert - The first of four chunks went out on the calling thread
+        assertEquals(50, greenMail.getReceivedMessages().length);
+        assertEquals(150, exception.getFailedMessages().size());
+        assertTrue(exception.getFailedMessages().values().stream().allMatch(EmailBackPressureException.class::isInstance));
+        spilling.destroy();
+    }
+
+    @Test
+    @DisplayName("Should reject an empty pool")
+    void testConstructor_InvalidPoolSize() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new PooledJavaMailSender(0, Duration.ofMinutes(1), Runnable::run));
+    }
+
+    private MimeMessage[] messages(int count) throws MessagingException {
+        MimeMessage[] messages = new MimeMessage[count];
+        for (int i = 0; i < count; i++) {
+            messages[i] = sender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(messages[i], false, "UTF-8");
+            helper.setFrom("noreply@movieticket.com");
+            helper.setTo("customer" + i + "@example.com");
+            helper.setSubject("Confirmación de Compra - Movie Ticket");
+            helper.setText("<p>Código: TKT-" + i + "</p>", true);
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,96 @@
+package com.vortexbird.movieticket.service.mail;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vortexbird.movieticket.model.Customer;
+import com.vortexbird.movieticket.model.Movie;
+import com.vortexbird.movieticket.model.PurchaseStatus;
+import com.vortexbird.movieticket.model.TicketPurchase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PurchaseSnapshot.
+ *
+ * Tests follow the AAA pattern:
+ * - Arrange: Setup test data
+ * - Act: Execute the method under test
+ * - Assert: Verify the results
+ */
+@DisplayName("PurchaseSnapshot Tests")
+class PurchaseSnapshotTest {
+
+    private TicketPurchase purchase;
+
+    @BeforeEach
+    void setUp() {
+        // Arrange: A purchase with its customer and movie loaded
+        Customer customer = new Customer();
+        customer.setEmail("test@example.com");
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        Movie movie = new Movie();
+        movie.setTitle("Avengers: Endgame");
+
+        purchase = new TicketPurchase();
+        purchase.setId(7L);
+        purchase.setCustomer(customer);
+        purchase.setMovie(movie);
+        purchase.setQuantity(2);
+        purchase.setUnitPrice(15000.0);
+        purchase.setTotalAmount(30000.0);
+        purchase.setStatus(PurchaseStatus.CONFIRMED);
+        purchase.setCardLastFour("1234");
+        purchase.setCardHolderName("John Doe");
+        purchase.setConfirmationCode("TKT-ABC12345");
+        purchase.setPurchaseDate(LocalDateTime.of(2026, 3, 7, 19, 30, 15, 123_456_789));
+    }
+
+    @Test
+    @DisplayName("Should copy the purchase, its customer and its movie")
+    void testOf() {
+        // Act
+        PurchaseSnapshot snapshot = PurchaseSnapshot.of(purchase);
+
+        // Assert
+        assertEquals(7L, snapshot.purchaseId());
+        assertEquals("test@example.com", snapshot.customerEmail());
+        assertEquals("John Doe", snapshot.customerName());
+        assertEquals("Avengers: Endgame", snapshot.movieTitle());
+        assertEquals(30000.0, snapshot.totalAmount());
+        assertEquals(PurchaseStatus.CONFIRMED, snapshot.status());
+    }
+
+    @Test
+    @DisplayName("Should not change when the purchase changes afterwards")
+    void testOf_Immutable() {
+        // Arrange
+        PurchaseSnapshot snapshot = PurchaseSnapshot.of(purchase);
+
+        // Act
+        purchase.setStatus(PurchaseStatus.CANCELLED);
+        purchase.getMovie().setTitle("Otra");
+
+        // Assert
+        assertEquals(PurchaseStatus.CONFIRMED, snapshot.status());
+        assertEquals("Avengers: Endgame", snapshot.movieTitle());
+    }
+
+    @Test
+    @DisplayName("Should survive a JSON round trip")
+    void testJsonRoundTrip() throws Exception {
+        // Arrange
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        PurchaseSnapshot snapshot = PurchaseSnapshot.of(purchase);
+
+        // Act
+        PurchaseSnapshot read = objectMapper.readValue(objectMapper.writeValueAsString(snapshot), PurchaseSnapshot.class);
+
+        // Assert
+        assertEquals(snapshot, read);
+    }
+}
@@ -0,0 +1,129 @@
+package com.vortexbird.movieticket.service.mail;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for messages per second sent to a local GreenMail SMTP
+ * server, comparing the stock sender sending one message per call (one
+ * connection each, as the email service used to) with the pooled sender
+ * sending whole batches. Run it with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.vortexbird.movieticket.service.mail.SmtpThroughputBenchmark
+ * </pre>
+ *
+ * GreenMail answers without TLS or authentication, so real servers widen the
+ * gap. The run fails when the pooled sender is not faster.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmtpThroughputBenchmark {
+
+    private static final int BATCH = 100;
+    private static final int PORT = 3125;
+
+    private GreenMail greenMail;
+    private JavaMailSenderImpl stockSender;
+    private EmailExecutor executor;
+    private PooledJavaMailSender pooledSender;
+    private MimeMessage[] messages;
+
+    @Setup
+    public void setUp() throws MessagingException {
+        greenMail = new GreenMail(new ServerSetup(PORT, "localhost", ServerSetup.PROTOCOL_SMTP));
+        greenMail.start();
+
+        stockSender = new JavaMailSenderImpl();
+        stockSender.setHost("localhost");
+        stockSender.setPort(PORT);
+        executor = new EmailExecutor(4, 4, 10, Duration.ofMinutes(1), EmailExecutor.Overflow.CALLER_RUNS);
+        pooledSender = new PooledJavaMailSender(4, Duration.ofMinutes(1), executor::execute);
+        pooledSender.setHost("localhost");
+        pooledSender.setPort(PORT);
+
+        // Roughly the size of a purchase confirmation
+        String body = "<p>Gracias por tu compra. Tu código de confirmación es TKT-0001.</p>".repeat(40);
+        messages = new MimeMessage[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            messages[i] = stockSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(messages[i], false, "UTF-8");
+            helper.setFrom("noreply@movieticket.com");
+            helper.setTo("customer" + i + "@example.com");
+            helper.setSubject("Confirmación de Compra - Movie Ticket");
+            helper.setText(body, true);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void purgeMailboxes() throws Exception {
+        greenMail.purgeEmailFromAllMailboxes();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        pooledSender.destroy();
+        executor.destroy();
+        greenMail.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void stockPerMessage() {
+        for (MimeMessage message : messages) {
+            stockSender.send(message);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void pooledBatch() {
+        pooledSender.send(messages);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Map<String, Double> perSecond = new HashMap<>();
+        for (RunResult result : new Runner(new OptionsBuilder()
+                .include(SmtpThroughputBenchmark.class.getSimpleName())
+                .build()).run()) {
+            perSecond.put(result.getParams().getBenchmark(), result.getPrimaryResult().getScore());
+        }
+        double stock = perSecond.get(SmtpThroughputBenchmark.class.getName() + ".stockPerMessage");
+        double pooled = perSecond.get(SmtpThroughputBenchmark.class.getName() + ".pooledBatch");
+        System.out.printf("Stock: %.0f messages/s, pooled: %.0f messages/s (%.1fx)%n", stock, pooled, pooled / stock);
+        if (pooled <= stock) {
+            throw new IllegalStateException("Pooled sender is not faster than one connection per message");
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.vortexbird.movieticket.service.mail;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TokenBucket.
+ *
+ * Tests follow the AAA pattern:
+ * - Arrange: Setup test data
+ * - Act: Execute the method under test
+ * - Assert: Verify the results
+ */
+@DisplayName("TokenBucket Tests")
+class TokenBucketTest {
+
+    @Test
+    @DisplayName("Should hand out a full burst without waiting")
+    void testAcquire_Burst() throws Exception {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(1, 20);
+        long start = System.nanoTime();
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            bucket.acquire();
+        }
+
+        // Assert
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+    }
+
+    @Test
+    @DisplayName("Should hold several threads together to the rate once the burst is spent")
+    void testAcquire_RateAcrossThreads() throws Exception {
+        // Arrange: 1 token up front, then 100 per second
+        TokenBucket bucket = new TokenBucket(100, 1);
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        long start = System.nanoTime();
+
+        // Act: 41 acquires need 40 refilled tokens, at least 400ms
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            done.add(threads.submit(() -> {
+                for (int i = 0; i < 10; i++) {
+                    bucket.acquire();
+                }
+                return null;
+            }));
+        }
+        bucket.acquire();
+        for (Future<?> future : done) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        threads.shutdown();
+
+        // Assert
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMs >= 390, "elapsed " + elapsedMs + "ms");
+    }
+
+    @Test
+    @DisplayName("Should reject a rate or burst that allows nothing")
+    void testConstructor_Invalid() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(10, 0));
+    }
+}
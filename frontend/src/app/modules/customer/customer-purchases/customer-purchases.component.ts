@@ -69,6 +69,8 @@ export class CustomerPurchasesComponent implements OnInit {
     switch (status) {
       case 'CONFIRMED':
         return 'badge bg-success';
+      case 'USED':
+        return 'badge bg-info';
       case 'CANCELLED':
         return 'badge bg-danger';
       case 'PENDING':
@@ -82,6 +84,8 @@ export class CustomerPurchasesComponent implements OnInit {
     switch (status) {
       case 'CONFIRMED':
         return 'Confirmada';
+      case 'USED':
+        return 'Utilizada';
       case 'CANCELLED':
         return 'Cancelada';
       case 'PENDING':
@@ -173,6 +173,7 @@ export class PurchaseManageComponent implements OnInit {
   getStatusBadgeClass(status: string): string {
     switch (status) {
       case 'CONFIRMED': return 'badge bg-success';
+      case 'USED': return 'badge bg-info';
       case 'PENDING': return 'badge bg-warning';
       case 'CANCELLED': return 'badge bg-danger';
       case 'REFUNDED': return 'badge bg-secondary';
@@ -183,6 +184,7 @@ export class PurchaseManageComponent implements OnInit {
   getStatusText(status: string): string {
     switch (status) {
       case 'CONFIRMED': return 'Confirmada';
+      case 'USED': return 'Utilizada';
       case 'PENDING': return 'Pendiente';
       case 'CANCELLED': return 'Cancelada';
       case 'REFUNDED': return 'Reembolsada';
@@ -20,6 +20,7 @@ export interface CreateTicketPurchase {
 export enum PurchaseStatus {
   PENDING = 'PENDING',
   CONFIRMED = 'CONFIRMED',
+  USED = 'USED',
   CANCELLED = 'CANCELLED',
   REFUNDED = 'REFUNDED'
 }
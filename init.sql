@@ -1,5 +1,12 @@
 -- Initial database setup for Movie Ticket System
 
+-- Create genres table
+CREATE TABLE IF NOT EXISTS genres (
+    id SERIAL PRIMARY KEY,
+    name VARCHAR(100) NOT NULL UNIQUE,
+    normalized_name VARCHAR(100) NOT NULL UNIQUE
+);
+
 -- Create movies table
 CREATE TABLE IF NOT EXISTS movies (
     id BIGSERIAL PRIMARY KEY,
@@ -8,8 +15,11 @@ CREATE TABLE IF NOT EXISTS movies (
     image_url VARCHAR(1000) NOT NULL,
     duration_minutes INTEGER NOT NULL,
     genre VARCHAR(100) NOT NULL,
+    genre_id INTEGER,
     price DOUBLE PRECISION NOT NULL,
-    is_enabled BOOLEAN DEFAULT true
+    is_enabled BOOLEAN DEFAULT true,
+    normalized_title VARCHAR(255),
+    CONSTRAINT fk_movie_genre FOREIGN KEY (genre_id) REFERENCES genres(id)
 );
 
 -- Create customers table
@@ -38,27 +48,88 @@ CREATE TABLE IF NOT EXISTS ticket_purchases (
     card_holder_name VARCHAR(200),
     purchase_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     confirmation_code VARCHAR(50) UNIQUE,
+    used_at TIMESTAMP,
     CONSTRAINT fk_purchase_customer FOREIGN KEY (customer_id) REFERENCES customers(id),
     CONSTRAINT fk_purchase_movie FOREIGN KEY (movie_id) REFERENCES movies(id)
 );
 
+-- Create idempotency_keys table (responses of requests sent with an Idempotency-Key)
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    response_body TEXT,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+-- Create email_outbox table (emails queued in the transaction of the change they announce)
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    type VARCHAR(40) NOT NULL,
+    purchase_id BIGINT NOT NULL,
+    payload TEXT,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    available_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    sent_at TIMESTAMP,
+    last_error VARCHAR(1000)
+);
+
+-- Create email_dead_letter table (outbox emails that exhausted their attempts, until re-driven)
+CREATE TABLE IF NOT EXISTS email_dead_letter (
+    id BIGSERIAL PRIMARY KEY,
+    outbox_id BIGINT NOT NULL,
+    type VARCHAR(40) NOT NULL,
+    purchase_id BIGINT NOT NULL,
+    payload TEXT,
+    attempts INTEGER NOT NULL,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL,
+    dead_at TIMESTAMP NOT NULL
+);
+
+-- Create email_bulk_job table (emails to every purchaser of a movie, fanned out into the outbox by chunks)
+CREATE TABLE IF NOT EXISTS email_bulk_job (
+    id BIGSERIAL PRIMARY KEY,
+    type VARCHAR(40) NOT NULL,
+    movie_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    last_purchase_id BIGINT NOT NULL DEFAULT 0,
+    queued BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    completed_at TIMESTAMP
+);
+
 -- Create indexes for better performance
 CREATE INDEX IF NOT EXISTS idx_customers_email ON customers(email);
 CREATE INDEX IF NOT EXISTS idx_customers_enabled ON customers(is_enabled);
 CREATE INDEX IF NOT EXISTS idx_customers_role ON customers(role);
-CREATE INDEX IF NOT EXISTS idx_purchases_customer ON ticket_purchases(customer_id);
-CREATE INDEX IF NOT EXISTS idx_purchases_movie ON ticket_purchases(movie_id);
+CREATE INDEX IF NOT EXISTS idx_purchases_customer_date ON ticket_purchases(customer_id, purchase_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_purchases_movie_date ON ticket_purchases(movie_id, purchase_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_purchases_movie_id ON ticket_purchases(movie_id, id);
 CREATE INDEX IF NOT EXISTS idx_purchases_confirmation ON ticket_purchases(confirmation_code);
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
+CREATE INDEX IF NOT EXISTS idx_email_outbox_due ON email_outbox(status, available_at);
+CREATE INDEX IF NOT EXISTS idx_email_dead_letter_type ON email_dead_letter(type, id);
+CREATE INDEX IF NOT EXISTS idx_email_bulk_job_status ON email_bulk_job(status, id);
 CREATE INDEX IF NOT EXISTS idx_movies_enabled ON movies(is_enabled);
-CREATE INDEX IF NOT EXISTS idx_movies_genre ON movies(genre);
+CREATE INDEX IF NOT EXISTS idx_movies_genre_id ON movies(genre_id, is_enabled);
+
+-- Insert genres
+INSERT INTO genres (name, normalized_name) VALUES
+('Acción', 'accion'),
+('Drama', 'drama'),
+('Ciencia Ficción', 'ciencia ficcion');
 
 -- Insert sample movies
-INSERT INTO movies (title, description, image_url, duration_minutes, genre, price, is_enabled) VALUES
-('Avengers: Endgame', 'Los Vengadores restantes deben encontrar una manera de recuperar a sus aliados para un enfrentamiento épico con Thanos.', 'https://image.tmdb.org/t/p/w500/or06FN3Dka5tukK1e9sl16pB3iy.jpg', 181, 'Acción', 15000, true),
-('El Padrino', 'El patriarca de una dinastía del crimen organizado transfiere el control de su imperio clandestino a su reacio hijo menor.', 'https://image.tmdb.org/t/p/w500/3bhkrj58Vtu7enYsRolD1fZdja1.jpg', 175, 'Drama', 12000, true),
-('Inception', 'Un ladrón que roba secretos corporativos a través del uso de la tecnología de compartir sueños.', 'https://image.tmdb.org/t/p/w500/qmDpIHrmpJINaRKAfWQfftjCdyi.jpg', 148, 'Ciencia Ficción', 14000, true),
-('The Dark Knight', 'Cuando la amenaza conocida como el Joker emerge de su misterioso pasado, causa estragos y caos en la gente de Gotham.', 'https://image.tmdb.org/t/p/w500/qJ2tW6WMUDux911r6m7haRef0WH.jpg', 152, 'Acción', 13500, true),
-('Pulp Fiction', 'Las vidas de dos sicarios de la mafia, un boxeador, la esposa de un gángster y dos bandidos se entrelazan en cuatro historias de violencia y redención.', 'https://image.tmdb.org/t/p/w500/d5iIlFn5s0ImszYzBPb8JPIfbXD.jpg', 154, 'Drama', 11000, true);
+INSERT INTO movies (title, description, image_url, duration_minutes, genre, genre_id, price, is_enabled, normalized_title) VALUES
+('Avengers: Endgame', 'Los Vengadores restantes deben encontrar una manera de recuperar a sus aliados para un enfrentamiento épico con Thanos.', 'https://image.tmdb.org/t/p/w500/or06FN3Dka5tukK1e9sl16pB3iy.jpg', 181, 'Acción', 1, 15000, true, 'avengers endgame'),
+('El Padrino', 'El patriarca de una dinastía del crimen organizado transfiere el control de su imperio clandestino a su reacio hijo menor.', 'https://image.tmdb.org/t/p/w500/3bhkrj58Vtu7enYsRolD1fZdja1.jpg', 175, 'Drama', 2, 12000, true, 'el padrino'),
+('Inception', 'Un ladrón que roba secretos corporativos a través del uso de la tecnología de compartir sueños.', 'https://image.tmdb.org/t/p/w500/qmDpIHrmpJINaRKAfWQfftjCdyi.jpg', 148, 'Ciencia Ficción', 3, 14000, true, 'inception'),
+('The Dark Knight', 'Cuando la amenaza conocida como el Joker emerge de su misterioso pasado, causa estragos y caos en la gente de Gotham.', 'https://image.tmdb.org/t/p/w500/qJ2tW6WMUDux911r6m7haRef0WH.jpg', 152, 'Acción', 1, 13500, true, 'the dark knight'),
+('Pulp Fiction', 'Las vidas de dos sicarios de la mafia, un boxeador, la esposa de un gángster y dos bandidos se entrelazan en cuatro historias de violencia y redención.', 'https://image.tmdb.org/t/p/w500/d5iIlFn5s0ImszYzBPb8JPIfbXD.jpg', 154, 'Drama', 2, 11000, true, 'pulp fiction');
 
 -- Insert sample customers (passwords are BCrypt hashed)
 -- Original passwords for testing:
@@ -90,3 +161,13 @@ INSERT INTO ticket_purchases (customer_id, movie_id, quantity, unit_price, total
 (4, 1, 2, 15000, 30000, 'CANCELLED', '9012', 'CARLOS LOPEZ', CURRENT_TIMESTAMP - INTERVAL '6 hours', 'CONF-006-2024'),
 -- Cliente Demo compra para Inception
 (2, 3, 1, 14000, 14000, 'CONFIRMED', '1234', 'CLIENTE DEMO', CURRENT_TIMESTAMP - INTERVAL '2 hours', 'CONF-007-2024');
+
+-- Hibernate allocates movie, customer, purchase, outbox, dead-letter and bulk job ids in blocks of 50 from
+-- these sequences (pooled optimizer), which lets it batch inserts. Applied
+-- after the sample data so the ids referenced above stay 1..n.
+ALTER SEQUENCE movies_id_seq INCREMENT BY 50;
+ALTER SEQUENCE customers_id_seq INCREMENT BY 50;
+ALTER SEQUENCE ticket_purchases_id_seq INCREMENT BY 50;
+ALTER SEQUENCE email_outbox_id_seq INCREMENT BY 50;
+ALTER SEQUENCE email_dead_letter_id_seq INCREMENT BY 50;
+ALTER SEQUENCE email_bulk_job_id_seq INCREMENT BY 50;